@@ -0,0 +1,78 @@
+package com.jvsnr.memory_monitoring_tool.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jvsnr.memory_monitoring_tool.dto.AllocationSiteDTO;
+import com.jvsnr.memory_monitoring_tool.store.AllocationCallTree;
+
+/**
+ * Recording a sampled stack into the allocation call tree, and serving a profile of
+ * {@code stacks} distinct stacks of 40 frames as top sites and as a flame graph.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocationCallTreeBenchmark {
+
+    private static final int DEPTH = 40;
+
+    @Param({"1000", "20000"})
+    public int stacks;
+
+    private int[][] paths;
+    private AllocationCallTree tree;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        tree = new AllocationCallTree(1_000_000);
+        Random random = new Random(42);
+        paths = new int[stacks][DEPTH + 1];
+        for (int s = 0; s < stacks; s++) {
+            for (int d = 0; d < DEPTH; d++) {
+                // Shared roots, diverging towards the allocation site
+                int frame = d < 10 ? d : random.nextInt(d < 30 ? 20 : 500);
+                paths[s][d] = tree.internFrame("com.example.module" + (frame % 50) + ".Service" + frame + ".call:" + d);
+            }
+            paths[s][DEPTH] = tree.internClass(random.nextBoolean() ? "[B" : "java/lang/String");
+            tree.record(paths[s], DEPTH + 1, 1024);
+        }
+    }
+
+    @Benchmark
+    public boolean record() {
+        int[] path = paths[next];
+        next = next + 1 == stacks ? 0 : next + 1;
+        return tree.record(path, DEPTH + 1, 1024);
+    }
+
+    @Benchmark
+    public List<AllocationSiteDTO> topSites() {
+        return tree.topSites(20);
+    }
+
+    @Benchmark
+    public int flameGraph() {
+        StringBuilder out = new StringBuilder();
+        tree.writeCollapsed(out, 0);
+        return out.length();
+    }
+
+}
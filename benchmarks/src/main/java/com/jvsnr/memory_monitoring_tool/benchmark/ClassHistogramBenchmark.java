@@ -0,0 +1,82 @@
+package com.jvsnr.memory_monitoring_tool.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jvsnr.memory_monitoring_tool.dto.ClassHistogramDiffDTO;
+import com.jvsnr.memory_monitoring_tool.store.ClassHistogramHistory;
+
+/**
+ * Parsing and diffing class histograms of a large application, against the cost of
+ * the heap walk that produces one for this JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassHistogramBenchmark {
+
+    @Param({"20000"})
+    public int classes;
+
+    private String[] histograms; // alternate, every seventh class grows
+    private ClassHistogramHistory history;
+    private long timestamp;
+    private MBeanServer mBeanServer;
+    private ObjectName diagnosticCommand;
+
+    @Setup
+    public void setUp() throws Exception {
+        histograms = new String[2];
+        for (int h = 0; h < histograms.length; h++) {
+            StringBuilder text = new StringBuilder(" num     #instances         #bytes  class name (module)\n")
+                .append("-------------------------------------------------------\n");
+            for (int i = 0; i < classes; i++) {
+                long instances = classes - i + (i % 7 == 0 ? h * i : 0);
+                text.append(String.format("%5d: %13d %14d  com.example.module%d.GeneratedClass%d (app@1.0)%n", i + 1,
+                    instances, 24L * instances, i % 50, i));
+            }
+            histograms[h] = text.append("Total 1 1\n").toString();
+        }
+        history = new ClassHistogramHistory(12);
+        for (int i = 0; i < 12; i++) {
+            record();
+        }
+        mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        diagnosticCommand = new ObjectName("com.sun.management:type=DiagnosticCommand");
+    }
+
+    @Benchmark
+    public int record() {
+        return history.record(histograms[(int) (timestamp & 1)], timestamp++);
+    }
+
+    @Benchmark
+    public ClassHistogramDiffDTO diff() {
+        return history.diff(history.size() - 2, history.size() - 1, 20, false);
+    }
+
+    @Benchmark
+    public Object gcClassHistogramAll() throws Exception {
+        return mBeanServer.invoke(diagnosticCommand, "gcClassHistogram", new Object[] { new String[] { "-all" } },
+            new String[] { String[].class.getName() });
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.jvsnr.memory_monitoring_tool.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jvsnr.memory_monitoring_tool.dto.FleetBatchDTO;
+import com.jvsnr.memory_monitoring_tool.dto.GcEventDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemoryHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.store.FleetState;
+
+/**
+ * Ingest and fleet-wide queries of the fleet aggregator; query cost should not grow with the fleet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleetStateBenchmark {
+
+    @Param({"100", "10000"})
+    public int instances;
+
+    private FleetState state;
+    private FleetBatchDTO[] batches;
+
+    @Setup
+    public void setUp() {
+        state = new FleetState(16);
+        batches = new FleetBatchDTO[instances];
+        for (int i = 0; i < instances; i++) {
+            batches[i] = batch("instance-" + i, ThreadLocalRandom.current().nextLong(1000), i % 50 == 0);
+            state.ingest(batches[i], 0L);
+        }
+    }
+
+    private static FleetBatchDTO batch(String instance, long heapUsed, boolean leak) {
+        MemoryHistoryDTO memory = new MemoryHistoryDTO();
+        memory.setTimestamps(new long[] { 1000L });
+        memory.setHeapMemoryUsed(new long[] { heapUsed });
+        memory.setHeapMemoryCommitted(new long[] { 1000L });
+        memory.setHeapMemoryMax(new long[] { 1000L });
+        memory.setNonHeapMemoryUsed(new long[] { 0L });
+        memory.setNonHeapMemoryCommitted(new long[] { 0L });
+        GcEventDTO gcEvent = new GcEventDTO();
+        gcEvent.setDuration(heapUsed / 20);
+
+        FleetBatchDTO batch = new FleetBatchDTO();
+        batch.setInstance(instance);
+        batch.setTo(5000L);
+        batch.setMemory(memory);
+        batch.setGcEvents(List.of(gcEvent));
+        batch.setMemoryLeakDetected(leak);
+        return batch;
+    }
+
+    @Benchmark
+    public int ingest() {
+        return state.ingest(batches[ThreadLocalRandom.current().nextInt(instances)], 0L);
+    }
+
+    @Benchmark
+    public Object topByUtilisation() {
+        return state.getTopByUtilisation(10);
+    }
+
+    @Benchmark
+    public Object leakSuspects() {
+        return state.getLeakSuspects();
+    }
+
+    @Benchmark
+    public Object gcOverheadOutliers() {
+        double[] meanAndStdDev = state.getGcOverheadMeanAndStdDev();
+        return state.getGcOverheadAbove(meanAndStdDev[0] + 3 * meanAndStdDev[1]);
+    }
+
+}
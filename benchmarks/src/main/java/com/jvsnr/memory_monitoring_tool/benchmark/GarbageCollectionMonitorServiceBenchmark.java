@@ -0,0 +1,64 @@
+package com.jvsnr.memory_monitoring_tool.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jvsnr.memory_monitoring_tool.service.GarbageCollectionMonitorService;
+
+/**
+ * GC metric aggregation against the platform collector beans, i.e. the work behind /gc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GarbageCollectionMonitorServiceBenchmark {
+
+    private GarbageCollectionMonitorService garbageCollectionMonitorService;
+
+    @Setup
+    public void setUp() {
+        garbageCollectionMonitorService = new GarbageCollectionMonitorService();
+        // Make sure every collector has reported at least one event
+        System.gc();
+    }
+
+    @TearDown
+    public void tearDown() {
+        garbageCollectionMonitorService.shutdown();
+    }
+
+    @Benchmark
+    public Object metricsByCollectionName() {
+        return garbageCollectionMonitorService.getGCMetricsByCollectionName();
+    }
+
+    @Benchmark
+    public long collectionCount() {
+        return garbageCollectionMonitorService.getGCCollectionCount();
+    }
+
+    @Benchmark
+    public String collectionTime() {
+        return garbageCollectionMonitorService.getGCCollectionTime();
+    }
+
+    @Benchmark
+    public Object lastGCInfo() {
+        return garbageCollectionMonitorService.getLastGCInfo();
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.jvsnr.memory_monitoring_tool.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jvsnr.memory_monitoring_tool.store.CompressedTimeSeries;
+import com.jvsnr.memory_monitoring_tool.store.GorillaChunk;
+
+/**
+ * Appending a heap sample to the compressed history, and decoding the latest hour of a
+ * day of 1s samples and a whole chunk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GorillaChunkBenchmark {
+
+    private static final int DAY = 86_400;
+    private static final int HOUR = 3_600;
+
+    private long[][] samples;
+    private CompressedTimeSeries day;
+    private CompressedTimeSeries appended;
+    private long timestamp;
+    private int next;
+    private final long[] timestamps = new long[HOUR];
+    private final long[][] values = new long[5][HOUR];
+
+    @Setup
+    public void setUp() {
+        // Sawtooth heap between collections, rarely changing committed and non-heap sizes
+        Random random = new Random(42);
+        samples = new long[DAY][];
+        long[] sample = {64L << 20, 256L << 20, 4L << 30, 80L << 20, 96L << 20};
+        for (int i = 0; i < DAY; i++) {
+            sample[0] = i % 60 == 0 ? 64L << 20 : sample[0] + (random.nextInt(512) << 10);
+            sample[3] += i % 100 == 0 ? 4096 : 0;
+            samples[i] = sample.clone();
+        }
+
+        day = new CompressedTimeSeries(5, 1024, DAY);
+        timestamp = 1_700_000_000_000L;
+        for (long[] values : samples) {
+            timestamp += random.nextInt(10) == 0 ? 1001 : 1000;
+            day.append(timestamp, values);
+        }
+        appended = new CompressedTimeSeries(5, 1024, DAY);
+    }
+
+    @Benchmark
+    public int append() {
+        timestamp += 1000;
+        appended.append(timestamp, samples[next]);
+        next = next + 1 == DAY ? 0 : next + 1;
+        return appended.size();
+    }
+
+    @Benchmark
+    public int copyLatestHour() {
+        return day.copyLatest(timestamps, values);
+    }
+
+    @Benchmark
+    public long decodeChunk() {
+        GorillaChunk chunk = new GorillaChunk(5);
+        long sum = 0;
+        for (int i = 0; i < 1024; i++) {
+            chunk.append(1000L * i, samples[i]);
+        }
+        GorillaChunk.Cursor cursor = chunk.cursor();
+        while (cursor.next()) {
+            sum += cursor.getValue(0);
+        }
+        return sum;
+    }
+
+}
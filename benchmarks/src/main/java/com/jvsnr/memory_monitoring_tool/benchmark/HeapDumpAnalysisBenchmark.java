@@ -0,0 +1,84 @@
+package com.jvsnr.memory_monitoring_tool.benchmark;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jvsnr.memory_monitoring_tool.store.HeapGraph;
+import com.jvsnr.memory_monitoring_tool.store.HprofFile;
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * Analysis of a live dump of the benchmark JVM holding a map of a million entries,
+ * parsing and dominator tree separately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class HeapDumpAnalysisBenchmark {
+
+    private static Map<Integer, String> retained;
+
+    private Path dump;
+    private HprofFile hprof;
+    private HeapGraph graph;
+
+    @Setup
+    public void setUp() throws IOException {
+        retained = new HashMap<>();
+        for (int i = 0; i < 1_000_000; i++) {
+            retained.put(i, "value-" + i);
+        }
+        dump = Files.createTempDirectory("heap-dump-benchmark").resolve("benchmark.hprof");
+        ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class).dumpHeap(dump.toString(), true);
+        hprof = HprofFile.open(dump);
+        graph = hprof.readHeapGraph();
+        System.out.printf("%n%d MB dump, %d segments, %d objects%n", Files.size(dump) >> 20,
+            hprof.getSegmentCount(), graph.getObjectCount());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        retained = null;
+        Files.deleteIfExists(dump);
+        Files.deleteIfExists(dump.getParent());
+    }
+
+    @Benchmark
+    public HeapGraph readHeapGraph() throws IOException {
+        return HprofFile.open(dump).readHeapGraph();
+    }
+
+    @Benchmark
+    public long computeDominators() throws IOException {
+        graph.computeDominators();
+        return graph.getReachableSize();
+    }
+
+    @Benchmark
+    public int analyse() throws IOException {
+        HeapGraph analysed = HprofFile.open(dump).readHeapGraph();
+        analysed.computeDominators();
+        return analysed.getClassSummary(100).size() + analysed.getLeakSuspects(0.1).size();
+    }
+
+}
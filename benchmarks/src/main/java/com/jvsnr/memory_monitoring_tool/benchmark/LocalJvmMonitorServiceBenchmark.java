@@ -0,0 +1,64 @@
+package com.jvsnr.memory_monitoring_tool.benchmark;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jvsnr.memory_monitoring_tool.service.GarbageCollectionMonitorService;
+import com.jvsnr.memory_monitoring_tool.service.LocalJvmMonitorService;
+
+/**
+ * Sampling a local JVM from its perf data file, here the benchmark JVM itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalJvmMonitorServiceBenchmark {
+
+    private GarbageCollectionMonitorService garbageCollectionMonitorService;
+    private LocalJvmMonitorService localJvmMonitorService;
+    private long pid;
+
+    @Setup
+    public void setUp() {
+        garbageCollectionMonitorService = new GarbageCollectionMonitorService();
+        localJvmMonitorService = new LocalJvmMonitorService(
+            Path.of(System.getProperty("java.io.tmpdir"), "hsperfdata_" + System.getProperty("user.name")),
+            garbageCollectionMonitorService);
+        localJvmMonitorService.discover();
+        pid = ProcessHandle.current().pid();
+        if (localJvmMonitorService.sampleMemory(pid) == null) {
+            throw new IllegalStateException("No perf data for " + pid);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        garbageCollectionMonitorService.shutdown();
+    }
+
+    @Benchmark
+    public Object sampleMemory() {
+        return localJvmMonitorService.sampleMemory(pid);
+    }
+
+    @Benchmark
+    public Object jvm() {
+        return localJvmMonitorService.getJvm(pid);
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.jvsnr.memory_monitoring_tool.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.jvsnr.memory_monitoring_tool.service.MemoryMonitorService;
+
+/**
+ * Memory getters against the platform MemoryMXBean, i.e. the work behind /memory-monitor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryMonitorServiceBenchmark {
+
+    private MemoryMonitorService memoryMonitorService;
+
+    @Setup
+    public void setUp() {
+        memoryMonitorService = new MemoryMonitorService();
+    }
+
+    @Benchmark
+    public Object sample() {
+        return memoryMonitorService.sample();
+    }
+
+    @Benchmark
+    public String heapMemoryUsageFormatted() {
+        return memoryMonitorService.getHeapMemoryUsage(true);
+    }
+
+    @Benchmark
+    public String heapMemoryUsageRaw() {
+        return memoryMonitorService.getHeapMemoryUsage(false);
+    }
+
+    @Benchmark
+    public String memoryUtilisation() {
+        return memoryMonitorService.getMemoryUtilisation();
+    }
+
+    /**
+     * The four formatted getters behind the former /memory-monitor/all, each reading the bean.
+     */
+    @Benchmark
+    public void allFormattedGetters(Blackhole blackhole) {
+        blackhole.consume(memoryMonitorService.getHeapMemoryUsage(true));
+        blackhole.consume(memoryMonitorService.getNonHeapMemoryUsage(true));
+        blackhole.consume(memoryMonitorService.getHeapMemoryMax(true));
+        blackhole.consume(memoryMonitorService.getHeapMemoryCommitted(true));
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.jvsnr.memory_monitoring_tool.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jvsnr.util.MemoryUtils;
+
+/**
+ * Formatting helpers called for every value of every scrape.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryUtilsBenchmark {
+
+    // One value per branch: B, KB, MB, GB
+    @Param({"512", "524288", "536870912", "549755813888"})
+    public long bytes;
+
+    public long time = 1736180000000L;
+
+    @Benchmark
+    public String formatBytes() {
+        return MemoryUtils.formatBytes(bytes);
+    }
+
+    @Benchmark
+    public String formatTime() {
+        return MemoryUtils.formatTime(bytes % 10000);
+    }
+
+    @Benchmark
+    public String formatDateTime() {
+        return MemoryUtils.formatDateTime(time);
+    }
+
+    @Benchmark
+    public float utilisation() {
+        return MemoryUtils.utilisation(bytes, 1099511627776L);
+    }
+
+}
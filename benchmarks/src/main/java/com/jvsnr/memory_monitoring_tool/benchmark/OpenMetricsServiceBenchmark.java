@@ -0,0 +1,76 @@
+package com.jvsnr.memory_monitoring_tool.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.service.GarbageCollectionMonitorService;
+import com.jvsnr.memory_monitoring_tool.service.MemoryLeakDetectorService;
+import com.jvsnr.memory_monitoring_tool.service.MemoryMonitorService;
+import com.jvsnr.memory_monitoring_tool.service.OpenMetricsService;
+
+/**
+ * The work behind /actuator/openmetrics: a scrape within the tick against one that encodes a new sample.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpenMetricsServiceBenchmark {
+
+    private GarbageCollectionMonitorService garbageCollectionMonitorService;
+    private MemoryMonitorService memoryMonitorService;
+    private OpenMetricsService openMetricsService;
+
+    @Setup
+    public void setUp() {
+        garbageCollectionMonitorService = new GarbageCollectionMonitorService();
+        memoryMonitorService = new MemoryMonitorService();
+        MemoryLeakDetectorService memoryLeakDetectorService = new MemoryLeakDetectorService(memoryMonitorService,
+            garbageCollectionMonitorService, 30, 0.8);
+        openMetricsService = new OpenMetricsService(memoryMonitorService, garbageCollectionMonitorService,
+            memoryLeakDetectorService, 10000L);
+        // Make sure every collector has reported at least one pause
+        System.gc();
+    }
+
+    @TearDown
+    public void tearDown() {
+        garbageCollectionMonitorService.shutdown();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] cachedScrape() {
+        return openMetricsService.scrape();
+    }
+
+    @Benchmark
+    public byte[] encodingScrape() {
+        // A new sample invalidates the cached payload
+        openMetricsService.onMemorySample(new MemorySampleDTO(System.currentTimeMillis(), 1L, 2L, 3L, 4L, 5L, -1L));
+        return openMetricsService.scrape();
+    }
+
+    @Benchmark
+    public Object jsonEquivalent() {
+        // What an exporter sidecar reads through /memory-monitor and /gc for the same metrics
+        return new Object[] { memoryMonitorService.sample(), garbageCollectionMonitorService.getGCMetricsByCollectionName(),
+            garbageCollectionMonitorService.getPauseHistograms(false) };
+    }
+
+}
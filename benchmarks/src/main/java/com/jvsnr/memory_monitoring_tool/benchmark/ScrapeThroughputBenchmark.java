@@ -0,0 +1,96 @@
+package com.jvsnr.memory_monitoring_tool.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import com.jvsnr.memory_monitoring_tool.MemoryMonitoringToolApplication;
+
+/**
+ * Requests per second of the whole application under a burst of concurrent scrapers,
+ * with Tomcat on platform threads and with the virtual-threads profile.
+ *
+ * Every operation fires {@code scrapers} concurrent requests against a scrape endpoint
+ * and waits for all of them, so the score multiplied by {@code scrapers} is the number
+ * of served scrapes per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class ScrapeThroughputBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean virtualThreads;
+
+    @Param({ "2000" })
+    public int scrapers;
+
+    @Param({ "/memory-monitor/sample", "/gc/metrics-by-coll-name" })
+    public String endpoint;
+
+    private ServletWebServerApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = (ServletWebServerApplicationContext) SpringApplication.run(MemoryMonitoringToolApplication.class,
+            "--server.port=0",
+            "--server.tomcat.max-connections=" + (scrapers * 2),
+            "--server.tomcat.accept-count=" + scrapers,
+            "--spring.threads.virtual.enabled=" + virtualThreads,
+            "--logging.level.root=warn");
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+            .executor(clientExecutor)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + context.getWebServer().getPort() + endpoint))
+            .timeout(Duration.ofSeconds(60))
+            .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        clientExecutor.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public int concurrentScrapes() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[scrapers];
+        for (int i = 0; i < scrapers; i++) {
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        }
+        CompletableFuture.allOf(responses).join();
+        return responses.length;
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.jvsnr.memory_monitoring_tool.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jvsnr.memory_monitoring_tool.store.ThreadAllocationTracker;
+
+/**
+ * One allocation tick: recording the tracker should not allocate, the batch MXBean
+ * reads are the cost of sampling this JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThreadAllocationTrackerBenchmark {
+
+    @Param({"200", "5000"})
+    public int threads;
+
+    private ThreadAllocationTracker tracker;
+    private long[] ids;
+    private long[] allocatedBytes;
+    private long nanoTime;
+    private long[] top;
+    private double[] topRates;
+    private long[] topAllocated;
+    private com.sun.management.ThreadMXBean threadMXBean;
+
+    @Setup
+    public void setUp() {
+        tracker = new ThreadAllocationTracker(10, threads);
+        ids = new long[threads];
+        allocatedBytes = new long[threads];
+        for (int i = 0; i < threads; i++) {
+            ids[i] = 1 + i * 7L;
+        }
+        for (int i = 0; i < 20; i++) {
+            record();
+        }
+        top = new long[10];
+        topRates = new double[10];
+        topAllocated = new long[10];
+        threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    @Benchmark
+    public int record() {
+        nanoTime += 1_000_000_000L;
+        for (int i = 0; i < threads; i++) {
+            allocatedBytes[i] += (i + 1) * 1024L;
+        }
+        tracker.record(ids, allocatedBytes, threads, nanoTime);
+        return tracker.size();
+    }
+
+    @Benchmark
+    public int top10() {
+        return tracker.top(10, top, topRates, topAllocated);
+    }
+
+    @Benchmark
+    public long[] readThreadAllocatedBytes() {
+        return threadMXBean.getThreadAllocatedBytes(threadMXBean.getAllThreadIds());
+    }
+
+}
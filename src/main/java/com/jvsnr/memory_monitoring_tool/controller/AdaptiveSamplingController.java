@@ -0,0 +1,26 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jvsnr.memory_monitoring_tool.service.AdaptiveSamplingService;
+
+@RestController
+@RequestMapping("/memory-leak")
+public class AdaptiveSamplingController {
+
+    private final AdaptiveSamplingService adaptiveSamplingService;
+
+    public AdaptiveSamplingController(AdaptiveSamplingService adaptiveSamplingService) {
+        this.adaptiveSamplingService = adaptiveSamplingService;
+    }
+
+    @GetMapping("/sampling")
+    public Map<String, Object> getSamplingStatus() {
+        return adaptiveSamplingService.getSamplingStatus();
+    }
+
+}
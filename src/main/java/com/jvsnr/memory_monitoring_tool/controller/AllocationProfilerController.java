@@ -0,0 +1,50 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jvsnr.memory_monitoring_tool.dto.AllocationSiteDTO;
+import com.jvsnr.memory_monitoring_tool.service.AllocationProfilerService;
+
+@RestController
+@RequestMapping("/allocation-profiler")
+@ConditionalOnProperty(name = "memory-monitor.allocation-profiler.enabled", havingValue = "true")
+public class AllocationProfilerController {
+
+    private final AllocationProfilerService allocationProfilerService;
+
+    public AllocationProfilerController(AllocationProfilerService allocationProfilerService) {
+        this.allocationProfilerService = allocationProfilerService;
+    }
+
+    @GetMapping("/top")
+    public List<AllocationSiteDTO> getTopSites(@RequestParam(defaultValue = "20") int limit) {
+        return allocationProfilerService.getTopSites(limit);
+    }
+
+    @GetMapping(value = "/flamegraph", produces = MediaType.TEXT_PLAIN_VALUE)
+    public String getFlameGraph(@RequestParam(defaultValue = "0") long minBytes) {
+        return allocationProfilerService.getFlameGraph(minBytes);
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> reset() {
+        allocationProfilerService.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return allocationProfilerService.getStats();
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jvsnr.memory_monitoring_tool.dto.BufferPoolDTO;
+import com.jvsnr.memory_monitoring_tool.service.BufferPoolMonitorService;
+
+@RestController
+@RequestMapping("/buffer-pools")
+public class BufferPoolController {
+
+    private final BufferPoolMonitorService bufferPoolMonitorService;
+
+    public BufferPoolController(BufferPoolMonitorService bufferPoolMonitorService) {
+        this.bufferPoolMonitorService = bufferPoolMonitorService;
+    }
+
+    @GetMapping
+    public List<BufferPoolDTO> getBufferPools() {
+        return bufferPoolMonitorService.getBufferPools();
+    }
+
+    @GetMapping("/leak-status")
+    public Map<String, Object> getLeakStatus() {
+        return bufferPoolMonitorService.getLeakDetectionStatus();
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jvsnr.memory_monitoring_tool.dto.ClassHistogramDTO;
+import com.jvsnr.memory_monitoring_tool.dto.ClassHistogramDiffDTO;
+import com.jvsnr.memory_monitoring_tool.service.ClassHistogramService;
+
+@RestController
+@RequestMapping("/class-histogram")
+@ConditionalOnProperty(name = "memory-monitor.class-histogram.enabled", havingValue = "true")
+public class ClassHistogramController {
+
+    private static final String SORT_BYTES = "bytes";
+    private static final String SORT_INSTANCES = "instances";
+
+    private final ClassHistogramService classHistogramService;
+
+    public ClassHistogramController(ClassHistogramService classHistogramService) {
+        this.classHistogramService = classHistogramService;
+    }
+
+    @GetMapping
+    public List<ClassHistogramDTO> getSnapshots() {
+        return classHistogramService.getSnapshots();
+    }
+
+    @PostMapping
+    public ResponseEntity<ClassHistogramDTO> capture() {
+        ClassHistogramDTO snapshot = classHistogramService.capture();
+        if (snapshot == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(snapshot);
+    }
+
+    @GetMapping("/diff")
+    public ResponseEntity<ClassHistogramDiffDTO> getDiff(@RequestParam(defaultValue = "2147483647") int intervals,
+            @RequestParam(defaultValue = "20") int limit, @RequestParam(defaultValue = SORT_BYTES) String sort) {
+        if (!SORT_BYTES.equals(sort) && !SORT_INSTANCES.equals(sort)) {
+            return ResponseEntity.badRequest().build();
+        }
+        ClassHistogramDiffDTO diff = classHistogramService.getDiff(intervals, limit, SORT_INSTANCES.equals(sort));
+        if (diff == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(diff);
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return classHistogramService.getStats();
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jvsnr.memory_monitoring_tool.dto.ContainerMemoryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.ContainerMemoryHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.service.ContainerMemoryService;
+
+@RestController
+@RequestMapping("/container-memory")
+public class ContainerMemoryController {
+
+    private final ContainerMemoryService containerMemoryService;
+
+    public ContainerMemoryController(ContainerMemoryService containerMemoryService) {
+        this.containerMemoryService = containerMemoryService;
+    }
+
+    @GetMapping
+    public ResponseEntity<ContainerMemoryDTO> getLatest() {
+        ContainerMemoryDTO latest = containerMemoryService.getLatest();
+        return latest == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(latest);
+    }
+
+    @GetMapping("/history")
+    public ContainerMemoryHistoryDTO getHistory(@RequestParam(defaultValue = "360") int limit) {
+        return containerMemoryService.getHistory(limit);
+    }
+
+    @GetMapping("/oom-risk")
+    public Map<String, Object> getOomRisk() {
+        return containerMemoryService.getOomRiskStatus();
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jvsnr.memory_monitoring_tool.dto.FleetBatchDTO;
+import com.jvsnr.memory_monitoring_tool.dto.FleetInstanceDTO;
+import com.jvsnr.memory_monitoring_tool.service.FleetAggregatorService;
+
+@RestController
+@RequestMapping("/fleet")
+@ConditionalOnProperty(name = "memory-monitor.fleet.enabled", havingValue = "true")
+public class FleetController {
+
+    private final FleetAggregatorService fleetAggregatorService;
+
+    public FleetController(FleetAggregatorService fleetAggregatorService) {
+        this.fleetAggregatorService = fleetAggregatorService;
+    }
+
+    @PostMapping("/ingest")
+    public ResponseEntity<Map<String, Object>> ingest(@RequestBody List<FleetBatchDTO> batches) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(Map.of("accepted", fleetAggregatorService.ingest(batches)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/top-heap")
+    public List<FleetInstanceDTO> getTopByHeapUtilisation(@RequestParam(defaultValue = "10") int limit) {
+        return fleetAggregatorService.getTopByHeapUtilisation(limit);
+    }
+
+    @GetMapping("/leak-suspects")
+    public List<FleetInstanceDTO> getLeakSuspects() {
+        return fleetAggregatorService.getLeakSuspects();
+    }
+
+    @GetMapping("/gc-outliers")
+    public Map<String, Object> getGcOverheadOutliers() {
+        return fleetAggregatorService.getGcOverheadOutliers();
+    }
+
+    @GetMapping("/instances/{instance}")
+    public ResponseEntity<FleetInstanceDTO> getInstance(@PathVariable String instance) {
+        FleetInstanceDTO state = fleetAggregatorService.getInstance(instance);
+        if (state == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(state);
+    }
+
+    @DeleteMapping("/instances/{instance}")
+    public ResponseEntity<Void> removeInstance(@PathVariable String instance) {
+        if (!fleetAggregatorService.removeInstance(instance)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return fleetAggregatorService.getStats();
+    }
+
+}
@@ -8,6 +8,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.jvsnr.memory_monitoring_tool.dto.GarbageCollectionMetricsDTO;
+import com.jvsnr.memory_monitoring_tool.dto.GcPauseHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.PauseHistogramDTO;
 import com.jvsnr.memory_monitoring_tool.service.GarbageCollectionMonitorService;
 
 @RestController
@@ -45,4 +47,19 @@ public class GarbageCollectorMonitorController {
         return garbageCollectionMonitorService.getGCMetricsByCollectionName();
     }
 
+    @GetMapping("/event-pipeline")
+    public Map<String, Long> getGCEventPipelineStats() {
+        return garbageCollectionMonitorService.getGCEventPipelineStats();
+    }
+
+    @GetMapping("/pause-histogram")
+    public Map<String, PauseHistogramDTO> getPauseHistograms(@RequestParam(defaultValue = "false") boolean interval) {
+        return garbageCollectionMonitorService.getPauseHistograms(interval);
+    }
+
+    @GetMapping("/pause-history")
+    public GcPauseHistoryDTO getPauseHistory(@RequestParam(defaultValue = "360") int limit) {
+        return garbageCollectionMonitorService.getPauseHistory(limit);
+    }
+
 }
@@ -0,0 +1,60 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jvsnr.memory_monitoring_tool.dto.HeapDumpAnalysisDTO;
+import com.jvsnr.memory_monitoring_tool.dto.HeapDumpDTO;
+import com.jvsnr.memory_monitoring_tool.service.HeapDumpService;
+
+@RestController
+@RequestMapping("/heap-dumps")
+@ConditionalOnProperty(name = "memory-monitor.heap-dump.enabled", havingValue = "true")
+public class HeapDumpController {
+
+    private final HeapDumpService heapDumpService;
+
+    public HeapDumpController(HeapDumpService heapDumpService) {
+        this.heapDumpService = heapDumpService;
+    }
+
+    @GetMapping
+    public List<HeapDumpDTO> getDumps() throws IOException {
+        return heapDumpService.getDumps();
+    }
+
+    @PostMapping
+    public ResponseEntity<HeapDumpDTO> capture(@RequestParam(defaultValue = "manual") String reason) {
+        HeapDumpDTO dump = heapDumpService.capture(reason);
+        if (dump == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(dump);
+    }
+
+    @GetMapping("/{name}/analysis")
+    public ResponseEntity<HeapDumpAnalysisDTO> getAnalysis(@PathVariable String name) throws IOException {
+        HeapDumpAnalysisDTO analysis = heapDumpService.getAnalysis(name);
+        if (analysis == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(analysis);
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return heapDumpService.getStats();
+    }
+
+}
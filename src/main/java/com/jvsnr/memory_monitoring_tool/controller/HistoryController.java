@@ -0,0 +1,55 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jvsnr.memory_monitoring_tool.dto.GcEventDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemoryHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.service.HistoryPersistenceService;
+
+@RestController
+@RequestMapping("/history")
+@ConditionalOnProperty(name = "memory-monitor.persistence.enabled", havingValue = "true")
+public class HistoryController {
+
+    private final HistoryPersistenceService historyPersistenceService;
+
+    public HistoryController(HistoryPersistenceService historyPersistenceService) {
+        this.historyPersistenceService = historyPersistenceService;
+    }
+
+    @GetMapping("/memory")
+    public MemoryHistoryDTO getMemoryHistory(@RequestParam(defaultValue = "0") long from,
+            @RequestParam(defaultValue = "" + Long.MAX_VALUE) long to,
+            @RequestParam(defaultValue = "10000") int limit) throws IOException {
+        return historyPersistenceService.getMemoryHistory(from, to, limit);
+    }
+
+    @GetMapping("/gc-events")
+    public List<GcEventDTO> getGcEvents(@RequestParam(defaultValue = "0") long from,
+            @RequestParam(defaultValue = "" + Long.MAX_VALUE) long to,
+            @RequestParam(defaultValue = "1000") int limit) throws IOException {
+        return historyPersistenceService.getGcEvents(from, to, limit);
+    }
+
+    @GetMapping("/segments")
+    public List<Map<String, Object>> getSegments() {
+        return historyPersistenceService.getSegments().stream()
+            .map(segment -> Map.<String, Object>of(
+                "id", segment.getId(),
+                "file", segment.getPath().getFileName().toString(),
+                "records", segment.getRecordCount(),
+                "bytes", segment.getWritePosition(),
+                "from", segment.getMinTimestamp(),
+                "to", segment.getMaxTimestamp()))
+            .toList();
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jvsnr.memory_monitoring_tool.dto.PauseHistogramDTO;
+import com.jvsnr.memory_monitoring_tool.service.JfrGcEventService;
+
+@RestController
+@RequestMapping("/gc/jfr")
+@ConditionalOnProperty(name = "memory-monitor.gc.source", havingValue = "jfr")
+public class JfrGcController {
+
+    private final JfrGcEventService jfrGcEventService;
+
+    public JfrGcController(JfrGcEventService jfrGcEventService) {
+        this.jfrGcEventService = jfrGcEventService;
+    }
+
+    @GetMapping("/phase-pauses")
+    public Map<String, PauseHistogramDTO> getPhasePauses(@RequestParam(defaultValue = "false") boolean interval) {
+        return jfrGcEventService.getPhasePauses(interval);
+    }
+
+    @GetMapping("/safepoints")
+    public Map<String, PauseHistogramDTO> getSafepoints(@RequestParam(defaultValue = "false") boolean interval) {
+        return jfrGcEventService.getSafepoints(interval);
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return jfrGcEventService.getStats();
+    }
+
+}
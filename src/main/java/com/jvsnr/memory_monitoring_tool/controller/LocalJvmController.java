@@ -0,0 +1,40 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jvsnr.memory_monitoring_tool.dto.LocalJvmDTO;
+import com.jvsnr.memory_monitoring_tool.service.LocalJvmMonitorService;
+
+@RestController
+@RequestMapping("/local-jvms")
+@ConditionalOnProperty(name = "memory-monitor.local-jvms.enabled", havingValue = "true")
+public class LocalJvmController {
+
+    private final LocalJvmMonitorService localJvmMonitorService;
+
+    public LocalJvmController(LocalJvmMonitorService localJvmMonitorService) {
+        this.localJvmMonitorService = localJvmMonitorService;
+    }
+
+    @GetMapping
+    public List<LocalJvmDTO> getJvms() {
+        return localJvmMonitorService.getJvms();
+    }
+
+    @GetMapping("/{pid}")
+    public ResponseEntity<LocalJvmDTO> getJvm(@PathVariable long pid) {
+        LocalJvmDTO jvm = localJvmMonitorService.getJvm(pid);
+        if (jvm == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(jvm);
+    }
+
+}
@@ -5,14 +5,18 @@ import java.util.Map;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.jvsnr.memory_monitoring_tool.dto.MemoryHistoryDTO;
 import com.jvsnr.memory_monitoring_tool.service.MemoryLeakDetectorService;
 
 @RestController
 @RequestMapping("/memory-leak")
 public class MemoryLeakController {
 
+    static final int MAX_HISTORY_LIMIT = 86400; // a day at 1s
+
     private final MemoryLeakDetectorService memoryLeakDetectorService;
     
     public MemoryLeakController(MemoryLeakDetectorService memoryLeakDetectorService) {
@@ -28,4 +32,14 @@ public class MemoryLeakController {
         return ResponseEntity.ok(status);
     }
 
+    @GetMapping("/history")
+    public MemoryHistoryDTO getMemoryHistory(@RequestParam(defaultValue = "360") int limit) {
+        return memoryLeakDetectorService.getMemoryHistory(Math.min(limit, MAX_HISTORY_LIMIT));
+    }
+
+    @GetMapping("/history/stats")
+    public Map<String, Long> getMemoryHistoryStats() {
+        return memoryLeakDetectorService.getHistoryStats();
+    }
+
 }
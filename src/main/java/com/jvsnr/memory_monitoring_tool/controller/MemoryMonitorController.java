@@ -1,20 +1,30 @@
 package com.jvsnr.memory_monitoring_tool.controller;
 
+import java.util.List;
+
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.jvsnr.memory_monitoring_tool.dto.MemoryMetricsDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.dto.ThreadAllocationDTO;
 import com.jvsnr.memory_monitoring_tool.service.MemoryMonitorService;
+import com.jvsnr.memory_monitoring_tool.service.ThreadAllocationService;
+import com.jvsnr.util.MemoryUtils;
 
 @RestController
 @RequestMapping("/memory-monitor")
 public class MemoryMonitorController {
     
     MemoryMonitorService memoryMonitorService;
+    ThreadAllocationService threadAllocationService;
 
-    public MemoryMonitorController(MemoryMonitorService memoryMonitorService) {
+    public MemoryMonitorController(MemoryMonitorService memoryMonitorService,
+            ThreadAllocationService threadAllocationService) {
         this.memoryMonitorService = memoryMonitorService;
+        this.threadAllocationService = threadAllocationService;
     }
 
     @GetMapping("/heap-memory")
@@ -54,13 +64,25 @@ public class MemoryMonitorController {
 
     @GetMapping("/all")
     public MemoryMetricsDTO getAllMetrics() {
+        // Formatted view of a single sample, so every value comes from the same read
+        MemorySampleDTO sample = memoryMonitorService.sample();
         MemoryMetricsDTO memoryMetricsDTO = new MemoryMetricsDTO();
-        memoryMetricsDTO.setHeapMemoryUsage(memoryMonitorService.getHeapMemoryUsage(true));
-        memoryMetricsDTO.setNonHeapMemoryUsage(memoryMonitorService.getNonHeapMemoryUsage(true));
-        memoryMetricsDTO.setHeapMemoryMax(memoryMonitorService.getHeapMemoryMax(true));
-        memoryMetricsDTO.setHeapMemoryCommitted(memoryMonitorService.getHeapMemoryCommitted(true));
-        memoryMetricsDTO.setMemoryUtilisation(memoryMonitorService.getMemoryUtilisation());
+        memoryMetricsDTO.setHeapMemoryUsage(MemoryUtils.formatBytes(sample.getHeapMemoryUsed()));
+        memoryMetricsDTO.setNonHeapMemoryUsage(MemoryUtils.formatBytes(sample.getNonHeapMemoryUsed()));
+        memoryMetricsDTO.setHeapMemoryMax(MemoryUtils.formatBytes(sample.getHeapMemoryMax()));
+        memoryMetricsDTO.setHeapMemoryCommitted(MemoryUtils.formatBytes(sample.getHeapMemoryCommitted()));
+        memoryMetricsDTO.setMemoryUtilisation(Double.toString(sample.getMemoryUtilisation()));
         return memoryMetricsDTO;
     }
+
+    @GetMapping("/sample")
+    public MemorySampleDTO getMemorySample() {
+        return memoryMonitorService.sample();
+    }
+
+    @GetMapping("/top-allocators")
+    public List<ThreadAllocationDTO> getTopAllocators(@RequestParam(defaultValue = "10") int limit) {
+        return threadAllocationService.getTopAllocators(limit);
+    }
    
 }
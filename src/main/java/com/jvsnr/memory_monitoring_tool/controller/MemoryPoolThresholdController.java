@@ -0,0 +1,29 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jvsnr.memory_monitoring_tool.dto.MemoryPoolThresholdDTO;
+import com.jvsnr.memory_monitoring_tool.service.MemoryPoolThresholdService;
+
+@RestController
+@RequestMapping("/memory-leak")
+@ConditionalOnProperty(name = "memory-monitor.pool-thresholds.enabled", havingValue = "true")
+public class MemoryPoolThresholdController {
+
+    private final MemoryPoolThresholdService memoryPoolThresholdService;
+
+    public MemoryPoolThresholdController(MemoryPoolThresholdService memoryPoolThresholdService) {
+        this.memoryPoolThresholdService = memoryPoolThresholdService;
+    }
+
+    @GetMapping("/pool-thresholds")
+    public List<MemoryPoolThresholdDTO> getPoolThresholds() {
+        return memoryPoolThresholdService.getThresholdStatus();
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jvsnr.memory_monitoring_tool.dto.ClassLoaderStatsDTO;
+import com.jvsnr.memory_monitoring_tool.service.MetaspaceMonitorService;
+
+@RestController
+@RequestMapping("/memory-leak")
+public class MetaspaceController {
+
+    private final MetaspaceMonitorService metaspaceMonitorService;
+
+    public MetaspaceController(MetaspaceMonitorService metaspaceMonitorService) {
+        this.metaspaceMonitorService = metaspaceMonitorService;
+    }
+
+    @GetMapping("/metaspace")
+    public Map<String, Object> getMetaspaceStatus() {
+        return metaspaceMonitorService.getLeakDetectionStatus();
+    }
+
+    @GetMapping("/class-loaders")
+    public ResponseEntity<List<ClassLoaderStatsDTO>> getClassLoaderStats() {
+        List<ClassLoaderStatsDTO> stats = metaspaceMonitorService.getClassLoaderStats();
+        if (stats == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+}
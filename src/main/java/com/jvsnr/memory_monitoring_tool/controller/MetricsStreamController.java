@@ -0,0 +1,33 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import java.util.Map;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.jvsnr.memory_monitoring_tool.service.MetricsStreamService;
+
+@RestController
+@RequestMapping("/stream")
+public class MetricsStreamController {
+
+    private final MetricsStreamService metricsStreamService;
+
+    public MetricsStreamController(MetricsStreamService metricsStreamService) {
+        this.metricsStreamService = metricsStreamService;
+    }
+
+    @GetMapping(path = "/metrics", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMetrics() {
+        return metricsStreamService.subscribe();
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Long> getStreamStats() {
+        return metricsStreamService.getStreamStats();
+    }
+
+}
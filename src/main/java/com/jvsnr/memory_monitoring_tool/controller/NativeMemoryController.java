@@ -0,0 +1,75 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jvsnr.memory_monitoring_tool.dto.NativeMemoryDiffDTO;
+import com.jvsnr.memory_monitoring_tool.dto.NativeMemorySnapshotDTO;
+import com.jvsnr.memory_monitoring_tool.service.NativeMemoryService;
+
+@RestController
+@RequestMapping("/native-memory")
+@ConditionalOnProperty(name = "memory-monitor.native-memory.enabled", havingValue = "true")
+public class NativeMemoryController {
+
+    private final NativeMemoryService nativeMemoryService;
+
+    public NativeMemoryController(NativeMemoryService nativeMemoryService) {
+        this.nativeMemoryService = nativeMemoryService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<NativeMemorySnapshotDTO>> getSeries(@RequestParam(required = false) String category) {
+        List<NativeMemorySnapshotDTO> series = nativeMemoryService.getSeries(category);
+        if (series == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(series);
+    }
+
+    @PostMapping
+    public ResponseEntity<NativeMemorySnapshotDTO> capture() {
+        return created(nativeMemoryService.capture());
+    }
+
+    @GetMapping("/categories")
+    public List<String> getCategories() {
+        return nativeMemoryService.getCategories();
+    }
+
+    @PostMapping("/baseline")
+    public ResponseEntity<NativeMemorySnapshotDTO> baseline() {
+        return created(nativeMemoryService.baseline());
+    }
+
+    private static ResponseEntity<NativeMemorySnapshotDTO> created(NativeMemorySnapshotDTO snapshot) {
+        if (snapshot == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(snapshot);
+    }
+
+    @GetMapping("/diff")
+    public ResponseEntity<NativeMemoryDiffDTO> getDiff() {
+        NativeMemoryDiffDTO diff = nativeMemoryService.getDiff();
+        if (diff == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(diff);
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return nativeMemoryService.getStats();
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.stereotype.Component;
+
+import com.jvsnr.memory_monitoring_tool.service.OpenMetricsService;
+
+/**
+ * Actuator endpoint serving the metrics in the OpenMetrics text format, {@code /actuator/openmetrics}.
+ *
+ * Only the OpenMetrics content type is produced: the payload keeps the {@code _total}
+ * suffix out of counter family names and ends with {@code # EOF}, which the Prometheus
+ * 0.0.4 text format does not accept.
+ */
+@Component
+@WebEndpoint(id = "openmetrics")
+public class OpenMetricsEndpoint {
+
+    public static final String CONTENT_TYPE = "application/openmetrics-text;version=1.0.0;charset=utf-8";
+
+    private final OpenMetricsService openMetricsService;
+
+    public OpenMetricsEndpoint(OpenMetricsService openMetricsService) {
+        this.openMetricsService = openMetricsService;
+    }
+
+    @ReadOperation(produces = CONTENT_TYPE)
+    public byte[] scrape() {
+        return openMetricsService.scrape();
+    }
+
+}
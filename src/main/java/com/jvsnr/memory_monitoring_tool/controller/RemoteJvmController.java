@@ -0,0 +1,67 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jvsnr.memory_monitoring_tool.dto.RemoteJvmStatusDTO;
+import com.jvsnr.memory_monitoring_tool.service.RemoteJvmMonitorService;
+
+@RestController
+@RequestMapping("/remote")
+@ConditionalOnProperty(name = "memory-monitor.remote.enabled", havingValue = "true")
+public class RemoteJvmController {
+
+    private final RemoteJvmMonitorService remoteJvmMonitorService;
+
+    public RemoteJvmController(RemoteJvmMonitorService remoteJvmMonitorService) {
+        this.remoteJvmMonitorService = remoteJvmMonitorService;
+    }
+
+    @GetMapping("/targets")
+    public List<RemoteJvmStatusDTO> getTargets() {
+        return remoteJvmMonitorService.getTargets();
+    }
+
+    @GetMapping("/targets/{name}")
+    public ResponseEntity<RemoteJvmStatusDTO> getTarget(@PathVariable String name) {
+        RemoteJvmStatusDTO status = remoteJvmMonitorService.getTarget(name);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    @PostMapping("/targets")
+    public ResponseEntity<RemoteJvmStatusDTO> addTarget(@RequestParam String name, @RequestParam String address) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(remoteJvmMonitorService.addTarget(name, address));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/targets/{name}")
+    public ResponseEntity<Void> removeTarget(@PathVariable String name) {
+        if (!remoteJvmMonitorService.removeTarget(name)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return remoteJvmMonitorService.getStats();
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class AllocationSiteDTO {
+
+    private String className;
+    private String site; // allocating frame as "class.method:line", null if the stack was empty
+    private long bytes; // estimated from the sample weights
+    private long samples;
+    private double percentage; // of all sampled bytes
+
+}
@@ -0,0 +1,20 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BufferPoolDTO {
+
+    private String name; // "direct" or "mapped", and "mapped - 'non-volatile memory'" on some JVMs
+    private long count; // buffers in the pool
+    private long memoryUsed; // bytes
+    private long totalCapacity; // bytes
+    private double growthSlopeBytesPerSecond; // of the total capacity over the regression window
+    private double growthConfidence; // R² of the slope
+    private long limit; // -XX:MaxDirectMemorySize for the direct pool, -1 if unlimited
+    private double usagePercentage; // total capacity in percent of the limit, -1 if unlimited
+    private long secondsToExhaustion; // at the current growth, -1 if not growing or unlimited
+
+}
@@ -0,0 +1,17 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ClassGrowthDTO {
+
+    private String className;
+    private long instances;
+    private long bytes;
+    private long instanceGrowth;
+    private long byteGrowth;
+    private int growingIntervals; // intervals in which the bytes of the class grew
+
+}
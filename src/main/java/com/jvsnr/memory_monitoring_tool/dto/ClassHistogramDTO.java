@@ -0,0 +1,15 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ClassHistogramDTO {
+
+    private long timestamp; // epoch millis
+    private int classes;
+    private long instances;
+    private long bytes;
+
+}
@@ -0,0 +1,17 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ClassHistogramDiffDTO {
+
+    private long from; // epoch millis of the earlier snapshot
+    private long to; // epoch millis of the later snapshot
+    private int intervals; // capture intervals between the two snapshots
+    private List<ClassGrowthDTO> classes; // highest growth first
+
+}
@@ -0,0 +1,19 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ClassLoaderStatsDTO {
+
+    private String type; // class of the loaders, e.g. "jdk.internal.loader.ClassLoaders$AppClassLoader"
+    private int loaders; // live loader instances of the type
+    private long classes;
+    private long hiddenClasses; // lambda forms, proxies and other hidden classes defined by the loaders
+    private long chunkBytes; // metaspace chunks allocated by the loaders
+    private long blockBytes; // metaspace blocks in use within the chunks
+    private int loaderGrowth; // since the previous request
+    private long classGrowth;
+
+}
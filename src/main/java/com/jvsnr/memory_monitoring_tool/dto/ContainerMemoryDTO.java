@@ -0,0 +1,31 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ContainerMemoryDTO {
+
+    private long timestamp; // epoch millis of the heap sample the values were read with
+    private long heapUsed;
+    private long heapCommitted;
+    private long nonHeapCommitted;
+    private long rss; // process resident set, -1 if unknown
+    private long rssHighWaterMark;
+    private long rssAnon;
+    private long rssFile;
+    private long rssOutsideJvmPools; // rss minus committed heap and non-heap: thread stacks, direct buffers, malloc
+    private boolean cgroupV2;
+    private long cgroupUsage; // -1 if there is no cgroup memory controller
+    private long cgroupWorkingSet; // usage without the inactive page cache
+    private long cgroupLimit; // -1 if unlimited or unknown
+    private long cgroupAnon;
+    private long cgroupFile;
+    private long cgroupShmem;
+    private double limitUsagePercentage; // working set in percent of the limit, -1 without a limit
+    private double pressureSome; // percent of the last 10 seconds, -1 if unknown
+    private double pressureFull;
+    private boolean oomRiskDetected;
+
+}
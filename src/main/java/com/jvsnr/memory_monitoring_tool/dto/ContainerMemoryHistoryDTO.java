@@ -0,0 +1,15 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ContainerMemoryHistoryDTO {
+    private long[] timestamps;
+    private long[] heapUsed;
+    private long[] heapCommitted;
+    private long[] rss;
+    private long[] cgroupWorkingSet;
+    private long[] cgroupLimit; // -1 if unlimited or unknown
+}
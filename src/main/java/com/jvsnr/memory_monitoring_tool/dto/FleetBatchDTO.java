@@ -0,0 +1,27 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Samples and GC events one instance pushes to the fleet aggregator in one go.
+ */
+@Getter
+@Setter
+public class FleetBatchDTO {
+
+    private String instance;
+    private long from; // epoch millis, end of the previous batch
+    private long to; // epoch millis, when the batch was cut
+    private MemoryHistoryDTO memory; // samples taken in the window, oldest first
+    private List<GcEventDTO> gcEvents; // GC events of the window, without pool usages
+
+    // Leak detector status of the instance when the batch was cut
+    private boolean memoryLeakDetected;
+    private boolean consistentGrowthDetected;
+    private double growthSlopeBytesPerSecond;
+    private double growthConfidence;
+
+}
@@ -0,0 +1,30 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class FleetInstanceDTO {
+
+    private String instance;
+    private long lastSeen; // epoch millis of the latest batch
+
+    private long heapMemoryUsed;
+    private long heapMemoryCommitted;
+    private long heapMemoryMax;
+    private long nonHeapMemoryUsed;
+    private double memoryUtilisation; // in percentage
+    private double gcOverhead; // in percentage of wall time, smoothed over batches
+    private long gcCount;
+    private long gcTime; // millis
+
+    private boolean memoryLeakDetected;
+    private boolean consistentGrowthDetected;
+    private double growthSlopeBytesPerSecond;
+    private double growthConfidence;
+
+    private long batches;
+    private long samples;
+
+}
@@ -0,0 +1,21 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class GcEventDTO {
+
+    private long startTime; // epoch millis
+    private long gcId;
+    private long duration; // millis
+    private String collectionName;
+    private String cause;
+    private String action;
+    private Map<String, Long> memoryUsedBeforeGc;
+    private Map<String, Long> memoryUsedAfterGc;
+
+}
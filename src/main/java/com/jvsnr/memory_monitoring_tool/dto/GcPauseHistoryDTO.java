@@ -0,0 +1,13 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class GcPauseHistoryDTO {
+    private long[] timestamps; // start of the collection, epoch millis
+    private long[] durations; // millis
+    private String[] collectionNames;
+    private String[] causes;
+}
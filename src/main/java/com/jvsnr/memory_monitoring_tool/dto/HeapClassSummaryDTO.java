@@ -0,0 +1,15 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class HeapClassSummaryDTO {
+
+    private String className;
+    private long instances;
+    private long shallowSize; // bytes
+    private long retainedSize; // bytes
+
+}
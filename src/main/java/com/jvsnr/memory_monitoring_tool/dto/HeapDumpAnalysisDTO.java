@@ -0,0 +1,21 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class HeapDumpAnalysisDTO {
+
+    private String name;
+    private long dumpedAt; // epoch millis
+    private long analysisTimeMs;
+    private int objects;
+    private int reachableObjects;
+    private long reachableSize; // bytes
+    private List<HeapClassSummaryDTO> classes; // highest retained size first
+    private List<LeakSuspectDTO> leakSuspects; // biggest first
+
+}
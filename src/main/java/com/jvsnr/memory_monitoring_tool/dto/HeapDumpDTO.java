@@ -0,0 +1,16 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class HeapDumpDTO {
+
+    private String name;
+    private long size; // bytes
+    private long createdAt; // epoch millis
+    private String reason; // null for dumps of an earlier run
+    private boolean analysed;
+
+}
@@ -0,0 +1,20 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class LeakSuspectDTO {
+
+    private long objectId;
+    private String className;
+    private long shallowSize; // bytes
+    private long retainedSize; // bytes
+    private double retainedPercentage; // of the reachable heap
+    private int dominatedObjects;
+    private List<String> dominatorPath; // classes from the GC roots down to the suspect
+
+}
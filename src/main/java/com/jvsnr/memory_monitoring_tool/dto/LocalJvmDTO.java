@@ -0,0 +1,19 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class LocalJvmDTO {
+
+    private long pid;
+    private String command;
+    private String vmName;
+    private long startTime; // epoch millis
+    private MemorySampleDTO memory;
+    private Map<String, GarbageCollectionMetricsDTO> gcMetrics;
+
+}
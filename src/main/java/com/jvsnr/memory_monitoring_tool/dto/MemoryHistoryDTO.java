@@ -0,0 +1,15 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class MemoryHistoryDTO {
+    private long[] timestamps;
+    private long[] heapMemoryUsed;
+    private long[] heapMemoryCommitted;
+    private long[] heapMemoryMax;
+    private long[] nonHeapMemoryUsed;
+    private long[] nonHeapMemoryCommitted;
+}
@@ -0,0 +1,19 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class MemoryPoolThresholdDTO {
+
+    private String poolName;
+    private long max;
+    private long used;
+    private long usageThreshold;
+    private long usageThresholdCount;
+    private long collectionUsageThreshold;
+    private long collectionUsageThresholdCount;
+    private long lastExceededTime; // epoch millis, 0 if never exceeded
+
+}
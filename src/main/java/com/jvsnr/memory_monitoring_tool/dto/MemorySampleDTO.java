@@ -0,0 +1,30 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import com.jvsnr.util.MemoryUtils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Heap and non heap usage captured by a single read of the memory MXBean, in raw bytes.
+ */
+@Getter
+@AllArgsConstructor
+public class MemorySampleDTO {
+
+    private final long timestamp;
+    private final long heapMemoryUsed;
+    private final long heapMemoryCommitted;
+    private final long heapMemoryMax;
+    private final long nonHeapMemoryUsed;
+    private final long nonHeapMemoryCommitted;
+    private final long nonHeapMemoryMax;
+
+    /**
+     * @return heap utilisation in percentage of the maximum heap size
+     */
+    public double getMemoryUtilisation() {
+        return MemoryUtils.utilisation(heapMemoryUsed, heapMemoryMax);
+    }
+
+}
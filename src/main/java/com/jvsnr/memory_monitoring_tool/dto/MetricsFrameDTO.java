@@ -0,0 +1,17 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class MetricsFrameDTO {
+
+    private long sequence;
+    private long timestamp; // epoch millis
+    private MemorySampleDTO memory;
+    private Map<String, GarbageCollectionMetricsDTO> gcMetrics;
+
+}
@@ -0,0 +1,18 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class NativeMemoryDiffDTO {
+
+    private long from; // epoch millis of the baseline or earlier snapshot
+    private long to; // epoch millis of the later snapshot
+    private long reservedGrowth; // of the total
+    private long committedGrowth;
+    private List<NativeMemoryGrowthDTO> categories; // highest committed growth first
+
+}
@@ -0,0 +1,16 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class NativeMemoryGrowthDTO {
+
+    private String category; // NMT category, e.g. "Thread" or "Class"
+    private long reserved; // bytes in the later snapshot
+    private long committed;
+    private long reservedGrowth;
+    private long committedGrowth;
+
+}
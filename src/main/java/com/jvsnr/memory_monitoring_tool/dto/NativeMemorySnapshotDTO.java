@@ -0,0 +1,15 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class NativeMemorySnapshotDTO {
+
+    private long timestamp; // epoch millis
+    private String category; // null for the total
+    private long reserved; // bytes
+    private long committed;
+
+}
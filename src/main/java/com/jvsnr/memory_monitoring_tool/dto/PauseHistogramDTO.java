@@ -0,0 +1,22 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class PauseHistogramDTO {
+
+    private String collectionName;
+    private long count;
+    private double minMs;
+    private double meanMs;
+    private double p50Ms;
+    private double p90Ms;
+    private double p99Ms;
+    private double p999Ms;
+    private double maxMs;
+    private long startTime; // epoch millis of the first covered instant
+    private long endTime; // epoch millis of the last covered instant
+
+}
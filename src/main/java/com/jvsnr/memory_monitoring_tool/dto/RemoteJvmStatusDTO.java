@@ -0,0 +1,39 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class RemoteJvmStatusDTO {
+
+    private String name;
+    private String url;
+    private boolean available; // whether the latest sample succeeded
+    private long lastSampleTime; // epoch millis, 0 if never sampled
+    private double lastLatencyMs;
+    private String lastError;
+
+    private long heapMemoryUsed;
+    private long heapMemoryCommitted;
+    private long heapMemoryMax;
+    private long nonHeapMemoryUsed;
+    private long nonHeapMemoryCommitted;
+    private float memoryUtilisation; // in percentage
+    private long gcCollectionCount;
+    private long gcCollectionTime; // millis
+
+    private double growthSlopeBytesPerSecond;
+    private double growthConfidence;
+    private String growthSource;
+    private boolean consistentGrowthDetected;
+    private boolean highGCFrequencyDetected;
+    private boolean poorReclamationDetected;
+    private boolean memoryLeakDetected;
+
+    private long samples;
+    private long failures;
+    private long timeouts;
+    private long skipped;
+
+}
@@ -0,0 +1,16 @@
+package com.jvsnr.memory_monitoring_tool.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ThreadAllocationDTO {
+
+    private long threadId;
+    private String threadName; // null if the thread terminated since the last tick
+    private double bytesPerSecond; // averaged over the sliding window
+    private String allocationRate;
+    private long allocatedBytes; // since the thread started
+
+}
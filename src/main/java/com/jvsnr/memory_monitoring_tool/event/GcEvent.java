@@ -0,0 +1,53 @@
+package com.jvsnr.memory_monitoring_tool.event;
+
+import lombok.Getter;
+
+/**
+ * Reusable, primitive-only view of one GC event drained from a {@link GcEventRingBuffer}.
+ *
+ * Collector, cause and action are codes: the collector is the index of the collector
+ * bean, cause and action are resolved through {@link GcEventCodes}. Pool usages are
+ * indexed like the pool names of the buffer owner and are -1 when not reported.
+ */
+public class GcEvent {
+
+    @Getter private int collector;
+    @Getter private int cause;
+    @Getter private int action;
+    @Getter private long gcId;
+    @Getter private long startTime; // epoch millis
+    @Getter private long duration; // millis
+
+    private final long[] poolUsedBefore;
+    private final long[] poolUsedAfter;
+
+    public GcEvent(int poolCount) {
+        this.poolUsedBefore = new long[poolCount];
+        this.poolUsedAfter = new long[poolCount];
+    }
+
+    void load(int collector, int cause, int action, long gcId, long startTime, long duration,
+            long[] usedBefore, long[] usedAfter, int poolOffset) {
+        this.collector = collector;
+        this.cause = cause;
+        this.action = action;
+        this.gcId = gcId;
+        this.startTime = startTime;
+        this.duration = duration;
+        System.arraycopy(usedBefore, poolOffset, poolUsedBefore, 0, poolUsedBefore.length);
+        System.arraycopy(usedAfter, poolOffset, poolUsedAfter, 0, poolUsedAfter.length);
+    }
+
+    public int getPoolCount() {
+        return poolUsedBefore.length;
+    }
+
+    public long getPoolUsedBefore(int pool) {
+        return poolUsedBefore[pool];
+    }
+
+    public long getPoolUsedAfter(int pool) {
+        return poolUsedAfter[pool];
+    }
+
+}
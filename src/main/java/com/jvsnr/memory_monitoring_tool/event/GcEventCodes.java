@@ -0,0 +1,54 @@
+package com.jvsnr.memory_monitoring_tool.event;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Dictionary of the strings carried by GC notifications (causes and actions).
+ *
+ * Lookups of already known strings do not allocate, so the notification thread can
+ * turn a cause or action into an int code; a string is only copied into the
+ * dictionary the first time it is seen.
+ */
+public class GcEventCodes {
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<String> names = new CopyOnWriteArrayList<>();
+
+    /**
+     * Get the code of a string, registering it on first sight.
+     *
+     * @param name the cause or action reported by the collector
+     * @return the code of the string, -1 for null
+     */
+    public int codeOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+        Integer code = codes.get(name);
+        if (code != null) {
+            return code;
+        }
+        return register(name);
+    }
+
+    /**
+     * @param code a code returned by {@link #codeOf(String)}
+     * @return the string for the code, null if unknown
+     */
+    public String nameOf(int code) {
+        return code >= 0 && code < names.size() ? names.get(code) : null;
+    }
+
+    private synchronized int register(String name) {
+        Integer code = codes.get(name);
+        if (code == null) {
+            names.add(name);
+            code = names.size() - 1;
+            codes.put(name, code);
+        }
+        return code;
+    }
+
+}
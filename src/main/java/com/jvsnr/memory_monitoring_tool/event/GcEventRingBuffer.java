@@ -0,0 +1,184 @@
+package com.jvsnr.memory_monitoring_tool.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free multi-producer, single-consumer ring buffer of GC events.
+ *
+ * Every event is stored as primitives in preallocated arrays. Producers claim a slot
+ * with a CAS on the producer sequence, fill it and publish it; when the buffer is full
+ * the event is dropped and counted instead of blocking the producer. The single
+ * consumer copies published slots into a reusable {@link GcEvent} and releases them.
+ *
+ * Producer usage:
+ * <pre>
+ * long sequence = buffer.tryClaim();
+ * if (sequence >= 0) {
+ *     buffer.setEvent(sequence, ...);
+ *     buffer.setPoolUsage(sequence, pool, before, after);
+ *     buffer.publish(sequence);
+ * }
+ * </pre>
+ */
+public class GcEventRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+    private final int poolCount;
+
+    private final int[] collectors;
+    private final int[] causes;
+    private final int[] actions;
+    private final long[] gcIds;
+    private final long[] startTimes;
+    private final long[] durations;
+    private final long[] poolUsedBefore;
+    private final long[] poolUsedAfter;
+
+    // Sequence written into a slot once it is fully written, -1 while never published
+    private final AtomicLongArray published;
+    private final AtomicLong producerSequence = new AtomicLong();
+    private volatile long consumerSequence;
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param capacity number of in-flight events, rounded up to the next power of two
+     * @param poolCount number of memory pools recorded per event
+     */
+    public GcEventRingBuffer(int capacity, int poolCount) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.poolCount = poolCount;
+
+        this.collectors = new int[this.capacity];
+        this.causes = new int[this.capacity];
+        this.actions = new int[this.capacity];
+        this.gcIds = new long[this.capacity];
+        this.startTimes = new long[this.capacity];
+        this.durations = new long[this.capacity];
+        this.poolUsedBefore = new long[this.capacity * poolCount];
+        this.poolUsedAfter = new long[this.capacity * poolCount];
+
+        this.published = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            published.set(i, -1L);
+        }
+    }
+
+    /**
+     * Claim the next slot.
+     *
+     * @return the sequence of the claimed slot, or -1 if the buffer is full and the
+     *         event has been dropped
+     */
+    public long tryClaim() {
+        while (true) {
+            long sequence = producerSequence.get();
+            if (sequence - consumerSequence >= capacity) {
+                dropped.increment();
+                return -1L;
+            }
+            if (producerSequence.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    public void setEvent(long sequence, int collector, int cause, int action, long gcId, long startTime, long duration) {
+        int slot = (int) (sequence & mask);
+        collectors[slot] = collector;
+        causes[slot] = cause;
+        actions[slot] = action;
+        gcIds[slot] = gcId;
+        startTimes[slot] = startTime;
+        durations[slot] = duration;
+        int base = slot * poolCount;
+        for (int pool = 0; pool < poolCount; pool++) {
+            poolUsedBefore[base + pool] = -1L;
+            poolUsedAfter[base + pool] = -1L;
+        }
+    }
+
+    public void setPoolUsage(long sequence, int pool, long usedBefore, long usedAfter) {
+        int index = (int) (sequence & mask) * poolCount + pool;
+        poolUsedBefore[index] = usedBefore;
+        poolUsedAfter[index] = usedAfter;
+    }
+
+    /**
+     * Make a claimed and written slot visible to the consumer.
+     */
+    public void publish(long sequence) {
+        published.lazySet((int) (sequence & mask), sequence);
+    }
+
+    /**
+     * Drain every published event in order. Must only be called by the consumer thread.
+     *
+     * The slot is released before the handler runs, so producers never wait on the
+     * handler; the event view is only valid for the duration of the callback.
+     *
+     * @param event reusable view the slots are copied into
+     * @param handler callback for every drained event
+     * @return the number of drained events
+     */
+    public int drain(GcEvent event, GcEventHandler handler) {
+        int count = 0;
+        long sequence = consumerSequence;
+        while (true) {
+            int slot = (int) (sequence & mask);
+            if (published.get(slot) != sequence) {
+                return count;
+            }
+
+            event.load(collectors[slot], causes[slot], actions[slot], gcIds[slot], startTimes[slot], durations[slot],
+                poolUsedBefore, poolUsedAfter, slot * poolCount);
+            consumerSequence = ++sequence;
+            handler.onGcEvent(event);
+            count++;
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int getPoolCount() {
+        return poolCount;
+    }
+
+    /**
+     * @return the number of events claimed by producers so far
+     */
+    public long getClaimedCount() {
+        return producerSequence.get();
+    }
+
+    /**
+     * @return the number of events released by the consumer so far
+     */
+    public long getConsumedCount() {
+        return consumerSequence;
+    }
+
+    /**
+     * @return the number of events dropped because the buffer was full
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Callback receiving drained events on the consumer thread.
+     */
+    @FunctionalInterface
+    public interface GcEventHandler {
+        void onGcEvent(GcEvent event);
+    }
+
+}
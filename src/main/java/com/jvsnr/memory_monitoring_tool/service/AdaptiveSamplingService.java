@@ -0,0 +1,208 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.event.GcEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Drives the leak detector with a sampling interval adapted to the memory pressure.
+ *
+ * After every sample the pressure is derived from the heap utilisation, the GC rate
+ * and the time until the heap would be exhausted at the current growth slope; the
+ * next interval is interpolated geometrically between the configured bounds, from
+ * the maximum at no pressure down to the minimum at full pressure. The interval
+ * shortens immediately but at most doubles per sample, so a short calm phase does
+ * not stop close monitoring.
+ *
+ * Samples run on a dedicated timer thread against absolute deadlines: a late run does
+ * not shift the following ones, and the lateness is tracked as jitter. The timer stays
+ * a platform thread in the virtual-threads profile: it is not shared with any other
+ * collector, and the synchronized analysis would pin a carrier thread anyway.
+ */
+@Service
+@Log4j2
+public class AdaptiveSamplingService implements MemorySampleListener, GcEventListener {
+
+    private static final float LOW_UTILISATION = 50.0f; // no pressure below, in percentage
+    private static final float HIGH_UTILISATION = 90.0f; // full pressure above, in percentage
+    private static final double HIGH_GC_RATE = 2.0; // GCs per second at full pressure
+    private static final double EXHAUSTION_HORIZON = 3600.0; // seconds until exhaustion at zero pressure
+
+    private final MemoryLeakDetectorService memoryLeakDetectorService;
+    private final long minInterval; // nanos
+    private final long maxInterval; // nanos
+    private final ScheduledExecutorService timer;
+    private final LongSupplier nanoClock;
+
+    private final LongAdder gcEvents = new LongAdder();
+    private long gcEventsAtLastSample;
+    private long lastSampleTime; // nanos
+    private long nextDeadline; // nanos
+    private volatile long currentInterval; // nanos
+    private volatile double pressure;
+    private volatile double utilisationPressure;
+    private volatile double gcPressure;
+    private volatile double growthPressure;
+    private volatile long lastLateness; // nanos
+    private volatile long maxLateness; // nanos
+    private final LongAdder samples = new LongAdder();
+
+    @Autowired
+    public AdaptiveSamplingService(MemoryLeakDetectorService memoryLeakDetectorService,
+            GarbageCollectionMonitorService garbageCollectionMonitorService,
+            @Value("${memory-monitor.sampling.min-interval-ms:250}") long minIntervalMillis,
+            @Value("${memory-monitor.sampling.max-interval-ms:10000}") long maxIntervalMillis) {
+        this(memoryLeakDetectorService, garbageCollectionMonitorService, minIntervalMillis, maxIntervalMillis,
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "adaptive-sampler");
+                thread.setDaemon(true);
+                return thread;
+            }), System::nanoTime);
+    }
+
+    AdaptiveSamplingService(MemoryLeakDetectorService memoryLeakDetectorService,
+            GarbageCollectionMonitorService garbageCollectionMonitorService,
+            long minIntervalMillis, long maxIntervalMillis, ScheduledExecutorService timer, LongSupplier nanoClock) {
+        if (minIntervalMillis <= 0 || maxIntervalMillis < minIntervalMillis) {
+            throw new IllegalArgumentException("Invalid sampling interval bounds: " + minIntervalMillis + ".." + maxIntervalMillis);
+        }
+        this.memoryLeakDetectorService = memoryLeakDetectorService;
+        this.minInterval = TimeUnit.MILLISECONDS.toNanos(minIntervalMillis);
+        this.maxInterval = TimeUnit.MILLISECONDS.toNanos(maxIntervalMillis);
+        this.timer = timer;
+        this.nanoClock = nanoClock;
+        this.currentInterval = maxInterval;
+
+        memoryLeakDetectorService.addMemorySampleListener(this);
+        garbageCollectionMonitorService.addGcEventListener(this);
+    }
+
+    @PostConstruct
+    public void start() {
+        lastSampleTime = nanoClock.getAsLong();
+        nextDeadline = lastSampleTime + currentInterval;
+        timer.schedule(this::sample, currentInterval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Take a sample and schedule the next one. Runs on the timer thread.
+     */
+    void sample() {
+        long now = nanoClock.getAsLong();
+        lastLateness = Math.max(0L, now - nextDeadline);
+        maxLateness = Math.max(maxLateness, lastLateness);
+        try {
+            memoryLeakDetectorService.analyseMemoryUsage();
+            samples.increment();
+        } catch (RuntimeException e) {
+            log.error("Memory sampling failed", e);
+        } finally {
+            nextDeadline += currentInterval;
+            long delay = nextDeadline - nanoClock.getAsLong();
+            if (delay < 0) {
+                // More than a whole interval behind, start over from now instead of bursting
+                nextDeadline = nanoClock.getAsLong() + currentInterval;
+                delay = currentInterval;
+            }
+            if (!timer.isShutdown()) {
+                timer.schedule(this::sample, delay, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Pick the next interval from the sample the detector just took.
+     */
+    @Override
+    public void onMemorySample(MemorySampleDTO sample) {
+        long now = nanoClock.getAsLong();
+        double elapsedSeconds = Math.max(1e-3, (now - lastSampleTime) / 1e9);
+        long gcCount = gcEvents.sum();
+        double gcRate = (gcCount - gcEventsAtLastSample) / elapsedSeconds;
+        gcEventsAtLastSample = gcCount;
+        lastSampleTime = now;
+
+        double timeToExhaustion = Double.POSITIVE_INFINITY;
+        double slope = memoryLeakDetectorService.getGrowthSlope();
+        if (slope > 0 && sample.getHeapMemoryMax() > 0) {
+            timeToExhaustion = (sample.getHeapMemoryMax() - sample.getHeapMemoryUsed()) / slope;
+        }
+
+        updateInterval(sample.getMemoryUtilisation(), gcRate, timeToExhaustion,
+            memoryLeakDetectorService.getGrowthConfidence());
+    }
+
+    @Override
+    public void onGcEvent(GcEvent event) {
+        gcEvents.increment();
+    }
+
+    /**
+     * Derive the pressure and the next interval.
+     *
+     * @param utilisation heap utilisation in percentage
+     * @param gcRate GCs per second since the previous sample
+     * @param timeToExhaustion seconds until the heap is full at the current growth slope
+     * @param growthConfidence confidence of the growth slope between 0 and 1
+     */
+    void updateInterval(double utilisation, double gcRate, double timeToExhaustion, double growthConfidence) {
+        utilisationPressure = clamp((utilisation - LOW_UTILISATION) / (HIGH_UTILISATION - LOW_UTILISATION));
+        gcPressure = clamp(gcRate / HIGH_GC_RATE);
+        growthPressure = clamp(1.0 - timeToExhaustion / EXHAUSTION_HORIZON) * clamp(growthConfidence);
+        pressure = Math.max(utilisationPressure, Math.max(gcPressure, growthPressure));
+
+        long target = (long) (maxInterval * Math.pow((double) minInterval / maxInterval, pressure));
+        long next = Math.min(target, currentInterval * 2);
+        currentInterval = Math.max(minInterval, Math.min(maxInterval, next));
+    }
+
+    private static double clamp(double value) {
+        if (Double.isNaN(value)) {
+            return 0.0;
+        }
+        return Math.max(0.0, Math.min(1.0, value));
+    }
+
+    /**
+     * Get the state of the sampler
+     *
+     * @return the current interval and its bounds in millis, the pressure and its
+     *         components, the number of samples and the sampling jitter in millis
+     */
+    public Map<String, Object> getSamplingStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("currentIntervalMs", TimeUnit.NANOSECONDS.toMillis(currentInterval));
+        status.put("minIntervalMs", TimeUnit.NANOSECONDS.toMillis(minInterval));
+        status.put("maxIntervalMs", TimeUnit.NANOSECONDS.toMillis(maxInterval));
+        status.put("samplesPerMinute", 60000.0 / TimeUnit.NANOSECONDS.toMillis(currentInterval));
+        status.put("pressure", pressure);
+        status.put("utilisationPressure", utilisationPressure);
+        status.put("gcPressure", gcPressure);
+        status.put("growthPressure", growthPressure);
+        status.put("samples", samples.sum());
+        status.put("lastLatenessMs", lastLateness / 1e6);
+        status.put("maxLatenessMs", maxLateness / 1e6);
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+}
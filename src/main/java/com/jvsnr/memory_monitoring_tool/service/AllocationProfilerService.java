@@ -0,0 +1,217 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.jvsnr.memory_monitoring_tool.dto.AllocationSiteDTO;
+import com.jvsnr.memory_monitoring_tool.store.AllocationCallTree;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Profiles allocation sites from the JFR {@code jdk.ObjectAllocationSample} events.
+ *
+ * JFR samples allocations at the configured {@code throttle}, e.g. {@code 100/s}, and
+ * weighs every sample with the bytes allocated since the previous one, so the sampled
+ * stacks add up to an estimate of all allocated bytes at a bounded cost. The stacks,
+ * cut to their top {@code stack-depth} frames, are aggregated into an
+ * {@link AllocationCallTree} of at most {@code max-nodes} nodes, served as the top
+ * allocation sites and as collapsed stacks for flame graphs.
+ *
+ * JFR shares a stack trace and a class between the events of one chunk, so their frame
+ * indices are cached by identity and a repeated stack costs no string building.
+ *
+ * Enabled with {@code memory-monitor.allocation-profiler.enabled=true}.
+ */
+@Service
+@Log4j2
+@ConditionalOnProperty(name = "memory-monitor.allocation-profiler.enabled", havingValue = "true")
+public class AllocationProfilerService {
+
+    static final String OBJECT_ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    static final int MAX_LIMIT = 1000;
+    private static final int MAX_CACHED = 4096;
+
+    private final String throttle;
+    private final int stackDepth;
+    private final AllocationCallTree tree;
+    private final int[] path; // root first, then the class
+
+    // Frame indices by JFR constant, only touched while holding the tree
+    private final Map<RecordedStackTrace, int[]> stackCache = new IdentityHashMap<>();
+    private final Map<RecordedClass, Integer> classCache = new IdentityHashMap<>();
+
+    private volatile RecordingStream stream;
+    private volatile long startTime;
+
+    public AllocationProfilerService(@Value("${memory-monitor.allocation-profiler.throttle:100/s}") String throttle,
+            @Value("${memory-monitor.allocation-profiler.stack-depth:64}") int stackDepth,
+            @Value("${memory-monitor.allocation-profiler.max-nodes:100000}") int maxNodes) {
+        this.throttle = throttle;
+        this.stackDepth = Math.max(1, stackDepth);
+        this.tree = new AllocationCallTree(Math.max(2, maxNodes));
+        this.path = new int[this.stackDepth + 1];
+    }
+
+    /**
+     * Start sampling allocations.
+     */
+    @PostConstruct
+    public void start() {
+        RecordingStream recording;
+        try {
+            recording = new RecordingStream();
+        } catch (RuntimeException e) {
+            log.error("JFR is not available, allocation profiling is disabled", e);
+            return;
+        }
+        recording.enable(OBJECT_ALLOCATION_SAMPLE).with("throttle", throttle);
+        recording.setOrdered(false);
+        recording.setReuse(true);
+        recording.setMaxAge(JfrGcEventService.MAX_AGE);
+        recording.onEvent(OBJECT_ALLOCATION_SAMPLE, this::onAllocationSample);
+        recording.startAsync();
+        this.startTime = System.currentTimeMillis();
+        this.stream = recording;
+        log.info("Sampling allocations at {}", throttle);
+    }
+
+    /**
+     * @return whether the recording stream runs
+     */
+    public boolean isRecording() {
+        return stream != null;
+    }
+
+    private void onAllocationSample(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        RecordedClass objectClass = event.getClass("objectClass");
+        long weight = event.getLong("weight");
+        synchronized (tree) {
+            int[] stack = stackTrace == null ? new int[0] : stackCache.get(stackTrace);
+            if (stack == null) {
+                List<RecordedFrame> frames = stackTrace.getFrames();
+                stack = new int[Math.min(frames.size(), stackDepth)];
+                for (int i = 0; i < stack.length; i++) {
+                    stack[stack.length - 1 - i] = tree.internFrame(frameName(frames.get(i)));
+                }
+                cache(stackCache, stackTrace, stack);
+            }
+            Integer classFrame = objectClass == null ? null : classCache.get(objectClass);
+            if (classFrame == null) {
+                classFrame = tree.internClass(objectClass == null ? null : objectClass.getName());
+                if (objectClass != null) {
+                    cache(classCache, objectClass, classFrame);
+                }
+            }
+            record(stack, classFrame, weight);
+        }
+    }
+
+    private static <K, V> void cache(Map<K, V> cache, K key, V value) {
+        if (cache.size() >= MAX_CACHED) {
+            cache.clear();
+        }
+        cache.put(key, value);
+    }
+
+    private static String frameName(RecordedFrame frame) {
+        String name = frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+        return frame.getLineNumber() > 0 ? name + ":" + frame.getLineNumber() : name;
+    }
+
+    /**
+     * Record a sample from frame names, top frame first.
+     */
+    void recordSample(List<String> frames, String className, long weight) {
+        synchronized (tree) {
+            int[] stack = new int[Math.min(frames.size(), stackDepth)];
+            for (int i = 0; i < stack.length; i++) {
+                stack[stack.length - 1 - i] = tree.internFrame(frames.get(i));
+            }
+            record(stack, tree.internClass(className), weight);
+        }
+    }
+
+    private void record(int[] stack, int classFrame, long weight) {
+        System.arraycopy(stack, 0, path, 0, stack.length);
+        path[stack.length] = classFrame;
+        tree.record(path, stack.length + 1, weight);
+    }
+
+    /**
+     * @param limit maximum number of sites
+     * @return the sites that allocated the most bytes since the start or the last reset
+     */
+    public List<AllocationSiteDTO> getTopSites(int limit) {
+        limit = Math.max(0, Math.min(limit, MAX_LIMIT));
+        synchronized (tree) {
+            return tree.topSites(limit);
+        }
+    }
+
+    /**
+     * @param minBytes stacks that allocated fewer bytes are left out
+     * @return the sampled stacks in collapsed format, weighted by bytes
+     */
+    public String getFlameGraph(long minBytes) {
+        StringBuilder collapsed = new StringBuilder();
+        synchronized (tree) {
+            tree.writeCollapsed(collapsed, minBytes);
+        }
+        return collapsed.toString();
+    }
+
+    /**
+     * Forget the sampled stacks and start a new profile.
+     */
+    public void reset() {
+        synchronized (tree) {
+            tree.clear();
+            stackCache.clear();
+            classCache.clear();
+            startTime = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * @return the size of the call tree and the sample counters since the start or the last reset
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("recording", isRecording());
+        stats.put("throttle", throttle);
+        stats.put("startTime", startTime);
+        synchronized (tree) {
+            stats.put("samples", tree.getSamples());
+            stats.put("bytes", tree.getTotalBytes());
+            stats.put("truncatedSamples", tree.getTruncatedSamples());
+            stats.put("nodes", tree.getNodeCount());
+            stats.put("maxNodes", tree.getMaxNodes());
+            stats.put("frames", tree.getFrameCount());
+            stats.put("cachedStacks", stackCache.size());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+}
@@ -0,0 +1,216 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.jvsnr.memory_monitoring_tool.dto.BufferPoolDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.store.SlidingLinearRegression;
+import com.jvsnr.util.MemoryUtils;
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Monitors the direct and mapped {@link BufferPoolMXBean}s, memory the heap and non-heap
+ * usage do not include.
+ *
+ * The pools are read on every sample of the {@link MemoryLeakDetectorService} and their
+ * total capacity is fed into one {@link SlidingLinearRegression} per pool. The direct pool
+ * is bounded by {@code -XX:MaxDirectMemorySize}, the heap maximum by default, and
+ * allocating beyond it throws {@code OutOfMemoryError: Direct buffer memory}. A direct
+ * memory leak is detected, like a heap leak, when the capacity grows consistently and
+ * either uses more than the usage threshold of the limit or reaches the limit within the
+ * exhaustion horizon at its current growth.
+ */
+@Service
+@Log4j2
+public class BufferPoolMonitorService implements MemorySampleListener {
+
+    static final String DIRECT_POOL = "direct";
+
+    private final List<BufferPoolMXBean> bufferPools;
+    private final long maxDirectMemory;
+    private final SlidingLinearRegression[] trends;
+    private final long[] counts;
+    private final long[] memoryUsed;
+    private final long[] totalCapacities;
+    private final int directPool;
+    private final double minGrowthConfidence;
+    private final int usageThresholdPercentage;
+    private final long exhaustionHorizonSeconds;
+
+    private boolean consistentGrowthDetected;
+    private boolean highUsageDetected;
+    private boolean exhaustionImminent;
+    private boolean directMemoryLeakDetected;
+    private LocalDateTime lastCheckTime;
+
+    @Autowired
+    public BufferPoolMonitorService(MemoryLeakDetectorService memoryLeakDetectorService,
+            @Value("${memory-monitor.leak.regression-window:30}") int regressionWindow,
+            @Value("${memory-monitor.leak.min-growth-confidence:0.8}") double minGrowthConfidence,
+            @Value("${memory-monitor.buffer-pools.usage-threshold-percentage:85}") int usageThresholdPercentage,
+            @Value("${memory-monitor.buffer-pools.exhaustion-horizon-seconds:600}") long exhaustionHorizonSeconds) {
+        this(memoryLeakDetectorService, ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class),
+            maxDirectMemory(), regressionWindow, minGrowthConfidence, usageThresholdPercentage,
+            exhaustionHorizonSeconds);
+    }
+
+    BufferPoolMonitorService(MemoryLeakDetectorService memoryLeakDetectorService, List<BufferPoolMXBean> bufferPools,
+            long maxDirectMemory, int regressionWindow, double minGrowthConfidence, int usageThresholdPercentage,
+            long exhaustionHorizonSeconds) {
+        this.bufferPools = List.copyOf(bufferPools);
+        this.maxDirectMemory = maxDirectMemory;
+        this.trends = new SlidingLinearRegression[this.bufferPools.size()];
+        this.counts = new long[this.bufferPools.size()];
+        this.memoryUsed = new long[this.bufferPools.size()];
+        this.totalCapacities = new long[this.bufferPools.size()];
+        int direct = -1;
+        for (int pool = 0; pool < trends.length; pool++) {
+            trends[pool] = new SlidingLinearRegression(regressionWindow);
+            if (DIRECT_POOL.equals(this.bufferPools.get(pool).getName())) {
+                direct = pool;
+            }
+        }
+        this.directPool = direct;
+        this.minGrowthConfidence = minGrowthConfidence;
+        this.usageThresholdPercentage = usageThresholdPercentage;
+        this.exhaustionHorizonSeconds = exhaustionHorizonSeconds;
+        memoryLeakDetectorService.addMemorySampleListener(this);
+    }
+
+    /**
+     * Read {@code -XX:MaxDirectMemorySize}; when it is not set the limit is the maximum heap size.
+     *
+     * @return the direct memory limit in bytes, or -1 if it cannot be determined
+     */
+    static long maxDirectMemory() {
+        try {
+            HotSpotDiagnosticMXBean diagnostic = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            long limit = Long.parseLong(diagnostic.getVMOption("MaxDirectMemorySize").getValue());
+            return limit > 0 ? limit : Runtime.getRuntime().maxMemory();
+        } catch (RuntimeException e) {
+            log.warn("Could not read MaxDirectMemorySize: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Read the buffer pools along with every memory sample and check the direct pool.
+     */
+    @Override
+    public synchronized void onMemorySample(MemorySampleDTO sample) {
+        for (int pool = 0; pool < trends.length; pool++) {
+            BufferPoolMXBean bufferPool = bufferPools.get(pool);
+            counts[pool] = bufferPool.getCount();
+            memoryUsed[pool] = bufferPool.getMemoryUsed();
+            totalCapacities[pool] = bufferPool.getTotalCapacity();
+            trends[pool].add(sample.getTimestamp(), totalCapacities[pool]);
+        }
+        lastCheckTime = LocalDateTime.now();
+        if (directPool >= 0) {
+            checkForDirectMemoryLeak();
+        }
+    }
+
+    private void checkForDirectMemoryLeak() {
+        SlidingLinearRegression trend = trends[directPool];
+        consistentGrowthDetected = trend.size() >= MemoryLeakDetectorService.SAMPLE_SIZE && trend.slope() > 0
+            && trend.confidence() >= minGrowthConfidence;
+        highUsageDetected = maxDirectMemory > 0
+            && totalCapacities[directPool] * 100.0 / maxDirectMemory > usageThresholdPercentage;
+        long secondsToExhaustion = secondsToExhaustion(directPool);
+        exhaustionImminent = consistentGrowthDetected && secondsToExhaustion >= 0
+            && secondsToExhaustion <= exhaustionHorizonSeconds;
+
+        boolean detected = consistentGrowthDetected && (highUsageDetected || exhaustionImminent);
+        if (detected && !directMemoryLeakDetected) {
+            log.warn("Potential direct memory leak detected: {} of {} direct buffer capacity, growing {}/s",
+                MemoryUtils.formatBytes(totalCapacities[directPool]), MemoryUtils.formatBytes(maxDirectMemory),
+                MemoryUtils.formatBytes((long) trend.slope()));
+        }
+        directMemoryLeakDetected = detected;
+    }
+
+    private long secondsToExhaustion(int pool) {
+        double slope = trends[pool].slope();
+        if (pool != directPool || maxDirectMemory <= 0 || slope <= 0) {
+            return -1;
+        }
+        return (long) (Math.max(0, maxDirectMemory - totalCapacities[pool]) / slope);
+    }
+
+    /**
+     * @return every buffer pool as of the latest sample, with its growth over the regression window
+     */
+    public synchronized List<BufferPoolDTO> getBufferPools() {
+        List<BufferPoolDTO> pools = new ArrayList<>(trends.length);
+        for (int pool = 0; pool < trends.length; pool++) {
+            BufferPoolDTO dto = new BufferPoolDTO();
+            dto.setName(bufferPools.get(pool).getName());
+            dto.setCount(counts[pool]);
+            dto.setMemoryUsed(memoryUsed[pool]);
+            dto.setTotalCapacity(totalCapacities[pool]);
+            dto.setGrowthSlopeBytesPerSecond(trends[pool].slope());
+            dto.setGrowthConfidence(trends[pool].confidence());
+            boolean limited = pool == directPool && maxDirectMemory > 0;
+            dto.setLimit(limited ? maxDirectMemory : -1);
+            dto.setUsagePercentage(limited ? totalCapacities[pool] * 100.0 / maxDirectMemory : -1);
+            dto.setSecondsToExhaustion(secondsToExhaustion(pool));
+            pools.add(dto);
+        }
+        return pools;
+    }
+
+    /**
+     * Returns the current status of the direct memory leak detection.
+     *
+     * @return a map containing the status of the direct memory leak detection
+     */
+    public synchronized Map<String, Object> getLeakDetectionStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("consistentGrowthDetected", consistentGrowthDetected);
+        status.put("highUsageDetected", highUsageDetected);
+        status.put("exhaustionImminent", exhaustionImminent);
+        status.put("directMemoryLeakDetected", directMemoryLeakDetected);
+        status.put("lastCheckTime", lastCheckTime != null ? lastCheckTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "No check performed yet.");
+        status.put("maxDirectMemory", maxDirectMemory > 0 ? MemoryUtils.formatBytes(maxDirectMemory) : "unknown");
+        if (directPool >= 0) {
+            status.put("directMemoryCapacity", MemoryUtils.formatBytes(totalCapacities[directPool]));
+            status.put("directBufferCount", counts[directPool]);
+            status.put("growthSlopeBytesPerSecond", trends[directPool].slope());
+            status.put("growthConfidence", trends[directPool].confidence());
+            status.put("secondsToExhaustion", secondsToExhaustion(directPool));
+            if (maxDirectMemory > 0) {
+                status.put("usagePercentage", String.format("%.2f", totalCapacities[directPool] * 100.0 / maxDirectMemory));
+            }
+        }
+        return status;
+    }
+
+    /**
+     * @return whether the latest sample found consistent direct memory growth together with high usage or imminent exhaustion
+     */
+    public synchronized boolean isDirectMemoryLeakDetected() {
+        return directMemoryLeakDetected;
+    }
+
+    /**
+     * @return the direct memory limit in bytes, or -1 if unknown
+     */
+    public long getMaxDirectMemory() {
+        return maxDirectMemory;
+    }
+
+}
@@ -0,0 +1,215 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.jvsnr.memory_monitoring_tool.dto.ClassHistogramDTO;
+import com.jvsnr.memory_monitoring_tool.dto.ClassHistogramDiffDTO;
+import com.jvsnr.memory_monitoring_tool.store.ClassHistogramHistory;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Captures class histograms through the {@code DiagnosticCommand} MBean and ranks the
+ * classes that grow between them, the cheap step between a growing heap and a heap dump.
+ *
+ * A histogram walks the whole heap at a safepoint; a live histogram runs a full GC first
+ * so it counts reachable objects only, which is what growth has to be measured on. The
+ * last {@code history} histograms are kept as primitive columns in a
+ * {@link ClassHistogramHistory}. While the leak detector reports a leak its status lists
+ * the classes that grew the most across the history. Scheduled captures run on a
+ * dedicated thread, never on the scheduler shared with the other collectors, and a
+ * capture still running skips the next one.
+ *
+ * Enabled with {@code memory-monitor.class-histogram.enabled=true}.
+ */
+@Service
+@Log4j2
+@ConditionalOnProperty(name = "memory-monitor.class-histogram.enabled", havingValue = "true")
+public class ClassHistogramService implements LeakStatusContributor {
+
+    static final String DIAGNOSTIC_COMMAND = "com.sun.management:type=DiagnosticCommand";
+    static final String OPERATION = "gcClassHistogram";
+    static final String STATUS_KEY = "growingClasses";
+    static final int MAX_LIMIT = 1000;
+    private static final String[] SIGNATURE = { String[].class.getName() };
+
+    private final MBeanServer mBeanServer;
+    private final ObjectName diagnosticCommand;
+    private final String[] arguments;
+    private final int leakStatusClasses;
+    private final LongSupplier clock;
+    private final Executor executor;
+    private final ClassHistogramHistory history;
+    private final AtomicBoolean sampling = new AtomicBoolean();
+
+    private final LongAdder captured = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    @Autowired
+    public ClassHistogramService(MemoryLeakDetectorService memoryLeakDetectorService,
+            @Value("${memory-monitor.class-histogram.history:12}") int historySize,
+            @Value("${memory-monitor.class-histogram.live:true}") boolean live,
+            @Value("${memory-monitor.class-histogram.leak-status-classes:10}") int leakStatusClasses)
+            throws MalformedObjectNameException {
+        this(memoryLeakDetectorService, ManagementFactory.getPlatformMBeanServer(), historySize, live,
+            leakStatusClasses, System::currentTimeMillis, Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "class-histogram");
+                thread.setDaemon(true);
+                return thread;
+            }));
+    }
+
+    ClassHistogramService(MemoryLeakDetectorService memoryLeakDetectorService, MBeanServer mBeanServer,
+            int historySize, boolean live, int leakStatusClasses, LongSupplier clock, Executor executor)
+            throws MalformedObjectNameException {
+        this.mBeanServer = mBeanServer;
+        this.diagnosticCommand = new ObjectName(DIAGNOSTIC_COMMAND);
+        this.arguments = live ? new String[0] : new String[] { "-all" };
+        this.leakStatusClasses = Math.max(0, Math.min(leakStatusClasses, MAX_LIMIT));
+        this.clock = clock;
+        this.executor = executor;
+        this.history = new ClassHistogramHistory(Math.max(2, historySize));
+        memoryLeakDetectorService.addLeakStatusContributor(this);
+    }
+
+    @Scheduled(fixedRateString = "${memory-monitor.class-histogram.interval-ms:600000}")
+    public void sample() {
+        if (!sampling.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                capture();
+            } finally {
+                sampling.set(false);
+            }
+        });
+    }
+
+    /**
+     * Capture a class histogram now. The heap walk runs outside of any lock.
+     *
+     * @return the summary of the histogram, or null if it failed
+     */
+    public ClassHistogramDTO capture() {
+        String histogram;
+        try {
+            histogram = (String) mBeanServer.invoke(diagnosticCommand, OPERATION, new Object[] { arguments },
+                SIGNATURE);
+        } catch (JMException | RuntimeException e) {
+            failures.increment();
+            log.error("Failed to capture a class histogram", e);
+            return null;
+        }
+        long now = clock.getAsLong();
+        synchronized (history) {
+            try {
+                history.record(histogram, now);
+            } catch (IllegalArgumentException e) {
+                failures.increment();
+                log.error("Failed to parse the class histogram: {}", e.getMessage());
+                return null;
+            }
+            captured.increment();
+            return toDTO(history.size() - 1);
+        }
+    }
+
+    private ClassHistogramDTO toDTO(int snapshot) {
+        ClassHistogramDTO dto = new ClassHistogramDTO();
+        dto.setTimestamp(history.getTimestamp(snapshot));
+        dto.setClasses(history.getClassCount(snapshot));
+        dto.setInstances(history.getTotalInstances(snapshot));
+        dto.setBytes(history.getTotalBytes(snapshot));
+        return dto;
+    }
+
+    /**
+     * @return the summaries of the kept histograms, oldest first
+     */
+    public List<ClassHistogramDTO> getSnapshots() {
+        synchronized (history) {
+            List<ClassHistogramDTO> snapshots = new ArrayList<>(history.size());
+            for (int snapshot = 0; snapshot < history.size(); snapshot++) {
+                snapshots.add(toDTO(snapshot));
+            }
+            return snapshots;
+        }
+    }
+
+    /**
+     * Rank the classes that grew from an earlier histogram to the latest one.
+     *
+     * @param intervals number of histograms to look back, capped at the kept history
+     * @param limit maximum number of classes
+     * @param byInstances rank by instance growth instead of byte growth
+     * @return the diff, or null with fewer than two histograms
+     */
+    public ClassHistogramDiffDTO getDiff(int intervals, int limit, boolean byInstances) {
+        limit = Math.max(0, Math.min(limit, MAX_LIMIT));
+        synchronized (history) {
+            if (history.size() < 2) {
+                return null;
+            }
+            int latest = history.size() - 1;
+            int from = Math.max(0, latest - Math.max(1, intervals));
+            return history.diff(from, latest, limit, byInstances);
+        }
+    }
+
+    /**
+     * Add the classes that grew the most in bytes across the whole history.
+     */
+    @Override
+    public void contributeLeakStatus(Map<String, Object> status) {
+        ClassHistogramDiffDTO diff = getDiff(Integer.MAX_VALUE, leakStatusClasses, false);
+        if (diff != null) {
+            status.put(STATUS_KEY, diff.getClasses());
+        }
+    }
+
+    /**
+     * @return capture counters and the size of the history
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("captured", captured.sum());
+        stats.put("failures", failures.sum());
+        synchronized (history) {
+            stats.put("snapshots", history.size());
+            stats.put("capacity", history.getCapacity());
+            stats.put("classNames", history.getClassNameCount());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+}
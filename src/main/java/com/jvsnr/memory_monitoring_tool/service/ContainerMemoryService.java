@@ -0,0 +1,208 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.jvsnr.memory_monitoring_tool.dto.ContainerMemoryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.ContainerMemoryHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.store.ContainerMemoryReader;
+import com.jvsnr.util.MemoryUtils;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Puts the heap next to the process resident set and the cgroup usage and limit, the
+ * numbers the kernel OOM killer acts on.
+ *
+ * On every sample of the {@link MemoryLeakDetectorService} the {@link ContainerMemoryReader}
+ * re-reads {@code /proc/self/status} and the cgroup memory files without allocating, and
+ * the heap, RSS and cgroup values are appended to a ring of primitive columns. An OOM
+ * kill is considered at risk when the cgroup working set reaches the warning percentage
+ * of the limit, or when all tasks of the cgroup stall on memory for more than the
+ * pressure warning share of the last 10 seconds.
+ */
+@Service
+@Log4j2
+public class ContainerMemoryService implements MemorySampleListener {
+
+    private final ContainerMemoryReader reader;
+    private final int oomWarningPercentage;
+    private final double pressureWarning;
+
+    // History, one column per value
+    private final int capacity;
+    private final long[] timestamps;
+    private final long[] heapUsed;
+    private final long[] heapCommitted;
+    private final long[] rss;
+    private final long[] workingSet;
+    private final long[] limit;
+    private long appended;
+
+    private MemorySampleDTO latestSample;
+    private double limitUsagePercentage = -1;
+    private boolean oomRiskDetected;
+    private LocalDateTime lastCheckTime;
+
+    @Autowired
+    public ContainerMemoryService(MemoryLeakDetectorService memoryLeakDetectorService,
+            @Value("${memory-monitor.container.history:3600}") int historySize,
+            @Value("${memory-monitor.container.oom-warning-percentage:90}") int oomWarningPercentage,
+            @Value("${memory-monitor.container.pressure-warning:10.0}") double pressureWarning) {
+        this(memoryLeakDetectorService, ContainerMemoryReader.open(), historySize, oomWarningPercentage,
+            pressureWarning);
+    }
+
+    ContainerMemoryService(MemoryLeakDetectorService memoryLeakDetectorService, ContainerMemoryReader reader,
+            int historySize, int oomWarningPercentage, double pressureWarning) {
+        this.reader = reader;
+        this.oomWarningPercentage = oomWarningPercentage;
+        this.pressureWarning = pressureWarning;
+        this.capacity = Math.max(1, historySize);
+        this.timestamps = new long[capacity];
+        this.heapUsed = new long[capacity];
+        this.heapCommitted = new long[capacity];
+        this.rss = new long[capacity];
+        this.workingSet = new long[capacity];
+        this.limit = new long[capacity];
+        if (!reader.isCgroupAvailable()) {
+            log.info("No cgroup memory controller found, only the process resident set is tracked");
+        }
+        memoryLeakDetectorService.addMemorySampleListener(this);
+    }
+
+    /**
+     * Read the process and cgroup memory along with every heap sample.
+     */
+    @Override
+    public synchronized void onMemorySample(MemorySampleDTO sample) {
+        reader.read();
+        long cgroupLimit = cgroupLimit();
+
+        int slot = (int) (appended % capacity);
+        timestamps[slot] = sample.getTimestamp();
+        heapUsed[slot] = sample.getHeapMemoryUsed();
+        heapCommitted[slot] = sample.getHeapMemoryCommitted();
+        rss[slot] = reader.getRss();
+        workingSet[slot] = reader.getCgroupWorkingSet();
+        limit[slot] = cgroupLimit;
+        appended++;
+
+        double limitUsage = cgroupLimit > 0 && reader.getCgroupWorkingSet() >= 0
+            ? reader.getCgroupWorkingSet() * 100.0 / cgroupLimit : -1;
+        boolean atRisk = limitUsage >= oomWarningPercentage || reader.getPressureFull() >= pressureWarning;
+        if (atRisk && !oomRiskDetected) {
+            log.warn("Container memory close to the OOM killer: working set {} of limit {}, RSS {}, heap {}, "
+                + "full memory pressure {}%", MemoryUtils.formatBytes(reader.getCgroupWorkingSet()),
+                cgroupLimit > 0 ? MemoryUtils.formatBytes(cgroupLimit) : "unlimited",
+                MemoryUtils.formatBytes(reader.getRss()), MemoryUtils.formatBytes(sample.getHeapMemoryUsed()),
+                reader.getPressureFull());
+        }
+        oomRiskDetected = atRisk;
+        limitUsagePercentage = limitUsage;
+        latestSample = sample;
+        lastCheckTime = LocalDateTime.now();
+    }
+
+    /**
+     * @return the cgroup memory limit in bytes, or -1 if unlimited or unknown
+     */
+    private long cgroupLimit() {
+        return reader.getCgroupLimit() == ContainerMemoryReader.UNLIMITED ? -1 : reader.getCgroupLimit();
+    }
+
+    /**
+     * @return heap, RSS and cgroup values of the latest sample, or null before the first sample
+     */
+    public synchronized ContainerMemoryDTO getLatest() {
+        if (latestSample == null) {
+            return null;
+        }
+        ContainerMemoryDTO dto = new ContainerMemoryDTO();
+        dto.setTimestamp(latestSample.getTimestamp());
+        dto.setHeapUsed(latestSample.getHeapMemoryUsed());
+        dto.setHeapCommitted(latestSample.getHeapMemoryCommitted());
+        dto.setNonHeapCommitted(latestSample.getNonHeapMemoryCommitted());
+        dto.setRss(reader.getRss());
+        dto.setRssHighWaterMark(reader.getRssHighWaterMark());
+        dto.setRssAnon(reader.getRssAnon());
+        dto.setRssFile(reader.getRssFile());
+        dto.setRssOutsideJvmPools(reader.getRss() < 0 ? -1
+            : reader.getRss() - latestSample.getHeapMemoryCommitted() - latestSample.getNonHeapMemoryCommitted());
+        dto.setCgroupV2(reader.isCgroupV2());
+        dto.setCgroupUsage(reader.getCgroupUsage());
+        dto.setCgroupWorkingSet(reader.getCgroupWorkingSet());
+        dto.setCgroupLimit(cgroupLimit());
+        dto.setCgroupAnon(reader.getCgroupAnon());
+        dto.setCgroupFile(reader.getCgroupFile());
+        dto.setCgroupShmem(reader.getCgroupShmem());
+        dto.setLimitUsagePercentage(limitUsagePercentage);
+        dto.setPressureSome(reader.getPressureSome());
+        dto.setPressureFull(reader.getPressureFull());
+        dto.setOomRiskDetected(oomRiskDetected);
+        return dto;
+    }
+
+    /**
+     * Returns the most recent samples, oldest first.
+     *
+     * @param limit the maximum number of samples to return
+     * @return heap, RSS and cgroup values as primitive columns
+     */
+    public synchronized ContainerMemoryHistoryDTO getHistory(int limit) {
+        int count = (int) Math.max(0, Math.min(limit, Math.min(appended, capacity)));
+        ContainerMemoryHistoryDTO history = new ContainerMemoryHistoryDTO();
+        history.setTimestamps(new long[count]);
+        history.setHeapUsed(new long[count]);
+        history.setHeapCommitted(new long[count]);
+        history.setRss(new long[count]);
+        history.setCgroupWorkingSet(new long[count]);
+        history.setCgroupLimit(new long[count]);
+        for (int i = 0; i < count; i++) {
+            int slot = (int) ((appended - count + i) % capacity);
+            history.getTimestamps()[i] = timestamps[slot];
+            history.getHeapUsed()[i] = heapUsed[slot];
+            history.getHeapCommitted()[i] = heapCommitted[slot];
+            history.getRss()[i] = rss[slot];
+            history.getCgroupWorkingSet()[i] = workingSet[slot];
+            history.getCgroupLimit()[i] = this.limit[slot];
+        }
+        return history;
+    }
+
+    /**
+     * Returns the current status of the OOM kill risk detection.
+     *
+     * @return a map containing the status of the OOM kill risk detection
+     */
+    public synchronized Map<String, Object> getOomRiskStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("oomRiskDetected", oomRiskDetected);
+        status.put("cgroupAvailable", reader.isCgroupAvailable());
+        status.put("lastCheckTime", lastCheckTime != null ? lastCheckTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "No check performed yet.");
+        status.put("oomWarningPercentage", oomWarningPercentage);
+        status.put("pressureWarning", pressureWarning);
+        if (latestSample != null) {
+            status.put("limitUsagePercentage", String.format("%.2f", limitUsagePercentage));
+            status.put("pressureFull", reader.getPressureFull());
+            status.put("rss", MemoryUtils.formatBytes(reader.getRss()));
+            status.put("cgroupWorkingSet", MemoryUtils.formatBytes(reader.getCgroupWorkingSet()));
+            status.put("cgroupLimit", cgroupLimit() > 0 ? MemoryUtils.formatBytes(cgroupLimit()) : "unlimited");
+        }
+        return status;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        reader.close();
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.jvsnr.memory_monitoring_tool.dto.FleetBatchDTO;
+import com.jvsnr.memory_monitoring_tool.dto.FleetInstanceDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemoryHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.store.FleetState;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Aggregates the batches pushed by the instances of a fleet and answers fleet-wide
+ * questions: which instances are closest to running out of heap, which ones the leak
+ * detector flags and which ones spend far more time in GC than the rest.
+ *
+ * The state lives in a {@link FleetState}; instances that stop pushing are forgotten
+ * after {@code memory-monitor.fleet.instance-ttl-ms}.
+ */
+@Service
+@Log4j2
+@ConditionalOnProperty(name = "memory-monitor.fleet.enabled", havingValue = "true")
+public class FleetAggregatorService {
+
+    static final int MAX_LIMIT = 1000;
+
+    private final FleetState state;
+    private final double outlierSigma;
+    private final double outlierMinOverhead;
+    private final long instanceTtl;
+    private final LongSupplier clock;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder gcEvents = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    @Autowired
+    public FleetAggregatorService(@Value("${memory-monitor.fleet.shards:16}") int shards,
+            @Value("${memory-monitor.fleet.gc-outlier-sigma:3.0}") double outlierSigma,
+            @Value("${memory-monitor.fleet.gc-outlier-min-overhead:5.0}") double outlierMinOverhead,
+            @Value("${memory-monitor.fleet.instance-ttl-ms:60000}") long instanceTtl) {
+        this(shards, outlierSigma, outlierMinOverhead, instanceTtl, System::currentTimeMillis);
+    }
+
+    FleetAggregatorService(int shards, double outlierSigma, double outlierMinOverhead, long instanceTtl,
+            LongSupplier clock) {
+        this.state = new FleetState(shards);
+        this.outlierSigma = outlierSigma;
+        this.outlierMinOverhead = outlierMinOverhead;
+        this.instanceTtl = instanceTtl;
+        this.clock = clock;
+    }
+
+    /**
+     * Apply pushed batches, one or many instances per call.
+     *
+     * @return the number of applied batches
+     * @throws IllegalArgumentException if a batch has no instance name or memory columns
+     *         shorter than its timestamps; the batches before it are applied
+     */
+    public int ingest(List<FleetBatchDTO> pushed) {
+        long now = clock.getAsLong();
+        int applied = 0;
+        for (FleetBatchDTO batch : pushed) {
+            if (batch.getInstance() == null || batch.getInstance().isBlank()) {
+                throw new IllegalArgumentException("Batch without instance name");
+            }
+            validateMemory(batch);
+            samples.add(state.ingest(batch, now));
+            gcEvents.add(batch.getGcEvents() != null ? batch.getGcEvents().size() : 0);
+            batches.increment();
+            applied++;
+        }
+        return applied;
+    }
+
+    private static void validateMemory(FleetBatchDTO batch) {
+        MemoryHistoryDTO memory = batch.getMemory();
+        if (memory == null || memory.getTimestamps() == null) {
+            return;
+        }
+        int samples = memory.getTimestamps().length;
+        long[][] columns = { memory.getHeapMemoryUsed(), memory.getHeapMemoryCommitted(),
+            memory.getHeapMemoryMax(), memory.getNonHeapMemoryUsed() };
+        for (long[] column : columns) {
+            if (column == null || column.length != samples) {
+                throw new IllegalArgumentException("Memory columns of " + batch.getInstance()
+                    + " do not match its " + samples + " timestamps");
+            }
+        }
+    }
+
+    /**
+     * @return the instances with the highest heap utilisation, highest first
+     */
+    public List<FleetInstanceDTO> getTopByHeapUtilisation(int limit) {
+        return state.getTopByUtilisation(Math.max(0, Math.min(limit, MAX_LIMIT)));
+    }
+
+    /**
+     * @return the instances whose leak detector reports a memory leak, fastest growing first
+     */
+    public List<FleetInstanceDTO> getLeakSuspects() {
+        return state.getLeakSuspects();
+    }
+
+    /**
+     * Find the instances whose GC overhead is more than {@code gc-outlier-sigma} standard
+     * deviations above the fleet mean and above {@code gc-outlier-min-overhead} percent.
+     *
+     * @return mean, standard deviation and threshold of the fleet and the outliers, highest first
+     */
+    public Map<String, Object> getGcOverheadOutliers() {
+        double[] meanAndStdDev = state.getGcOverheadMeanAndStdDev();
+        double threshold = Math.max(meanAndStdDev[0] + outlierSigma * meanAndStdDev[1], outlierMinOverhead);
+
+        Map<String, Object> outliers = new LinkedHashMap<>();
+        outliers.put("meanGcOverhead", meanAndStdDev[0]);
+        outliers.put("stdDevGcOverhead", meanAndStdDev[1]);
+        outliers.put("threshold", threshold);
+        outliers.put("outliers", state.getGcOverheadAbove(threshold));
+        return outliers;
+    }
+
+    /**
+     * @return the state of an instance, or null if it is unknown
+     */
+    public FleetInstanceDTO getInstance(String instance) {
+        return state.get(instance);
+    }
+
+    /**
+     * @return whether the instance was known
+     */
+    public boolean removeInstance(String instance) {
+        return state.remove(instance);
+    }
+
+    /**
+     * @return instance count and ingest counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("instances", state.size());
+        stats.put("shards", state.getShardCount());
+        stats.put("batches", batches.sum());
+        stats.put("samples", samples.sum());
+        stats.put("gcEvents", gcEvents.sum());
+        stats.put("evicted", evicted.sum());
+        return stats;
+    }
+
+    /**
+     * Forget the instances that did not push within the instance TTL.
+     */
+    @Scheduled(fixedDelayString = "${memory-monitor.fleet.eviction-interval-ms:10000}")
+    public void evictStaleInstances() {
+        int count = state.evictOlderThan(clock.getAsLong() - instanceTtl);
+        if (count > 0) {
+            evicted.add(count);
+            log.info("Forgot {} fleet instances that stopped pushing", count);
+        }
+    }
+
+}
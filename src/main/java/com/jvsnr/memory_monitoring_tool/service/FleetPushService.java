@@ -0,0 +1,238 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jvsnr.memory_monitoring_tool.dto.FleetBatchDTO;
+import com.jvsnr.memory_monitoring_tool.dto.GcEventDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemoryHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.event.GcEvent;
+import com.jvsnr.memory_monitoring_tool.store.MemoryTimeSeries;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Pushes the memory samples and GC events of this instance to a fleet aggregator.
+ *
+ * Samples are buffered in a {@link MemoryTimeSeries} and GC events in a bounded deque;
+ * once per interval everything taken since the previous push is sent as one batch
+ * together with the leak detector status. The request is sent asynchronously so the
+ * scheduler shared with the other collectors never waits for the aggregator, and no
+ * new batch is cut while the previous one is in flight. A failed push is not retried:
+ * the aggregator only keeps the latest state of an instance and the next batch brings
+ * it up to date. If the aggregator is slow, only the newest {@code max-batch-size}
+ * samples and events are kept.
+ *
+ * Enabled with {@code memory-monitor.fleet.push.enabled=true}.
+ */
+@Service
+@Log4j2
+@ConditionalOnProperty(name = "memory-monitor.fleet.push.enabled", havingValue = "true")
+public class FleetPushService implements MemorySampleListener, GcEventListener {
+
+    static final String INGEST_PATH = "/fleet/ingest";
+
+    private final MemoryLeakDetectorService memoryLeakDetectorService;
+    private final GarbageCollectionMonitorService garbageCollectionMonitorService;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI ingestUri;
+    private final String instance;
+    private final Duration timeout;
+    private final int maxBatchSize;
+
+    private final MemoryTimeSeries samples;
+    private final ArrayDeque<GcEventDTO> gcEvents;
+    private long pushedSamples; // append count of the samples at the previous push
+    private long lastPush;
+    private CompletableFuture<Void> inFlight = CompletableFuture.completedFuture(null);
+
+    private final LongAdder pushes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder droppedGcEvents = new LongAdder();
+    private final LongAdder skippedPushes = new LongAdder();
+
+    @Autowired
+    public FleetPushService(MemoryLeakDetectorService memoryLeakDetectorService,
+            GarbageCollectionMonitorService garbageCollectionMonitorService,
+            ObjectMapper objectMapper,
+            @Value("${memory-monitor.fleet.push.url}") String aggregatorUrl,
+            @Value("${memory-monitor.fleet.push.instance:}") String instance,
+            @Value("${memory-monitor.fleet.push.timeout-ms:2000}") long timeoutMillis,
+            @Value("${memory-monitor.fleet.push.max-batch-size:4096}") int maxBatchSize) {
+        this(memoryLeakDetectorService, garbageCollectionMonitorService, objectMapper,
+            HttpClient.newBuilder().connectTimeout(Duration.ofMillis(timeoutMillis)).build(),
+            aggregatorUrl, instance, timeoutMillis, maxBatchSize);
+    }
+
+    FleetPushService(MemoryLeakDetectorService memoryLeakDetectorService,
+            GarbageCollectionMonitorService garbageCollectionMonitorService,
+            ObjectMapper objectMapper, HttpClient httpClient, String aggregatorUrl, String instance,
+            long timeoutMillis, int maxBatchSize) {
+        this.memoryLeakDetectorService = memoryLeakDetectorService;
+        this.garbageCollectionMonitorService = garbageCollectionMonitorService;
+        this.objectMapper = objectMapper;
+        this.httpClient = httpClient;
+        this.ingestUri = URI.create(aggregatorUrl.replaceAll("/+$", "") + INGEST_PATH);
+        // pid@host, unique per instance without any configuration
+        this.instance = instance.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : instance;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.maxBatchSize = maxBatchSize;
+        this.samples = new MemoryTimeSeries(maxBatchSize);
+        this.gcEvents = new ArrayDeque<>(maxBatchSize);
+        this.lastPush = System.currentTimeMillis();
+        memoryLeakDetectorService.addMemorySampleListener(this);
+        garbageCollectionMonitorService.addGcEventListener(this);
+    }
+
+    public String getInstance() {
+        return instance;
+    }
+
+    @Override
+    public void onMemorySample(MemorySampleDTO sample) {
+        // Locked against the cut of a batch only, which copies at most max-batch-size samples
+        synchronized (samples) {
+            samples.append(sample.getTimestamp(), sample.getHeapMemoryUsed(), sample.getHeapMemoryCommitted(),
+                sample.getHeapMemoryMax(), sample.getNonHeapMemoryUsed(), sample.getNonHeapMemoryCommitted());
+        }
+    }
+
+    @Override
+    public void onGcEvent(GcEvent event) {
+        GcEventDTO gcEvent = new GcEventDTO();
+        gcEvent.setStartTime(event.getStartTime());
+        gcEvent.setGcId(event.getGcId());
+        gcEvent.setDuration(event.getDuration());
+        gcEvent.setCollectionName(garbageCollectionMonitorService.getCollectorName(event.getCollector()));
+        gcEvent.setCause(garbageCollectionMonitorService.getGCEventCodeName(event.getCause()));
+        gcEvent.setAction(garbageCollectionMonitorService.getGCEventCodeName(event.getAction()));
+        synchronized (gcEvents) {
+            if (gcEvents.size() >= maxBatchSize) {
+                gcEvents.removeFirst();
+                droppedGcEvents.increment();
+            }
+            gcEvents.addLast(gcEvent);
+        }
+    }
+
+    /**
+     * Send everything taken since the previous push to the aggregator, without waiting for it.
+     */
+    @Scheduled(fixedDelayString = "${memory-monitor.fleet.push.interval-ms:5000}")
+    public void push() {
+        pushAsync();
+    }
+
+    /**
+     * Cut a batch and send it, unless the previous push is still in flight: its samples and
+     * events then stay buffered for the next push.
+     *
+     * @return completes once the aggregator answered or the push failed
+     */
+    synchronized CompletableFuture<Void> pushAsync() {
+        if (!inFlight.isDone()) {
+            skippedPushes.increment();
+            return inFlight;
+        }
+        FleetBatchDTO batch = cutBatch(System.currentTimeMillis());
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(ingestUri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(List.of(batch))))
+                .build();
+        } catch (JsonProcessingException e) {
+            failures.increment();
+            log.error("Failed to encode fleet batch", e);
+            return inFlight;
+        }
+        inFlight = httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .handle((response, error) -> {
+                if (error != null) {
+                    failures.increment();
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                    log.warn("Failed to push batch to fleet aggregator {}: {}", ingestUri, cause.toString());
+                } else if (response.statusCode() / 100 != 2) {
+                    failures.increment();
+                    log.warn("Fleet aggregator {} rejected batch with status {}", ingestUri, response.statusCode());
+                } else {
+                    pushes.increment();
+                }
+                return null;
+            });
+        return inFlight;
+    }
+
+    FleetBatchDTO cutBatch(long now) {
+        MemoryHistoryDTO memory = new MemoryHistoryDTO();
+        synchronized (samples) {
+            long appended = samples.getAppendCount();
+            int count = (int) Math.min(appended - pushedSamples, samples.capacity());
+            pushedSamples = appended;
+
+            memory.setTimestamps(new long[count]);
+            memory.setHeapMemoryUsed(new long[count]);
+            memory.setHeapMemoryCommitted(new long[count]);
+            memory.setHeapMemoryMax(new long[count]);
+            memory.setNonHeapMemoryUsed(new long[count]);
+            memory.setNonHeapMemoryCommitted(new long[count]);
+            samples.copyLatest(memory.getTimestamps(), memory.getHeapMemoryUsed(), memory.getHeapMemoryCommitted(),
+                memory.getHeapMemoryMax(), memory.getNonHeapMemoryUsed(), memory.getNonHeapMemoryCommitted());
+        }
+
+        FleetBatchDTO batch = new FleetBatchDTO();
+        batch.setInstance(instance);
+        batch.setFrom(lastPush);
+        batch.setTo(now);
+        batch.setMemory(memory);
+        synchronized (gcEvents) {
+            batch.setGcEvents(new ArrayList<>(gcEvents));
+            gcEvents.clear();
+        }
+        batch.setMemoryLeakDetected(memoryLeakDetectorService.isMemoryLeakDetected());
+        batch.setConsistentGrowthDetected(memoryLeakDetectorService.isConsistentGrowthDetected());
+        batch.setGrowthSlopeBytesPerSecond(memoryLeakDetectorService.getGrowthSlope());
+        batch.setGrowthConfidence(memoryLeakDetectorService.getGrowthConfidence());
+        lastPush = now;
+        return batch;
+    }
+
+    public long getPushCount() {
+        return pushes.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    public long getDroppedGcEventCount() {
+        return droppedGcEvents.sum();
+    }
+
+    public long getSkippedPushCount() {
+        return skippedPushes.sum();
+    }
+
+}
@@ -2,40 +2,94 @@ package com.jvsnr.memory_monitoring_tool.service;
 
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
-import java.util.HashMap;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+import javax.management.ListenerNotFoundException;
 import javax.management.NotificationEmitter;
 import javax.management.NotificationListener;
 import javax.management.openmbean.CompositeData;
 
+import org.HdrHistogram.Histogram;
 import org.springframework.stereotype.Service;
 
 import com.jvsnr.memory_monitoring_tool.constant.GarbageCollectionType;
 import com.jvsnr.memory_monitoring_tool.constant.GarbageCollectorName;
 import com.jvsnr.memory_monitoring_tool.dto.GarbageCollectionMetricsDTO;
+import com.jvsnr.memory_monitoring_tool.dto.GcPauseHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.PauseHistogramDTO;
+import com.jvsnr.memory_monitoring_tool.event.GcEvent;
+import com.jvsnr.memory_monitoring_tool.event.GcEventCodes;
+import com.jvsnr.memory_monitoring_tool.event.GcEventRingBuffer;
+import com.jvsnr.memory_monitoring_tool.store.CompressedTimeSeries;
+import com.jvsnr.memory_monitoring_tool.store.PauseHistogram;
 import com.jvsnr.util.MemoryUtils;
 import com.sun.management.GarbageCollectionNotificationInfo;
 import com.sun.management.GcInfo;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.log4j.Log4j2;
 
 @Service
 @Log4j2
 public class GarbageCollectionMonitorService {
+
+    private static final int GC_EVENT_BUFFER_CAPACITY = 4096; // in-flight events between listener and consumer
+    private static final long GC_EVENT_DRAIN_INTERVAL = 100; // in milliseconds
+    private static final int PAUSE_HISTORY_CAPACITY = 65536; // compressed, a few bytes per pause
+    private static final int PAUSE_HISTORY_CHUNK_SIZE = 1024;
+    private static final int PAUSE_COLLECTOR = 0; // columns of the pause history
+    private static final int PAUSE_CAUSE = 1;
+    private static final int PAUSE_DURATION = 2;
     
     // Use GarbageCollectorMXBean to get GC information
     private List<GarbageCollectorMXBean> garbageCollectorMXBeans;
     private Map<String, GarbageCollectionMetricsDTO> garbageCollectionMetrics;
 
+    // GC event pipeline: notification threads publish primitives, one consumer thread aggregates
+    private final String[] memoryPoolNames;
+    private final GcEventCodes gcEventCodes;
+    private final GcEventRingBuffer gcEventBuffer;
+    private final GcEvent drainedEvent;
+    private final long jvmStartTime;
+    private final Map<NotificationEmitter, NotificationListener> registeredListeners;
+    private final PauseHistogram[] pauseHistograms; // indexed like the collector beans
+    private final CompressedTimeSeries pauseHistory;
+    private final long[] pauseValues; // reused by the consumer thread
+    private final List<GcEventListener> gcEventListeners;
+    private ScheduledExecutorService gcEventConsumer;
+
     public GarbageCollectionMonitorService() {
         this(ManagementFactory.getGarbageCollectorMXBeans());
     }
 
     public GarbageCollectionMonitorService(List<GarbageCollectorMXBean> garbageCollectorMXBeans) {
         this.garbageCollectorMXBeans = garbageCollectorMXBeans;
-        this.garbageCollectionMetrics = new HashMap<>();
+        this.garbageCollectionMetrics = new ConcurrentHashMap<>();
+        this.memoryPoolNames = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .map(MemoryPoolMXBean::getName)
+            .toArray(String[]::new);
+        this.gcEventCodes = new GcEventCodes();
+        this.gcEventBuffer = new GcEventRingBuffer(GC_EVENT_BUFFER_CAPACITY, memoryPoolNames.length);
+        this.drainedEvent = new GcEvent(memoryPoolNames.length);
+        this.jvmStartTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+        this.registeredListeners = new LinkedHashMap<>();
+        this.gcEventListeners = new CopyOnWriteArrayList<>();
+        this.pauseHistograms = new PauseHistogram[garbageCollectorMXBeans.size()];
+        for (int i = 0; i < pauseHistograms.length; i++) {
+            pauseHistograms[i] = new PauseHistogram();
+        }
+        this.pauseHistory = new CompressedTimeSeries(3, PAUSE_HISTORY_CHUNK_SIZE, PAUSE_HISTORY_CAPACITY);
+        this.pauseValues = new long[3];
         setUpGCMonitoring();
     }
 
@@ -43,54 +97,332 @@ public class GarbageCollectionMonitorService {
      * Set up monitoring for garbage collection.
      * 
      * This method sets up notification listeners for each garbage collector bean.
-     * When a garbage collection notification is received, the method updates the
-     * garbage collection metrics for the corresponding collector.
+     * The listeners only copy the event into the GC event ring buffer as primitives;
+     * a dedicated consumer thread drains the buffer, updates the garbage collection
+     * metrics for the corresponding collector and logs problematic pauses.
      */
     private void setUpGCMonitoring() {
         // Set up notification listeners for each GC bean
-        for (GarbageCollectorMXBean gcBean : garbageCollectorMXBeans) {
+        for (int i = 0; i < garbageCollectorMXBeans.size(); i++) {
+            GarbageCollectorMXBean gcBean = garbageCollectorMXBeans.get(i);
             if (gcBean instanceof NotificationEmitter) {
                 NotificationEmitter notificationEmitter = (NotificationEmitter) gcBean;
+                int collector = i;
                 NotificationListener notificationListener = (notification, handback) -> {
                     if (notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
                         // Get the GC notification info
                         GarbageCollectionNotificationInfo gcInfo = GarbageCollectionNotificationInfo
                             .from((CompositeData) notification.getUserData());
 
-                        // Update metrics for this collector
-                        GarbageCollectionMetricsDTO metrics = garbageCollectionMetrics
-                        .computeIfAbsent(gcBean.getName(), k -> new GarbageCollectionMetricsDTO());
+                        recordGCEvent(collector, gcInfo.getGcCause(), gcInfo.getGcAction(), gcInfo.getGcInfo());
+                    }
+                };
+                notificationEmitter.addNotificationListener(notificationListener, null, null);
+                registeredListeners.put(notificationEmitter, notificationListener);
+            }
+        }
 
-                        metrics.setCollectionName(gcBean.getName());
-                        metrics.setCollectionCount(gcBean.getCollectionCount());
-                        metrics.setCollectionTime(MemoryUtils.formatTime(gcBean.getCollectionTime()));
-                        metrics.setType(determineGCType(gcBean.getName()));
+        if (!registeredListeners.isEmpty()) {
+            startGCEventConsumer();
+        }
+    }
 
-                        // Add more detailed information from gcInfo
-                        metrics.setLastGCDuration(MemoryUtils.formatTime(gcInfo.getGcInfo().getDuration()));
+    private synchronized void startGCEventConsumer() {
+        if (gcEventConsumer != null) {
+            return;
+        }
+        gcEventConsumer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gc-event-consumer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        gcEventConsumer.scheduleWithFixedDelay(this::drainGCEvents,
+            GC_EVENT_DRAIN_INTERVAL, GC_EVENT_DRAIN_INTERVAL, TimeUnit.MILLISECONDS);
+    }
 
-                        metrics.setLastGCStartTime(MemoryUtils.formatDateTime(System.currentTimeMillis()));
+    /**
+     * Stop listening for GC notifications, another source publishes the GC events through
+     * {@link #publishGCEvent}. The consumer thread keeps draining the ring buffer.
+     */
+    public void detachNotificationListeners() {
+        removeNotificationListeners();
+        startGCEventConsumer();
+    }
 
-                        // Log or notify about GC events if needed
-                        logGCEvent(gcInfo);
-                    }
-                };
-                notificationEmitter.addNotificationListener(notificationListener, null, null);
+    private synchronized void removeNotificationListeners() {
+        registeredListeners.forEach((emitter, listener) -> {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (ListenerNotFoundException e) {
+                log.debug("GC notification listener already removed", e);
+            }
+        });
+        registeredListeners.clear();
+    }
+
+    /**
+     * Record a GC event into the ring buffer.
+     * 
+     * Called on the JMX notification thread: it never blocks and never formats or logs;
+     * if the consumer is too far behind the event is dropped and counted instead.
+     *
+     * @param collector index of the collector bean
+     * @param cause the GC cause
+     * @param action the GC action
+     * @param gcInfo the GC details with per pool usage
+     */
+    void recordGCEvent(int collector, String cause, String action, GcInfo gcInfo) {
+        long sequence = gcEventBuffer.tryClaim();
+        if (sequence < 0) {
+            return;
+        }
+
+        try {
+            gcEventBuffer.setEvent(sequence, collector, gcEventCodes.codeOf(cause), gcEventCodes.codeOf(action),
+                gcInfo.getId(), jvmStartTime + gcInfo.getStartTime(), gcInfo.getDuration());
+
+            Map<String, MemoryUsage> usageBeforeGc = gcInfo.getMemoryUsageBeforeGc();
+            Map<String, MemoryUsage> usageAfterGc = gcInfo.getMemoryUsageAfterGc();
+            for (int pool = 0; pool < memoryPoolNames.length; pool++) {
+                MemoryUsage before = usageBeforeGc.get(memoryPoolNames[pool]);
+                MemoryUsage after = usageAfterGc.get(memoryPoolNames[pool]);
+                gcEventBuffer.setPoolUsage(sequence, pool,
+                    before != null ? before.getUsed() : -1L,
+                    after != null ? after.getUsed() : -1L);
+            }
+        } finally {
+            // Always publish the claimed slot, the consumer processes events in order
+            gcEventBuffer.publish(sequence);
+        }
+    }
+
+    /**
+     * Publish a GC event from another source than the JMX notifications.
+     *
+     * Never blocks; the event is dropped and counted if the consumer is too far behind.
+     *
+     * @param collector index of the collector bean
+     * @param id the GC identifier
+     * @param startTime start of the GC in epoch millis
+     * @param duration duration of the GC in milliseconds
+     * @param poolUsedBefore used bytes per memory pool before the GC, -1 if unknown
+     * @param poolUsedAfter used bytes per memory pool after the GC, -1 if unknown
+     * @return false if the event was dropped
+     */
+    public boolean publishGCEvent(int collector, String cause, String action, long id, long startTime, long duration,
+            long[] poolUsedBefore, long[] poolUsedAfter) {
+        long sequence = gcEventBuffer.tryClaim();
+        if (sequence < 0) {
+            return false;
+        }
+
+        try {
+            gcEventBuffer.setEvent(sequence, collector, gcEventCodes.codeOf(cause), gcEventCodes.codeOf(action),
+                id, startTime, duration);
+            for (int pool = 0; pool < memoryPoolNames.length; pool++) {
+                gcEventBuffer.setPoolUsage(sequence, pool, poolUsedBefore[pool], poolUsedAfter[pool]);
+            }
+        } finally {
+            gcEventBuffer.publish(sequence);
+        }
+        return true;
+    }
+
+    /**
+     * Drain the GC event ring buffer. Runs on the consumer thread.
+     */
+    void drainGCEvents() {
+        try {
+            gcEventBuffer.drain(drainedEvent, this::handleGCEvent);
+        } catch (RuntimeException e) {
+            log.error("Failed to process GC events", e);
+        }
+    }
+
+    private void handleGCEvent(GcEvent event) {
+        if (event.getCollector() < 0 || event.getCollector() >= garbageCollectorMXBeans.size()) {
+            return;
+        }
+        GarbageCollectorMXBean gcBean = garbageCollectorMXBeans.get(event.getCollector());
+        pauseHistograms[event.getCollector()].recordPause(TimeUnit.MILLISECONDS.toMicros(event.getDuration()));
+        pauseValues[PAUSE_COLLECTOR] = event.getCollector();
+        pauseValues[PAUSE_CAUSE] = event.getCause();
+        pauseValues[PAUSE_DURATION] = event.getDuration();
+        pauseHistory.append(event.getStartTime(), pauseValues);
+
+        // Publish a fresh DTO so readers never observe a partially updated one
+        GarbageCollectionMetricsDTO metrics = new GarbageCollectionMetricsDTO();
+        metrics.setCollectionName(gcBean.getName());
+        metrics.setCollectionCount(gcBean.getCollectionCount());
+        metrics.setCollectionTime(MemoryUtils.formatTime(gcBean.getCollectionTime()));
+        metrics.setType(determineGCType(gcBean.getName()));
+        metrics.setLastGCDuration(MemoryUtils.formatTime(event.getDuration()));
+        metrics.setLastGCStartTime(MemoryUtils.formatDateTime(event.getStartTime()));
+        garbageCollectionMetrics.put(metrics.getCollectionName(), metrics);
+
+        // Log or notify about GC events if needed
+        logGCEvent(event);
+        for (GcEventListener listener : gcEventListeners) {
+            try {
+                listener.onGcEvent(event);
+            } catch (RuntimeException e) {
+                log.error("GC event listener {} failed", listener, e);
+            }
+        }
+    }
+
+    /**
+     * Register a listener for every GC event drained by the consumer thread.
+     *
+     * @param listener the listener
+     */
+    public void addGcEventListener(GcEventListener listener) {
+        gcEventListeners.add(listener);
+    }
+
+    /**
+     * @param collector collector index of a GC event
+     * @return the name of the collector, null if unknown
+     */
+    public String getCollectorName(int collector) {
+        return collector >= 0 && collector < garbageCollectorMXBeans.size()
+            ? garbageCollectorMXBeans.get(collector).getName()
+            : null;
+    }
+
+    /**
+     * @param collectionName name of a collector bean
+     * @return the collector index of the bean, -1 if there is none of that name
+     */
+    public int getCollectorIndex(String collectionName) {
+        for (int i = 0; i < garbageCollectorMXBeans.size(); i++) {
+            if (garbageCollectorMXBeans.get(i).getName().equals(collectionName)) {
+                return i;
             }
         }
+        return -1;
+    }
+
+    /**
+     * @return the memory pool names, indexed like the pool usages of GC events
+     */
+    public String[] getMemoryPoolNames() {
+        return memoryPoolNames.clone();
+    }
+
+    /**
+     * @param code cause or action code of a GC event
+     * @return the cause or action, null if unknown
+     */
+    public String getGCEventCodeName(int code) {
+        return gcEventCodes.nameOf(code);
     }
 
     /**
      * Log or notify about GC events if needed.
      * 
-     * @param gcInfo
+     * @param event the drained GC event
      */
-    void logGCEvent(GarbageCollectionNotificationInfo gcInfo) {
+    void logGCEvent(GcEvent event) {
         // Log important GC events, especially if they might indicate problems
-        if (gcInfo.getGcInfo().getDuration() > 1000) { // GC took more than 1 second
-            log.warn("Long GC pause detected: {} ms for collector {}", 
-                gcInfo.getGcInfo().getDuration(), 
-                gcInfo.getGcName());
+        if (event.getDuration() > 1000) { // GC took more than 1 second
+            log.warn("Long GC pause detected: {} ms for collector {} (cause: {})", 
+                event.getDuration(), 
+                garbageCollectorMXBeans.get(event.getCollector()).getName(),
+                gcEventCodes.nameOf(event.getCause()));
+        }
+    }
+
+    /**
+     * Get the counters of the GC event pipeline
+     *
+     * @return the number of published, consumed and dropped GC events
+     */
+    public Map<String, Long> getGCEventPipelineStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("claimed", gcEventBuffer.getClaimedCount());
+        stats.put("consumed", gcEventBuffer.getConsumedCount());
+        stats.put("dropped", gcEventBuffer.getDroppedCount());
+        stats.put("capacity", (long) gcEventBuffer.capacity());
+        return stats;
+    }
+
+    /**
+     * Get the pause duration distribution of every collector
+     *
+     * Collectors that only run concurrently (e.g. "G1 Concurrent GC") report the
+     * duration of their cycles rather than stop-the-world pauses.
+     *
+     * @param interval if true, return the pauses recorded since the previous interval
+     *                 request and start a new interval; otherwise return every pause
+     *                 recorded since startup
+     * @return the pause histogram summary by collection name
+     */
+    public Map<String, PauseHistogramDTO> getPauseHistograms(boolean interval) {
+        Map<String, PauseHistogramDTO> histograms = new LinkedHashMap<>();
+        for (int i = 0; i < garbageCollectorMXBeans.size(); i++) {
+            String collectionName = garbageCollectorMXBeans.get(i).getName();
+            Histogram histogram = interval ? pauseHistograms[i].takeInterval() : pauseHistograms[i].copyCumulative();
+            histograms.put(collectionName, toPauseHistogramDTO(collectionName, histogram));
+        }
+        return histograms;
+    }
+
+    /**
+     * Get the most recent GC pauses, oldest first
+     *
+     * The pauses are kept delta-of-delta and XOR compressed; only the chunks holding the
+     * requested pauses are decoded.
+     *
+     * @param limit the maximum number of pauses to return
+     * @return start time, duration, collector and cause of every pause as columns
+     */
+    public GcPauseHistoryDTO getPauseHistory(int limit) {
+        int count = Math.max(0, Math.min(limit, pauseHistory.size()));
+        long[] timestamps = new long[count];
+        long[][] values = new long[3][count];
+        count = pauseHistory.copyLatest(timestamps, values);
+
+        GcPauseHistoryDTO history = new GcPauseHistoryDTO();
+        history.setTimestamps(Arrays.copyOf(timestamps, count));
+        history.setDurations(Arrays.copyOf(values[PAUSE_DURATION], count));
+        history.setCollectionNames(new String[count]);
+        history.setCauses(new String[count]);
+        for (int i = 0; i < count; i++) {
+            history.getCollectionNames()[i] = getCollectorName((int) values[PAUSE_COLLECTOR][i]);
+            history.getCauses()[i] = gcEventCodes.nameOf((int) values[PAUSE_CAUSE][i]);
+        }
+        return history;
+    }
+
+    static PauseHistogramDTO toPauseHistogramDTO(String collectionName, Histogram histogram) {
+        PauseHistogramDTO dto = new PauseHistogramDTO();
+        dto.setCollectionName(collectionName);
+        dto.setCount(histogram.getTotalCount());
+        dto.setStartTime(histogram.getStartTimeStamp());
+        dto.setEndTime(histogram.getEndTimeStamp());
+        if (histogram.getTotalCount() > 0) {
+            dto.setMinMs(histogram.getMinValue() / 1000.0);
+            dto.setMeanMs(Math.round(histogram.getMean()) / 1000.0);
+            dto.setP50Ms(histogram.getValueAtPercentile(50.0) / 1000.0);
+            dto.setP90Ms(histogram.getValueAtPercentile(90.0) / 1000.0);
+            dto.setP99Ms(histogram.getValueAtPercentile(99.0) / 1000.0);
+            dto.setP999Ms(histogram.getValueAtPercentile(99.9) / 1000.0);
+            dto.setMaxMs(histogram.getMaxValue() / 1000.0);
+        }
+        return dto;
+    }
+
+    /**
+     * Stop listening for GC notifications and stop the consumer thread.
+     */
+    @PreDestroy
+    public void shutdown() {
+        removeNotificationListeners();
+        synchronized (this) {
+            if (gcEventConsumer != null) {
+                gcEventConsumer.shutdownNow();
+            }
         }
     }
 
@@ -114,6 +446,27 @@ public class GarbageCollectionMonitorService {
                 .sum();
     }
 
+    /**
+     * @return the number of collector beans, the range of collector indexes
+     */
+    public int getCollectorCount() {
+        return garbageCollectorMXBeans.size();
+    }
+
+    /**
+     * @return the number of collections of one collector, 0 if undefined
+     */
+    public long getCollectionCount(int collector) {
+        return MemoryUtils.nullifyNegativeToZero(garbageCollectorMXBeans.get(collector).getCollectionCount());
+    }
+
+    /**
+     * @return the accumulated collection time of one collector in milliseconds, 0 if undefined
+     */
+    public long getCollectionTime(int collector) {
+        return MemoryUtils.nullifyNegativeToZero(garbageCollectorMXBeans.get(collector).getCollectionTime());
+    }
+
     /**
      * Get the total time spent in garbage collection
      *
@@ -160,6 +513,7 @@ public class GarbageCollectionMonitorService {
      * @return the garbage collection metrics by collection name
      */
     public Map<String, GarbageCollectionMetricsDTO> getGCMetricsByCollectionName() {
+        Map<String, GarbageCollectionMetricsDTO> metricsByCollectionName = new LinkedHashMap<>();
         for (GarbageCollectorMXBean gxBean: garbageCollectorMXBeans) {
             GarbageCollectionMetricsDTO gcMetrics = new GarbageCollectionMetricsDTO();
             gcMetrics.setCollectionName(gxBean.getName());
@@ -186,10 +540,11 @@ public class GarbageCollectionMonitorService {
                 }
             }
 
+            metricsByCollectionName.put(gcMetrics.getCollectionName(), gcMetrics);
             garbageCollectionMetrics.put(gcMetrics.getCollectionName(), gcMetrics);
         }
 
-        return garbageCollectionMetrics;
+        return metricsByCollectionName;
     }
 
 }
@@ -0,0 +1,17 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import com.jvsnr.memory_monitoring_tool.event.GcEvent;
+
+/**
+ * Receives every GC event drained by the {@link GarbageCollectionMonitorService}.
+ *
+ * Called on the GC event consumer thread. The event is a reused view that is only
+ * valid for the duration of the call; codes and indexes can be resolved through the
+ * service the listener is registered with.
+ */
+@FunctionalInterface
+public interface GcEventListener {
+
+    void onGcEvent(GcEvent event);
+
+}
@@ -0,0 +1,354 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.jvsnr.memory_monitoring_tool.dto.HeapDumpAnalysisDTO;
+import com.jvsnr.memory_monitoring_tool.dto.HeapDumpDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.store.HeapGraph;
+import com.jvsnr.memory_monitoring_tool.store.HprofFile;
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Captures a heap dump when the leak detector reports a memory leak, or on request,
+ * and analyses it into a class summary and a leak suspects report.
+ *
+ * At most one dump is taken per {@code min-interval-ms}. Before a dump the oldest dumps
+ * of the directory are deleted until there is room for it within {@code max-dumps} and
+ * {@code max-total-bytes}, assuming the dump is as large as the used heap; a dump that
+ * could never fit is skipped. Dumps and analyses run on a dedicated thread, never on
+ * the sampling thread.
+ *
+ * A dump is analysed on the first request of its analysis, or right after capturing it
+ * with {@code analyse=true}. The object graph and its dominator tree live in temp files
+ * of the dump directory rather than on the heap, and an analysis is refused when the
+ * file system has no room for them.
+ *
+ * Enabled with {@code memory-monitor.heap-dump.enabled=true}.
+ */
+@Service
+@Log4j2
+@ConditionalOnProperty(name = "memory-monitor.heap-dump.enabled", havingValue = "true")
+public class HeapDumpService implements MemorySampleListener {
+
+    static final String REASON_MEMORY_LEAK = "memory-leak";
+    static final int TOP_CLASSES = 100;
+    private static final Pattern DUMP_NAME = Pattern.compile("heap-[\\w-]+\\.hprof");
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+        .withZone(ZoneId.systemDefault());
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final MemoryLeakDetectorService memoryLeakDetectorService;
+    private final MemoryMonitorService memoryMonitorService;
+    private final HotSpotDiagnosticMXBean diagnosticMXBean;
+    private final Path directory;
+    private final long minInterval;
+    private final int maxDumps;
+    private final long maxTotalBytes;
+    private final boolean live;
+    private final boolean analyse;
+    private final double suspectThreshold;
+    private final Executor executor;
+    private final LongSupplier clock;
+
+    private boolean capturing;
+    private long lastCapture = NEVER;
+    private final Map<String, String> reasons = new ConcurrentHashMap<>();
+    private final Map<String, HeapDumpAnalysisDTO> analyses = new ConcurrentHashMap<>();
+    private final Object analysisLock = new Object();
+
+    private final LongAdder captured = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder quotaExceeded = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder deleted = new LongAdder();
+
+    @Autowired
+    public HeapDumpService(MemoryLeakDetectorService memoryLeakDetectorService,
+            MemoryMonitorService memoryMonitorService,
+            @Value("${memory-monitor.heap-dump.directory:${java.io.tmpdir}/memory-monitoring-tool/heap-dumps}") Path directory,
+            @Value("${memory-monitor.heap-dump.min-interval-ms:3600000}") long minInterval,
+            @Value("${memory-monitor.heap-dump.max-dumps:3}") int maxDumps,
+            @Value("${memory-monitor.heap-dump.max-total-bytes:10737418240}") long maxTotalBytes,
+            @Value("${memory-monitor.heap-dump.live:true}") boolean live,
+            @Value("${memory-monitor.heap-dump.analyse:false}") boolean analyse,
+            @Value("${memory-monitor.heap-dump.suspect-threshold-percentage:10}") double suspectThresholdPercentage)
+            throws IOException {
+        this(memoryLeakDetectorService, memoryMonitorService,
+            ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class), directory, minInterval, maxDumps,
+            maxTotalBytes, live, analyse, suspectThresholdPercentage,
+            Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "heap-dump");
+                thread.setDaemon(true);
+                return thread;
+            }), System::currentTimeMillis);
+    }
+
+    HeapDumpService(MemoryLeakDetectorService memoryLeakDetectorService, MemoryMonitorService memoryMonitorService,
+            HotSpotDiagnosticMXBean diagnosticMXBean, Path directory, long minInterval, int maxDumps,
+            long maxTotalBytes, boolean live, boolean analyse, double suspectThresholdPercentage,
+            Executor executor, LongSupplier clock) throws IOException {
+        this.memoryLeakDetectorService = memoryLeakDetectorService;
+        this.memoryMonitorService = memoryMonitorService;
+        this.diagnosticMXBean = diagnosticMXBean;
+        this.directory = Files.createDirectories(directory);
+        this.minInterval = minInterval;
+        this.maxDumps = Math.max(1, maxDumps);
+        this.maxTotalBytes = maxTotalBytes;
+        this.live = live;
+        this.analyse = analyse;
+        this.suspectThreshold = suspectThresholdPercentage / 100.0;
+        this.executor = executor;
+        this.clock = clock;
+        memoryLeakDetectorService.addMemorySampleListener(this);
+    }
+
+    /**
+     * Schedule a dump once the detector reports a leak and the previous dump is old enough.
+     */
+    @Override
+    public void onMemorySample(MemorySampleDTO sample) {
+        if (memoryLeakDetectorService.isMemoryLeakDetected() && isCaptureDue(clock.getAsLong())) {
+            executor.execute(() -> capture(REASON_MEMORY_LEAK));
+        }
+    }
+
+    private synchronized boolean isCaptureDue(long now) {
+        return !capturing && (lastCapture == NEVER || now - lastCapture >= minInterval);
+    }
+
+    /**
+     * Dump the heap now, unless the previous dump is too recent or the dump cannot fit the quota.
+     *
+     * @return the dump, or null if it was skipped or failed
+     */
+    public HeapDumpDTO capture(String reason) {
+        long now = clock.getAsLong();
+        synchronized (this) {
+            if (!isCaptureDue(now)) {
+                rateLimited.increment();
+                return null;
+            }
+            capturing = true;
+            lastCapture = now;
+        }
+        try {
+            return dump(reason, now);
+        } finally {
+            synchronized (this) {
+                capturing = false;
+            }
+        }
+    }
+
+    private HeapDumpDTO dump(String reason, long now) {
+        MemorySampleDTO sample = memoryMonitorService.sample();
+        long estimate = sample.getHeapMemoryUsed();
+        Path file;
+        try {
+            if (!makeRoom(estimate)) {
+                quotaExceeded.increment();
+                log.warn("Skipped heap dump, {} bytes of used heap do not fit the quota of {} bytes",
+                    estimate, maxTotalBytes);
+                return null;
+            }
+            file = directory.resolve("heap-" + FILE_TIME.format(Instant.ofEpochMilli(now)) + "-"
+                + ProcessHandle.current().pid() + ".hprof");
+            for (int attempt = 1; Files.exists(file); attempt++) {
+                file = directory.resolve("heap-" + FILE_TIME.format(Instant.ofEpochMilli(now)) + "-"
+                    + ProcessHandle.current().pid() + "-" + attempt + ".hprof");
+            }
+            log.warn("Dumping heap to {} ({})", file, reason);
+            diagnosticMXBean.dumpHeap(file.toString(), live);
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            log.error("Failed to dump heap", e);
+            return null;
+        }
+
+        String name = file.getFileName().toString();
+        reasons.put(name, reason);
+        captured.increment();
+        if (analyse) {
+            executor.execute(() -> {
+                try {
+                    getAnalysis(name);
+                } catch (IOException | RuntimeException e) {
+                    log.error("Failed to analyse heap dump {}", name, e);
+                }
+            });
+        }
+        return toDTO(file);
+    }
+
+    /**
+     * Delete the oldest dumps until one of the estimated size fits both limits.
+     *
+     * @return false, without deleting anything, if it can never fit
+     */
+    private boolean makeRoom(long estimate) throws IOException {
+        if (estimate > maxTotalBytes) {
+            return false;
+        }
+        List<Path> dumps = listDumps();
+        long total = 0;
+        for (Path dump : dumps) {
+            total += Files.size(dump);
+        }
+        while (!dumps.isEmpty() && (dumps.size() >= maxDumps || total + estimate > maxTotalBytes)) {
+            Path oldest = dumps.remove(0);
+            total -= Files.size(oldest);
+            Files.deleteIfExists(oldest);
+            analyses.remove(oldest.getFileName().toString());
+            reasons.remove(oldest.getFileName().toString());
+            deleted.increment();
+            log.info("Deleted heap dump {} to stay within the quota", oldest);
+        }
+        return true;
+    }
+
+    /**
+     * @return the dumps of the directory, oldest first
+     */
+    private List<Path> listDumps() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> dumps = new ArrayList<>(files
+                .filter(file -> DUMP_NAME.matcher(file.getFileName().toString()).matches())
+                .toList());
+            dumps.sort(Comparator.comparing((Path file) -> {
+                try {
+                    return Files.getLastModifiedTime(file).toMillis();
+                } catch (IOException e) {
+                    return 0L;
+                }
+            }).thenComparing(file -> file.getFileName().toString()));
+            return dumps;
+        }
+    }
+
+    private HeapDumpDTO toDTO(Path file) {
+        String name = file.getFileName().toString();
+        HeapDumpDTO dto = new HeapDumpDTO();
+        dto.setName(name);
+        try {
+            dto.setSize(Files.size(file));
+            dto.setCreatedAt(Files.getLastModifiedTime(file).toMillis());
+        } catch (IOException e) {
+            log.debug("Heap dump {} disappeared", file);
+        }
+        dto.setReason(reasons.get(name));
+        dto.setAnalysed(analyses.containsKey(name));
+        return dto;
+    }
+
+    /**
+     * @return the dumps in the directory, newest first
+     */
+    public List<HeapDumpDTO> getDumps() throws IOException {
+        List<HeapDumpDTO> dumps = new ArrayList<>();
+        for (Path file : listDumps()) {
+            dumps.add(0, toDTO(file));
+        }
+        return dumps;
+    }
+
+    /**
+     * Analyse a dump, or return its earlier analysis. Analyses run one at a time, each
+     * maps the dump and parses its segments in parallel.
+     *
+     * @return the analysis, or null if there is no such dump
+     * @throws IOException if the dump cannot be read or is malformed
+     */
+    public HeapDumpAnalysisDTO getAnalysis(String name) throws IOException {
+        if (!DUMP_NAME.matcher(name).matches() || !Files.isRegularFile(directory.resolve(name))) {
+            return null;
+        }
+        HeapDumpAnalysisDTO analysis = analyses.get(name);
+        if (analysis != null) {
+            return analysis;
+        }
+        synchronized (analysisLock) {
+            analysis = analyses.get(name);
+            if (analysis == null) {
+                analysis = analyse(directory.resolve(name));
+                analyses.put(name, analysis);
+            }
+            return analysis;
+        }
+    }
+
+    private HeapDumpAnalysisDTO analyse(Path file) throws IOException {
+        long start = clock.getAsLong();
+        HprofFile hprof = HprofFile.open(file);
+        HeapGraph graph = hprof.readHeapGraph();
+        graph.computeDominators();
+
+        HeapDumpAnalysisDTO analysis = new HeapDumpAnalysisDTO();
+        analysis.setName(file.getFileName().toString());
+        analysis.setDumpedAt(hprof.getTimestamp());
+        analysis.setObjects(graph.getObjectCount());
+        analysis.setReachableObjects(graph.getReachableObjectCount());
+        analysis.setReachableSize(graph.getReachableSize());
+        analysis.setClasses(graph.getClassSummary(TOP_CLASSES));
+        analysis.setLeakSuspects(graph.getLeakSuspects(suspectThreshold));
+        analysis.setAnalysisTimeMs(clock.getAsLong() - start);
+        log.info("Analysed heap dump {}: {} objects, {} leak suspects in {} ms", file, graph.getObjectCount(),
+            analysis.getLeakSuspects().size(), analysis.getAnalysisTimeMs());
+        return analysis;
+    }
+
+    /**
+     * @return capture counters and the quota settings
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("captured", captured.sum());
+        stats.put("rateLimited", rateLimited.sum());
+        stats.put("quotaExceeded", quotaExceeded.sum());
+        stats.put("failures", failures.sum());
+        stats.put("deleted", deleted.sum());
+        stats.put("analysed", analyses.size());
+        synchronized (this) {
+            stats.put("lastCapture", lastCapture == NEVER ? null : lastCapture);
+        }
+        stats.put("minIntervalMs", minInterval);
+        stats.put("maxDumps", maxDumps);
+        stats.put("maxTotalBytes", maxTotalBytes);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+}
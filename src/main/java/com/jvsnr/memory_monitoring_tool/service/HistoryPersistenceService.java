@@ -0,0 +1,114 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.jvsnr.memory_monitoring_tool.dto.GcEventDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemoryHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.event.GcEvent;
+import com.jvsnr.memory_monitoring_tool.store.MappedSegmentStore;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Persists every memory sample and GC event into memory-mapped segment files so the
+ * history survives restarts and redeploys.
+ *
+ * Enabled with {@code memory-monitor.persistence.enabled=true}. With
+ * {@code memory-monitor.persistence.samples-per-chunk} memory samples are persisted as
+ * compressed chunks instead of one record each.
+ */
+@Service
+@Log4j2
+@ConditionalOnProperty(name = "memory-monitor.persistence.enabled", havingValue = "true")
+public class HistoryPersistenceService implements MemorySampleListener, GcEventListener {
+
+    private final GarbageCollectionMonitorService garbageCollectionMonitorService;
+    private final MappedSegmentStore segmentStore;
+    private final String[] memoryPoolNames;
+
+    public HistoryPersistenceService(MemoryLeakDetectorService memoryLeakDetectorService,
+            GarbageCollectionMonitorService garbageCollectionMonitorService,
+            @Value("${memory-monitor.persistence.directory:${java.io.tmpdir}/memory-monitoring-tool/history}") String directory,
+            @Value("${memory-monitor.persistence.segment-size:4194304}") int segmentSize,
+            @Value("${memory-monitor.persistence.max-segments:16}") int maxSegments,
+            @Value("${memory-monitor.persistence.samples-per-chunk:0}") int samplesPerChunk) throws IOException {
+        this(memoryLeakDetectorService, garbageCollectionMonitorService,
+            new MappedSegmentStore(Path.of(directory), segmentSize, maxSegments, samplesPerChunk));
+    }
+
+    HistoryPersistenceService(MemoryLeakDetectorService memoryLeakDetectorService,
+            GarbageCollectionMonitorService garbageCollectionMonitorService, MappedSegmentStore segmentStore) {
+        this.garbageCollectionMonitorService = garbageCollectionMonitorService;
+        this.segmentStore = segmentStore;
+        this.memoryPoolNames = garbageCollectionMonitorService.getMemoryPoolNames();
+        memoryLeakDetectorService.addMemorySampleListener(this);
+        garbageCollectionMonitorService.addGcEventListener(this);
+    }
+
+    @Override
+    public void onMemorySample(MemorySampleDTO sample) {
+        try {
+            segmentStore.appendMemorySample(sample);
+        } catch (IOException e) {
+            log.error("Failed to persist memory sample", e);
+        }
+    }
+
+    @Override
+    public void onGcEvent(GcEvent event) {
+        try {
+            segmentStore.appendGcEvent(event,
+                garbageCollectionMonitorService.getCollectorName(event.getCollector()),
+                garbageCollectionMonitorService.getGCEventCodeName(event.getCause()),
+                garbageCollectionMonitorService.getGCEventCodeName(event.getAction()),
+                memoryPoolNames);
+        } catch (IOException e) {
+            log.error("Failed to persist GC event", e);
+        }
+    }
+
+    /**
+     * Get the persisted memory samples of a time range
+     *
+     * @param from inclusive lower bound in epoch millis
+     * @param to inclusive upper bound in epoch millis
+     * @param limit maximum number of samples
+     * @return the samples as primitive columns
+     */
+    public MemoryHistoryDTO getMemoryHistory(long from, long to, int limit) throws IOException {
+        return segmentStore.readMemorySamples(from, to, limit);
+    }
+
+    /**
+     * Get the persisted GC events of a time range
+     *
+     * @param from inclusive lower bound in epoch millis
+     * @param to inclusive upper bound in epoch millis
+     * @param limit maximum number of events
+     * @return the GC events
+     */
+    public List<GcEventDTO> getGcEvents(long from, long to, int limit) throws IOException {
+        return segmentStore.readGcEvents(from, to, limit);
+    }
+
+    /**
+     * @return the retained segments, oldest first
+     */
+    public List<MappedSegmentStore.SegmentInfo> getSegments() {
+        return segmentStore.getSegments();
+    }
+
+    @PreDestroy
+    public void close() {
+        segmentStore.close();
+    }
+
+}
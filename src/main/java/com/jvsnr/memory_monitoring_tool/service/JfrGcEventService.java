@@ -0,0 +1,426 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.jvsnr.memory_monitoring_tool.constant.GarbageCollectionType;
+import com.jvsnr.memory_monitoring_tool.dto.PauseHistogramDTO;
+import com.jvsnr.memory_monitoring_tool.store.PauseHistogram;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Feeds the GC event pipeline from an in-process JFR {@link RecordingStream} instead of
+ * the JMX GC notifications.
+ *
+ * Garbage collections are published into the ring buffer of the
+ * {@link GarbageCollectionMonitorService}, so metrics, pause histograms and GC event
+ * listeners work unchanged, once their heap summaries arrived or one flush later. The
+ * eden, survivor and old generation usage before and after a GC come from the G1 and
+ * Parallel heap summaries; with other collectors the pool usages are unknown and the
+ * leak detector trends the heap samples. On top of that JFR exposes what JMX cannot:
+ * every stop-the-world pause phase with nanosecond durations, and the time to safepoint.
+ *
+ * The recording is limited to these events, without stack traces, kept unordered and
+ * for {@link #MAX_AGE} on disk. If JFR cannot start the JMX notifications stay in use.
+ *
+ * Enabled with {@code memory-monitor.gc.source=jfr}.
+ */
+@Service
+@Log4j2
+@ConditionalOnProperty(name = "memory-monitor.gc.source", havingValue = "jfr")
+public class JfrGcEventService {
+
+    static final String GARBAGE_COLLECTION = "jdk.GarbageCollection";
+    static final String GC_HEAP_SUMMARY = "jdk.GCHeapSummary";
+    static final String G1_HEAP_SUMMARY = "jdk.G1HeapSummary";
+    static final String PS_HEAP_SUMMARY = "jdk.PSHeapSummary";
+    static final String GC_PHASE_PAUSE = "jdk.GCPhasePause";
+    static final String SAFEPOINT_BEGIN = "jdk.SafepointBegin";
+    static final String SAFEPOINT_END = "jdk.SafepointEnd";
+    static final String AFTER_GC = "After GC";
+    static final String SUM_OF_PAUSES = "sumOfPauses";
+    static final String TIME_TO_SAFEPOINT = "timeToSafepoint";
+    static final String SAFEPOINT = "safepoint";
+    static final String OTHER_PHASES = "other";
+    static final int MAX_PHASES = 64;
+    static final Duration MAX_AGE = Duration.ofMinutes(1);
+
+    // JFR collector names and the collector beans they belong to
+    private static final Map<String, String> COLLECTOR_BEANS = Map.ofEntries(
+        Map.entry("G1New", "G1 Young Generation"),
+        Map.entry("G1Old", "G1 Concurrent GC"),
+        Map.entry("G1Full", "G1 Old Generation"),
+        Map.entry("ParallelScavenge", "PS Scavenge"),
+        Map.entry("ParallelOld", "PS MarkSweep"),
+        Map.entry("DefNew", "Copy"),
+        Map.entry("SerialOld", "MarkSweepCompact"),
+        Map.entry("Z", "ZGC Cycles"),
+        Map.entry("ZGC Minor", "ZGC Minor Cycles"),
+        Map.entry("ZGC Major", "ZGC Major Cycles"),
+        Map.entry("Shenandoah", "Shenandoah Cycles"));
+    private static final String MINOR_GC = "end of minor GC";
+    private static final String MAJOR_GC = "end of major GC";
+
+    private static final int PENDING_GCS = 16; // power of two, GCs awaiting their heap summaries
+    private static final int PENDING_SAFEPOINTS = 64; // power of two
+    private static final int COLLECTED = 1;
+    private static final int SUMMARISED = 2;
+
+    private final GarbageCollectionMonitorService garbageCollectionMonitorService;
+    private final Map<String, Integer> collectors = new HashMap<>();
+    private final String[] actions; // per collector index
+    private final int poolCount;
+    private final int edenPool;
+    private final int survivorPool;
+    private final int oldPool;
+
+    // Pending GCs by gcId, only touched by the stream thread
+    private final int[] pendingIds = new int[PENDING_GCS];
+    private final int[] pendingStates = new int[PENDING_GCS];
+    private final int[] pendingFlushes = new int[PENDING_GCS];
+    private final int[] pendingCollectors = new int[PENDING_GCS];
+    private final String[] pendingCauses = new String[PENDING_GCS];
+    private final long[] pendingStarts = new long[PENDING_GCS];
+    private final long[] pendingDurations = new long[PENDING_GCS]; // nanos
+    private final long[] pendingBefore; // PENDING_GCS * poolCount
+    private final long[] pendingAfter;
+    private final long[] publishBefore;
+    private final long[] publishAfter;
+
+    // Safepoints awaiting their other half by safepointId
+    private final long[] safepointIds = new long[PENDING_SAFEPOINTS];
+    private final long[] safepointBegins = new long[PENDING_SAFEPOINTS]; // epoch nanos, 0 if not seen
+    private final long[] safepointEnds = new long[PENDING_SAFEPOINTS];
+
+    private final Map<String, PauseHistogram> phasePauses = new ConcurrentHashMap<>();
+    private final PauseHistogram timeToSafepoint = new PauseHistogram();
+    private final PauseHistogram safepoints = new PauseHistogram();
+
+    private final LongAdder events = new LongAdder();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder unknownCollectors = new LongAdder();
+    private final LongAdder incomplete = new LongAdder();
+
+    private volatile RecordingStream stream;
+
+    public JfrGcEventService(GarbageCollectionMonitorService garbageCollectionMonitorService) {
+        this.garbageCollectionMonitorService = garbageCollectionMonitorService;
+        this.actions = new String[garbageCollectionMonitorService.getCollectorCount()];
+        COLLECTOR_BEANS.forEach((jfrName, beanName) -> {
+            int collector = garbageCollectionMonitorService.getCollectorIndex(beanName);
+            if (collector >= 0) {
+                collectors.put(jfrName, collector);
+                boolean young = GarbageCollectionType.YOUNG_GENERATION.name()
+                    .equals(garbageCollectionMonitorService.determineGCType(beanName));
+                actions[collector] = young ? MINOR_GC : MAJOR_GC;
+            }
+        });
+
+        String[] poolNames = garbageCollectionMonitorService.getMemoryPoolNames();
+        this.poolCount = poolNames.length;
+        this.edenPool = findPool(poolNames, "Eden");
+        this.survivorPool = findPool(poolNames, "Survivor");
+        this.oldPool = findPool(poolNames, "Old Gen");
+        this.pendingBefore = new long[PENDING_GCS * poolCount];
+        this.pendingAfter = new long[PENDING_GCS * poolCount];
+        this.publishBefore = new long[poolCount];
+        this.publishAfter = new long[poolCount];
+        Arrays.fill(pendingIds, -1);
+        Arrays.fill(safepointIds, -1);
+    }
+
+    private static int findPool(String[] poolNames, String part) {
+        for (int pool = 0; pool < poolNames.length; pool++) {
+            if (poolNames[pool].contains(part)) {
+                return pool;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Start the recording stream and detach the JMX notifications once it runs.
+     */
+    @PostConstruct
+    public void start() {
+        RecordingStream recording;
+        try {
+            recording = new RecordingStream();
+        } catch (RuntimeException e) {
+            log.error("JFR is not available, GC events keep coming from JMX notifications", e);
+            return;
+        }
+        recording.enable(GARBAGE_COLLECTION).withoutStackTrace().withThreshold(Duration.ZERO);
+        recording.enable(GC_HEAP_SUMMARY);
+        recording.enable(G1_HEAP_SUMMARY);
+        recording.enable(PS_HEAP_SUMMARY);
+        recording.enable(GC_PHASE_PAUSE).withoutStackTrace().withThreshold(Duration.ZERO);
+        recording.enable(SAFEPOINT_BEGIN).withoutStackTrace().withThreshold(Duration.ZERO);
+        recording.enable(SAFEPOINT_END).withoutStackTrace().withThreshold(Duration.ZERO);
+        recording.setOrdered(false);
+        recording.setReuse(true);
+        recording.setMaxAge(MAX_AGE);
+
+        recording.onEvent(GARBAGE_COLLECTION, this::onGarbageCollection);
+        recording.onEvent(GC_HEAP_SUMMARY, event -> onHeapSummary(event.getInt("gcId"), isAfterGc(event)));
+        recording.onEvent(G1_HEAP_SUMMARY, event -> onGenerationSummary(event.getInt("gcId"), isAfterGc(event),
+            event.getLong("edenUsedSize"), event.getLong("survivorUsedSize"), event.getLong("oldGenUsedSize")));
+        recording.onEvent(PS_HEAP_SUMMARY, event -> onGenerationSummary(event.getInt("gcId"), isAfterGc(event),
+            event.getLong("edenSpace.used"), event.getLong("fromSpace.used"), event.getLong("oldObjectSpace.used")));
+        recording.onEvent(GC_PHASE_PAUSE, event -> onPhasePause(event.getString("name"),
+            event.getDuration().toNanos()));
+        recording.onEvent(SAFEPOINT_BEGIN, event -> onSafepointBegin(event.getLong("safepointId"),
+            epochNanos(event.getStartTime()), event.getDuration().toNanos()));
+        recording.onEvent(SAFEPOINT_END, event -> onSafepointEnd(event.getLong("safepointId"),
+            epochNanos(event.getEndTime())));
+        recording.onFlush(this::flush);
+        recording.startAsync();
+        this.stream = recording;
+
+        garbageCollectionMonitorService.detachNotificationListeners();
+        log.info("GC events come from the JFR recording stream");
+    }
+
+    private static boolean isAfterGc(RecordedEvent event) {
+        return AFTER_GC.equals(event.getString("when"));
+    }
+
+    private static long epochNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    /**
+     * @return whether the recording stream runs
+     */
+    public boolean isRecording() {
+        return stream != null;
+    }
+
+    /**
+     * Record a garbage collection event with the sum of its pauses as the duration: the
+     * event spans the whole cycle, which for concurrent collections such as G1Old, ZGC
+     * and Shenandoah mostly runs alongside the application.
+     */
+    void onGarbageCollection(RecordedEvent event) {
+        onGarbageCollection(event.getInt("gcId"), event.getString("name"), event.getString("cause"),
+            event.getStartTime().toEpochMilli(), event.getDuration(SUM_OF_PAUSES).toNanos());
+    }
+
+    /**
+     * Record a garbage collection, published on the flush after its heap summaries.
+     */
+    void onGarbageCollection(int gcId, String name, String cause, long startMillis, long durationNanos) {
+        events.increment();
+        Integer collector = collectors.get(name);
+        if (collector == null) {
+            unknownCollectors.increment();
+            return;
+        }
+        int slot = pendingSlot(gcId);
+        pendingStates[slot] |= COLLECTED;
+        pendingCollectors[slot] = collector;
+        pendingCauses[slot] = cause;
+        pendingStarts[slot] = startMillis;
+        pendingDurations[slot] = durationNanos;
+    }
+
+    /**
+     * Record that a heap summary of a GC arrived; the one after GC completes it.
+     */
+    void onHeapSummary(int gcId, boolean afterGc) {
+        events.increment();
+        if (afterGc) {
+            pendingStates[pendingSlot(gcId)] |= SUMMARISED;
+        }
+    }
+
+    /**
+     * Record the generation usages of a G1 or Parallel heap summary.
+     */
+    void onGenerationSummary(int gcId, boolean afterGc, long edenUsed, long survivorUsed, long oldUsed) {
+        events.increment();
+        int slot = pendingSlot(gcId);
+        long[] usages = afterGc ? pendingAfter : pendingBefore;
+        int base = slot * poolCount;
+        if (edenPool >= 0) {
+            usages[base + edenPool] = edenUsed;
+        }
+        if (survivorPool >= 0) {
+            usages[base + survivorPool] = survivorUsed;
+        }
+        if (oldPool >= 0) {
+            usages[base + oldPool] = oldUsed;
+        }
+    }
+
+    /**
+     * Record a stop-the-world pause phase, such as a young pause or a remark.
+     */
+    void onPhasePause(String name, long durationNanos) {
+        events.increment();
+        PauseHistogram histogram = phasePauses.get(name);
+        if (histogram == null) {
+            histogram = phasePauses.size() < MAX_PHASES
+                ? phasePauses.computeIfAbsent(name, phase -> new PauseHistogram())
+                : phasePauses.computeIfAbsent(OTHER_PHASES, phase -> new PauseHistogram());
+        }
+        histogram.recordPause(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+    }
+
+    /**
+     * Record the start of a safepoint; its duration is the time until every thread stopped.
+     */
+    void onSafepointBegin(long safepointId, long startNanos, long durationNanos) {
+        events.increment();
+        timeToSafepoint.recordPause(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+        int slot = safepointSlot(safepointId);
+        if (safepointEnds[slot] != 0) {
+            safepoints.recordPause(TimeUnit.NANOSECONDS.toMicros(safepointEnds[slot] - startNanos));
+            safepointIds[slot] = -1;
+        } else {
+            safepointBegins[slot] = startNanos;
+        }
+    }
+
+    /**
+     * Record the end of a safepoint, completing its total duration.
+     */
+    void onSafepointEnd(long safepointId, long endNanos) {
+        events.increment();
+        int slot = safepointSlot(safepointId);
+        if (safepointBegins[slot] != 0) {
+            safepoints.recordPause(TimeUnit.NANOSECONDS.toMicros(endNanos - safepointBegins[slot]));
+            safepointIds[slot] = -1;
+        } else {
+            safepointEnds[slot] = endNanos;
+        }
+    }
+
+    private int safepointSlot(long safepointId) {
+        int slot = (int) (safepointId & (PENDING_SAFEPOINTS - 1));
+        if (safepointIds[slot] != safepointId) {
+            safepointIds[slot] = safepointId; // the half of an older safepoint is lost
+            safepointBegins[slot] = 0;
+            safepointEnds[slot] = 0;
+        }
+        return slot;
+    }
+
+    /**
+     * Publish the GCs whose heap summary after GC arrived, or that already waited one flush.
+     * Runs on the stream thread after every flush of the recording.
+     */
+    void flush() {
+        for (int slot = 0; slot < PENDING_GCS; slot++) {
+            if (pendingIds[slot] < 0 || (pendingStates[slot] & COLLECTED) == 0) {
+                continue;
+            }
+            if ((pendingStates[slot] & SUMMARISED) != 0 || pendingFlushes[slot] > 0) {
+                publish(slot);
+            } else {
+                pendingFlushes[slot]++;
+            }
+        }
+    }
+
+    private int pendingSlot(int gcId) {
+        int slot = gcId & (PENDING_GCS - 1);
+        if (pendingIds[slot] != gcId) {
+            if (pendingIds[slot] >= 0) {
+                if ((pendingStates[slot] & COLLECTED) != 0) {
+                    publish(slot);
+                } else {
+                    incomplete.increment(); // summaries of a GC that never completed
+                }
+            }
+            pendingIds[slot] = gcId;
+            pendingStates[slot] = 0;
+            pendingFlushes[slot] = 0;
+            Arrays.fill(pendingBefore, slot * poolCount, (slot + 1) * poolCount, -1L);
+            Arrays.fill(pendingAfter, slot * poolCount, (slot + 1) * poolCount, -1L);
+        }
+        return slot;
+    }
+
+    private void publish(int slot) {
+        System.arraycopy(pendingBefore, slot * poolCount, publishBefore, 0, poolCount);
+        System.arraycopy(pendingAfter, slot * poolCount, publishAfter, 0, poolCount);
+        int collector = pendingCollectors[slot];
+        if (garbageCollectionMonitorService.publishGCEvent(collector, pendingCauses[slot], actions[collector],
+                pendingIds[slot], pendingStarts[slot], TimeUnit.NANOSECONDS.toMillis(pendingDurations[slot]),
+                publishBefore, publishAfter)) {
+            published.increment();
+        } else {
+            dropped.increment();
+        }
+        pendingIds[slot] = -1;
+        pendingCauses[slot] = null;
+    }
+
+    /**
+     * @param interval if true, return the pauses since the previous interval request and start a new interval
+     * @return the duration distribution of every stop-the-world pause phase by phase name
+     */
+    public Map<String, PauseHistogramDTO> getPhasePauses(boolean interval) {
+        Map<String, PauseHistogramDTO> histograms = new LinkedHashMap<>();
+        phasePauses.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(entry -> histograms.put(entry.getKey(), toDTO(entry.getKey(), entry.getValue(), interval)));
+        return histograms;
+    }
+
+    /**
+     * @param interval if true, return the safepoints since the previous interval request and start a new interval
+     * @return the distribution of the time to safepoint and of the whole safepoint duration
+     */
+    public Map<String, PauseHistogramDTO> getSafepoints(boolean interval) {
+        Map<String, PauseHistogramDTO> histograms = new LinkedHashMap<>();
+        histograms.put(TIME_TO_SAFEPOINT, toDTO(TIME_TO_SAFEPOINT, timeToSafepoint, interval));
+        histograms.put(SAFEPOINT, toDTO(SAFEPOINT, safepoints, interval));
+        return histograms;
+    }
+
+    private static PauseHistogramDTO toDTO(String name, PauseHistogram histogram, boolean interval) {
+        return GarbageCollectionMonitorService.toPauseHistogramDTO(name,
+            interval ? histogram.takeInterval() : histogram.copyCumulative());
+    }
+
+    /**
+     * @return the counters of the recording stream
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("recording", isRecording());
+        stats.put("events", events.sum());
+        stats.put("published", published.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("unknownCollectors", unknownCollectors.sum());
+        stats.put("incomplete", incomplete.sum());
+        stats.put("phases", phasePauses.size());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+}
@@ -0,0 +1,354 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.rmi.server.RMIClientSocketFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnectionNotification;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Keeps one open JMX connection per remote JVM and hands it out to every sample.
+ *
+ * A connection is opened on first use and reused until it fails: a connection that is
+ * invalidated by its user or reported failed or closed by the connector is dropped and
+ * reopened by the next acquire. One thread per target opens the connection while
+ * concurrent samples of that JVM wait for it, so they share a single connection. The
+ * lock only guards the connection fields, it is never held while connecting, and
+ * dropped connectors are closed on a virtual thread: invalidating the connection of a
+ * JVM that stopped answering never blocks the caller.
+ *
+ * Connecting to and looking up the RMI registry of a {@code /jndi/} address is bounded
+ * by a connect and read timeout, so a host that accepts TCP but never answers fails the
+ * connect instead of holding it for the RMI handshake timeout of a minute.
+ */
+@Log4j2
+public class JmxConnectionPool implements AutoCloseable {
+
+    private final ConnectorFactory connectorFactory;
+    private final Map<String, ?> environment;
+    private final Map<JMXServiceURL, PooledConnection> connections = new ConcurrentHashMap<>();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed;
+
+    // Client socket factory of the JNDI RMI registry provider
+    static final String REGISTRY_SOCKET_FACTORY = "com.sun.jndi.rmi.factory.socket";
+
+    /**
+     * @param environment environment passed to every {@link JMXConnectorFactory#connect}, e.g. credentials
+     * @param timeoutMillis connect and read timeout of the RMI registry lookup
+     */
+    public JmxConnectionPool(Map<String, ?> environment, long timeoutMillis) {
+        this(JMXConnectorFactory::connect, withTimeout(environment, timeoutMillis));
+    }
+
+    JmxConnectionPool(ConnectorFactory connectorFactory, Map<String, ?> environment) {
+        this.connectorFactory = connectorFactory;
+        this.environment = environment;
+    }
+
+    /**
+     * Get the open connection to a JVM, connecting first if there is none.
+     *
+     * @param url address of the JVM
+     * @return the pooled connection
+     * @throws IOException if the JVM cannot be connected
+     */
+    public MBeanServerConnection acquire(JMXServiceURL url) throws IOException {
+        if (closed) {
+            throw new IOException("Connection pool is closed");
+        }
+        return connections.computeIfAbsent(url, PooledConnection::new).acquire();
+    }
+
+    /**
+     * Drop the connection to a JVM after a failed or timed out call; the next acquire reconnects.
+     */
+    public void invalidate(JMXServiceURL url) {
+        PooledConnection connection = connections.get(url);
+        if (connection != null) {
+            connection.drop(null, true);
+        }
+    }
+
+    /**
+     * Drop the connection to a JVM that is no longer monitored.
+     */
+    public void remove(JMXServiceURL url) {
+        PooledConnection connection = connections.remove(url);
+        if (connection != null) {
+            connection.remove();
+        }
+    }
+
+    /**
+     * @return the number of currently open connections
+     */
+    public int getOpenCount() {
+        int open = 0;
+        for (PooledConnection connection : connections.values()) {
+            if (connection.connection != null) {
+                open++;
+            }
+        }
+        return open;
+    }
+
+    /**
+     * @return the number of connections opened since creation
+     */
+    public long getOpenedCount() {
+        return opened.sum();
+    }
+
+    /**
+     * @return the number of connections dropped since creation
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (JMXServiceURL url : connections.keySet()) {
+            remove(url);
+        }
+    }
+
+    static Map<String, ?> withTimeout(Map<String, ?> environment, long timeoutMillis) {
+        if (timeoutMillis <= 0 || timeoutMillis > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("JMX connect timeout out of range: " + timeoutMillis);
+        }
+        Map<String, Object> withTimeout = new HashMap<>(environment);
+        withTimeout.putIfAbsent(REGISTRY_SOCKET_FACTORY, new TimeoutSocketFactory((int) timeoutMillis));
+        return withTimeout;
+    }
+
+    private static void closeLater(JMXConnector connector) {
+        // Closing talks to the JVM, which may be the one that stopped answering
+        Thread.ofVirtual().name("jmx-close").start(() -> closeQuietly(connector));
+    }
+
+    private static void closeQuietly(JMXConnector connector) {
+        try {
+            connector.close();
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to close JMX connector", e);
+        }
+    }
+
+    /**
+     * Opens a JMX connector, {@link JMXConnectorFactory#connect} outside of tests.
+     */
+    @FunctionalInterface
+    interface ConnectorFactory {
+        JMXConnector connect(JMXServiceURL url, Map<String, ?> environment) throws IOException;
+    }
+
+    /**
+     * Opens sockets with a connect timeout and caps every read timeout RMI sets on them,
+     * including the one of its connection handshake.
+     */
+    static class TimeoutSocketFactory implements RMIClientSocketFactory {
+
+        private final int timeoutMillis;
+
+        TimeoutSocketFactory(int timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException {
+            Socket socket = new Socket() {
+                @Override
+                public void setSoTimeout(int timeout) throws SocketException {
+                    super.setSoTimeout(timeout == 0 ? timeoutMillis : Math.min(timeout, timeoutMillis));
+                }
+            };
+            try {
+                socket.setSoTimeout(0);
+                socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+                return socket;
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+    }
+
+    /**
+     * The connection slot of one JVM.
+     */
+    private class PooledConnection {
+
+        private final JMXServiceURL url;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile JMXConnector connector;
+        private volatile MBeanServerConnection connection;
+        // Guarded by lock; completed by the thread opening the connection, awaited by the others
+        private CompletableFuture<MBeanServerConnection> opening;
+        private boolean removed;
+
+        PooledConnection(JMXServiceURL url) {
+            this.url = url;
+        }
+
+        MBeanServerConnection acquire() throws IOException {
+            MBeanServerConnection current = connection;
+            if (current != null) {
+                return current;
+            }
+
+            CompletableFuture<MBeanServerConnection> pending;
+            boolean opener;
+            lock.lock();
+            try {
+                if (connection != null) {
+                    return connection;
+                }
+                if (removed) {
+                    throw new IOException("JMX connection to " + url + " was removed");
+                }
+                opener = opening == null;
+                if (opener) {
+                    opening = new CompletableFuture<>();
+                }
+                pending = opening;
+            } finally {
+                lock.unlock();
+            }
+
+            if (opener) {
+                open(pending);
+            }
+            return await(pending);
+        }
+
+        private void open(CompletableFuture<MBeanServerConnection> pending) {
+            JMXConnector newConnector = null;
+            try {
+                newConnector = connectorFactory.connect(url, environment);
+                MBeanServerConnection newConnection = newConnector.getMBeanServerConnection();
+                JMXConnector listened = newConnector;
+                newConnector.addConnectionNotificationListener((notification, handback) -> {
+                    String type = notification.getType();
+                    if (JMXConnectionNotification.FAILED.equals(type) || JMXConnectionNotification.CLOSED.equals(type)) {
+                        // The connector is already down; closing it from its own notification thread could block
+                        drop(listened, false);
+                    }
+                }, null, null);
+
+                lock.lock();
+                try {
+                    // A drop while connecting discards the connection that was being opened
+                    if (opening == pending && !removed) {
+                        connector = newConnector;
+                        connection = newConnection;
+                        newConnector = null;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (newConnector != null) {
+                    throw new IOException("JMX connection to " + url + " was dropped while opening");
+                }
+                opened.increment();
+                log.debug("Opened JMX connection to {}", url);
+                pending.complete(newConnection);
+            } catch (IOException | RuntimeException e) {
+                pending.completeExceptionally(e);
+            } finally {
+                if (newConnector != null) {
+                    closeLater(newConnector);
+                }
+                if (!pending.isDone()) {
+                    pending.completeExceptionally(new IOException("Failed to open JMX connection to " + url));
+                }
+                lock.lock();
+                try {
+                    if (opening == pending) {
+                        opening = null;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        private MBeanServerConnection await(CompletableFuture<MBeanServerConnection> pending) throws IOException {
+            try {
+                return pending.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while connecting to " + url);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException io) {
+                    throw io;
+                }
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IOException(cause);
+            }
+        }
+
+        /**
+         * Never blocks: the lock is only held to swap the fields and the connector is closed later.
+         *
+         * @param expected the connector to drop, or null to drop whichever is open or being opened
+         * @param close whether to close the dropped connector
+         */
+        void drop(JMXConnector expected, boolean close) {
+            JMXConnector current;
+            lock.lock();
+            try {
+                if (expected == null) {
+                    opening = null;
+                }
+                current = connector;
+                if (current == null || (expected != null && current != expected)) {
+                    return;
+                }
+                connector = null;
+                connection = null;
+            } finally {
+                lock.unlock();
+            }
+            dropped.increment();
+            if (close) {
+                closeLater(current);
+            }
+        }
+
+        void remove() {
+            lock.lock();
+            try {
+                removed = true;
+            } finally {
+                lock.unlock();
+            }
+            drop(null, true);
+        }
+
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.util.Map;
+
+/**
+ * Adds details to the status of the {@link MemoryLeakDetectorService} while it reports a
+ * memory leak.
+ *
+ * Called on the requesting thread every time the status is read.
+ */
+@FunctionalInterface
+public interface LeakStatusContributor {
+
+    void contributeLeakStatus(Map<String, Object> status);
+
+}
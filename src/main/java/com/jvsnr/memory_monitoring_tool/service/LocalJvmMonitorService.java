@@ -0,0 +1,363 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.jvsnr.memory_monitoring_tool.dto.GarbageCollectionMetricsDTO;
+import com.jvsnr.memory_monitoring_tool.dto.LocalJvmDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.store.PerfDataFile;
+import com.jvsnr.util.MemoryUtils;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Monitors the JVMs of the same host through their memory-mapped jvmstat counters.
+ *
+ * Every JVM of the user publishes its counters in {@code hsperfdata_<user>/<pid>} under
+ * the temporary directory. Discovery maps the file of every new JVM, resolves the
+ * offsets of the generation, metaspace and collector counters once and forgets JVMs
+ * that exited. A sample then only reads a few longs from the mapping, without attaching
+ * to or even signalling the JVM, and is returned in the metrics model of
+ * {@link MemoryMonitorService} and {@link GarbageCollectionMonitorService}.
+ *
+ * The heap maximum adds the generation maxima only for collectors with disjoint
+ * generations (Serial and Parallel), less one survivor space like the
+ * {@code MemoryMXBean} reports; under G1 and ZGC every generation reports the whole
+ * heap as its maximum. Non heap usage is the metaspace, the perf data has no code cache
+ * counters.
+ */
+@Service
+@Log4j2
+@ConditionalOnProperty(name = "memory-monitor.local-jvms.enabled", havingValue = "true")
+public class LocalJvmMonitorService {
+
+    private final Path directory;
+    private final GarbageCollectionMonitorService garbageCollectionMonitorService;
+    private final LongPredicate isAlive;
+    private final Map<Long, LocalJvm> jvms = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LocalJvmMonitorService(
+            @Value("${memory-monitor.local-jvms.directory:${java.io.tmpdir}/hsperfdata_${user.name}}") Path directory,
+            GarbageCollectionMonitorService garbageCollectionMonitorService) {
+        this(directory, garbageCollectionMonitorService,
+            pid -> ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false));
+    }
+
+    LocalJvmMonitorService(Path directory, GarbageCollectionMonitorService garbageCollectionMonitorService,
+            LongPredicate isAlive) {
+        this.directory = directory;
+        this.garbageCollectionMonitorService = garbageCollectionMonitorService;
+        this.isAlive = isAlive;
+    }
+
+    /**
+     * Map the perf data of new JVMs and forget the ones that exited.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${memory-monitor.local-jvms.discovery-interval-ms:5000}")
+    public void discover() {
+        Set<Long> seen = new HashSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                long pid = parsePid(file.getFileName().toString());
+                if (pid <= 0 || !isAlive.test(pid)) {
+                    continue;
+                }
+                seen.add(pid);
+                LocalJvm jvm = jvms.get(pid);
+                if (jvm == null) {
+                    open(pid, file);
+                } else if (!jvm.isResolved()) {
+                    jvm.resolve();
+                }
+            }
+        } catch (NoSuchFileException e) {
+            log.debug("No perf data directory {}", directory);
+        } catch (IOException e) {
+            log.error("Failed to list perf data directory {}", directory, e);
+        }
+        jvms.keySet().retainAll(seen);
+    }
+
+    private void open(long pid, Path file) {
+        try {
+            LocalJvm jvm = new LocalJvm(pid, PerfDataFile.open(file));
+            jvm.resolve();
+            jvms.put(pid, jvm);
+            log.debug("Discovered local JVM {}: {}", pid, jvm.command);
+        } catch (IOException e) {
+            // Still being created by a starting JVM, or not a perf data file at all
+            log.debug("Skipping perf data file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static long parsePid(String fileName) {
+        try {
+            return Long.parseLong(fileName);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * @return the pids of the discovered JVMs
+     */
+    public Set<Long> getPids() {
+        return Set.copyOf(jvms.keySet());
+    }
+
+    /**
+     * Sample every discovered JVM.
+     *
+     * @return memory and GC metrics of every JVM whose counters are resolved
+     */
+    public List<LocalJvmDTO> getJvms() {
+        List<LocalJvmDTO> result = new ArrayList<>(jvms.size());
+        for (LocalJvm jvm : jvms.values()) {
+            if (jvm.isResolved()) {
+                result.add(toDTO(jvm));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sample one JVM.
+     *
+     * @return memory and GC metrics, or null if the JVM is unknown or its counters are not resolved yet
+     */
+    public LocalJvmDTO getJvm(long pid) {
+        LocalJvm jvm = jvms.get(pid);
+        return jvm != null && jvm.isResolved() ? toDTO(jvm) : null;
+    }
+
+    /**
+     * Sample only the memory of one JVM; allocates nothing but the sample.
+     *
+     * @return the memory sample, or null if the JVM is unknown or its counters are not resolved yet
+     */
+    public MemorySampleDTO sampleMemory(long pid) {
+        LocalJvm jvm = jvms.get(pid);
+        return jvm != null && jvm.isResolved() ? jvm.sampleMemory(System.currentTimeMillis()) : null;
+    }
+
+    private LocalJvmDTO toDTO(LocalJvm jvm) {
+        long now = System.currentTimeMillis();
+        LocalJvmDTO dto = new LocalJvmDTO();
+        dto.setPid(jvm.pid);
+        dto.setCommand(jvm.command);
+        dto.setVmName(jvm.vmName);
+        dto.setStartTime(jvm.startTime);
+        dto.setMemory(jvm.sampleMemory(now));
+        dto.setGcMetrics(sampleGc(jvm, now));
+        return dto;
+    }
+
+    private Map<String, GarbageCollectionMetricsDTO> sampleGc(LocalJvm jvm, long now) {
+        PerfDataFile file = jvm.file;
+        long ticks = file.readLong(jvm.hrtTicks);
+        long upTime = now - jvm.startTime;
+
+        Map<String, GarbageCollectionMetricsDTO> metrics = new LinkedHashMap<>();
+        for (int i = 0; i < jvm.collectorNames.length; i++) {
+            long count = file.readLong(jvm.invocations[i]);
+            long time = jvm.toMillis(file.readLong(jvm.times[i]));
+
+            GarbageCollectionMetricsDTO gcMetrics = new GarbageCollectionMetricsDTO();
+            gcMetrics.setCollectionName(jvm.collectorNames[i]);
+            gcMetrics.setCollectionCount(count);
+            gcMetrics.setCollectionTime(MemoryUtils.formatTime(time));
+            gcMetrics.setType(garbageCollectionMonitorService.determineGCType(jvm.collectorNames[i]));
+            double gcOverhead = upTime > 0 ? ((double) time * 100) / upTime : 0.0;
+            gcMetrics.setGcOverhead(Math.round(gcOverhead * 100.0) / 100.0);
+
+            long lastEntry = file.readLong(jvm.lastEntries[i]);
+            long lastExit = file.readLong(jvm.lastExits[i]);
+            if (count > 0 && lastExit >= lastEntry) {
+                gcMetrics.setLastGCDuration(MemoryUtils.formatTime(jvm.toMillis(lastExit - lastEntry)));
+                gcMetrics.setLastGCStartTime(MemoryUtils.formatDateTime(now - jvm.toMillis(ticks - lastEntry)));
+            } else {
+                gcMetrics.setLastGCDuration("N/A");
+                gcMetrics.setLastGCStartTime("N/A");
+            }
+            metrics.put(gcMetrics.getCollectionName(), gcMetrics);
+        }
+        return metrics;
+    }
+
+    /**
+     * A discovered JVM with the resolved offsets of its counters.
+     */
+    private static class LocalJvm {
+
+        private final long pid;
+        private final PerfDataFile file;
+        private volatile boolean resolved;
+
+        private String command;
+        private String vmName;
+        private long startTime;
+        private long frequency; // ticks per second
+        private int hrtTicks;
+
+        private int[] spaceUsed;
+        private int[] generationCapacity;
+        private int[] generationMax;
+        private boolean disjointGenerations; // generation maxima add up to the heap maximum
+        private int survivorMax; // -1 unless the generations are disjoint
+        private int metaspaceUsed;
+        private int metaspaceCapacity;
+        private int metaspaceMax;
+
+        private String[] collectorNames;
+        private int[] invocations;
+        private int[] times;
+        private int[] lastEntries;
+        private int[] lastExits;
+
+        LocalJvm(long pid, PerfDataFile file) {
+            this.pid = pid;
+            this.file = file;
+        }
+
+        boolean isResolved() {
+            return resolved;
+        }
+
+        /**
+         * Resolve the counter offsets once the JVM made the file accessible.
+         */
+        synchronized void resolve() {
+            if (resolved || !file.isAccessible()) {
+                return;
+            }
+            file.refresh();
+
+            frequency = file.getLong("sun.os.hrt.frequency", 0L);
+            hrtTicks = file.findLong("sun.os.hrt.ticks");
+            startTime = file.getLong("sun.rt.createVmBeginTime", 0L);
+            command = file.getString("sun.rt.javaCommand");
+            vmName = file.getString("java.property.java.vm.name");
+
+            List<Integer> used = new ArrayList<>();
+            List<Integer> capacity = new ArrayList<>();
+            List<Integer> max = new ArrayList<>();
+            for (int generation = 0; ; generation++) {
+                String prefix = "sun.gc.generation." + generation;
+                int generationCapacityOffset = file.findLong(prefix + ".capacity");
+                if (generationCapacityOffset < 0) {
+                    break;
+                }
+                capacity.add(generationCapacityOffset);
+                max.add(file.findLong(prefix + ".maxCapacity"));
+                long spaces = file.getLong(prefix + ".spaces", 0L);
+                for (int space = 0; space < spaces; space++) {
+                    used.add(file.findLong(prefix + ".space." + space + ".used"));
+                }
+            }
+
+            // Serial, Parallel and CMS ("Copy:MSC", "ParScav:MSC", "ParNew:CMS") split the heap;
+            // G1 ("GarbageFirst"), ZGC and Shenandoah report the whole heap per generation
+            String policy = file.getString("sun.gc.policy.name");
+            disjointGenerations = policy != null && policy.contains(":");
+            survivorMax = disjointGenerations ? file.findLong("sun.gc.generation.0.space.1.maxCapacity") : -1;
+
+            List<String> names = new ArrayList<>();
+            for (int collector = 0; ; collector++) {
+                String name = file.getString("sun.gc.collector." + collector + ".name");
+                if (name == null) {
+                    break;
+                }
+                names.add(name);
+            }
+            collectorNames = names.toArray(new String[0]);
+            invocations = collectorCounters("invocations");
+            times = collectorCounters("time");
+            lastEntries = collectorCounters("lastEntryTime");
+            lastExits = collectorCounters("lastExitTime");
+
+            spaceUsed = toArray(used);
+            generationCapacity = toArray(capacity);
+            generationMax = toArray(max);
+            metaspaceUsed = file.findLong("sun.gc.metaspace.used");
+            metaspaceCapacity = file.findLong("sun.gc.metaspace.capacity");
+            metaspaceMax = file.findLong("sun.gc.metaspace.maxCapacity");
+
+            if (frequency <= 0 || hrtTicks < 0 || spaceUsed.length == 0 || contains(spaceUsed, -1)
+                    || contains(generationMax, -1) || contains(invocations, -1) || contains(times, -1)
+                    || contains(lastEntries, -1) || contains(lastExits, -1)) {
+                // Not a layout we know, e.g. a JVM started with -XX:-UsePerfData counters only partly present
+                return;
+            }
+            resolved = true;
+        }
+
+        private int[] collectorCounters(String counter) {
+            int[] offsets = new int[collectorNames.length];
+            for (int collector = 0; collector < offsets.length; collector++) {
+                offsets[collector] = file.findLong("sun.gc.collector." + collector + "." + counter);
+            }
+            return offsets;
+        }
+
+        MemorySampleDTO sampleMemory(long timestamp) {
+            long heapUsed = 0;
+            for (int offset : spaceUsed) {
+                heapUsed += file.readLong(offset);
+            }
+            long heapCommitted = 0;
+            long heapMax = 0;
+            for (int i = 0; i < generationCapacity.length; i++) {
+                heapCommitted += file.readLong(generationCapacity[i]);
+                long generationMaxCapacity = file.readLong(generationMax[i]);
+                heapMax = disjointGenerations ? heapMax + generationMaxCapacity : Math.max(heapMax, generationMaxCapacity);
+            }
+            if (survivorMax >= 0) {
+                // Only one survivor space holds objects at a time
+                heapMax -= file.readLong(survivorMax);
+            }
+            return new MemorySampleDTO(timestamp, heapUsed, heapCommitted, heapMax,
+                read(metaspaceUsed, 0L), read(metaspaceCapacity, 0L), read(metaspaceMax, -1L));
+        }
+
+        long toMillis(long ticks) {
+            // Not ticks * 1000 / frequency, which overflows after about 100 days at 1 GHz
+            return (long) (ticks * 1000.0 / frequency);
+        }
+
+        private long read(int offset, long defaultValue) {
+            return offset >= 0 ? file.readLong(offset) : defaultValue;
+        }
+
+        private static boolean contains(int[] values, int value) {
+            return Arrays.stream(values).anyMatch(candidate -> candidate == value);
+        }
+
+        private static int[] toArray(List<Integer> values) {
+            return values.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+    }
+
+}
@@ -2,74 +2,202 @@ package com.jvsnr.memory_monitoring_tool.service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.jvsnr.memory_monitoring_tool.dto.MemoryHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.event.GcEvent;
+import com.jvsnr.memory_monitoring_tool.store.CompressedTimeSeries;
+import com.jvsnr.memory_monitoring_tool.store.MemoryTimeSeries;
+import com.jvsnr.memory_monitoring_tool.store.SlidingLinearRegression;
 import com.jvsnr.util.MemoryUtils;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
 import lombok.extern.log4j.Log4j2;
 
 @Service
 @Log4j2
-public class MemoryLeakDetectorService {
+public class MemoryLeakDetectorService implements GcEventListener {
 
-    private static final int MEMORY_GROWTH_THRESHOLD = 85; // in percentage
-    private static final int GC_FREQUENCY_THRESHOLD  = 10; // in seconds
-    private static final int SAMPLE_SIZE = 5; // number of measurements to consider
+    static final int MEMORY_GROWTH_THRESHOLD = 85; // in percentage
+    static final int GC_FREQUENCY_THRESHOLD  = 10; // in seconds
+    static final int SAMPLE_SIZE = 5; // number of measurements to consider
+    private static final int RECENT_CAPACITY = 1024; // raw samples for the analysis
+    private static final int HISTORY_CAPACITY = 604800; // 7 days at 1s, compressed
+    private static final int HISTORY_CHUNK_SIZE = 1024;
+    static final String GROWTH_SOURCE_POST_GC = "post-gc-old-gen";
+    static final String GROWTH_SOURCE_HEAP = "heap-samples";
+    static final String MAJOR_GC_ACTION = "end of major GC";
 
     private boolean consistentGrowthDetected;
     private boolean highGCFrequencyDetected;
     private boolean poorReclamationDetected;
     private LocalDateTime lastCheckTime;
 
-    private final Queue<MemorySnapshot> memorySnapshots;
-    private long lastGCTime;
+    private final MemoryTimeSeries memoryHistory;
+    private final CompressedTimeSeries compressedHistory;
+    private final long[] historyValues;
+    private final List<MemorySampleListener> sampleListeners;
+    private final List<LeakStatusContributor> leakStatusContributors;
+    // Start of the latest collection and the gap to the one before it, -1 until seen
+    private volatile long lastGcStartTime = -1;
+    private volatile long lastGcInterval = -1;
+
+    // Growth trend of the live set after GC, falling back to raw heap samples
+    private final SlidingLinearRegression postGcOldGenTrend;
+    private final SlidingLinearRegression heapTrend;
+    private final int[] oldGenPools; // pool indices of GC events
+    private long lastOldGenUsedAfterGc = -1; // of any collection, GC event consumer thread only
+    private final double minGrowthConfidence;
+    private volatile double growthSlope;
+    private volatile double growthConfidence;
+    private volatile String growthSource;
 
     private MemoryMonitorService memoryMonitorService;
+    private final GarbageCollectionMonitorService garbageCollectionMonitorService;
 
-    public MemoryLeakDetectorService(MemoryMonitorService memoryMonitorService) {
+    public MemoryLeakDetectorService(MemoryMonitorService memoryMonitorService,
+            GarbageCollectionMonitorService garbageCollectionMonitorService,
+            @Value("${memory-monitor.leak.regression-window:30}") int regressionWindow,
+            @Value("${memory-monitor.leak.min-growth-confidence:0.8}") double minGrowthConfidence) {
         this.memoryMonitorService = memoryMonitorService;
-        this.memorySnapshots = new LinkedList<>();
-        this.lastGCTime = System.currentTimeMillis();
+        this.garbageCollectionMonitorService = garbageCollectionMonitorService;
+        this.memoryHistory = new MemoryTimeSeries(RECENT_CAPACITY);
+        this.compressedHistory = new CompressedTimeSeries(5, HISTORY_CHUNK_SIZE, HISTORY_CAPACITY);
+        this.historyValues = new long[5];
+        this.sampleListeners = new CopyOnWriteArrayList<>();
+        this.leakStatusContributors = new CopyOnWriteArrayList<>();
+        this.postGcOldGenTrend = new SlidingLinearRegression(regressionWindow);
+        this.heapTrend = new SlidingLinearRegression(regressionWindow);
+        this.oldGenPools = findOldGenPools(garbageCollectionMonitorService.getMemoryPoolNames());
+        this.minGrowthConfidence = minGrowthConfidence;
+        this.growthSource = GROWTH_SOURCE_HEAP;
+        garbageCollectionMonitorService.addGcEventListener(this);
+    }
+
+    /**
+     * Find the old generation pools by name, e.g. "G1 Old Gen", "PS Old Gen", "Tenured Gen"
+     * or "ZGC Old Generation". Single generation collectors have none, their growth trend
+     * comes from the heap samples only.
+     */
+    static int[] findOldGenPools(String[] memoryPoolNames) {
+        int[] pools = new int[memoryPoolNames.length];
+        int count = 0;
+        for (int pool = 0; pool < memoryPoolNames.length; pool++) {
+            String name = memoryPoolNames[pool].toUpperCase();
+            if (name.contains("OLD") || name.contains("TENURED")) {
+                pools[count++] = pool;
+            }
+        }
+        return Arrays.copyOf(pools, count);
     }
 
     /**
      * Analyzes the memory usage and detects memory leaks.
+     *
+     * Runs on the adaptive sampler and, when pool thresholds are enabled, right after a
+     * threshold notification.
      */
-    @Scheduled(fixedRate = 10000) // Run every 10 seconds
-    public void analyseMemoryUsage() {
-        String currentHeapUsage = memoryMonitorService.getHeapMemoryUsage(false);
-        memorySnapshots.add(new MemorySnapshot(currentHeapUsage, System.currentTimeMillis()));
+    public synchronized void analyseMemoryUsage() {
+        MemorySampleDTO sample = memoryMonitorService.sample();
+        memoryHistory.append(sample.getTimestamp(),
+            sample.getHeapMemoryUsed(), sample.getHeapMemoryCommitted(), sample.getHeapMemoryMax(),
+            sample.getNonHeapMemoryUsed(), sample.getNonHeapMemoryCommitted());
+        historyValues[0] = sample.getHeapMemoryUsed();
+        historyValues[1] = sample.getHeapMemoryCommitted();
+        historyValues[2] = sample.getHeapMemoryMax();
+        historyValues[3] = sample.getNonHeapMemoryUsed();
+        historyValues[4] = sample.getNonHeapMemoryCommitted();
+        compressedHistory.append(sample.getTimestamp(), historyValues);
+        heapTrend.add(sample.getTimestamp(), sample.getHeapMemoryUsed());
+
+        checkForMemoryLeak();
+        notifySampleListeners(sample);
+    }
 
-        if (memorySnapshots.size() > SAMPLE_SIZE) {
-            memorySnapshots.poll();
+    /**
+     * Record the start of every collection for the GC frequency check, and feed the old
+     * generation usage after collections that reclaim it into the growth trend.
+     *
+     * Young collections only promote into the old generation, so its usage rises between
+     * old collections even without a leak. Only major collections, and young or mixed ones
+     * that leave less old generation than the previous collection (G1 mixed collections
+     * are reported as minor), add a point; on a healthy sawtooth that is one low point
+     * per old generation cycle.
+     *
+     * Runs on the GC event consumer thread; O(1) and allocation free.
+     */
+    @Override
+    public void onGcEvent(GcEvent event) {
+        if (lastGcStartTime >= 0) {
+            lastGcInterval = event.getStartTime() - lastGcStartTime;
         }
+        lastGcStartTime = event.getStartTime();
 
-        checkForMemoryLeak();
+        long usedAfterGc = 0;
+        for (int pool : oldGenPools) {
+            long used = event.getPoolUsedAfter(pool);
+            if (used < 0) {
+                return;
+            }
+            usedAfterGc += used;
+        }
+        boolean reclaimed = usedAfterGc < lastOldGenUsedAfterGc
+            || MAJOR_GC_ACTION.equals(garbageCollectionMonitorService.getGCEventCodeName(event.getAction()));
+        lastOldGenUsedAfterGc = usedAfterGc;
+        if (reclaimed) {
+            postGcOldGenTrend.add(event.getStartTime() + event.getDuration(), usedAfterGc);
+        }
+    }
+
+    /**
+     * Register a listener for every memory sample taken by the detector.
+     *
+     * @param listener the listener
+     */
+    public void addMemorySampleListener(MemorySampleListener listener) {
+        sampleListeners.add(listener);
+    }
+
+    /**
+     * Register a contributor of details to the status while a memory leak is detected.
+     *
+     * @param contributor the contributor
+     */
+    public void addLeakStatusContributor(LeakStatusContributor contributor) {
+        leakStatusContributors.add(contributor);
+    }
+
+    private void notifySampleListeners(MemorySampleDTO sample) {
+        for (MemorySampleListener listener : sampleListeners) {
+            try {
+                listener.onMemorySample(sample);
+            } catch (RuntimeException e) {
+                log.error("Memory sample listener {} failed", listener, e);
+            }
+        }
     }
 
     /**
      * Checks if a memory leak has been detected.
      */
     private void checkForMemoryLeak() {
-        if (memorySnapshots.size() < SAMPLE_SIZE) {
+        if (memoryHistory.size() < SAMPLE_SIZE) {
             return;
         }
 
         // Check for consistent memory growth
-        consistentGrowthDetected = checkConsistentGrowth();
+        consistentGrowthDetected = checkGrowthTrend();
 
         // Check GC frequency
-        highGCFrequencyDetected = checkGCFrequency();
+        highGCFrequencyDetected = checkGCFrequency(memoryHistory.getTimestamp(memoryHistory.size() - 1));
 
         // Check memory reclamation
         poorReclamationDetected = checkMemoryReclamation();
@@ -94,43 +222,147 @@ public class MemoryLeakDetectorService {
         status.put("poorReclamationDetected", poorReclamationDetected);
         status.put("lastCheckTime", lastCheckTime != null ? lastCheckTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "No check performed yet.");
         status.put("memoryLeakDetected", consistentGrowthDetected && (highGCFrequencyDetected || poorReclamationDetected));
+        status.put("growthSlopeBytesPerSecond", growthSlope);
+        status.put("growthConfidence", growthConfidence);
+        status.put("growthSource", growthSource);
 
         // Add current memory metrics
-        if (!memorySnapshots.isEmpty()) {
-            MemorySnapshot latest = new ArrayList<>(memorySnapshots).get(memorySnapshots.size() - 1);
-            status.put("currentHeapUsage", MemoryUtils.formatBytes(Long.parseLong(latest.getMemoryUsage())));
-            status.put("maxHeapMemory", MemoryUtils.formatBytes(Long.parseLong(memoryMonitorService.getHeapMemoryMax(false))));
-            status.put("usagePercentage", String.format("%.2f", ((Long.parseLong(latest.getMemoryUsage()) * 100.0) / Long.parseLong(memoryMonitorService.getHeapMemoryMax(false)))));
+        if (!memoryHistory.isEmpty()) {
+            int latest = memoryHistory.size() - 1;
+            long heapUsed = memoryHistory.getHeapUsed(latest);
+            long heapMax = memoryHistory.getHeapMax(latest);
+            status.put("currentHeapUsage", MemoryUtils.formatBytes(heapUsed));
+            status.put("maxHeapMemory", MemoryUtils.formatBytes(heapMax));
+            status.put("usagePercentage", String.format("%.2f", (heapUsed * 100.0) / heapMax));
+        }
+
+        if (isMemoryLeakDetected()) {
+            for (LeakStatusContributor contributor : leakStatusContributors) {
+                try {
+                    contributor.contributeLeakStatus(status);
+                } catch (RuntimeException e) {
+                    log.error("Leak status contributor {} failed", contributor, e);
+                }
+            }
         }
 
         return status;
     }
 
+    /**
+     * @return the slope of the latest growth trend in bytes per second
+     */
+    public double getGrowthSlope() {
+        return growthSlope;
+    }
+
+    /**
+     * @return the confidence (R²) of the latest growth trend
+     */
+    public double getGrowthConfidence() {
+        return growthConfidence;
+    }
+
+    /**
+     * @return whether the latest analysis found consistent growth
+     */
+    public boolean isConsistentGrowthDetected() {
+        return consistentGrowthDetected;
+    }
+
+    /**
+     * @return whether the latest analysis found collections closer together than the GC frequency threshold
+     */
+    public boolean isHighGCFrequencyDetected() {
+        return highGCFrequencyDetected;
+    }
+
+    /**
+     * @return whether the latest analysis found collections reclaiming too little
+     */
+    public boolean isPoorReclamationDetected() {
+        return poorReclamationDetected;
+    }
+
+    /**
+     * @return whether the latest analysis found consistent growth together with high GC frequency or poor reclamation
+     */
+    public boolean isMemoryLeakDetected() {
+        return consistentGrowthDetected && (highGCFrequencyDetected || poorReclamationDetected);
+    }
+
+    /**
+     * Returns the most recent memory samples, oldest first.
+     *
+     * The samples of the last days are kept delta-of-delta and XOR compressed, a few
+     * bytes per sample; only the chunks holding the requested samples are decoded.
+     *
+     * @param limit the maximum number of samples to return
+     * @return the sampled heap and non heap values as primitive columns
+     */
+    public MemoryHistoryDTO getMemoryHistory(int limit) {
+        int count = Math.max(0, Math.min(limit, compressedHistory.size()));
+
+        MemoryHistoryDTO history = new MemoryHistoryDTO();
+        history.setTimestamps(new long[count]);
+        history.setHeapMemoryUsed(new long[count]);
+        history.setHeapMemoryCommitted(new long[count]);
+        history.setHeapMemoryMax(new long[count]);
+        history.setNonHeapMemoryUsed(new long[count]);
+        history.setNonHeapMemoryCommitted(new long[count]);
+
+        compressedHistory.copyLatest(history.getTimestamps(), new long[][] { history.getHeapMemoryUsed(),
+            history.getHeapMemoryCommitted(), history.getHeapMemoryMax(),
+            history.getNonHeapMemoryUsed(), history.getNonHeapMemoryCommitted() });
+        return history;
+    }
+
+    /**
+     * @return the number of samples in the compressed history and its size in bytes
+     */
+    public Map<String, Long> getHistoryStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("samples", (long) compressedHistory.size());
+        stats.put("chunks", (long) compressedHistory.getChunkCount());
+        stats.put("compressedBytes", compressedHistory.getCompressedBytes());
+        return stats;
+    }
+
     /**
      * Checks if the memory usage is consistently growing.
-     * 
+     *
+     * Uses the least-squares slope of the old generation usage after collections that
+     * reclaim it, which ignores young generation churn and promotion, once enough of them
+     * were seen, otherwise the slope of the raw heap samples. Growth is consistent when
+     * the slope is positive and the points fit the line with at least the minimum
+     * confidence (R²).
+     *
      * @return true if the memory usage is consistently growing, false otherwise
      */
-    private boolean checkConsistentGrowth() {
-        List<MemorySnapshot> snapshots = new ArrayList<>(memorySnapshots);
-        for (int i = 1; i < snapshots.size(); i++) {
-            if (Long.parseLong(snapshots.get(i).getMemoryUsage()) <= Long.parseLong(snapshots.get(i-1).getMemoryUsage())) {
-                return false;
-            }
-        }
-        return true;
+    private boolean checkGrowthTrend() {
+        SlidingLinearRegression trend = postGcOldGenTrend.size() >= SAMPLE_SIZE ? postGcOldGenTrend : heapTrend;
+        growthSource = trend == postGcOldGenTrend ? GROWTH_SOURCE_POST_GC : GROWTH_SOURCE_HEAP;
+        growthSlope = trend.slope();
+        growthConfidence = trend.confidence();
+        return trend.size() >= SAMPLE_SIZE && growthSlope > 0 && growthConfidence >= minGrowthConfidence;
     }
 
     /**
      * Checks if the GC frequency is high.
-     * 
+     *
+     * Based on the collections themselves, not on the analysis runs, which the adaptive
+     * sampler and threshold notifications schedule far more often than every 10 seconds:
+     * the latest two collections started less than the threshold apart, and the latest
+     * one less than the threshold before the sample.
+     *
+     * @param sampleTime timestamp of the latest sample in epoch millis
      * @return true if the GC frequency is high, false otherwise
      */
-    private boolean checkGCFrequency() {
-        long currentGCTime = System.currentTimeMillis();
-        boolean highFrequency = (currentGCTime - lastGCTime) < (GC_FREQUENCY_THRESHOLD * 1000);
-        lastGCTime = currentGCTime;
-        return highFrequency;
+    private boolean checkGCFrequency(long sampleTime) {
+        long interval = lastGcInterval;
+        long lastStart = lastGcStartTime;
+        long threshold = GC_FREQUENCY_THRESHOLD * 1000L;
+        return interval >= 0 && interval < threshold && sampleTime - lastStart < threshold;
     }
 
     /**
@@ -139,22 +371,14 @@ public class MemoryLeakDetectorService {
      * @return true if memory reclamation is occurring, false otherwise
      */
     private boolean checkMemoryReclamation() {
-        if (memorySnapshots.isEmpty()) return false;
+        if (memoryHistory.size() < SAMPLE_SIZE) return false;
 
-        long currentHeapUsage = Long.parseLong(memorySnapshots.peek().getMemoryUsage());
-        long maxHeapMemory = Long.parseLong(memoryMonitorService.getHeapMemoryMax(false));
+        // Oldest sample of the window: usage that stayed high across the whole window
+        long currentHeapUsage = memoryHistory.getHeapUsed(memoryHistory.size() - SAMPLE_SIZE);
+        long maxHeapMemory = memoryHistory.getHeapMax(memoryHistory.size() - 1);
+        if (maxHeapMemory <= 0) return false;
 
         return ((currentHeapUsage * 100) / maxHeapMemory) > MEMORY_GROWTH_THRESHOLD;
     }
  
 }
-
-/**
- * A class to represent a memory snapshot.
- */
-@Data
-@AllArgsConstructor
-class MemorySnapshot {
-    String memoryUsage;
-    long timestamp;
-}
\ No newline at end of file
@@ -6,6 +6,7 @@ import java.lang.management.MemoryUsage;
 
 import org.springframework.stereotype.Service;
 
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
 import com.jvsnr.util.MemoryUtils;
 
 @Service
@@ -20,6 +21,22 @@ public class MemoryMonitorService {
     public MemoryMonitorService(MemoryMXBean memoryMXBean) {
         this.memoryMXBean = memoryMXBean;
     }
+
+    /**
+     * take a memory sample
+     *
+     * Heap and non heap usage are read exactly once, so every value of the sample
+     * is consistent with the others.
+     *
+     * @return heap and non heap usage in bytes
+     */
+    public MemorySampleDTO sample() {
+        MemoryUsage heap = memoryMXBean.getHeapMemoryUsage();
+        MemoryUsage nonHeap = memoryMXBean.getNonHeapMemoryUsage();
+        return new MemorySampleDTO(System.currentTimeMillis(),
+            heap.getUsed(), heap.getCommitted(), heap.getMax(),
+            nonHeap.getUsed(), nonHeap.getCommitted(), nonHeap.getMax());
+    }
     
     /**
      * get heap memory usage
@@ -84,15 +101,7 @@ public class MemoryMonitorService {
      */
     public String getMemoryUtilisation() {
         MemoryUsage heapMemoryUsage = memoryMXBean.getHeapMemoryUsage();
-        long used = heapMemoryUsage.getUsed();
-        long max = heapMemoryUsage.getMax();
-
-        if (max <= 0) {
-            return "0.0";
-        }
-
-        float percentage = ((float) used / max) * 100;
-        return Double.toString(percentage);
+        return Double.toString(MemoryUtils.utilisation(heapMemoryUsage.getUsed(), heapMemoryUsage.getMax()));
     }
 
 }
@@ -0,0 +1,235 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.jvsnr.memory_monitoring_tool.dto.MemoryPoolThresholdDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Event-driven leak detection based on memory pool thresholds.
+ *
+ * Usage and collection-usage thresholds are set on every tenured heap pool, i.e. every
+ * heap pool supporting a usage threshold, and the JVM notifies us when they are
+ * crossed; nothing is polled while usage stays below them. A usage notification is
+ * only sent again once usage dropped below the threshold, so after each notification
+ * the usage threshold is raised by one step to catch a continuing ramp and it is
+ * lowered back once usage is below the base threshold again. Every notification
+ * triggers an immediate leak analysis.
+ *
+ * Enabled with {@code memory-monitor.pool-thresholds.enabled=true}.
+ */
+@Service
+@Log4j2
+@ConditionalOnProperty(name = "memory-monitor.pool-thresholds.enabled", havingValue = "true")
+public class MemoryPoolThresholdService implements MemorySampleListener {
+
+    private final MemoryLeakDetectorService memoryLeakDetectorService;
+    private final MemoryMXBean memoryMXBean;
+    private final double usageThreshold;
+    private final double collectionUsageThreshold;
+    private final double thresholdStep;
+    private final ExecutorService analysisExecutor;
+
+    private final Map<String, TenuredPool> tenuredPools;
+    private NotificationListener notificationListener;
+
+    @Autowired
+    public MemoryPoolThresholdService(MemoryLeakDetectorService memoryLeakDetectorService,
+            @Value("${memory-monitor.pool-thresholds.usage-percentage:80}") int usagePercentage,
+            @Value("${memory-monitor.pool-thresholds.collection-usage-percentage:70}") int collectionUsagePercentage,
+            @Value("${memory-monitor.pool-thresholds.step-percentage:5}") int stepPercentage) {
+        this(memoryLeakDetectorService, ManagementFactory.getMemoryMXBean(), ManagementFactory.getMemoryPoolMXBeans(),
+            usagePercentage, collectionUsagePercentage, stepPercentage,
+            Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "pool-threshold-analysis");
+                thread.setDaemon(true);
+                return thread;
+            }));
+    }
+
+    MemoryPoolThresholdService(MemoryLeakDetectorService memoryLeakDetectorService, MemoryMXBean memoryMXBean,
+            List<MemoryPoolMXBean> memoryPoolMXBeans, int usagePercentage, int collectionUsagePercentage,
+            int stepPercentage, ExecutorService analysisExecutor) {
+        this.memoryLeakDetectorService = memoryLeakDetectorService;
+        this.memoryMXBean = memoryMXBean;
+        this.usageThreshold = usagePercentage / 100.0;
+        this.collectionUsageThreshold = collectionUsagePercentage / 100.0;
+        this.thresholdStep = stepPercentage / 100.0;
+        this.analysisExecutor = analysisExecutor;
+        this.tenuredPools = new LinkedHashMap<>();
+
+        setUpThresholds(memoryPoolMXBeans);
+        memoryLeakDetectorService.addMemorySampleListener(this);
+    }
+
+    /**
+     * Set the thresholds on the tenured pools and listen for the threshold notifications.
+     */
+    private void setUpThresholds(List<MemoryPoolMXBean> memoryPoolMXBeans) {
+        for (MemoryPoolMXBean pool : memoryPoolMXBeans) {
+            if (pool.getType() != MemoryType.HEAP || !pool.isUsageThresholdSupported()) {
+                continue;
+            }
+            long max = pool.getUsage().getMax();
+            if (max <= 0) {
+                log.info("Not setting thresholds on memory pool {} without a maximum size", pool.getName());
+                continue;
+            }
+
+            TenuredPool tenuredPool = new TenuredPool(pool, (long) (max * usageThreshold));
+            pool.setUsageThreshold(tenuredPool.baseUsageThreshold);
+            if (pool.isCollectionUsageThresholdSupported()) {
+                pool.setCollectionUsageThreshold((long) (max * collectionUsageThreshold));
+            }
+            tenuredPools.put(pool.getName(), tenuredPool);
+            log.info("Memory pool {} thresholds set: usage {}, collection usage {}", pool.getName(),
+                pool.getUsageThreshold(), pool.isCollectionUsageThresholdSupported() ? pool.getCollectionUsageThreshold() : "n/a");
+        }
+
+        if (!tenuredPools.isEmpty() && memoryMXBean instanceof NotificationEmitter) {
+            notificationListener = (notification, handback) -> {
+                String type = notification.getType();
+                if (type.equals(MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED)
+                        || type.equals(MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED)) {
+                    MemoryNotificationInfo info = MemoryNotificationInfo.from((CompositeData) notification.getUserData());
+                    onThresholdExceeded(type, info.getPoolName(), info.getUsage());
+                }
+            };
+            ((NotificationEmitter) memoryMXBean).addNotificationListener(notificationListener, null, null);
+        }
+    }
+
+    /**
+     * Handle a threshold notification.
+     *
+     * Called on the JMX notification thread: the usage threshold is re-armed right away,
+     * the leak analysis runs on its own thread.
+     *
+     * @param type the notification type
+     * @param poolName the pool whose threshold was exceeded
+     * @param usage the usage of the pool when the notification was created
+     */
+    void onThresholdExceeded(String type, String poolName, MemoryUsage usage) {
+        TenuredPool tenuredPool = tenuredPools.get(poolName);
+        if (tenuredPool == null) {
+            return;
+        }
+        tenuredPool.lastExceededTime = System.currentTimeMillis();
+
+        if (type.equals(MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED)) {
+            // Step above the current usage so a continuing ramp is notified again
+            long max = usage.getMax() > 0 ? usage.getMax() : tenuredPool.pool.getUsage().getMax();
+            long step = (long) (max * thresholdStep);
+            long next = Math.max(tenuredPool.pool.getUsageThreshold(), usage.getUsed()) + step;
+            if (step > 0 && next < max) {
+                tenuredPool.pool.setUsageThreshold(next);
+            }
+            log.warn("Memory pool {} usage {} exceeded its threshold", poolName, usage.getUsed());
+        } else {
+            log.warn("Memory pool {} usage after GC {} exceeded its collection threshold", poolName, usage.getUsed());
+        }
+
+        analysisExecutor.execute(memoryLeakDetectorService::analyseMemoryUsage);
+    }
+
+    /**
+     * Lower raised usage thresholds back to their base once usage fell below it.
+     */
+    @Override
+    public void onMemorySample(MemorySampleDTO sample) {
+        for (TenuredPool tenuredPool : tenuredPools.values()) {
+            MemoryPoolMXBean pool = tenuredPool.pool;
+            if (pool.getUsageThreshold() > tenuredPool.baseUsageThreshold
+                    && pool.getUsage().getUsed() < tenuredPool.baseUsageThreshold) {
+                pool.setUsageThreshold(tenuredPool.baseUsageThreshold);
+                log.info("Memory pool {} usage threshold re-armed at {}", pool.getName(), tenuredPool.baseUsageThreshold);
+            }
+        }
+    }
+
+    /**
+     * Get the thresholds of the tenured pools
+     *
+     * @return the thresholds, crossing counts and current usage per pool
+     */
+    public List<MemoryPoolThresholdDTO> getThresholdStatus() {
+        List<MemoryPoolThresholdDTO> status = new ArrayList<>();
+        for (TenuredPool tenuredPool : tenuredPools.values()) {
+            MemoryPoolMXBean pool = tenuredPool.pool;
+            MemoryUsage usage = pool.getUsage();
+            MemoryPoolThresholdDTO dto = new MemoryPoolThresholdDTO();
+            dto.setPoolName(pool.getName());
+            dto.setMax(usage.getMax());
+            dto.setUsed(usage.getUsed());
+            dto.setUsageThreshold(pool.getUsageThreshold());
+            dto.setUsageThresholdCount(pool.getUsageThresholdCount());
+            if (pool.isCollectionUsageThresholdSupported()) {
+                dto.setCollectionUsageThreshold(pool.getCollectionUsageThreshold());
+                dto.setCollectionUsageThresholdCount(pool.getCollectionUsageThresholdCount());
+            }
+            dto.setLastExceededTime(tenuredPool.lastExceededTime);
+            status.add(dto);
+        }
+        return status;
+    }
+
+    /**
+     * Stop listening for threshold notifications and clear the thresholds.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (notificationListener != null) {
+            try {
+                ((NotificationEmitter) memoryMXBean).removeNotificationListener(notificationListener);
+            } catch (ListenerNotFoundException e) {
+                log.debug("Memory threshold listener already removed", e);
+            }
+            notificationListener = null;
+        }
+        for (TenuredPool tenuredPool : tenuredPools.values()) {
+            tenuredPool.pool.setUsageThreshold(0);
+            if (tenuredPool.pool.isCollectionUsageThresholdSupported()) {
+                tenuredPool.pool.setCollectionUsageThreshold(0);
+            }
+        }
+        analysisExecutor.shutdownNow();
+    }
+
+    private static class TenuredPool {
+
+        private final MemoryPoolMXBean pool;
+        private final long baseUsageThreshold;
+        private volatile long lastExceededTime;
+
+        TenuredPool(MemoryPoolMXBean pool, long baseUsageThreshold) {
+            this.pool = pool;
+            this.baseUsageThreshold = baseUsageThreshold;
+        }
+
+    }
+
+}
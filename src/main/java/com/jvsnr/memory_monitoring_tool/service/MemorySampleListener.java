@@ -0,0 +1,15 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+
+/**
+ * Receives every memory sample taken by the {@link MemoryLeakDetectorService}.
+ *
+ * Called on the sampling thread, so implementations must return quickly.
+ */
+@FunctionalInterface
+public interface MemorySampleListener {
+
+    void onMemorySample(MemorySampleDTO sample);
+
+}
@@ -0,0 +1,368 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.jvsnr.memory_monitoring_tool.constant.GarbageCollectionType;
+import com.jvsnr.memory_monitoring_tool.dto.ClassLoaderStatsDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.event.GcEvent;
+import com.jvsnr.memory_monitoring_tool.store.ClassLoaderStats;
+import com.jvsnr.memory_monitoring_tool.store.SlidingLinearRegression;
+import com.jvsnr.util.MemoryUtils;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Detects class loader leaks, the classes and Metaspace an application keeps when its
+ * class loaders are never collected, e.g. after every redeploy.
+ *
+ * The loaded class count of the {@link ClassLoadingMXBean} and the usage of the
+ * Metaspace and Compressed Class Space pools are read on every sample of the
+ * {@link MemoryLeakDetectorService}. Metaspace is only freed when a GC unloads classes,
+ * so its usage after every old, full or concurrent collection, and after any GC that
+ * did unload classes, is fed into a {@link SlidingLinearRegression}, falling back to the
+ * sampled usage until enough of these GCs were seen. A Metaspace leak is detected when,
+ * after the warm-up, the loaded class count and Metaspace both grow consistently and
+ * Metaspace or the Compressed Class Space either exceeds the usage threshold or runs
+ * out within the exhaustion horizon; an application still loading its classes grows
+ * just as consistently, but towards a plateau. The per-loader
+ * statistics of {@code VM.classloader_stats} walk every class loader at a safepoint
+ * and are only taken on request.
+ */
+@Service
+@Log4j2
+public class MetaspaceMonitorService implements MemorySampleListener, GcEventListener {
+
+    static final String METASPACE_POOL = "Metaspace";
+    static final String COMPRESSED_CLASS_SPACE_POOL = "Compressed Class Space";
+    static final String GROWTH_SOURCE_POST_GC = "post-gc-metaspace";
+    static final String GROWTH_SOURCE_SAMPLES = "metaspace-samples";
+    static final String DIAGNOSTIC_COMMAND = "com.sun.management:type=DiagnosticCommand";
+    static final String OPERATION = "vmClassloaderStats";
+    private static final Object[] ARGUMENTS = { null };
+    private static final String[] SIGNATURE = { String[].class.getName() };
+
+    private final ClassLoadingMXBean classLoadingMXBean;
+    private final MemoryPoolMXBean metaspacePool;
+    private final MemoryPoolMXBean compressedClassSpacePool;
+    private final int[] metaspaceGcPools; // pool indices of GC events
+    private final boolean[] unloadingCollectors; // per collector index of GC events
+    private final MBeanServer mBeanServer;
+    private final ObjectName diagnosticCommand;
+    private final double minGrowthConfidence;
+    private final int usageThresholdPercentage;
+    private final long warmUpMillis;
+    private final long exhaustionHorizonSeconds;
+
+    private final SlidingLinearRegression loadedClassTrend;
+    private final SlidingLinearRegression postGcMetaspaceTrend;
+    private final SlidingLinearRegression metaspaceTrend;
+    private final SlidingLinearRegression compressedClassSpaceTrend;
+
+    private long firstSampleTime = -1;
+    private long unloadedClassCountAtGc = -1;
+
+    private long loadedClassCount;
+    private long totalLoadedClassCount;
+    private long unloadedClassCount;
+    private long metaspaceUsed;
+    private long metaspaceCommitted;
+    private long metaspaceMax = -1;
+    private long compressedClassSpaceUsed;
+    private long compressedClassSpaceMax = -1;
+    private String metaspaceGrowthSource = GROWTH_SOURCE_SAMPLES;
+
+    private boolean loadedClassGrowthDetected;
+    private boolean metaspaceGrowthDetected;
+    private boolean highUsageDetected;
+    private boolean exhaustionImminent;
+    private boolean warmingUp = true;
+    private boolean metaspaceLeakDetected;
+    private LocalDateTime lastCheckTime;
+
+    private Map<String, ClassLoaderStatsDTO> previousClassLoaderStats = Map.of();
+
+    @Autowired
+    public MetaspaceMonitorService(MemoryLeakDetectorService memoryLeakDetectorService,
+            GarbageCollectionMonitorService garbageCollectionMonitorService,
+            @Value("${memory-monitor.leak.regression-window:30}") int regressionWindow,
+            @Value("${memory-monitor.leak.min-growth-confidence:0.8}") double minGrowthConfidence,
+            @Value("${memory-monitor.metaspace.usage-threshold-percentage:85}") int usageThresholdPercentage,
+            @Value("${memory-monitor.metaspace.warm-up-seconds:600}") long warmUpSeconds,
+            @Value("${memory-monitor.metaspace.exhaustion-horizon-seconds:3600}") long exhaustionHorizonSeconds)
+            throws MalformedObjectNameException {
+        this(memoryLeakDetectorService, garbageCollectionMonitorService, ManagementFactory.getClassLoadingMXBean(),
+            ManagementFactory.getMemoryPoolMXBeans(), ManagementFactory.getPlatformMBeanServer(), regressionWindow,
+            minGrowthConfidence, usageThresholdPercentage, warmUpSeconds, exhaustionHorizonSeconds);
+    }
+
+    MetaspaceMonitorService(MemoryLeakDetectorService memoryLeakDetectorService,
+            GarbageCollectionMonitorService garbageCollectionMonitorService, ClassLoadingMXBean classLoadingMXBean,
+            List<MemoryPoolMXBean> memoryPools, MBeanServer mBeanServer, int regressionWindow,
+            double minGrowthConfidence, int usageThresholdPercentage, long warmUpSeconds,
+            long exhaustionHorizonSeconds) throws MalformedObjectNameException {
+        this.classLoadingMXBean = classLoadingMXBean;
+        this.metaspacePool = findPool(memoryPools, METASPACE_POOL);
+        this.compressedClassSpacePool = findPool(memoryPools, COMPRESSED_CLASS_SPACE_POOL);
+        this.metaspaceGcPools = findMetaspacePools(garbageCollectionMonitorService.getMemoryPoolNames());
+        this.unloadingCollectors = findUnloadingCollectors(garbageCollectionMonitorService);
+        this.mBeanServer = mBeanServer;
+        this.diagnosticCommand = new ObjectName(DIAGNOSTIC_COMMAND);
+        this.minGrowthConfidence = minGrowthConfidence;
+        this.usageThresholdPercentage = usageThresholdPercentage;
+        this.warmUpMillis = warmUpSeconds * 1000L;
+        this.exhaustionHorizonSeconds = exhaustionHorizonSeconds;
+        this.loadedClassTrend = new SlidingLinearRegression(regressionWindow);
+        this.postGcMetaspaceTrend = new SlidingLinearRegression(regressionWindow);
+        this.metaspaceTrend = new SlidingLinearRegression(regressionWindow);
+        this.compressedClassSpaceTrend = new SlidingLinearRegression(regressionWindow);
+        memoryLeakDetectorService.addMemorySampleListener(this);
+        if (metaspaceGcPools.length > 0) {
+            garbageCollectionMonitorService.addGcEventListener(this);
+        }
+    }
+
+    private static MemoryPoolMXBean findPool(List<MemoryPoolMXBean> memoryPools, String name) {
+        for (MemoryPoolMXBean pool : memoryPools) {
+            if (name.equals(pool.getName())) {
+                return pool;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the Metaspace pool among the pools of GC events; its usage includes the
+     * Compressed Class Space.
+     */
+    static int[] findMetaspacePools(String[] memoryPoolNames) {
+        int[] pools = new int[memoryPoolNames.length];
+        int count = 0;
+        for (int pool = 0; pool < memoryPoolNames.length; pool++) {
+            if (METASPACE_POOL.equals(memoryPoolNames[pool])) {
+                pools[count++] = pool;
+            }
+        }
+        return Arrays.copyOf(pools, count);
+    }
+
+    /**
+     * Find the collectors that can unload classes: old generation and full collectors,
+     * and the concurrent cycles of G1, ZGC and Shenandoah. Young collections never do.
+     */
+    static boolean[] findUnloadingCollectors(GarbageCollectionMonitorService garbageCollectionMonitorService) {
+        boolean[] collectors = new boolean[garbageCollectionMonitorService.getCollectorCount()];
+        for (int collector = 0; collector < collectors.length; collector++) {
+            String name = garbageCollectionMonitorService.getCollectorName(collector);
+            String type = garbageCollectionMonitorService.determineGCType(name);
+            collectors[collector] = !GarbageCollectionType.YOUNG_GENERATION.name().equals(type)
+                && (GarbageCollectionType.OLD_GENERATION.name().equals(type)
+                    || name.contains("Concurrent") || name.contains("Cycles"));
+        }
+        return collectors;
+    }
+
+    /**
+     * Feed the Metaspace usage after a GC that can unload classes, or did, into the growth trend.
+     *
+     * Runs on the GC event consumer thread; O(1) and allocation free.
+     */
+    @Override
+    public synchronized void onGcEvent(GcEvent event) {
+        long unloaded = classLoadingMXBean.getUnloadedClassCount();
+        boolean unloading = event.getCollector() < unloadingCollectors.length && unloadingCollectors[event.getCollector()];
+        boolean unloadedClasses = unloadedClassCountAtGc >= 0 && unloaded != unloadedClassCountAtGc;
+        unloadedClassCountAtGc = unloaded;
+        if (!unloading && !unloadedClasses) {
+            return;
+        }
+        long usedAfterGc = 0;
+        for (int pool : metaspaceGcPools) {
+            long used = event.getPoolUsedAfter(pool);
+            if (used < 0) {
+                return;
+            }
+            usedAfterGc += used;
+        }
+        postGcMetaspaceTrend.add(event.getStartTime() + event.getDuration(), usedAfterGc);
+    }
+
+    /**
+     * Read class loading and Metaspace along with every memory sample and check for a leak.
+     */
+    @Override
+    public synchronized void onMemorySample(MemorySampleDTO sample) {
+        if (firstSampleTime < 0) {
+            firstSampleTime = sample.getTimestamp();
+        }
+        warmingUp = sample.getTimestamp() - firstSampleTime < warmUpMillis;
+        loadedClassCount = classLoadingMXBean.getLoadedClassCount();
+        totalLoadedClassCount = classLoadingMXBean.getTotalLoadedClassCount();
+        unloadedClassCount = classLoadingMXBean.getUnloadedClassCount();
+        loadedClassTrend.add(sample.getTimestamp(), loadedClassCount);
+        if (metaspacePool != null) {
+            metaspaceUsed = metaspacePool.getUsage().getUsed();
+            metaspaceCommitted = metaspacePool.getUsage().getCommitted();
+            metaspaceMax = metaspacePool.getUsage().getMax();
+            metaspaceTrend.add(sample.getTimestamp(), metaspaceUsed);
+        }
+        if (compressedClassSpacePool != null) {
+            compressedClassSpaceUsed = compressedClassSpacePool.getUsage().getUsed();
+            compressedClassSpaceMax = compressedClassSpacePool.getUsage().getMax();
+            compressedClassSpaceTrend.add(sample.getTimestamp(), compressedClassSpaceUsed);
+        }
+        lastCheckTime = LocalDateTime.now();
+        checkForMetaspaceLeak();
+    }
+
+    private void checkForMetaspaceLeak() {
+        loadedClassGrowthDetected = isConsistentGrowth(loadedClassTrend);
+        SlidingLinearRegression trend = metaspaceTrend();
+        metaspaceGrowthSource = trend == postGcMetaspaceTrend ? GROWTH_SOURCE_POST_GC : GROWTH_SOURCE_SAMPLES;
+        metaspaceGrowthDetected = isConsistentGrowth(trend);
+        highUsageDetected = usagePercentage(metaspaceUsed, metaspaceMax) > usageThresholdPercentage
+            || usagePercentage(compressedClassSpaceUsed, compressedClassSpaceMax) > usageThresholdPercentage;
+        long secondsToExhaustion = secondsToExhaustion(trend);
+        exhaustionImminent = metaspaceGrowthDetected && secondsToExhaustion >= 0
+            && secondsToExhaustion <= exhaustionHorizonSeconds;
+
+        boolean detected = !warmingUp && loadedClassGrowthDetected && metaspaceGrowthDetected
+            && (highUsageDetected || exhaustionImminent);
+        if (detected && !metaspaceLeakDetected) {
+            log.warn("Potential class loader leak detected: {} classes loaded, {} unloaded, Metaspace {} growing {}/s",
+                loadedClassCount, unloadedClassCount, MemoryUtils.formatBytes(metaspaceUsed),
+                MemoryUtils.formatBytes((long) trend.slope()));
+        }
+        metaspaceLeakDetected = detected;
+    }
+
+    private SlidingLinearRegression metaspaceTrend() {
+        return postGcMetaspaceTrend.size() >= MemoryLeakDetectorService.SAMPLE_SIZE ? postGcMetaspaceTrend : metaspaceTrend;
+    }
+
+    /**
+     * @return seconds until Metaspace or the Compressed Class Space reaches its maximum at
+     *         the current growth, whichever comes first, or -1 if neither is bounded and growing
+     */
+    private long secondsToExhaustion(SlidingLinearRegression trend) {
+        long metaspace = secondsToExhaustion(metaspaceUsed, metaspaceMax, trend.slope());
+        long compressedClassSpace = secondsToExhaustion(compressedClassSpaceUsed, compressedClassSpaceMax,
+            compressedClassSpaceTrend.slope());
+        if (metaspace < 0 || compressedClassSpace < 0) {
+            return Math.max(metaspace, compressedClassSpace);
+        }
+        return Math.min(metaspace, compressedClassSpace);
+    }
+
+    private static long secondsToExhaustion(long used, long max, double slope) {
+        if (max <= 0 || slope <= 0) {
+            return -1;
+        }
+        return (long) (Math.max(0, max - used) / slope);
+    }
+
+    private boolean isConsistentGrowth(SlidingLinearRegression trend) {
+        return trend.size() >= MemoryLeakDetectorService.SAMPLE_SIZE && trend.slope() > 0
+            && trend.confidence() >= minGrowthConfidence;
+    }
+
+    /**
+     * @return used in percent of max, or -1 if the pool is unbounded
+     */
+    private static double usagePercentage(long used, long max) {
+        return max > 0 ? used * 100.0 / max : -1;
+    }
+
+    /**
+     * Returns the current status of the Metaspace leak detection.
+     *
+     * @return a map containing the status of the Metaspace leak detection
+     */
+    public synchronized Map<String, Object> getLeakDetectionStatus() {
+        SlidingLinearRegression trend = metaspaceTrend();
+        Map<String, Object> status = new HashMap<>();
+        status.put("loadedClassGrowthDetected", loadedClassGrowthDetected);
+        status.put("metaspaceGrowthDetected", metaspaceGrowthDetected);
+        status.put("highUsageDetected", highUsageDetected);
+        status.put("exhaustionImminent", exhaustionImminent);
+        status.put("warmingUp", warmingUp);
+        status.put("metaspaceLeakDetected", metaspaceLeakDetected);
+        status.put("lastCheckTime", lastCheckTime != null ? lastCheckTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "No check performed yet.");
+        status.put("loadedClassCount", loadedClassCount);
+        status.put("totalLoadedClassCount", totalLoadedClassCount);
+        status.put("unloadedClassCount", unloadedClassCount);
+        status.put("classGrowthPerSecond", loadedClassTrend.slope());
+        status.put("classGrowthConfidence", loadedClassTrend.confidence());
+        status.put("metaspaceUsed", MemoryUtils.formatBytes(metaspaceUsed));
+        status.put("metaspaceCommitted", MemoryUtils.formatBytes(metaspaceCommitted));
+        status.put("metaspaceMax", metaspaceMax > 0 ? MemoryUtils.formatBytes(metaspaceMax) : "unlimited");
+        status.put("compressedClassSpaceUsed", MemoryUtils.formatBytes(compressedClassSpaceUsed));
+        status.put("metaspaceGrowthSlopeBytesPerSecond", trend.slope());
+        status.put("metaspaceGrowthConfidence", trend.confidence());
+        status.put("metaspaceGrowthSource", metaspaceGrowthSource);
+        status.put("secondsToExhaustion", secondsToExhaustion(trend));
+        if (metaspaceMax > 0) {
+            status.put("usagePercentage", String.format("%.2f", usagePercentage(metaspaceUsed, metaspaceMax)));
+        }
+        if (compressedClassSpaceMax > 0) {
+            status.put("compressedClassSpaceUsagePercentage",
+                String.format("%.2f", usagePercentage(compressedClassSpaceUsed, compressedClassSpaceMax)));
+        }
+        return status;
+    }
+
+    /**
+     * @return whether the latest sample found consistent growth of both the loaded classes and Metaspace
+     *         towards high usage or exhaustion
+     */
+    public synchronized boolean isMetaspaceLeakDetected() {
+        return metaspaceLeakDetected;
+    }
+
+    /**
+     * Take the per-loader statistics now and compare them with the previous request.
+     *
+     * @return one entry per loader type, the one with the most Metaspace first, or null if
+     *         the statistics are not available
+     */
+    public List<ClassLoaderStatsDTO> getClassLoaderStats() {
+        List<ClassLoaderStatsDTO> stats;
+        try {
+            stats = ClassLoaderStats.parse((String) mBeanServer.invoke(diagnosticCommand, OPERATION, ARGUMENTS, SIGNATURE));
+        } catch (JMException | RuntimeException e) {
+            log.error("Failed to take the class loader statistics", e);
+            return null;
+        }
+        Map<String, ClassLoaderStatsDTO> byType = new HashMap<>();
+        synchronized (this) {
+            for (ClassLoaderStatsDTO type : stats) {
+                ClassLoaderStatsDTO previous = previousClassLoaderStats.get(type.getType());
+                if (previous != null) {
+                    type.setLoaderGrowth(type.getLoaders() - previous.getLoaders());
+                    type.setClassGrowth(type.getClasses() - previous.getClasses());
+                }
+                byType.put(type.getType(), type);
+            }
+            previousClassLoaderStats = byType;
+        }
+        return stats;
+    }
+
+}
@@ -0,0 +1,223 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MetricsFrameDTO;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Pushes live metrics to Server-Sent Events subscribers.
+ *
+ * Once per tick the memory and GC metrics are read once and encoded into a single
+ * JSON frame which is handed to every subscriber; nothing is read while there are
+ * no subscribers. Every subscriber holds at most one pending frame: a frame that
+ * is not sent yet is replaced by the newer one, so a slow client only ever skips
+ * frames and never buffers them. A client that keeps skipping frames is dropped.
+ */
+@Service
+@Log4j2
+public class MetricsStreamService {
+
+    static final String EVENT_NAME = "metrics";
+
+    private final MemoryMonitorService memoryMonitorService;
+    private final GarbageCollectionMonitorService garbageCollectionMonitorService;
+    private final ObjectMapper objectMapper;
+    private final int maxConflatedFrames;
+    private final long emitterTimeout;
+
+    private final List<Subscriber> subscribers;
+    private final ExecutorService sender;
+    private final LongAdder framesPublished = new LongAdder();
+    private final LongAdder framesConflated = new LongAdder();
+    private final LongAdder clientsDropped = new LongAdder();
+    private final AtomicBoolean publishing = new AtomicBoolean();
+    private long sequence;
+
+    public MetricsStreamService(MemoryMonitorService memoryMonitorService,
+            GarbageCollectionMonitorService garbageCollectionMonitorService,
+            ObjectMapper objectMapper,
+            @Value("${memory-monitor.stream.max-conflated-frames:10}") int maxConflatedFrames,
+            @Value("${memory-monitor.stream.emitter-timeout-ms:1800000}") long emitterTimeout,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.memoryMonitorService = memoryMonitorService;
+        this.garbageCollectionMonitorService = garbageCollectionMonitorService;
+        this.objectMapper = objectMapper;
+        this.maxConflatedFrames = maxConflatedFrames;
+        this.emitterTimeout = emitterTimeout;
+        this.subscribers = new CopyOnWriteArrayList<>();
+        // At most one send per subscriber is in flight, so the pool is bounded by the subscribers
+        if (virtualThreads) {
+            this.sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("metrics-stream-sender").factory());
+        } else {
+            this.sender = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-stream-sender");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Subscribe to the metrics stream.
+     *
+     * @return the emitter receiving one frame per tick
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(emitterTimeout));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Read the metrics once and fan the encoded frame out to every subscriber.
+     *
+     * A tick that fires while the previous one is still reading is skipped; with virtual
+     * threads every tick runs on its own thread and could otherwise overlap.
+     */
+    @Scheduled(fixedRateString = "${memory-monitor.stream.interval-ms:1000}")
+    public void publish() {
+        if (subscribers.isEmpty() || !publishing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            publishFrame();
+        } finally {
+            publishing.set(false);
+        }
+    }
+
+    private void publishFrame() {
+        String frame;
+        try {
+            frame = objectMapper.writeValueAsString(createFrame());
+        } catch (JsonProcessingException e) {
+            log.error("Failed to encode metrics frame", e);
+            return;
+        }
+        framesPublished.increment();
+
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(frame);
+        }
+    }
+
+    private MetricsFrameDTO createFrame() {
+        MemorySampleDTO sample = memoryMonitorService.sample();
+        MetricsFrameDTO frame = new MetricsFrameDTO();
+        frame.setSequence(++sequence);
+        frame.setTimestamp(sample.getTimestamp());
+        frame.setMemory(sample);
+        frame.setGcMetrics(garbageCollectionMonitorService.getGCMetricsByCollectionName());
+        return frame;
+    }
+
+    /**
+     * Get statistics of the stream
+     *
+     * @return subscribers, published and conflated frames and dropped clients
+     */
+    public Map<String, Long> getStreamStats() {
+        Map<String, Long> stats = new HashMap<>();
+        stats.put("subscribers", (long) subscribers.size());
+        stats.put("framesPublished", framesPublished.sum());
+        stats.put("framesConflated", framesConflated.sum());
+        stats.put("clientsDropped", clientsDropped.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        sender.shutdownNow();
+    }
+
+    private void drop(Subscriber subscriber, String reason) {
+        if (subscribers.remove(subscriber)) {
+            clientsDropped.increment();
+            log.info("Dropped metrics stream subscriber: {}", reason);
+        }
+    }
+
+    /**
+     * A subscriber with a single pending frame slot.
+     */
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicReference<String> pending = new AtomicReference<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicInteger conflated = new AtomicInteger();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(String frame) {
+            if (pending.getAndSet(frame) != null) {
+                // The previous frame was never sent, the client is falling behind
+                framesConflated.increment();
+                if (conflated.incrementAndGet() > maxConflatedFrames) {
+                    drop(this, "too slow");
+                    emitter.complete();
+                    return;
+                }
+            }
+            if (sending.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                String frame;
+                while ((frame = pending.getAndSet(null)) != null) {
+                    conflated.set(0);
+                    emitter.send(SseEmitter.event().name(EVENT_NAME).data(frame));
+                }
+            } catch (IOException | IllegalStateException e) {
+                drop(this, e.getMessage());
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                sending.set(false);
+            }
+            // A frame offered between the last poll and releasing the flag must not be stranded
+            if (pending.get() != null && sending.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,205 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.jvsnr.memory_monitoring_tool.dto.NativeMemoryDiffDTO;
+import com.jvsnr.memory_monitoring_tool.dto.NativeMemorySnapshotDTO;
+import com.jvsnr.memory_monitoring_tool.store.NativeMemoryHistory;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Samples native memory tracking through the {@code DiagnosticCommand} MBean, the memory
+ * outside of the heap that the memory pools do not show: thread stacks, class metadata,
+ * compiled code, GC structures, internal and arena allocations.
+ *
+ * Every {@code VM.native_memory summary} is parsed into reserved and committed bytes per
+ * category and kept in a {@link NativeMemoryHistory}. A baseline can be taken at any
+ * time; the diff from it, or from the oldest snapshot, ranks the categories by committed
+ * growth. Tracking itself has to be switched on with
+ * {@code -XX:NativeMemoryTracking=summary}, which costs a few percent of performance;
+ * without it every sample fails cheaply and is counted.
+ *
+ * Enabled with {@code memory-monitor.native-memory.enabled=true}.
+ */
+@Service
+@Log4j2
+@ConditionalOnProperty(name = "memory-monitor.native-memory.enabled", havingValue = "true")
+public class NativeMemoryService {
+
+    static final String DIAGNOSTIC_COMMAND = "com.sun.management:type=DiagnosticCommand";
+    static final String OPERATION = "vmNativeMemory";
+    private static final Object[] ARGUMENTS = { new String[] { "summary" } };
+    private static final String[] SIGNATURE = { String[].class.getName() };
+
+    private final MBeanServer mBeanServer;
+    private final ObjectName diagnosticCommand;
+    private final LongSupplier clock;
+    private final NativeMemoryHistory history;
+
+    private final LongAdder captured = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile boolean trackingEnabled = true;
+
+    @Autowired
+    public NativeMemoryService(@Value("${memory-monitor.native-memory.history:60}") int historySize)
+            throws MalformedObjectNameException {
+        this(ManagementFactory.getPlatformMBeanServer(), historySize, System::currentTimeMillis);
+    }
+
+    NativeMemoryService(MBeanServer mBeanServer, int historySize, LongSupplier clock)
+            throws MalformedObjectNameException {
+        this.mBeanServer = mBeanServer;
+        this.diagnosticCommand = new ObjectName(DIAGNOSTIC_COMMAND);
+        this.clock = clock;
+        this.history = new NativeMemoryHistory(Math.max(2, historySize));
+    }
+
+    @Scheduled(fixedRateString = "${memory-monitor.native-memory.interval-ms:60000}")
+    public void sample() {
+        capture();
+    }
+
+    /**
+     * Capture a native memory summary now.
+     *
+     * @return the totals of the summary, or null if it failed or tracking is off
+     */
+    public NativeMemorySnapshotDTO capture() {
+        String summary;
+        try {
+            summary = (String) mBeanServer.invoke(diagnosticCommand, OPERATION, ARGUMENTS, SIGNATURE);
+        } catch (JMException | RuntimeException e) {
+            failures.increment();
+            log.error("Failed to capture a native memory summary", e);
+            return null;
+        }
+        long now = clock.getAsLong();
+        synchronized (history) {
+            try {
+                history.record(summary, now);
+            } catch (IllegalArgumentException e) {
+                failures.increment();
+                if (trackingEnabled) {
+                    trackingEnabled = false;
+                    log.warn("Native memory tracking is off, start the JVM with -XX:NativeMemoryTracking=summary: {}",
+                        summary.strip());
+                }
+                return null;
+            }
+            trackingEnabled = true;
+            captured.increment();
+            return toDTO(history.size() - 1, -1);
+        }
+    }
+
+    /**
+     * Capture a summary and keep it as the baseline of {@link #getDiff()}.
+     *
+     * @return the totals of the baseline, or null if the capture failed
+     */
+    public NativeMemorySnapshotDTO baseline() {
+        NativeMemorySnapshotDTO snapshot = capture();
+        if (snapshot != null) {
+            synchronized (history) {
+                history.setBaseline(history.size() - 1);
+            }
+        }
+        return snapshot;
+    }
+
+    private NativeMemorySnapshotDTO toDTO(int snapshot, int category) {
+        NativeMemorySnapshotDTO dto = new NativeMemorySnapshotDTO();
+        dto.setTimestamp(history.getTimestamp(snapshot));
+        if (category < 0) {
+            dto.setReserved(history.getTotalReserved(snapshot));
+            dto.setCommitted(history.getTotalCommitted(snapshot));
+        } else {
+            dto.setCategory(history.getCategoryNames().get(category));
+            dto.setReserved(history.getReserved(snapshot, category));
+            dto.setCommitted(history.getCommitted(snapshot, category));
+        }
+        return dto;
+    }
+
+    /**
+     * @param category NMT category such as "Thread", or null for the totals
+     * @return the time series of the category, oldest first, or null if the category never appeared
+     */
+    public List<NativeMemorySnapshotDTO> getSeries(String category) {
+        synchronized (history) {
+            int index = category == null ? -1 : history.getCategoryIndex(category);
+            if (category != null && index < 0) {
+                return null;
+            }
+            List<NativeMemorySnapshotDTO> series = new ArrayList<>(history.size());
+            for (int snapshot = 0; snapshot < history.size(); snapshot++) {
+                series.add(toDTO(snapshot, index));
+            }
+            return series;
+        }
+    }
+
+    /**
+     * @return the categories seen so far
+     */
+    public List<String> getCategories() {
+        synchronized (history) {
+            return history.getCategoryNames();
+        }
+    }
+
+    /**
+     * Rank the categories by committed growth from the baseline, or without a baseline
+     * from the oldest snapshot, to the latest snapshot.
+     *
+     * @return the diff, or null without a baseline and fewer than two snapshots
+     */
+    public NativeMemoryDiffDTO getDiff() {
+        synchronized (history) {
+            int latest = history.size() - 1;
+            if (history.hasBaseline() && latest >= 0) {
+                return history.diffFromBaseline(latest);
+            }
+            if (latest < 1) {
+                return null;
+            }
+            return history.diff(0, latest);
+        }
+    }
+
+    /**
+     * @return capture counters and the size of the history
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackingEnabled", trackingEnabled);
+        stats.put("captured", captured.sum());
+        stats.put("failures", failures.sum());
+        synchronized (history) {
+            stats.put("snapshots", history.size());
+            stats.put("capacity", history.getCapacity());
+            stats.put("categories", history.getCategoryNames().size());
+            stats.put("baseline", history.hasBaseline());
+        }
+        return stats;
+    }
+
+}
@@ -0,0 +1,352 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.dto.PauseHistogramDTO;
+
+/**
+ * Encodes the memory, GC and leak detector metrics in the OpenMetrics text format.
+ *
+ * The payload is encoded into a reused buffer from pre-encoded metric headers and
+ * labels, and the exact-size copy is cached until the detector takes its next sample,
+ * at most for the longest sampling interval. Every scrape in between returns the same
+ * bytes, so concurrent scrapers only cost the copy into their response.
+ */
+@Service
+public class OpenMetricsService implements MemorySampleListener {
+
+    static final String PREFIX = "memory_monitor_";
+    private static final byte[][] QUANTILES = {
+        ascii(",quantile=\"0.5\"} "), ascii(",quantile=\"0.9\"} "),
+        ascii(",quantile=\"0.99\"} "), ascii(",quantile=\"0.999\"} ")
+    };
+
+    private static final byte[] MEMORY_USED = header("memory_used_bytes", "gauge", "bytes", "Memory in use.");
+    private static final byte[] MEMORY_COMMITTED = header("memory_committed_bytes", "gauge", "bytes",
+        "Memory committed by the JVM.");
+    private static final byte[] MEMORY_MAX = header("memory_max_bytes", "gauge", "bytes",
+        "Maximum memory, absent when undefined.");
+    private static final byte[] GC_COLLECTIONS = header("gc_collections", "counter", null, "Number of collections.");
+    private static final byte[] GC_COLLECTION_SECONDS = header("gc_collection_seconds", "counter", "seconds",
+        "Accumulated collection time.");
+    private static final byte[] GC_PAUSE_SECONDS = header("gc_pause_seconds", "summary", "seconds",
+        "Collection pause durations since startup.");
+    private static final byte[] GC_EVENTS_DROPPED = header("gc_events_dropped", "counter", null,
+        "GC events dropped because the event consumer fell behind.");
+    private static final byte[] LEAK_SIGNAL = header("leak_signal", "gauge", null,
+        "Leak detector signals, 1 when raised.");
+    private static final byte[] LEAK_GROWTH_SLOPE = header("leak_growth_slope", "gauge", null,
+        "Slope of the latest growth trend in bytes per second.");
+    private static final byte[] LEAK_GROWTH_CONFIDENCE = header("leak_growth_confidence", "gauge", null,
+        "Confidence (R squared) of the latest growth trend.");
+    private static final byte[] EOF = ascii("# EOF\n");
+
+    private static final byte[] HEAP = ascii("{area=\"heap\"} ");
+    private static final byte[] NON_HEAP = ascii("{area=\"nonheap\"} ");
+
+    private final MemoryMonitorService memoryMonitorService;
+    private final GarbageCollectionMonitorService garbageCollectionMonitorService;
+    private final MemoryLeakDetectorService memoryLeakDetectorService;
+    private final long maxAge;
+    private final LongSupplier clock;
+
+    // Label sets of every collector, e.g. {collector="G1 Young Generation"
+    private final byte[][] collectorLabels;
+
+    private final AtomicLong sampleSequence = new AtomicLong();
+    private volatile MemorySampleDTO latestSample;
+    private volatile Payload payload;
+
+    // Only touched while holding the encoder lock
+    private final Object encoderLock = new Object();
+    private byte[] buffer = new byte[8192];
+    private int length;
+    private long encodeCount;
+
+    @Autowired
+    public OpenMetricsService(MemoryMonitorService memoryMonitorService,
+            GarbageCollectionMonitorService garbageCollectionMonitorService,
+            MemoryLeakDetectorService memoryLeakDetectorService,
+            @Value("${memory-monitor.sampling.max-interval-ms:10000}") long maxAge) {
+        this(memoryMonitorService, garbageCollectionMonitorService, memoryLeakDetectorService, maxAge,
+            System::currentTimeMillis);
+    }
+
+    OpenMetricsService(MemoryMonitorService memoryMonitorService,
+            GarbageCollectionMonitorService garbageCollectionMonitorService,
+            MemoryLeakDetectorService memoryLeakDetectorService, long maxAge, LongSupplier clock) {
+        this.memoryMonitorService = memoryMonitorService;
+        this.garbageCollectionMonitorService = garbageCollectionMonitorService;
+        this.memoryLeakDetectorService = memoryLeakDetectorService;
+        this.maxAge = maxAge;
+        this.clock = clock;
+        this.collectorLabels = new byte[garbageCollectionMonitorService.getCollectorCount()][];
+        for (int i = 0; i < collectorLabels.length; i++) {
+            collectorLabels[i] = ascii("{collector=\"" + escape(garbageCollectionMonitorService.getCollectorName(i)) + "\"");
+        }
+        memoryLeakDetectorService.addMemorySampleListener(this);
+    }
+
+    @Override
+    public void onMemorySample(MemorySampleDTO sample) {
+        latestSample = sample;
+        sampleSequence.incrementAndGet();
+    }
+
+    /**
+     * @return the encoded metrics of the latest sample; the array is shared and must not be modified
+     */
+    public byte[] scrape() {
+        long sequence = sampleSequence.get();
+        long now = clock.getAsLong();
+        Payload cached = payload;
+        if (cached != null && cached.isValid(sequence, now, maxAge)) {
+            return cached.bytes;
+        }
+
+        synchronized (encoderLock) {
+            // Another scraper may have encoded the same tick while this one waited
+            cached = payload;
+            if (cached != null && cached.isValid(sequence, now, maxAge)) {
+                return cached.bytes;
+            }
+            MemorySampleDTO sample = latestSample;
+            if (sample == null || now - sample.getTimestamp() >= maxAge) {
+                // The sampler is not running (yet)
+                sample = memoryMonitorService.sample();
+            }
+            encode(sample);
+            encodeCount++;
+            cached = new Payload(sequence, now, Arrays.copyOf(buffer, length));
+            payload = cached;
+            return cached.bytes;
+        }
+    }
+
+    /**
+     * @return the number of times the payload was encoded
+     */
+    public long getEncodeCount() {
+        synchronized (encoderLock) {
+            return encodeCount;
+        }
+    }
+
+    private void encode(MemorySampleDTO sample) {
+        length = 0;
+
+        write(MEMORY_USED);
+        gauge("memory_used_bytes", HEAP, sample.getHeapMemoryUsed());
+        gauge("memory_used_bytes", NON_HEAP, sample.getNonHeapMemoryUsed());
+        write(MEMORY_COMMITTED);
+        gauge("memory_committed_bytes", HEAP, sample.getHeapMemoryCommitted());
+        gauge("memory_committed_bytes", NON_HEAP, sample.getNonHeapMemoryCommitted());
+        write(MEMORY_MAX);
+        if (sample.getHeapMemoryMax() >= 0) {
+            gauge("memory_max_bytes", HEAP, sample.getHeapMemoryMax());
+        }
+        if (sample.getNonHeapMemoryMax() >= 0) {
+            gauge("memory_max_bytes", NON_HEAP, sample.getNonHeapMemoryMax());
+        }
+
+        write(GC_COLLECTIONS);
+        for (int i = 0; i < collectorLabels.length; i++) {
+            name("gc_collections_total");
+            write(collectorLabels[i]);
+            write("} ");
+            write(garbageCollectionMonitorService.getCollectionCount(i));
+            newLine();
+        }
+        write(GC_COLLECTION_SECONDS);
+        for (int i = 0; i < collectorLabels.length; i++) {
+            name("gc_collection_seconds_total");
+            write(collectorLabels[i]);
+            write("} ");
+            writeFixed(garbageCollectionMonitorService.getCollectionTime(i), 3);
+            newLine();
+        }
+
+        write(GC_PAUSE_SECONDS);
+        Map<String, PauseHistogramDTO> pauses = garbageCollectionMonitorService.getPauseHistograms(false);
+        for (int i = 0; i < collectorLabels.length; i++) {
+            PauseHistogramDTO pause = pauses.get(garbageCollectionMonitorService.getCollectorName(i));
+            long count = pause != null ? pause.getCount() : 0L;
+            if (count > 0) {
+                double[] values = { pause.getP50Ms(), pause.getP90Ms(), pause.getP99Ms(), pause.getP999Ms() };
+                for (int q = 0; q < QUANTILES.length; q++) {
+                    name("gc_pause_seconds");
+                    write(collectorLabels[i]);
+                    write(QUANTILES[q]);
+                    writeFixed(Math.round(values[q] * 1000.0), 6);
+                    newLine();
+                }
+            }
+            name("gc_pause_seconds_sum");
+            write(collectorLabels[i]);
+            write("} ");
+            writeFixed(count > 0 ? Math.round(pause.getMeanMs() * 1000.0 * count) : 0L, 6);
+            newLine();
+            name("gc_pause_seconds_count");
+            write(collectorLabels[i]);
+            write("} ");
+            write(count);
+            newLine();
+        }
+
+        write(GC_EVENTS_DROPPED);
+        name("gc_events_dropped_total ");
+        write(garbageCollectionMonitorService.getGCEventPipelineStats().getOrDefault("dropped", 0L));
+        newLine();
+
+        write(LEAK_SIGNAL);
+        signal("consistent_growth", memoryLeakDetectorService.isConsistentGrowthDetected());
+        signal("high_gc_frequency", memoryLeakDetectorService.isHighGCFrequencyDetected());
+        signal("poor_reclamation", memoryLeakDetectorService.isPoorReclamationDetected());
+        signal("memory_leak", memoryLeakDetectorService.isMemoryLeakDetected());
+        write(LEAK_GROWTH_SLOPE);
+        name("leak_growth_slope ");
+        writeDecimal(memoryLeakDetectorService.getGrowthSlope(), 3);
+        newLine();
+        write(LEAK_GROWTH_CONFIDENCE);
+        name("leak_growth_confidence ");
+        writeDecimal(memoryLeakDetectorService.getGrowthConfidence(), 6);
+        newLine();
+
+        write(EOF);
+    }
+
+    private void gauge(String name, byte[] labels, long value) {
+        name(name);
+        write(labels);
+        write(value);
+        newLine();
+    }
+
+    private void signal(String signal, boolean raised) {
+        name("leak_signal{signal=\"");
+        write(signal);
+        write(raised ? "\"} 1\n" : "\"} 0\n");
+    }
+
+    private void name(String name) {
+        write(PREFIX);
+        write(name);
+    }
+
+    private void newLine() {
+        ensureCapacity(1);
+        buffer[length++] = '\n';
+    }
+
+    private void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    /**
+     * Write an ASCII string without encoding it into a temporary array.
+     */
+    private void write(String ascii) {
+        ensureCapacity(ascii.length());
+        for (int i = 0; i < ascii.length(); i++) {
+            buffer[length++] = (byte) ascii.charAt(i);
+        }
+    }
+
+    private void write(long value) {
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int start = length;
+        do {
+            buffer[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        // Digits were written least significant first
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            byte digit = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = digit;
+        }
+    }
+
+    /**
+     * Write {@code value / 10^scale} with exactly {@code scale} decimals.
+     */
+    private void writeFixed(long value, int scale) {
+        if (value < 0) {
+            ensureCapacity(1);
+            buffer[length++] = '-';
+            value = -value;
+        }
+        long divisor = 1;
+        for (int i = 0; i < scale; i++) {
+            divisor *= 10;
+        }
+        write(value / divisor);
+        ensureCapacity(scale + 1);
+        buffer[length++] = '.';
+        long fraction = value % divisor;
+        for (long digit = divisor / 10; digit > 0; digit /= 10) {
+            buffer[length++] = (byte) ('0' + fraction / digit % 10);
+        }
+    }
+
+    private void writeDecimal(double value, int scale) {
+        if (Double.isNaN(value)) {
+            write("NaN");
+        } else if (Double.isInfinite(value)) {
+            write(value > 0 ? "+Inf" : "-Inf");
+        } else {
+            writeFixed(Math.round(value * Math.pow(10, scale)), scale);
+        }
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (length + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + bytes));
+        }
+    }
+
+    private static byte[] header(String name, String type, String unit, String help) {
+        StringBuilder header = new StringBuilder();
+        header.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+        if (unit != null) {
+            header.append("# UNIT ").append(PREFIX).append(name).append(' ').append(unit).append('\n');
+        }
+        header.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        return ascii(header.toString());
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * An encoded payload and the sample it was encoded for.
+     */
+    private record Payload(long sequence, long encodedAt, byte[] bytes) {
+
+        boolean isValid(long currentSequence, long now, long maxAge) {
+            return sequence == currentSequence && now - encodedAt < maxAge;
+        }
+
+    }
+
+}
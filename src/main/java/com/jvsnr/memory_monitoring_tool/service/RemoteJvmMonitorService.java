@@ -0,0 +1,525 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.io.IOException;
+import java.lang.management.MemoryUsage;
+import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.JMException;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.remote.JMXServiceURL;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.jvsnr.memory_monitoring_tool.dto.RemoteJvmStatusDTO;
+import com.jvsnr.memory_monitoring_tool.store.SlidingLinearRegression;
+import com.jvsnr.util.MemoryUtils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Samples memory and GC metrics of remote JVMs over JMX.
+ *
+ * Every round fans out one sample per target in parallel on virtual threads, each
+ * bounded by the per-target timeout: a slow or hanging JVM is counted as timed out and
+ * its connection is dropped, without delaying the other targets or the next round. A
+ * target whose previous sample is still running, including one that timed out and is
+ * still blocked in a remote call, is skipped for the round.
+ *
+ * Connections stay open in a {@link JmxConnectionPool}. The collector and old generation
+ * pool names are resolved once per connection, after which a sample reads every MBean
+ * with a single getAttributes call: one round trip for the heap and non heap usage, one
+ * per collector and one per old generation pool.
+ *
+ * Leak detection per target follows {@link MemoryLeakDetectorService}: a sliding growth
+ * regression over the old generation usage after GC, or over the heap usage until enough
+ * GCs were seen, combined with high GC frequency or poor reclamation.
+ */
+@Service
+@Log4j2
+@ConditionalOnProperty(name = "memory-monitor.remote.enabled", havingValue = "true")
+public class RemoteJvmMonitorService {
+
+    private static final ObjectName MEMORY = objectName("java.lang:type=Memory");
+    private static final ObjectName COLLECTORS = objectName("java.lang:type=GarbageCollector,name=*");
+    private static final ObjectName MEMORY_POOLS = objectName("java.lang:type=MemoryPool,name=*");
+    private static final String[] MEMORY_ATTRIBUTES = { "HeapMemoryUsage", "NonHeapMemoryUsage" };
+    private static final String[] COLLECTOR_ATTRIBUTES = { "CollectionCount", "CollectionTime" };
+    private static final String[] POOL_ATTRIBUTES = { "CollectionUsage" };
+
+    private final JmxConnectionPool connectionPool;
+    private final long intervalMillis;
+    private final long timeoutNanos;
+    private final int regressionWindow;
+    private final double minGrowthConfidence;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService fanOut;
+
+    private final Map<String, RemoteJvm> targets = new ConcurrentHashMap<>();
+    private final LongAdder rounds = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private volatile long lastRoundNanos;
+    private volatile int lastRoundCompleted;
+
+    @Autowired
+    public RemoteJvmMonitorService(@Value("${memory-monitor.remote.targets:}") List<String> targets,
+            @Value("${memory-monitor.remote.interval-ms:1000}") long intervalMillis,
+            @Value("${memory-monitor.remote.timeout-ms:500}") long timeoutMillis,
+            @Value("${memory-monitor.leak.regression-window:30}") int regressionWindow,
+            @Value("${memory-monitor.leak.min-growth-confidence:0.8}") double minGrowthConfidence) {
+        this(new JmxConnectionPool(Map.of(), timeoutMillis), intervalMillis, timeoutMillis, regressionWindow, minGrowthConfidence,
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "remote-jvm-sampler");
+                thread.setDaemon(true);
+                return thread;
+            }));
+        for (String target : targets) {
+            if (!target.isBlank()) {
+                addTarget(target.trim());
+            }
+        }
+    }
+
+    RemoteJvmMonitorService(JmxConnectionPool connectionPool, long intervalMillis, long timeoutMillis,
+            int regressionWindow, double minGrowthConfidence, ScheduledExecutorService timer) {
+        if (intervalMillis <= 0 || timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Remote sampling interval and timeout must be positive");
+        }
+        this.connectionPool = connectionPool;
+        this.intervalMillis = intervalMillis;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.regressionWindow = regressionWindow;
+        this.minGrowthConfidence = minGrowthConfidence;
+        this.timer = timer;
+        this.fanOut = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("remote-jvm-sample-", 0).factory());
+    }
+
+    @PostConstruct
+    public void start() {
+        timer.scheduleAtFixedRate(this::sampleAll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Add a target given as {@code [name=]host:port} or {@code [name=]service:jmx:...}.
+     *
+     * A bare host:port is the default RMI registry address of
+     * {@code -Dcom.sun.management.jmxremote.port}. The name must not contain a colon and
+     * defaults to the address.
+     *
+     * @return the status of the new target
+     * @throws IllegalArgumentException if the address is invalid or the name is taken
+     */
+    public RemoteJvmStatusDTO addTarget(String target) {
+        int separator = target.indexOf('=');
+        if (separator > 0 && target.lastIndexOf(':', separator) >= 0) {
+            // The '=' belongs to the address, e.g. the base64 padding of a stub URL
+            separator = -1;
+        }
+        String name = separator > 0 ? target.substring(0, separator) : target;
+        String address = separator > 0 ? target.substring(separator + 1) : target;
+        return addTarget(name, address);
+    }
+
+    /**
+     * Add a named target.
+     *
+     * @param name unique name of the target
+     * @param address host:port of the RMI registry or a JMX service URL
+     * @return the status of the new target
+     * @throws IllegalArgumentException if the address is invalid or the name is taken
+     */
+    public RemoteJvmStatusDTO addTarget(String name, String address) {
+        String serviceUrl = address.startsWith("service:jmx:") ? address : "service:jmx:rmi:///jndi/rmi://" + address + "/jmxrmi";
+        JMXServiceURL url;
+        try {
+            url = new JMXServiceURL(serviceUrl);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid JMX address of " + name + ": " + address, e);
+        }
+
+        RemoteJvm jvm = new RemoteJvm(name, url, regressionWindow);
+        if (targets.putIfAbsent(name, jvm) != null) {
+            throw new IllegalArgumentException("Remote JVM already monitored: " + name);
+        }
+        log.info("Monitoring remote JVM {} at {}", name, url);
+        return jvm.toStatus();
+    }
+
+    /**
+     * Stop monitoring a target and close its connection.
+     *
+     * @return false if there is no such target
+     */
+    public boolean removeTarget(String name) {
+        RemoteJvm jvm = targets.remove(name);
+        if (jvm == null) {
+            return false;
+        }
+        Future<?> pending = jvm.pending;
+        if (pending != null) {
+            pending.cancel(true);
+        }
+        connectionPool.remove(jvm.url);
+        return true;
+    }
+
+    /**
+     * @return the status of every target
+     */
+    public List<RemoteJvmStatusDTO> getTargets() {
+        List<RemoteJvmStatusDTO> statuses = new ArrayList<>(targets.size());
+        for (RemoteJvm jvm : targets.values()) {
+            statuses.add(jvm.toStatus());
+        }
+        return statuses;
+    }
+
+    /**
+     * @return the status of a target, or null if there is no such target
+     */
+    public RemoteJvmStatusDTO getTarget(String name) {
+        RemoteJvm jvm = targets.get(name);
+        return jvm != null ? jvm.toStatus() : null;
+    }
+
+    /**
+     * Get statistics of the sampling rounds.
+     *
+     * @return targets, rounds, duration of the latest round, sampling rate and counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("targets", targets.size());
+        stats.put("intervalMs", intervalMillis);
+        stats.put("timeoutMs", TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+        stats.put("rounds", rounds.sum());
+        stats.put("lastRoundMs", lastRoundNanos / 1e6);
+        // A round longer than the interval delays the next one
+        stats.put("samplesPerSecond", lastRoundCompleted * 1e9 / Math.max(lastRoundNanos, TimeUnit.MILLISECONDS.toNanos(intervalMillis)));
+        stats.put("samples", samples.sum());
+        stats.put("failures", failures.sum());
+        stats.put("timeouts", timeouts.sum());
+        stats.put("skipped", skipped.sum());
+        stats.put("openConnections", connectionPool.getOpenCount());
+        stats.put("connectionsOpened", connectionPool.getOpenedCount());
+        stats.put("connectionsDropped", connectionPool.getDroppedCount());
+        return stats;
+    }
+
+    /**
+     * Sample every target in parallel and wait until all are done or timed out. Runs on
+     * the timer thread.
+     */
+    void sampleAll() {
+        long start = System.nanoTime();
+        long deadline = start + timeoutNanos;
+
+        List<RemoteJvm> started = new ArrayList<>(targets.size());
+        for (RemoteJvm jvm : targets.values()) {
+            // A cancelled sample is done for its Future but may still be blocked in RMI
+            if (!jvm.samplingState.compareAndSet(RemoteJvm.IDLE, RemoteJvm.SUBMITTED)) {
+                jvm.skipped++;
+                skipped.increment();
+                continue;
+            }
+            jvm.pending = fanOut.submit(() -> {
+                if (!jvm.samplingState.compareAndSet(RemoteJvm.SUBMITTED, RemoteJvm.RUNNING)) {
+                    return; // cancelled before it started
+                }
+                try {
+                    sample(jvm);
+                } finally {
+                    jvm.samplingState.set(RemoteJvm.IDLE);
+                }
+            });
+            started.add(jvm);
+        }
+
+        int completed = 0;
+        for (RemoteJvm jvm : started) {
+            Future<?> pending = jvm.pending;
+            try {
+                pending.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                completed++;
+            } catch (TimeoutException e) {
+                pending.cancel(true);
+                jvm.samplingState.compareAndSet(RemoteJvm.SUBMITTED, RemoteJvm.IDLE);
+                jvm.recordTimeout();
+                timeouts.increment();
+                connectionPool.invalidate(jvm.url);
+            } catch (ExecutionException e) {
+                log.error("Sampling remote JVM {} failed", jvm.name, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        rounds.increment();
+        lastRoundCompleted = completed;
+        lastRoundNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Take one sample of a target. Runs on a virtual thread of the fan-out.
+     */
+    private void sample(RemoteJvm jvm) {
+        long start = System.nanoTime();
+        try {
+            MBeanServerConnection connection = connectionPool.acquire(jvm.url);
+            jvm.resolve(connection);
+
+            AttributeList memory = connection.getAttributes(MEMORY, MEMORY_ATTRIBUTES);
+            MemoryUsage heap = MemoryUsage.from((CompositeData) attribute(memory, "HeapMemoryUsage"));
+            MemoryUsage nonHeap = MemoryUsage.from((CompositeData) attribute(memory, "NonHeapMemoryUsage"));
+
+            long gcCount = 0;
+            long gcTime = 0;
+            for (ObjectName collector : jvm.collectors) {
+                AttributeList values = connection.getAttributes(collector, COLLECTOR_ATTRIBUTES);
+                gcCount += MemoryUtils.nullifyNegativeToZero((Long) attribute(values, "CollectionCount"));
+                gcTime += MemoryUtils.nullifyNegativeToZero((Long) attribute(values, "CollectionTime"));
+            }
+
+            long oldGenUsedAfterGc = jvm.oldGenPools.length > 0 ? 0 : -1;
+            for (ObjectName pool : jvm.oldGenPools) {
+                CompositeData usage = (CompositeData) attribute(connection.getAttributes(pool, POOL_ATTRIBUTES), "CollectionUsage");
+                if (usage == null) {
+                    oldGenUsedAfterGc = -1;
+                    break;
+                }
+                oldGenUsedAfterGc += MemoryUsage.from(usage).getUsed();
+            }
+
+            jvm.record(System.currentTimeMillis(), heap, nonHeap, gcCount, gcTime, oldGenUsedAfterGc,
+                System.nanoTime() - start, minGrowthConfidence);
+            samples.increment();
+        } catch (IOException | JMException | RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Cancelled after the timeout, which is already recorded
+                return;
+            }
+            jvm.recordFailure(e);
+            failures.increment();
+            connectionPool.invalidate(jvm.url);
+            log.debug("Sampling remote JVM {} failed", jvm.name, e);
+        }
+    }
+
+    private static Object attribute(AttributeList attributes, String name) {
+        for (Attribute attribute : attributes.asList()) {
+            if (attribute.getName().equals(name)) {
+                return attribute.getValue();
+            }
+        }
+        throw new IllegalStateException("Attribute not returned: " + name);
+    }
+
+    private static ObjectName objectName(String name) {
+        try {
+            return new ObjectName(name);
+        } catch (JMException e) {
+            throw new IllegalArgumentException(name, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        fanOut.shutdownNow();
+        connectionPool.close();
+    }
+
+    /**
+     * State of one monitored JVM. Names are resolved and samples recorded by one fan-out
+     * thread at a time; the status is read by request threads.
+     */
+    private static class RemoteJvm {
+
+        private final String name;
+        private final JMXServiceURL url;
+        private final SlidingLinearRegression postGcOldGenTrend;
+        private final SlidingLinearRegression heapTrend;
+        // Submitted by the timer thread, running from its first statement until it returns
+        private static final int IDLE = 0;
+        private static final int SUBMITTED = 1;
+        private static final int RUNNING = 2;
+
+        private volatile Future<?> pending;
+        private final AtomicInteger samplingState = new AtomicInteger(IDLE);
+
+        // Resolved once per connection
+        private MBeanServerConnection resolvedFor;
+        private ObjectName[] collectors = new ObjectName[0];
+        private ObjectName[] oldGenPools = new ObjectName[0];
+
+        private boolean available;
+        private long lastSampleTime;
+        private long lastLatency; // nanos
+        private String lastError;
+        private MemoryUsage heap;
+        private MemoryUsage nonHeap;
+        private long gcCount = -1;
+        private long gcTime;
+        private long lastGcSeenTime;
+        private long lastGcGap = Long.MAX_VALUE; // millis between the two latest observed GCs
+
+        private double growthSlope;
+        private double growthConfidence;
+        private String growthSource = MemoryLeakDetectorService.GROWTH_SOURCE_HEAP;
+        private boolean consistentGrowth;
+        private boolean highGcFrequency;
+        private boolean poorReclamation;
+        private boolean memoryLeak;
+
+        private long samples;
+        private long failures;
+        private long timeouts;
+        private volatile long skipped;
+
+        RemoteJvm(String name, JMXServiceURL url, int regressionWindow) {
+            this.name = name;
+            this.url = url;
+            this.postGcOldGenTrend = new SlidingLinearRegression(regressionWindow);
+            this.heapTrend = new SlidingLinearRegression(regressionWindow);
+        }
+
+        void resolve(MBeanServerConnection connection) throws IOException {
+            if (connection == resolvedFor) {
+                return;
+            }
+            Set<ObjectName> collectorNames = connection.queryNames(COLLECTORS, null);
+            List<ObjectName> poolNames = new ArrayList<>(connection.queryNames(MEMORY_POOLS, null));
+            String[] pools = new String[poolNames.size()];
+            for (int i = 0; i < pools.length; i++) {
+                pools[i] = poolNames.get(i).getKeyProperty("name");
+            }
+            int[] oldGen = MemoryLeakDetectorService.findOldGenPools(pools);
+
+            collectors = collectorNames.toArray(new ObjectName[0]);
+            oldGenPools = new ObjectName[oldGen.length];
+            for (int i = 0; i < oldGen.length; i++) {
+                oldGenPools[i] = poolNames.get(oldGen[i]);
+            }
+            resolvedFor = connection;
+        }
+
+        synchronized void record(long timestamp, MemoryUsage heap, MemoryUsage nonHeap, long gcCount, long gcTime,
+                long oldGenUsedAfterGc, long latency, double minGrowthConfidence) {
+            boolean gcSeen = this.gcCount >= 0 && gcCount > this.gcCount;
+            if (gcSeen) {
+                if (lastGcSeenTime > 0) {
+                    lastGcGap = timestamp - lastGcSeenTime;
+                }
+                lastGcSeenTime = timestamp;
+                if (oldGenUsedAfterGc >= 0) {
+                    postGcOldGenTrend.add(timestamp, oldGenUsedAfterGc);
+                }
+            }
+            heapTrend.add(timestamp, heap.getUsed());
+
+            this.available = true;
+            this.lastSampleTime = timestamp;
+            this.lastLatency = latency;
+            this.lastError = null;
+            this.heap = heap;
+            this.nonHeap = nonHeap;
+            this.gcCount = gcCount;
+            this.gcTime = gcTime;
+            this.samples++;
+
+            SlidingLinearRegression trend = postGcOldGenTrend.size() >= MemoryLeakDetectorService.SAMPLE_SIZE
+                ? postGcOldGenTrend : heapTrend;
+            growthSource = trend == postGcOldGenTrend
+                ? MemoryLeakDetectorService.GROWTH_SOURCE_POST_GC : MemoryLeakDetectorService.GROWTH_SOURCE_HEAP;
+            growthSlope = trend.slope();
+            growthConfidence = trend.confidence();
+            consistentGrowth = trend.size() >= MemoryLeakDetectorService.SAMPLE_SIZE
+                && growthSlope > 0 && growthConfidence >= minGrowthConfidence;
+
+            long gcThresholdMillis = MemoryLeakDetectorService.GC_FREQUENCY_THRESHOLD * 1000L;
+            highGcFrequency = lastGcGap < gcThresholdMillis && timestamp - lastGcSeenTime < gcThresholdMillis;
+            poorReclamation = heap.getMax() > 0
+                && heap.getUsed() * 100 / heap.getMax() > MemoryLeakDetectorService.MEMORY_GROWTH_THRESHOLD;
+
+            boolean leak = consistentGrowth && (highGcFrequency || poorReclamation);
+            if (leak && !memoryLeak) {
+                log.warn("Potential memory leak detected on remote JVM {}: growth {} B/s (R² {}), high GC frequency: {}, poor reclamation: {}",
+                    name, growthSlope, growthConfidence, highGcFrequency, poorReclamation);
+            }
+            memoryLeak = leak;
+        }
+
+        synchronized void recordFailure(Exception e) {
+            available = false;
+            lastError = e.toString();
+            failures++;
+        }
+
+        synchronized void recordTimeout() {
+            available = false;
+            lastError = "Timed out";
+            timeouts++;
+        }
+
+        synchronized RemoteJvmStatusDTO toStatus() {
+            RemoteJvmStatusDTO status = new RemoteJvmStatusDTO();
+            status.setName(name);
+            status.setUrl(url.toString());
+            status.setAvailable(available);
+            status.setLastSampleTime(lastSampleTime);
+            status.setLastLatencyMs(lastLatency / 1e6);
+            status.setLastError(lastError);
+            if (heap != null) {
+                status.setHeapMemoryUsed(heap.getUsed());
+                status.setHeapMemoryCommitted(heap.getCommitted());
+                status.setHeapMemoryMax(heap.getMax());
+                status.setNonHeapMemoryUsed(nonHeap.getUsed());
+                status.setNonHeapMemoryCommitted(nonHeap.getCommitted());
+                status.setMemoryUtilisation(MemoryUtils.utilisation(heap.getUsed(), heap.getMax()));
+                status.setGcCollectionCount(gcCount);
+                status.setGcCollectionTime(gcTime);
+            }
+            status.setGrowthSlopeBytesPerSecond(growthSlope);
+            status.setGrowthConfidence(growthConfidence);
+            status.setGrowthSource(growthSource);
+            status.setConsistentGrowthDetected(consistentGrowth);
+            status.setHighGCFrequencyDetected(highGcFrequency);
+            status.setPoorReclamationDetected(poorReclamation);
+            status.setMemoryLeakDetected(memoryLeak);
+            status.setSamples(samples);
+            status.setFailures(failures);
+            status.setTimeouts(timeouts);
+            status.setSkipped(skipped);
+            return status;
+        }
+
+    }
+
+}
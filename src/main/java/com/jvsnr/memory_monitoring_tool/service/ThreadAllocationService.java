@@ -0,0 +1,110 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.jvsnr.memory_monitoring_tool.dto.ThreadAllocationDTO;
+import com.jvsnr.memory_monitoring_tool.store.ThreadAllocationTracker;
+import com.jvsnr.util.MemoryUtils;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Tracks how fast every thread allocates heap memory.
+ *
+ * Once per tick the ids of all live threads and their cumulative allocated bytes are
+ * read with one batch call each and recorded in a {@link ThreadAllocationTracker}, which
+ * averages the rates over the last {@code memory-monitor.allocation.window} ticks in
+ * primitive arrays. Thread names are only resolved for the threads a request reports.
+ */
+@Service
+@Log4j2
+public class ThreadAllocationService {
+
+    static final int MAX_LIMIT = 1000;
+
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    private final ThreadAllocationTracker tracker;
+    private final LongSupplier nanoClock;
+    private final boolean supported;
+
+    @Autowired
+    public ThreadAllocationService(@Value("${memory-monitor.allocation.window:10}") int window) {
+        this((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean(), window, System::nanoTime);
+    }
+
+    ThreadAllocationService(com.sun.management.ThreadMXBean threadMXBean, int window, LongSupplier nanoClock) {
+        this.threadMXBean = threadMXBean;
+        this.tracker = new ThreadAllocationTracker(window, threadMXBean.getThreadCount());
+        this.nanoClock = nanoClock;
+        this.supported = threadMXBean.isThreadAllocatedMemorySupported();
+        if (!supported) {
+            log.warn("Thread allocated memory is not supported by this JVM, allocation rates are not tracked");
+        }
+    }
+
+    /**
+     * Record the allocated bytes of every live thread.
+     */
+    @Scheduled(fixedRateString = "${memory-monitor.allocation.interval-ms:1000}")
+    public void sample() {
+        if (!supported || !threadMXBean.isThreadAllocatedMemoryEnabled()) {
+            return;
+        }
+        long[] ids = threadMXBean.getAllThreadIds();
+        long[] allocatedBytes = threadMXBean.getThreadAllocatedBytes(ids);
+        long now = nanoClock.getAsLong();
+        synchronized (tracker) {
+            tracker.record(ids, allocatedBytes, ids.length, now);
+        }
+    }
+
+    /**
+     * @return the threads with the highest allocation rate over the window, highest first
+     */
+    public List<ThreadAllocationDTO> getTopAllocators(int limit) {
+        limit = Math.max(0, Math.min(limit, MAX_LIMIT));
+        long[] ids = new long[limit];
+        double[] rates = new double[limit];
+        long[] allocated = new long[limit];
+        int count;
+        synchronized (tracker) {
+            count = tracker.top(limit, ids, rates, allocated);
+        }
+        if (count == 0) {
+            return List.of();
+        }
+
+        ThreadInfo[] infos = threadMXBean.getThreadInfo(Arrays.copyOf(ids, count), 0);
+        List<ThreadAllocationDTO> allocators = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ThreadAllocationDTO allocator = new ThreadAllocationDTO();
+            allocator.setThreadId(ids[i]);
+            allocator.setThreadName(infos[i] != null ? infos[i].getThreadName() : null);
+            allocator.setBytesPerSecond(rates[i]);
+            allocator.setAllocationRate(MemoryUtils.formatBytes((long) rates[i]) + "/s");
+            allocator.setAllocatedBytes(allocated[i]);
+            allocators.add(allocator);
+        }
+        return allocators;
+    }
+
+    /**
+     * @return number of tracked threads
+     */
+    public int getTrackedThreadCount() {
+        synchronized (tracker) {
+            return tracker.size();
+        }
+    }
+
+}
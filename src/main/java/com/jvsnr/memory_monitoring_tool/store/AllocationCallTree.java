@@ -0,0 +1,288 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.jvsnr.memory_monitoring_tool.dto.AllocationSiteDTO;
+
+/**
+ * Call-tree trie of sampled allocation stacks, weighted by allocated bytes.
+ *
+ * Frame names are interned once into a dictionary, a node is its parent and frame index
+ * in primitive columns and children are found through one open-addressing table keyed
+ * by parent and frame, so a stack that was seen before is recorded without allocating.
+ * A stack is recorded root first and ends with the allocated class, whose node carries
+ * the bytes; the frame below it is the allocation site.
+ *
+ * Memory is bounded by {@code maxNodes}, which also bounds the frame dictionary. A stack
+ * that needs a node or frame beyond it is counted as truncated instead.
+ *
+ * Not thread-safe, callers have to synchronise.
+ */
+public class AllocationCallTree {
+
+    public static final String TRUNCATED_FRAME = "[truncated]";
+
+    private static final int ROOT = 0;
+    private static final int INITIAL_NODES = 1024;
+
+    private final int maxNodes;
+    private final Map<String, Integer> frameIndices = new HashMap<>();
+    private final List<String> frames = new ArrayList<>();
+
+    private int[] parents = new int[INITIAL_NODES];
+    private int[] nodeFrames = new int[INITIAL_NODES];
+    private long[] selfBytes = new long[INITIAL_NODES];
+    private long[] selfSamples = new long[INITIAL_NODES];
+    private int nodeCount = 1; // the root
+
+    // Child table, power of two: parent << 32 | frame -> node, node 0 marks a free entry
+    private long[] childKeys = new long[INITIAL_NODES * 2];
+    private int[] childNodes = new int[INITIAL_NODES * 2];
+
+    private long samples;
+    private long bytes;
+    private long truncatedSamples;
+    private long truncatedBytes;
+
+    /**
+     * @param maxNodes maximum number of nodes, and of interned frames
+     */
+    public AllocationCallTree(int maxNodes) {
+        if (maxNodes < 2) {
+            throw new IllegalArgumentException("Max nodes must be at least 2: " + maxNodes);
+        }
+        this.maxNodes = maxNodes;
+        parents[ROOT] = -1;
+        nodeFrames[ROOT] = -1;
+    }
+
+    /**
+     * @return the index of the frame, or -1 if the dictionary is full
+     */
+    public int internFrame(String frame) {
+        Integer index = frameIndices.get(frame);
+        if (index != null) {
+            return index;
+        }
+        if (frames.size() >= maxNodes) {
+            return -1;
+        }
+        index = frames.size();
+        frameIndices.put(frame, index);
+        frames.add(frame);
+        return index;
+    }
+
+    /**
+     * @param internalName binary class name as in a class file or JFR, e.g. {@code "[B"}
+     * @return the index of the class frame, named like Java source, or -1 if the dictionary is full
+     */
+    public int internClass(String internalName) {
+        return internFrame(HprofFile.toJavaName(internalName));
+    }
+
+    /**
+     * Record one sampled allocation.
+     *
+     * @param stack frame indices, root first, ending with the allocated class
+     * @param length number of frames used
+     * @param weight allocated bytes the sample stands for
+     * @return false if the stack did not fit and was counted as truncated
+     */
+    public boolean record(int[] stack, int length, long weight) {
+        int node = ROOT;
+        for (int i = 0; i < length; i++) {
+            node = stack[i] < 0 ? -1 : child(node, stack[i]);
+            if (node < 0) {
+                truncatedSamples++;
+                truncatedBytes += weight;
+                return false;
+            }
+        }
+        selfSamples[node]++;
+        selfBytes[node] += weight;
+        samples++;
+        bytes += weight;
+        return true;
+    }
+
+    private int child(int parent, int frame) {
+        long key = (long) parent << 32 | frame;
+        int mask = childKeys.length - 1;
+        int entry = hash(key) & mask;
+        while (childNodes[entry] != 0) {
+            if (childKeys[entry] == key) {
+                return childNodes[entry];
+            }
+            entry = (entry + 1) & mask;
+        }
+        if (nodeCount >= maxNodes) {
+            return -1;
+        }
+        int node = addNode(parent, frame);
+        if (nodeCount * 2 > childKeys.length) {
+            resizeChildTable();
+        } else {
+            childKeys[entry] = key;
+            childNodes[entry] = node;
+        }
+        return node;
+    }
+
+    private int addNode(int parent, int frame) {
+        if (nodeCount == parents.length) {
+            int capacity = (int) Math.min((long) nodeCount * 2, maxNodes);
+            parents = Arrays.copyOf(parents, capacity);
+            nodeFrames = Arrays.copyOf(nodeFrames, capacity);
+            selfBytes = Arrays.copyOf(selfBytes, capacity);
+            selfSamples = Arrays.copyOf(selfSamples, capacity);
+        }
+        int node = nodeCount++;
+        parents[node] = parent;
+        nodeFrames[node] = frame;
+        selfBytes[node] = 0;
+        selfSamples[node] = 0;
+        return node;
+    }
+
+    private void resizeChildTable() {
+        childKeys = new long[childKeys.length * 2];
+        childNodes = new int[childNodes.length * 2];
+        int mask = childKeys.length - 1;
+        for (int node = ROOT + 1; node < nodeCount; node++) {
+            long key = (long) parents[node] << 32 | nodeFrames[node];
+            int entry = hash(key) & mask;
+            while (childNodes[entry] != 0) {
+                entry = (entry + 1) & mask;
+            }
+            childKeys[entry] = key;
+            childNodes[entry] = node;
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Write the stacks in collapsed format, one {@code "root;...;class bytes"} line per
+     * distinct stack, as read by flamegraph.pl, speedscope and most flame graph viewers.
+     * Truncated stacks are summed up in one {@link #TRUNCATED_FRAME} line.
+     *
+     * @param minBytes stacks with fewer bytes are left out
+     */
+    public void writeCollapsed(StringBuilder out, long minBytes) {
+        int[] path = new int[16];
+        for (int node = ROOT + 1; node < nodeCount; node++) {
+            if (selfSamples[node] == 0 || selfBytes[node] < minBytes) {
+                continue;
+            }
+            int depth = 0;
+            for (int current = node; current != ROOT; current = parents[current]) {
+                if (depth == path.length) {
+                    path = Arrays.copyOf(path, depth * 2);
+                }
+                path[depth++] = nodeFrames[current];
+            }
+            for (int i = depth - 1; i >= 0; i--) {
+                out.append(frames.get(path[i])).append(i > 0 ? ';' : ' ');
+            }
+            out.append(selfBytes[node]).append('\n');
+        }
+        if (truncatedSamples > 0 && truncatedBytes >= minBytes) {
+            out.append(TRUNCATED_FRAME).append(' ').append(truncatedBytes).append('\n');
+        }
+    }
+
+    /**
+     * Rank the allocation sites, the frame that allocated and the class it allocated,
+     * summed over every stack leading to them.
+     *
+     * @param limit maximum number of sites
+     */
+    public List<AllocationSiteDTO> topSites(int limit) {
+        Map<Long, long[]> sites = new HashMap<>(); // site frame << 32 | class frame -> bytes, samples
+        for (int node = ROOT + 1; node < nodeCount; node++) {
+            if (selfSamples[node] > 0) {
+                int parent = parents[node];
+                long key = (long) (parent == ROOT ? -1 : nodeFrames[parent]) << 32 | nodeFrames[node];
+                long[] site = sites.computeIfAbsent(key, k -> new long[2]);
+                site[0] += selfBytes[node];
+                site[1] += selfSamples[node];
+            }
+        }
+        long total = getTotalBytes();
+        List<AllocationSiteDTO> top = new ArrayList<>(Math.min(sites.size(), Math.max(0, limit)));
+        sites.entrySet().stream()
+            .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+            .limit(Math.max(0, limit))
+            .forEach(entry -> {
+                int siteFrame = (int) (entry.getKey() >> 32);
+                AllocationSiteDTO site = new AllocationSiteDTO();
+                site.setClassName(frames.get((int) (long) entry.getKey()));
+                site.setSite(siteFrame < 0 ? null : frames.get(siteFrame));
+                site.setBytes(entry.getValue()[0]);
+                site.setSamples(entry.getValue()[1]);
+                site.setPercentage(total > 0 ? 100.0 * entry.getValue()[0] / total : 0);
+                top.add(site);
+            });
+        return top;
+    }
+
+    /**
+     * Forget every stack and frame.
+     */
+    public void clear() {
+        frameIndices.clear();
+        frames.clear();
+        Arrays.fill(childNodes, 0);
+        nodeCount = 1;
+        samples = 0;
+        bytes = 0;
+        truncatedSamples = 0;
+        truncatedBytes = 0;
+    }
+
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+
+    /**
+     * @return number of nodes, including the root
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getFrameCount() {
+        return frames.size();
+    }
+
+    /**
+     * @return number of samples, including the truncated ones
+     */
+    public long getSamples() {
+        return samples + truncatedSamples;
+    }
+
+    /**
+     * @return allocated bytes of all samples, including the truncated ones
+     */
+    public long getTotalBytes() {
+        return bytes + truncatedBytes;
+    }
+
+    public long getTruncatedSamples() {
+        return truncatedSamples;
+    }
+
+    public long getTruncatedBytes() {
+        return truncatedBytes;
+    }
+
+}
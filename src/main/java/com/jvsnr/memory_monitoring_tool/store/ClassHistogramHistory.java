@@ -0,0 +1,322 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.jvsnr.memory_monitoring_tool.dto.ClassGrowthDTO;
+import com.jvsnr.memory_monitoring_tool.dto.ClassHistogramDiffDTO;
+
+/**
+ * Bounded history of class histograms as printed by the {@code GC.class_histogram}
+ * diagnostic command.
+ *
+ * Class names are interned once into a dictionary, so a snapshot is three primitive
+ * columns, class index, instances and bytes, sorted by class index and two snapshots
+ * are diffed in one merge pass. Rows with the same name are summed: classes of different
+ * loaders, and the hidden classes of one lambda site, whose {@code /0x...} suffix is
+ * dropped. The oldest snapshot is replaced once the history is full, reusing its arrays.
+ *
+ * Not thread-safe, callers have to synchronise.
+ */
+public class ClassHistogramHistory {
+
+    private static final String HIDDEN_CLASS_SUFFIX = "/0x";
+
+    private final int capacity;
+    private final Map<String, Integer> classIndices = new HashMap<>();
+    private final List<String> classNames = new ArrayList<>();
+
+    private final long[] timestamps;
+    private final int[][] classes; // sorted class indices per snapshot
+    private final long[][] instances;
+    private final long[][] bytes;
+    private final int[] sizes;
+    private final long[] totalInstances;
+    private final long[] totalBytes;
+    private int head; // slot of the oldest snapshot
+    private int count;
+
+    // Rows of the histogram being recorded, as class index << 32 | row
+    private long[] rowKeys = new long[1024];
+    private long[] rowInstances = new long[1024];
+    private long[] rowBytes = new long[1024];
+
+    /**
+     * @param capacity number of snapshots kept
+     */
+    public ClassHistogramHistory(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2: " + capacity);
+        }
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.classes = new int[capacity][];
+        this.instances = new long[capacity][];
+        this.bytes = new long[capacity][];
+        this.sizes = new int[capacity];
+        this.totalInstances = new long[capacity];
+        this.totalBytes = new long[capacity];
+    }
+
+    /**
+     * Parse a class histogram and record it as the newest snapshot. Lines other than
+     * {@code "<num>: <instances> <bytes> <class name> [(module)]"} are ignored.
+     *
+     * @return number of classes in the snapshot
+     * @throws IllegalArgumentException if the text has no histogram rows
+     */
+    public int record(String histogram, long timestamp) {
+        int rows = 0;
+        int length = histogram.length();
+        for (int lineStart = 0; lineStart < length; ) {
+            int lineEnd = histogram.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = length;
+            }
+            int numberStart = skipSpaces(histogram, lineStart, lineEnd);
+            int numberEnd = skipDigits(histogram, numberStart, lineEnd);
+            if (numberEnd > numberStart && numberEnd < lineEnd && histogram.charAt(numberEnd) == ':') {
+                int instancesStart = skipSpaces(histogram, numberEnd + 1, lineEnd);
+                int instancesEnd = skipDigits(histogram, instancesStart, lineEnd);
+                int bytesStart = skipSpaces(histogram, instancesEnd, lineEnd);
+                int bytesEnd = skipDigits(histogram, bytesStart, lineEnd);
+                int nameStart = skipSpaces(histogram, bytesEnd, lineEnd);
+                int nameEnd = nameStart;
+                while (nameEnd < lineEnd && !Character.isWhitespace(histogram.charAt(nameEnd))) {
+                    nameEnd++;
+                }
+                if (instancesStart > numberEnd + 1 && instancesEnd > instancesStart && bytesStart > instancesEnd
+                        && bytesEnd > bytesStart && nameStart > bytesEnd && nameEnd > nameStart) {
+                    if (rows == rowKeys.length) {
+                        rowKeys = Arrays.copyOf(rowKeys, rows * 2);
+                        rowInstances = Arrays.copyOf(rowInstances, rows * 2);
+                        rowBytes = Arrays.copyOf(rowBytes, rows * 2);
+                    }
+                    rowKeys[rows] = (long) classIndex(histogram, nameStart, nameEnd) << 32 | rows;
+                    rowInstances[rows] = Long.parseLong(histogram, instancesStart, instancesEnd, 10);
+                    rowBytes[rows] = Long.parseLong(histogram, bytesStart, bytesEnd, 10);
+                    rows++;
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        if (rows == 0) {
+            throw new IllegalArgumentException("No class histogram rows");
+        }
+        return store(rows, timestamp);
+    }
+
+    private int store(int rows, long timestamp) {
+        int slot;
+        if (count < capacity) {
+            slot = (head + count) % capacity;
+            count++;
+        } else {
+            slot = head;
+            head = (head + 1) % capacity;
+        }
+        if (classes[slot] == null || classes[slot].length < rows) {
+            classes[slot] = new int[rows];
+            instances[slot] = new long[rows];
+            bytes[slot] = new long[rows];
+        }
+        int[] slotClasses = classes[slot];
+        long[] slotInstances = instances[slot];
+        long[] slotBytes = bytes[slot];
+
+        Arrays.sort(rowKeys, 0, rows);
+        int size = 0;
+        long instanceSum = 0;
+        long byteSum = 0;
+        for (int i = 0; i < rows; i++) {
+            int classIndex = (int) (rowKeys[i] >>> 32);
+            int row = (int) rowKeys[i];
+            if (size == 0 || slotClasses[size - 1] != classIndex) {
+                slotClasses[size] = classIndex;
+                slotInstances[size] = 0;
+                slotBytes[size] = 0;
+                size++;
+            }
+            slotInstances[size - 1] += rowInstances[row];
+            slotBytes[size - 1] += rowBytes[row];
+            instanceSum += rowInstances[row];
+            byteSum += rowBytes[row];
+        }
+        timestamps[slot] = timestamp;
+        sizes[slot] = size;
+        totalInstances[slot] = instanceSum;
+        totalBytes[slot] = byteSum;
+        return size;
+    }
+
+    private int classIndex(String histogram, int nameStart, int nameEnd) {
+        int slash = histogram.indexOf('/', nameStart, nameEnd);
+        boolean hidden = slash >= 0 && histogram.startsWith(HIDDEN_CLASS_SUFFIX, slash);
+        String name = histogram.substring(nameStart, hidden ? slash : nameEnd);
+        Integer index = classIndices.get(name);
+        if (index == null) {
+            index = classNames.size();
+            classIndices.put(name, index);
+            classNames.add(HprofFile.toJavaName(name));
+        }
+        return index;
+    }
+
+    private static int skipSpaces(String text, int from, int to) {
+        while (from < to && text.charAt(from) == ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int skipDigits(String text, int from, int to) {
+        while (from < to && text.charAt(from) >= '0' && text.charAt(from) <= '9') {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * @return number of snapshots kept
+     */
+    public int size() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return number of distinct class names seen so far
+     */
+    public int getClassNameCount() {
+        return classNames.size();
+    }
+
+    /**
+     * @param snapshot 0 for the oldest snapshot
+     */
+    public long getTimestamp(int snapshot) {
+        return timestamps[slot(snapshot)];
+    }
+
+    public int getClassCount(int snapshot) {
+        return sizes[slot(snapshot)];
+    }
+
+    public long getTotalInstances(int snapshot) {
+        return totalInstances[slot(snapshot)];
+    }
+
+    public long getTotalBytes(int snapshot) {
+        return totalBytes[slot(snapshot)];
+    }
+
+    private int slot(int snapshot) {
+        if (snapshot < 0 || snapshot >= count) {
+            throw new IndexOutOfBoundsException("Snapshot " + snapshot + " of " + count);
+        }
+        return (head + snapshot) % capacity;
+    }
+
+    /**
+     * Rank the classes that grew between two snapshots.
+     *
+     * @param from index of the earlier snapshot, 0 for the oldest
+     * @param to index of the later snapshot
+     * @param limit maximum number of classes
+     * @param byInstances rank by instance growth instead of byte growth
+     * @return the classes that grew the most, with the number of intervals in between in
+     *         which their bytes grew
+     */
+    public ClassHistogramDiffDTO diff(int from, int to, int limit, boolean byInstances) {
+        if (from > to) {
+            throw new IllegalArgumentException("Snapshot " + from + " is after " + to);
+        }
+        int fromSlot = slot(from);
+        int toSlot = slot(to);
+        int[] top = new int[Math.max(0, limit)]; // class indices, highest growth first
+        long[] topGrowth = new long[top.length];
+        int found = 0;
+
+        int[] fromClasses = classes[fromSlot];
+        int[] toClasses = classes[toSlot];
+        int fromSize = sizes[fromSlot];
+        int toSize = sizes[toSlot];
+        for (int i = 0, j = 0; i < fromSize || j < toSize; ) {
+            int classIndex;
+            long growth;
+            if (j == toSize || (i < fromSize && fromClasses[i] < toClasses[j])) {
+                classIndex = fromClasses[i];
+                growth = -(byInstances ? instances[fromSlot][i] : bytes[fromSlot][i]);
+                i++;
+            } else if (i == fromSize || toClasses[j] < fromClasses[i]) {
+                classIndex = toClasses[j];
+                growth = byInstances ? instances[toSlot][j] : bytes[toSlot][j];
+                j++;
+            } else {
+                classIndex = toClasses[j];
+                growth = byInstances ? instances[toSlot][j] - instances[fromSlot][i] : bytes[toSlot][j] - bytes[fromSlot][i];
+                i++;
+                j++;
+            }
+            if (growth <= 0 || (found == top.length && (top.length == 0 || growth <= topGrowth[found - 1]))) {
+                continue;
+            }
+            // Insertion into the sorted prefix, limit is small
+            int position = found < top.length ? found++ : found - 1;
+            while (position > 0 && topGrowth[position - 1] < growth) {
+                top[position] = top[position - 1];
+                topGrowth[position] = topGrowth[position - 1];
+                position--;
+            }
+            top[position] = classIndex;
+            topGrowth[position] = growth;
+        }
+
+        List<ClassGrowthDTO> grown = new ArrayList<>(found);
+        for (int k = 0; k < found; k++) {
+            int classIndex = top[k];
+            int fromRow = Arrays.binarySearch(fromClasses, 0, fromSize, classIndex);
+            int toRow = Arrays.binarySearch(toClasses, 0, toSize, classIndex);
+            ClassGrowthDTO growth = new ClassGrowthDTO();
+            growth.setClassName(classNames.get(classIndex));
+            growth.setInstances(toRow >= 0 ? instances[toSlot][toRow] : 0);
+            growth.setBytes(toRow >= 0 ? bytes[toSlot][toRow] : 0);
+            growth.setInstanceGrowth(growth.getInstances() - (fromRow >= 0 ? instances[fromSlot][fromRow] : 0));
+            growth.setByteGrowth(growth.getBytes() - (fromRow >= 0 ? bytes[fromSlot][fromRow] : 0));
+            growth.setGrowingIntervals(growingIntervals(classIndex, from, to));
+            grown.add(growth);
+        }
+
+        ClassHistogramDiffDTO diff = new ClassHistogramDiffDTO();
+        diff.setFrom(timestamps[fromSlot]);
+        diff.setTo(timestamps[toSlot]);
+        diff.setIntervals(to - from);
+        diff.setClasses(grown);
+        return diff;
+    }
+
+    private int growingIntervals(int classIndex, int from, int to) {
+        int growing = 0;
+        long previous = bytesOf(classIndex, slot(from));
+        for (int snapshot = from + 1; snapshot <= to; snapshot++) {
+            long current = bytesOf(classIndex, slot(snapshot));
+            if (current > previous) {
+                growing++;
+            }
+            previous = current;
+        }
+        return growing;
+    }
+
+    private long bytesOf(int classIndex, int slot) {
+        int row = Arrays.binarySearch(classes[slot], 0, sizes[slot], classIndex);
+        return row >= 0 ? bytes[slot][row] : 0;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.jvsnr.memory_monitoring_tool.dto.ClassLoaderStatsDTO;
+
+/**
+ * Parser of the {@code VM.classloader_stats} diagnostic command.
+ *
+ * Every live class loader is a row of loader, parent and class loader data addresses,
+ * the number of classes, the metaspace chunk and block bytes and the type of the loader;
+ * an indented {@code + hidden classes} row adds the hidden classes of the loader above
+ * it. Rows are summed by type, so a type whose loader count keeps growing across
+ * redeploys stands out.
+ */
+public final class ClassLoaderStats {
+
+    static final String HIDDEN_CLASSES = "+ hidden classes";
+    private static final String UNKNOWN_TYPE = "<unknown>";
+
+    private ClassLoaderStats() {
+    }
+
+    /**
+     * @return one entry per loader type, the one with the most metaspace chunk bytes first
+     * @throws IllegalArgumentException if the text has no class loader table
+     */
+    public static List<ClassLoaderStatsDTO> parse(String stats) {
+        Map<String, ClassLoaderStatsDTO> types = new LinkedHashMap<>();
+        ClassLoaderStatsDTO current = null;
+        boolean table = false;
+        for (String line : stats.split("\n")) {
+            String trimmed = line.strip();
+            if (trimmed.startsWith("ClassLoader")) {
+                table = true;
+            } else if (!table || trimmed.isEmpty()) {
+                continue;
+            } else if (trimmed.startsWith("Total")) {
+                break;
+            } else if (trimmed.endsWith(HIDDEN_CLASSES) && current != null) {
+                String[] fields = trimmed.split("\\s+", 4);
+                long classes = Long.parseLong(fields[0]);
+                current.setHiddenClasses(current.getHiddenClasses() + classes);
+                current.setChunkBytes(current.getChunkBytes() + Long.parseLong(fields[1]));
+                current.setBlockBytes(current.getBlockBytes() + Long.parseLong(fields[2]));
+            } else if (trimmed.startsWith("0x")) {
+                // loader, parent, CLD*, classes, chunk size, block size, type
+                String[] fields = trimmed.split("\\s+", 7);
+                if (fields.length < 6) {
+                    continue;
+                }
+                String type = fields.length == 7 ? fields[6].strip() : UNKNOWN_TYPE;
+                current = types.computeIfAbsent(type, ClassLoaderStats::newType);
+                current.setLoaders(current.getLoaders() + 1);
+                current.setClasses(current.getClasses() + Long.parseLong(fields[3]));
+                current.setChunkBytes(current.getChunkBytes() + Long.parseLong(fields[4]));
+                current.setBlockBytes(current.getBlockBytes() + Long.parseLong(fields[5]));
+            }
+        }
+        if (!table) {
+            throw new IllegalArgumentException("No class loader statistics");
+        }
+        List<ClassLoaderStatsDTO> result = new ArrayList<>(types.values());
+        result.sort((a, b) -> Long.compare(b.getChunkBytes(), a.getChunkBytes()));
+        return result;
+    }
+
+    private static ClassLoaderStatsDTO newType(String type) {
+        ClassLoaderStatsDTO dto = new ClassLoaderStatsDTO();
+        dto.setType(type);
+        return dto;
+    }
+
+}
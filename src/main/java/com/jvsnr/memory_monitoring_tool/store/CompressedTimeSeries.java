@@ -0,0 +1,151 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Long history of a time series with a fixed number of long columns, kept as a chain of
+ * {@link GorillaChunk}s.
+ *
+ * Points are appended to the newest chunk until it holds {@code chunkSize} points, then a
+ * new chunk is started. Once the chunks after the oldest one hold the capacity on their own,
+ * the oldest chunk is dropped, so between {@code capacity} and
+ * {@code capacity + chunkSize} points are retained. Reading the latest points only
+ * decodes the chunks they are in.
+ *
+ * All methods are synchronised; appends from the sampling thread and reads from request
+ * threads can interleave. Only the newest chunk is ever appended to, so reading the
+ * latest points copies just that one under the lock and decodes outside of it: a large
+ * read does not hold up the appends.
+ */
+public class CompressedTimeSeries {
+
+    private final int columns;
+    private final int chunkSize;
+    private final int capacity;
+    private final ArrayDeque<GorillaChunk> chunks = new ArrayDeque<>();
+    private int size;
+    private long appendCount;
+
+    /**
+     * @param columns number of values per point
+     * @param chunkSize number of points per chunk
+     * @param capacity minimum number of points to retain
+     */
+    public CompressedTimeSeries(int columns, int chunkSize, int capacity) {
+        if (chunkSize < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Chunk size and capacity must be positive: " + chunkSize + ", " + capacity);
+        }
+        this.columns = columns;
+        this.chunkSize = chunkSize;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Append a point, dropping the oldest chunk when it is no longer needed.
+     *
+     * @param values one value per column
+     */
+    public synchronized void append(long timestamp, long[] values) {
+        GorillaChunk newest = chunks.peekLast();
+        if (newest == null || newest.size() >= chunkSize) {
+            newest = new GorillaChunk(columns);
+            chunks.addLast(newest);
+        }
+        newest.append(timestamp, values);
+        size++;
+        appendCount++;
+        while (size - chunks.peekFirst().size() >= capacity) {
+            size -= chunks.removeFirst().size();
+        }
+    }
+
+    /**
+     * @return the number of retained points
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return the total number of points appended since creation
+     */
+    public synchronized long getAppendCount() {
+        return appendCount;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of retained chunks
+     */
+    public synchronized int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * @return the encoded size of the retained points in bytes
+     */
+    public synchronized long getCompressedBytes() {
+        long bytes = 0;
+        for (GorillaChunk chunk : chunks) {
+            bytes += chunk.getCompressedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Copy the latest points, oldest first, into the given arrays.
+     *
+     * The number of copied points is the smaller of the retained point count and the
+     * length of {@code timestamps}; every column array must be at least that long.
+     *
+     * @param values one array per column
+     * @return the number of copied points
+     */
+    public int copyLatest(long[] timestamps, long[][] values) {
+        GorillaChunk[] selected;
+        int count;
+        int skip;
+        synchronized (this) {
+            count = Math.min(size, timestamps.length);
+            if (count == 0) {
+                return 0;
+            }
+
+            // Walk back from the newest chunk to the oldest chunk holding a point to copy
+            selected = new GorillaChunk[chunks.size()];
+            int first = selected.length;
+            int available = 0;
+            Iterator<GorillaChunk> newestFirst = chunks.descendingIterator();
+            while (available < count) {
+                GorillaChunk chunk = newestFirst.next();
+                selected[--first] = chunk;
+                available += chunk.size();
+            }
+            selected[selected.length - 1] = selected[selected.length - 1].copy();
+            selected = Arrays.copyOfRange(selected, first, selected.length);
+            skip = available - count;
+        }
+
+        int copied = 0;
+        for (GorillaChunk chunk : selected) {
+            GorillaChunk.Cursor cursor = chunk.cursor();
+            if (skip > 0) {
+                skip -= cursor.skip(skip);
+            }
+            while (copied < count && cursor.next()) {
+                timestamps[copied] = cursor.getTimestamp();
+                for (int column = 0; column < columns; column++) {
+                    values[column][copied] = cursor.getValue(column);
+                }
+                copied++;
+            }
+        }
+        return copied;
+    }
+
+}
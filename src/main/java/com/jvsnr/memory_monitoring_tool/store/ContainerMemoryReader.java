@@ -0,0 +1,414 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Reads the memory of the process and of its cgroup from {@code /proc} and
+ * {@code /sys/fs/cgroup}.
+ *
+ * With cgroup v2 the usage, limit, statistics and pressure come from
+ * {@code memory.current}, {@code memory.max}, {@code memory.stat} and
+ * {@code memory.pressure}; with cgroup v1 from {@code memory.usage_in_bytes},
+ * {@code memory.limit_in_bytes} and {@code memory.stat}, and the pressure from the v2
+ * hierarchy of a hybrid mount if there is one. The process resident set comes from
+ * {@code /proc/self/status}.
+ *
+ * The files are opened once and re-read from offset 0 into one preallocated direct
+ * buffer, which the kernel regenerates on every read. Values are parsed from the bytes
+ * in place, so a read allocates nothing. Values that are not available read as
+ * {@link #UNKNOWN}, an unlimited cgroup as {@link #UNLIMITED}.
+ *
+ * Not thread-safe, callers have to synchronise.
+ */
+public class ContainerMemoryReader implements Closeable {
+
+    public static final long UNKNOWN = -1;
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final long V1_UNLIMITED = Long.MAX_VALUE / 2; // v1 reports a page aligned Long.MAX_VALUE
+
+    private static final byte[] VM_RSS = ascii("VmRSS:");
+    private static final byte[] VM_HWM = ascii("VmHWM:");
+    private static final byte[] RSS_ANON = ascii("RssAnon:");
+    private static final byte[] RSS_FILE = ascii("RssFile:");
+    private static final byte[] V2_ANON = ascii("anon ");
+    private static final byte[] V2_FILE = ascii("file ");
+    private static final byte[] V1_ANON = ascii("rss ");
+    private static final byte[] V1_FILE = ascii("cache ");
+    private static final byte[] SHMEM = ascii("shmem ");
+    private static final byte[] INACTIVE_FILE = ascii("inactive_file ");
+    private static final byte[] SOME = ascii("some ");
+    private static final byte[] FULL = ascii("full ");
+    private static final byte[] AVG10 = ascii("avg10=");
+    private static final byte[] MAX = ascii("max");
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final FileChannel status;
+    private final FileChannel usage;
+    private final FileChannel limit;
+    private final FileChannel stat;
+    private final FileChannel pressure;
+    private final boolean v2;
+
+    private long rss = UNKNOWN;
+    private long rssHighWaterMark = UNKNOWN;
+    private long rssAnon = UNKNOWN;
+    private long rssFile = UNKNOWN;
+    private long cgroupUsage = UNKNOWN;
+    private long cgroupLimit = UNKNOWN;
+    private long cgroupAnon = UNKNOWN;
+    private long cgroupFile = UNKNOWN;
+    private long cgroupShmem = UNKNOWN;
+    private long cgroupInactiveFile = UNKNOWN;
+    private double pressureSome = UNKNOWN;
+    private double pressureFull = UNKNOWN;
+
+    private ContainerMemoryReader(FileChannel status, FileChannel usage, FileChannel limit, FileChannel stat,
+            FileChannel pressure, boolean v2) {
+        this.status = status;
+        this.usage = usage;
+        this.limit = limit;
+        this.stat = stat;
+        this.pressure = pressure;
+        this.v2 = v2;
+    }
+
+    /**
+     * Open the files of this process.
+     */
+    public static ContainerMemoryReader open() {
+        return open(Path.of("/sys/fs/cgroup"), Path.of("/proc/self"));
+    }
+
+    /**
+     * Open the files of a process, finding its cgroup through {@code <proc>/cgroup}.
+     * Files that do not exist, e.g. outside of Linux, are left out.
+     *
+     * @param cgroupRoot mount point of the cgroup file systems
+     * @param proc {@code /proc/<pid>} directory of the process
+     */
+    public static ContainerMemoryReader open(Path cgroupRoot, Path proc) {
+        String v2Path = "";
+        String v1Path = "";
+        try {
+            List<String> cgroups = Files.readAllLines(proc.resolve("cgroup"));
+            for (String line : cgroups) {
+                // hierarchy-ID:controller-list:cgroup-path
+                String[] fields = line.split(":", 3);
+                if (fields.length < 3) {
+                    continue;
+                }
+                if (fields[0].equals("0") && fields[1].isEmpty()) {
+                    v2Path = relative(fields[2]);
+                } else if (List.of(fields[1].split(",")).contains("memory")) {
+                    v1Path = relative(fields[2]);
+                }
+            }
+        } catch (IOException e) {
+            // not Linux or no cgroups, try the mount point itself
+        }
+
+        Path v2 = find(cgroupRoot, v2Path, "memory.current", "");
+        Path pressureDirectory = find(cgroupRoot, v2Path, "memory.pressure", "unified");
+        if (v2 != null) {
+            return new ContainerMemoryReader(channel(proc.resolve("status")),
+                channel(v2.resolve("memory.current")), channel(v2.resolve("memory.max")),
+                channel(v2.resolve("memory.stat")), channel(v2.resolve("memory.pressure")), true);
+        }
+        Path v1 = find(cgroupRoot, v1Path, "memory.usage_in_bytes", "memory");
+        return new ContainerMemoryReader(channel(proc.resolve("status")),
+            v1 == null ? null : channel(v1.resolve("memory.usage_in_bytes")),
+            v1 == null ? null : channel(v1.resolve("memory.limit_in_bytes")),
+            v1 == null ? null : channel(v1.resolve("memory.stat")),
+            pressureDirectory == null ? null : channel(pressureDirectory.resolve("memory.pressure")), false);
+    }
+
+    private static String relative(String cgroupPath) {
+        return cgroupPath.startsWith("/") ? cgroupPath.substring(1) : cgroupPath;
+    }
+
+    /**
+     * @return the cgroup directory of the process below {@code root/hierarchy}, or the
+     *         hierarchy root when the cgroup namespace hides the path, if it has the file
+     */
+    private static Path find(Path root, String cgroupPath, String file, String hierarchy) {
+        Path hierarchyRoot = hierarchy.isEmpty() ? root : root.resolve(hierarchy);
+        for (Path candidate : new Path[] { hierarchyRoot.resolve(cgroupPath), hierarchyRoot }) {
+            if (Files.isReadable(candidate.resolve(file))) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static FileChannel channel(Path path) {
+        try {
+            return FileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Read every file again.
+     */
+    public void read() {
+        if (fill(status)) {
+            rss = kilobytes(find(0, VM_RSS));
+            rssHighWaterMark = kilobytes(find(0, VM_HWM));
+            rssAnon = kilobytes(find(0, RSS_ANON));
+            rssFile = kilobytes(find(0, RSS_FILE));
+        }
+        if (fill(usage)) {
+            cgroupUsage = number(0);
+        }
+        if (fill(limit)) {
+            cgroupLimit = startsWith(0, MAX) ? UNLIMITED : number(0);
+            if (!v2 && cgroupLimit >= V1_UNLIMITED) {
+                cgroupLimit = UNLIMITED;
+            }
+        }
+        if (fill(stat)) {
+            cgroupAnon = number(find(0, v2 ? V2_ANON : V1_ANON));
+            cgroupFile = number(find(0, v2 ? V2_FILE : V1_FILE));
+            cgroupShmem = number(find(0, SHMEM));
+            cgroupInactiveFile = number(find(0, INACTIVE_FILE));
+        }
+        if (fill(pressure)) {
+            pressureSome = decimal(avg10(find(0, SOME)));
+            pressureFull = decimal(avg10(find(0, FULL)));
+        }
+    }
+
+    /**
+     * Read a file from its start into the buffer.
+     *
+     * @return false if the file is not open or cannot be read
+     */
+    private boolean fill(FileChannel channel) {
+        if (channel == null) {
+            return false;
+        }
+        buffer.clear();
+        try {
+            long position = 0;
+            int read;
+            while (buffer.hasRemaining() && (read = channel.read(buffer, position)) > 0) {
+                position += read;
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        buffer.flip();
+        return true;
+    }
+
+    /**
+     * @return the offset after the key at the start of a line, or -1
+     */
+    private int find(int from, byte[] key) {
+        int end = buffer.limit();
+        for (int lineStart = from; lineStart < end; ) {
+            if (startsWith(lineStart, key)) {
+                return lineStart + key.length;
+            }
+            while (lineStart < end && buffer.get(lineStart) != '\n') {
+                lineStart++;
+            }
+            lineStart++;
+        }
+        return -1;
+    }
+
+    private boolean startsWith(int offset, byte[] key) {
+        if (offset + key.length > buffer.limit()) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(offset + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number at the offset after blanks, or {@link #UNKNOWN}
+     */
+    private long number(int offset) {
+        if (offset < 0) {
+            return UNKNOWN;
+        }
+        int end = buffer.limit();
+        while (offset < end && (buffer.get(offset) == ' ' || buffer.get(offset) == '\t')) {
+            offset++;
+        }
+        long value = 0;
+        int digits = 0;
+        for (; offset < end && buffer.get(offset) >= '0' && buffer.get(offset) <= '9'; offset++, digits++) {
+            value = value * 10 + (buffer.get(offset) - '0');
+        }
+        return digits > 0 ? value : UNKNOWN;
+    }
+
+    private long kilobytes(int offset) {
+        long value = number(offset);
+        return value == UNKNOWN ? UNKNOWN : value * 1024;
+    }
+
+    /**
+     * @return the offset of the avg10 value within the line, or -1
+     */
+    private int avg10(int offset) {
+        if (offset < 0) {
+            return -1;
+        }
+        for (int end = buffer.limit(); offset < end && buffer.get(offset) != '\n'; offset++) {
+            if (startsWith(offset, AVG10)) {
+                return offset + AVG10.length;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the decimal at the offset, e.g. {@code 12.34}, or {@link #UNKNOWN}
+     */
+    private double decimal(int offset) {
+        long integer = number(offset);
+        if (integer == UNKNOWN) {
+            return UNKNOWN;
+        }
+        while (offset < buffer.limit() && buffer.get(offset) >= '0' && buffer.get(offset) <= '9') {
+            offset++;
+        }
+        if (offset >= buffer.limit() || buffer.get(offset) != '.') {
+            return integer;
+        }
+        double fraction = 0;
+        double scale = 1;
+        for (offset++; offset < buffer.limit() && buffer.get(offset) >= '0' && buffer.get(offset) <= '9'; offset++) {
+            fraction = fraction * 10 + (buffer.get(offset) - '0');
+            scale *= 10;
+        }
+        return integer + fraction / scale;
+    }
+
+    /**
+     * @return whether a cgroup memory controller was found
+     */
+    public boolean isCgroupAvailable() {
+        return usage != null;
+    }
+
+    /**
+     * @return whether the cgroup is a v2 cgroup
+     */
+    public boolean isCgroupV2() {
+        return v2 && usage != null;
+    }
+
+    /**
+     * @return resident set size of the process in bytes ({@code VmRSS})
+     */
+    public long getRss() {
+        return rss;
+    }
+
+    /**
+     * @return peak resident set size of the process in bytes ({@code VmHWM})
+     */
+    public long getRssHighWaterMark() {
+        return rssHighWaterMark;
+    }
+
+    public long getRssAnon() {
+        return rssAnon;
+    }
+
+    public long getRssFile() {
+        return rssFile;
+    }
+
+    /**
+     * @return memory charged to the cgroup in bytes, including the page cache
+     */
+    public long getCgroupUsage() {
+        return cgroupUsage;
+    }
+
+    /**
+     * @return memory limit of the cgroup in bytes, or {@link #UNLIMITED}
+     */
+    public long getCgroupLimit() {
+        return cgroupLimit;
+    }
+
+    public long getCgroupAnon() {
+        return cgroupAnon;
+    }
+
+    public long getCgroupFile() {
+        return cgroupFile;
+    }
+
+    public long getCgroupShmem() {
+        return cgroupShmem;
+    }
+
+    public long getCgroupInactiveFile() {
+        return cgroupInactiveFile;
+    }
+
+    /**
+     * @return usage without the inactive page cache, which the kernel reclaims before the
+     *         OOM killer fires, the working set container runtimes evict by
+     */
+    public long getCgroupWorkingSet() {
+        if (cgroupUsage == UNKNOWN) {
+            return UNKNOWN;
+        }
+        return cgroupInactiveFile == UNKNOWN ? cgroupUsage : Math.max(0, cgroupUsage - cgroupInactiveFile);
+    }
+
+    /**
+     * @return share of the last 10 seconds in percent in which some tasks stalled on memory
+     */
+    public double getPressureSome() {
+        return pressureSome;
+    }
+
+    /**
+     * @return share of the last 10 seconds in percent in which all tasks stalled on memory
+     */
+    public double getPressureFull() {
+        return pressureFull;
+    }
+
+    @Override
+    public void close() {
+        for (FileChannel channel : new FileChannel[] { status, usage, limit, stat, pressure }) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // nothing left to release
+                }
+            }
+        }
+    }
+
+}
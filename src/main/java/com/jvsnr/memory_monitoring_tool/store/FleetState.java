@@ -0,0 +1,426 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import com.jvsnr.memory_monitoring_tool.dto.FleetBatchDTO;
+import com.jvsnr.memory_monitoring_tool.dto.FleetInstanceDTO;
+import com.jvsnr.memory_monitoring_tool.dto.GcEventDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemoryHistoryDTO;
+import com.jvsnr.util.MemoryUtils;
+
+/**
+ * Latest state of every instance of a fleet, striped over independently locked shards.
+ *
+ * An instance always lands in the same shard, so concurrent pushes of different
+ * instances rarely contend. Every shard keeps its instances ordered by heap utilisation
+ * and by GC overhead, the set of leak suspects and the running sums of the GC overhead,
+ * all updated on ingest. Fleet-wide queries therefore only merge the heads of the
+ * shard indexes instead of scanning every instance.
+ */
+public class FleetState {
+
+    static final double GC_OVERHEAD_SMOOTHING = 0.3; // weight of the latest batch
+
+    private static final Comparator<Instance> BY_UTILISATION = Comparator
+        .comparingDouble((Instance instance) -> instance.memoryUtilisation).reversed()
+        .thenComparing(instance -> instance.name);
+    private static final Comparator<Instance> BY_GC_OVERHEAD = Comparator
+        .comparingDouble((Instance instance) -> instance.gcOverhead).reversed()
+        .thenComparing(instance -> instance.name);
+    private static final Comparator<FleetInstanceDTO> DTO_BY_UTILISATION = Comparator
+        .comparingDouble(FleetInstanceDTO::getMemoryUtilisation).reversed()
+        .thenComparing(FleetInstanceDTO::getInstance);
+    private static final Comparator<FleetInstanceDTO> DTO_BY_GC_OVERHEAD = Comparator
+        .comparingDouble(FleetInstanceDTO::getGcOverhead).reversed()
+        .thenComparing(FleetInstanceDTO::getInstance);
+
+    private final Shard[] shards;
+    private final int mask;
+
+    /**
+     * @param shardCount number of shards, rounded up to the next power of two
+     */
+    public FleetState(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        int count = shardCount == 1 ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard();
+        }
+        this.mask = count - 1;
+    }
+
+    private Shard shard(String instance) {
+        int hash = instance.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * @return the number of known instances
+     */
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size;
+        }
+        return size;
+    }
+
+    /**
+     * Apply a batch to the state of its instance, creating the instance on its first batch.
+     *
+     * The batch is fully read before the indexes are touched, so a malformed batch fails
+     * without changing the state of its instance.
+     *
+     * @param receivedAt epoch millis the batch was received, the last seen time of the instance
+     * @return the number of samples in the batch
+     */
+    public int ingest(FleetBatchDTO batch, long receivedAt) {
+        MemoryHistoryDTO memory = batch.getMemory();
+        int samples = memory != null && memory.getTimestamps() != null ? memory.getTimestamps().length : 0;
+        long heapUsed = 0;
+        long heapCommitted = 0;
+        long heapMax = 0;
+        long nonHeapUsed = 0;
+        if (samples > 0) {
+            int latest = samples - 1;
+            heapUsed = memory.getHeapMemoryUsed()[latest];
+            heapCommitted = memory.getHeapMemoryCommitted()[latest];
+            heapMax = memory.getHeapMemoryMax()[latest];
+            nonHeapUsed = memory.getNonHeapMemoryUsed()[latest];
+        }
+        long gcCount = 0;
+        long gcTime = 0;
+        if (batch.getGcEvents() != null) {
+            for (GcEventDTO event : batch.getGcEvents()) {
+                gcCount++;
+                gcTime += Math.max(0, event.getDuration());
+            }
+        }
+
+        Shard shard = shard(batch.getInstance());
+        shard.lock.lock();
+        try {
+            Instance instance = shard.instances.get(batch.getInstance());
+            if (instance == null) {
+                instance = new Instance(batch.getInstance());
+                shard.instances.put(instance.name, instance);
+                shard.size = shard.instances.size();
+            } else {
+                // Re-keyed below, the indexes must not see the fields change
+                shard.unindex(instance);
+            }
+
+            instance.lastSeen = receivedAt;
+            instance.batches++;
+            instance.samples += samples;
+            if (samples > 0) {
+                instance.heapUsed = heapUsed;
+                instance.heapCommitted = heapCommitted;
+                instance.heapMax = heapMax;
+                instance.nonHeapUsed = nonHeapUsed;
+                instance.memoryUtilisation = MemoryUtils.utilisation(instance.heapUsed, instance.heapMax);
+            }
+
+            instance.gcCount += gcCount;
+            instance.gcTime += gcTime;
+            long window = batch.getTo() - batch.getFrom();
+            if (window > 0) {
+                double overhead = Math.min(100.0, gcTime * 100.0 / window);
+                instance.gcOverhead = instance.overheadSamples == 0 ? overhead
+                    : GC_OVERHEAD_SMOOTHING * overhead + (1 - GC_OVERHEAD_SMOOTHING) * instance.gcOverhead;
+                instance.overheadSamples++;
+            }
+
+            instance.memoryLeakDetected = batch.isMemoryLeakDetected();
+            instance.consistentGrowthDetected = batch.isConsistentGrowthDetected();
+            instance.growthSlope = batch.getGrowthSlopeBytesPerSecond();
+            instance.growthConfidence = batch.getGrowthConfidence();
+
+            shard.index(instance);
+        } finally {
+            shard.lock.unlock();
+        }
+        return samples;
+    }
+
+    /**
+     * @return the state of an instance, or null if it is unknown
+     */
+    public FleetInstanceDTO get(String name) {
+        Shard shard = shard(name);
+        shard.lock.lock();
+        try {
+            Instance instance = shard.instances.get(name);
+            return instance != null ? instance.toDTO() : null;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * @return whether the instance was known
+     */
+    public boolean remove(String name) {
+        Shard shard = shard(name);
+        shard.lock.lock();
+        try {
+            Instance instance = shard.instances.remove(name);
+            if (instance == null) {
+                return false;
+            }
+            shard.unindex(instance);
+            shard.size = shard.instances.size();
+            return true;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * @return the instances with the highest heap utilisation, highest first
+     */
+    public List<FleetInstanceDTO> getTopByUtilisation(int limit) {
+        return top(limit, DTO_BY_UTILISATION, shard -> shard.byUtilisation,
+            instance -> instance.memoryUtilisation, FleetInstanceDTO::getMemoryUtilisation);
+    }
+
+    /**
+     * @return the instances with the highest GC overhead, highest first
+     */
+    public List<FleetInstanceDTO> getTopByGcOverhead(int limit) {
+        return top(limit, DTO_BY_GC_OVERHEAD, shard -> shard.byGcOverhead,
+            instance -> instance.gcOverhead, FleetInstanceDTO::getGcOverhead);
+    }
+
+    private List<FleetInstanceDTO> top(int limit, Comparator<FleetInstanceDTO> order,
+            Function<Shard, TreeSet<Instance>> index, ToDoubleFunction<Instance> key,
+            ToDoubleFunction<FleetInstanceDTO> snapshotKey) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        // Worst of the best so far on top; a shard is only walked while it can still beat it
+        PriorityQueue<FleetInstanceDTO> best = new PriorityQueue<>(limit + 1, order.reversed());
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                for (Instance instance : index.apply(shard)) {
+                    if (best.size() == limit && key.applyAsDouble(instance) < snapshotKey.applyAsDouble(best.peek())) {
+                        break;
+                    }
+                    best.add(instance.toDTO());
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        List<FleetInstanceDTO> top = new ArrayList<>(best);
+        top.sort(order);
+        return top;
+    }
+
+    /**
+     * @return the instances whose leak detector reports a leak, fastest growing first
+     */
+    public List<FleetInstanceDTO> getLeakSuspects() {
+        List<FleetInstanceDTO> suspects = new ArrayList<>();
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                for (Instance instance : shard.leakSuspects.values()) {
+                    suspects.add(instance.toDTO());
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        suspects.sort(Comparator.comparingDouble(FleetInstanceDTO::getGrowthSlopeBytesPerSecond).reversed()
+            .thenComparing(FleetInstanceDTO::getInstance));
+        return suspects;
+    }
+
+    /**
+     * @return mean and population standard deviation of the GC overhead of every instance
+     */
+    public double[] getGcOverheadMeanAndStdDev() {
+        long count = 0;
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                count += shard.instances.size();
+                sum += shard.overheadSum;
+                sumOfSquares += shard.overheadSumOfSquares;
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        if (count == 0) {
+            return new double[] { 0.0, 0.0 };
+        }
+        double mean = sum / count;
+        double variance = Math.max(0.0, sumOfSquares / count - mean * mean);
+        return new double[] { mean, Math.sqrt(variance) };
+    }
+
+    /**
+     * @return the instances with a GC overhead strictly above the threshold, highest first
+     */
+    public List<FleetInstanceDTO> getGcOverheadAbove(double threshold) {
+        List<FleetInstanceDTO> candidates = new ArrayList<>();
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                for (Instance instance : shard.byGcOverhead) {
+                    if (instance.gcOverhead <= threshold) {
+                        break;
+                    }
+                    candidates.add(instance.toDTO());
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        candidates.sort(DTO_BY_GC_OVERHEAD);
+        return candidates;
+    }
+
+    /**
+     * Forget the instances that did not push since the given time.
+     *
+     * Also recomputes the running GC overhead sums of every shard to drop accumulated
+     * rounding errors.
+     *
+     * @return the number of forgotten instances
+     */
+    public int evictOlderThan(long lastSeenBefore) {
+        int evicted = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                Iterator<Instance> iterator = shard.instances.values().iterator();
+                double sum = 0;
+                double sumOfSquares = 0;
+                while (iterator.hasNext()) {
+                    Instance instance = iterator.next();
+                    if (instance.lastSeen < lastSeenBefore) {
+                        iterator.remove();
+                        shard.unindex(instance);
+                        evicted++;
+                    } else {
+                        sum += instance.gcOverhead;
+                        sumOfSquares += instance.gcOverhead * instance.gcOverhead;
+                    }
+                }
+                shard.overheadSum = sum;
+                shard.overheadSumOfSquares = sumOfSquares;
+                shard.size = shard.instances.size();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return evicted;
+    }
+
+    private static final class Shard {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Instance> instances = new HashMap<>();
+        private final TreeSet<Instance> byUtilisation = new TreeSet<>(BY_UTILISATION);
+        private final TreeSet<Instance> byGcOverhead = new TreeSet<>(BY_GC_OVERHEAD);
+        private final Map<String, Instance> leakSuspects = new HashMap<>();
+        private double overheadSum;
+        private double overheadSumOfSquares;
+        private volatile int size;
+
+        void index(Instance instance) {
+            byUtilisation.add(instance);
+            byGcOverhead.add(instance);
+            if (instance.memoryLeakDetected) {
+                leakSuspects.put(instance.name, instance);
+            }
+            overheadSum += instance.gcOverhead;
+            overheadSumOfSquares += instance.gcOverhead * instance.gcOverhead;
+        }
+
+        void unindex(Instance instance) {
+            byUtilisation.remove(instance);
+            byGcOverhead.remove(instance);
+            leakSuspects.remove(instance.name);
+            overheadSum -= instance.gcOverhead;
+            overheadSumOfSquares -= instance.gcOverhead * instance.gcOverhead;
+        }
+
+    }
+
+    /**
+     * Mutable state of one instance, only touched under the lock of its shard.
+     */
+    private static final class Instance {
+
+        private final String name;
+        private long lastSeen;
+        private long batches;
+        private long samples;
+        private long heapUsed;
+        private long heapCommitted;
+        private long heapMax;
+        private long nonHeapUsed;
+        private double memoryUtilisation;
+        private double gcOverhead;
+        private long overheadSamples;
+        private long gcCount;
+        private long gcTime;
+        private boolean memoryLeakDetected;
+        private boolean consistentGrowthDetected;
+        private double growthSlope;
+        private double growthConfidence;
+
+        Instance(String name) {
+            this.name = name;
+        }
+
+        FleetInstanceDTO toDTO() {
+            FleetInstanceDTO dto = new FleetInstanceDTO();
+            dto.setInstance(name);
+            dto.setLastSeen(lastSeen);
+            dto.setBatches(batches);
+            dto.setSamples(samples);
+            dto.setHeapMemoryUsed(heapUsed);
+            dto.setHeapMemoryCommitted(heapCommitted);
+            dto.setHeapMemoryMax(heapMax);
+            dto.setNonHeapMemoryUsed(nonHeapUsed);
+            dto.setMemoryUtilisation(memoryUtilisation);
+            dto.setGcOverhead(gcOverhead);
+            dto.setGcCount(gcCount);
+            dto.setGcTime(gcTime);
+            dto.setMemoryLeakDetected(memoryLeakDetected);
+            dto.setConsistentGrowthDetected(consistentGrowthDetected);
+            dto.setGrowthSlopeBytesPerSecond(growthSlope);
+            dto.setGrowthConfidence(growthConfidence);
+            return dto;
+        }
+
+    }
+
+}
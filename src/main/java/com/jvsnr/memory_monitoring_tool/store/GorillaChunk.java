@@ -0,0 +1,379 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Appendable, bit-packed chunk of a time series with a timestamp and a fixed number of
+ * long value columns per point, encoded like the Gorilla paper.
+ *
+ * The first point is stored raw. Every further timestamp is stored as the difference of
+ * its delta to the previous delta: {@code 0} for a regular interval, otherwise a prefix
+ * and a 7, 9, 12, 32 or 64 bit signed value. Every value is XORed with the previous value
+ * of its column: {@code 0} if unchanged, otherwise the meaningful bits of the XOR, either
+ * within the leading and trailing zero window of the previous XOR or with a new window.
+ * Regular samples of slowly changing values take a few bits per column; committed and
+ * max sizes, which rarely change, one bit.
+ *
+ * Points are read in order through a {@link Cursor}, which decodes one point at a time,
+ * so nothing is decompressed up front. Not thread-safe, callers have to synchronise.
+ */
+public class GorillaChunk {
+
+    private static final int MAX_LEADING_ZEROS = 31; // 5 bits
+
+    private final int columns;
+    private long[] words;
+    private int bitLength;
+    private int count;
+
+    // Encoder state
+    private long lastTimestamp;
+    private long lastDelta;
+    private final long[] lastValues;
+    private final int[] lastLeadingZeros;
+    private final int[] lastTrailingZeros;
+
+    /**
+     * @param columns number of values per point
+     */
+    public GorillaChunk(int columns) {
+        this(columns, new long[16], 0);
+    }
+
+    private GorillaChunk(int columns, long[] words, int bitLength) {
+        if (columns < 1) {
+            throw new IllegalArgumentException("At least one column is required: " + columns);
+        }
+        this.columns = columns;
+        this.words = words;
+        this.bitLength = bitLength;
+        this.lastValues = new long[columns];
+        this.lastLeadingZeros = new int[columns];
+        this.lastTrailingZeros = new int[columns];
+    }
+
+    /**
+     * Append a point. Timestamps should not decrease but are not required to.
+     *
+     * @param values one value per column; only the first {@code columns} values are read
+     */
+    public void append(long timestamp, long[] values) {
+        if (values.length < columns) {
+            throw new IllegalArgumentException("Expected " + columns + " values, got " + values.length);
+        }
+        if (count == 0) {
+            writeBits(timestamp, 64);
+            for (int column = 0; column < columns; column++) {
+                writeBits(values[column], 64);
+                lastLeadingZeros[column] = -1;
+            }
+        } else {
+            long delta = timestamp - lastTimestamp;
+            writeDeltaOfDelta(delta - lastDelta);
+            lastDelta = delta;
+            for (int column = 0; column < columns; column++) {
+                writeXor(column, values[column] ^ lastValues[column]);
+            }
+        }
+        lastTimestamp = timestamp;
+        System.arraycopy(values, 0, lastValues, 0, columns);
+        count++;
+    }
+
+    private void writeDeltaOfDelta(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            writeBits(0b0, 1);
+        } else if (fits(deltaOfDelta, 7)) {
+            writeBits(0b10, 2);
+            writeBits(deltaOfDelta, 7);
+        } else if (fits(deltaOfDelta, 9)) {
+            writeBits(0b110, 3);
+            writeBits(deltaOfDelta, 9);
+        } else if (fits(deltaOfDelta, 12)) {
+            writeBits(0b1110, 4);
+            writeBits(deltaOfDelta, 12);
+        } else if (fits(deltaOfDelta, 32)) {
+            writeBits(0b11110, 5);
+            writeBits(deltaOfDelta, 32);
+        } else {
+            writeBits(0b11111, 5);
+            writeBits(deltaOfDelta, 64);
+        }
+    }
+
+    private static long signed(long value, int bits) {
+        return value << (64 - bits) >> (64 - bits);
+    }
+
+    private static boolean fits(long value, int bits) {
+        long min = -(1L << (bits - 1));
+        return value >= min && value < -min;
+    }
+
+    private void writeXor(int column, long xor) {
+        if (xor == 0) {
+            writeBits(0b0, 1);
+            return;
+        }
+        int leadingZeros = Math.min(Long.numberOfLeadingZeros(xor), MAX_LEADING_ZEROS);
+        int trailingZeros = Long.numberOfTrailingZeros(xor);
+        int previousLeading = lastLeadingZeros[column];
+        if (previousLeading >= 0 && leadingZeros >= previousLeading && trailingZeros >= lastTrailingZeros[column]) {
+            // Fits into the window of the previous XOR
+            writeBits(0b10, 2);
+            writeBits(xor >>> lastTrailingZeros[column], 64 - previousLeading - lastTrailingZeros[column]);
+        } else {
+            int meaningfulBits = 64 - leadingZeros - trailingZeros;
+            writeBits(0b11, 2);
+            writeBits(leadingZeros, 5);
+            writeBits(meaningfulBits - 1, 6);
+            writeBits(xor >>> trailingZeros, meaningfulBits);
+            lastLeadingZeros[column] = leadingZeros;
+            lastTrailingZeros[column] = trailingZeros;
+        }
+    }
+
+    /**
+     * Write the lowest {@code bits} bits of the value, most significant first.
+     */
+    private void writeBits(long value, int bits) {
+        int required = (bitLength + bits + 63) >>> 6;
+        if (required > words.length) {
+            words = Arrays.copyOf(words, Math.max(required, words.length * 2));
+        }
+        if (bits < 64) {
+            value &= (1L << bits) - 1;
+        }
+        int word = bitLength >>> 6;
+        int free = 64 - (bitLength & 63); // free bits in the current word
+        if (bits <= free) {
+            words[word] |= value << (free - bits);
+        } else {
+            int overflow = bits - free;
+            words[word] |= value >>> overflow;
+            words[word + 1] |= value << (64 - overflow);
+        }
+        bitLength += bits;
+    }
+
+    /**
+     * @return number of points in the chunk
+     */
+    public int size() {
+        return count;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the timestamp of the latest point
+     */
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * @return the encoded size in bytes, without the fixed header of {@link #writeTo}
+     */
+    public int getCompressedBytes() {
+        return (bitLength + 7) >>> 3;
+    }
+
+    /**
+     * @return a cursor over the points appended so far, positioned before the first one
+     */
+    public Cursor cursor() {
+        return new Cursor(count);
+    }
+
+    /**
+     * @return an independent copy of the points appended so far, which can be read while
+     *         this chunk is appended to
+     */
+    public GorillaChunk copy() {
+        GorillaChunk chunk = new GorillaChunk(columns, Arrays.copyOf(words, Math.max(1, (bitLength + 63) >>> 6)),
+            bitLength);
+        chunk.count = count;
+        chunk.lastTimestamp = lastTimestamp;
+        chunk.lastDelta = lastDelta;
+        System.arraycopy(lastValues, 0, chunk.lastValues, 0, columns);
+        System.arraycopy(lastLeadingZeros, 0, chunk.lastLeadingZeros, 0, columns);
+        System.arraycopy(lastTrailingZeros, 0, chunk.lastTrailingZeros, 0, columns);
+        return chunk;
+    }
+
+    /**
+     * @return bytes written by {@link #writeTo}
+     */
+    public int getSerializedSize() {
+        return 3 * Integer.BYTES + ((bitLength + 63) >>> 6) * Long.BYTES;
+    }
+
+    /**
+     * Write columns, point count, bit length and the encoded words.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putInt(columns);
+        buffer.putInt(count);
+        buffer.putInt(bitLength);
+        for (int word = 0, words = (bitLength + 63) >>> 6; word < words; word++) {
+            buffer.putLong(this.words[word]);
+        }
+    }
+
+    /**
+     * Read a chunk written by {@link #writeTo}; it can be appended to again.
+     *
+     * @throws IllegalArgumentException if the header is inconsistent
+     */
+    public static GorillaChunk readFrom(ByteBuffer buffer) {
+        int columns = buffer.getInt();
+        int count = buffer.getInt();
+        int bitLength = buffer.getInt();
+        if (columns < 1 || count < 0 || bitLength < 0 || ((bitLength + 63) >>> 6) * (long) Long.BYTES > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupted chunk header: " + columns + " columns, " + count
+                + " points, " + bitLength + " bits");
+        }
+        long[] words = new long[Math.max(1, (bitLength + 63) >>> 6)];
+        for (int word = 0; word < (bitLength + 63) >>> 6; word++) {
+            words[word] = buffer.getLong();
+        }
+        GorillaChunk chunk = new GorillaChunk(columns, words, bitLength);
+        // Replay the points to restore the encoder state
+        Cursor cursor = chunk.new Cursor(count);
+        while (cursor.next()) {
+            // decoding only
+        }
+        chunk.count = count;
+        chunk.lastTimestamp = cursor.timestamp;
+        chunk.lastDelta = cursor.delta;
+        System.arraycopy(cursor.values, 0, chunk.lastValues, 0, columns);
+        System.arraycopy(cursor.leadingZeros, 0, chunk.lastLeadingZeros, 0, columns);
+        System.arraycopy(cursor.trailingZeros, 0, chunk.lastTrailingZeros, 0, columns);
+        return chunk;
+    }
+
+    /**
+     * Forward-only decoder of the points of a chunk; reuses its state for every point.
+     */
+    public class Cursor {
+
+        private final int end;
+        private int index = -1;
+        private int position;
+        private long timestamp;
+        private long delta;
+        private final long[] values = new long[columns];
+        private final int[] leadingZeros = new int[columns];
+        private final int[] trailingZeros = new int[columns];
+
+        private Cursor(int end) {
+            this.end = end;
+        }
+
+        /**
+         * Decode the next point.
+         *
+         * @return false if there is none
+         */
+        public boolean next() {
+            if (index + 1 >= end) {
+                return false;
+            }
+            index++;
+            if (index == 0) {
+                timestamp = readBits(64);
+                for (int column = 0; column < columns; column++) {
+                    values[column] = readBits(64);
+                    leadingZeros[column] = -1;
+                }
+                return true;
+            }
+            delta += readDeltaOfDelta();
+            timestamp += delta;
+            for (int column = 0; column < columns; column++) {
+                values[column] ^= readXor(column);
+            }
+            return true;
+        }
+
+        /**
+         * Skip points without handing them out.
+         *
+         * @return the number of points skipped
+         */
+        public int skip(int points) {
+            int skipped = 0;
+            while (skipped < points && next()) {
+                skipped++;
+            }
+            return skipped;
+        }
+
+        private long readDeltaOfDelta() {
+            if (readBits(1) == 0) {
+                return 0;
+            }
+            if (readBits(1) == 0) {
+                return signed(readBits(7), 7);
+            }
+            if (readBits(1) == 0) {
+                return signed(readBits(9), 9);
+            }
+            if (readBits(1) == 0) {
+                return signed(readBits(12), 12);
+            }
+            if (readBits(1) == 0) {
+                return signed(readBits(32), 32);
+            }
+            return readBits(64);
+        }
+
+        private long readXor(int column) {
+            if (readBits(1) == 0) {
+                return 0;
+            }
+            if (readBits(1) == 1) {
+                leadingZeros[column] = (int) readBits(5);
+                int meaningfulBits = (int) readBits(6) + 1;
+                trailingZeros[column] = 64 - leadingZeros[column] - meaningfulBits;
+            }
+            int meaningfulBits = 64 - leadingZeros[column] - trailingZeros[column];
+            return readBits(meaningfulBits) << trailingZeros[column];
+        }
+
+        private long readBits(int bits) {
+            int word = position >>> 6;
+            int offset = position & 63;
+            long value;
+            if (offset + bits <= 64) {
+                value = words[word] << offset >>> (64 - bits);
+            } else {
+                int overflow = offset + bits - 64;
+                value = (words[word] << offset >>> offset) << overflow | words[word + 1] >>> (64 - overflow);
+            }
+            position += bits;
+            return value;
+        }
+
+        /**
+         * @return index of the current point within the chunk
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public long getValue(int column) {
+            return values[column];
+        }
+
+    }
+
+}
@@ -0,0 +1,402 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.jvsnr.memory_monitoring_tool.dto.HeapClassSummaryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.LeakSuspectDTO;
+import com.jvsnr.memory_monitoring_tool.store.MappedArrays.ByteArray;
+import com.jvsnr.memory_monitoring_tool.store.MappedArrays.IntArray;
+import com.jvsnr.memory_monitoring_tool.store.MappedArrays.LongArray;
+
+/**
+ * Object graph of a heap dump with its dominator tree.
+ *
+ * Nodes are the objects ordered by id, followed by one synthetic root that references
+ * every GC root and class object. References are stored as adjacency arrays, one
+ * {@code int} per edge, with {@code -1} for references to objects missing from the
+ * dump. {@link #computeDominators()} runs Lengauer-Tarjan over these arrays and derives
+ * the retained size of every object: the memory that would be freed if it became
+ * unreachable. Objects not reachable from the root are garbage the dump still contained
+ * and count for nothing.
+ *
+ * The graph and the working arrays of the dominator computation are {@link MappedArrays},
+ * so the heap only holds the class names however large the dump is. The dominator tree
+ * takes another {@value #DOMINATOR_BYTES_PER_OBJECT} bytes per object and
+ * {@value #DOMINATOR_BYTES_PER_REFERENCE} per reference of temp files.
+ */
+public class HeapGraph {
+
+    static final byte OBJECT = 0;
+    static final byte CLASS_OBJECT = 1;
+
+    private static final String CLASS_OBJECTS = "java.lang.Class";
+    private static final int MAX_PATH_LENGTH = 16;
+
+    // Ten int, three long and one byte array per node, the predecessors per edge
+    static final int DOMINATOR_BYTES_PER_OBJECT = 10 * Integer.BYTES + 3 * Long.BYTES + 1;
+    static final int DOMINATOR_BYTES_PER_REFERENCE = Integer.BYTES;
+
+    private final MappedArrays arrays;
+    private final int nodeCount; // objects, without the root
+    private final int root;
+    private final LongArray ids;
+    private final ByteArray kinds;
+    private final IntArray classes;
+    private final IntArray shallowSizes;
+    private final String[] classNames;
+    private final LongArray edgeStarts;
+    private final IntArray edges;
+
+    private IntArray dominators;
+    private LongArray retainedSizes;
+    private IntArray dominatedCounts;
+    private int reachable;
+
+    /**
+     * @param arrays allocator of the working arrays
+     * @param ids object ids, sorted
+     * @param kinds {@link #OBJECT} or {@link #CLASS_OBJECT} per object
+     * @param classes index into {@code classNames} per object; for class objects the class they describe
+     * @param shallowSizes shallow size per object
+     * @param edgeStarts first edge of every node, the root and one past the last edge
+     * @param edges referenced nodes, -1 for unknown objects
+     */
+    HeapGraph(MappedArrays arrays, LongArray ids, ByteArray kinds, IntArray classes, IntArray shallowSizes,
+            String[] classNames, LongArray edgeStarts, IntArray edges) {
+        if (ids.length() >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("More than 2^31 objects: " + ids.length());
+        }
+        this.arrays = arrays;
+        this.nodeCount = (int) ids.length();
+        this.root = nodeCount;
+        this.ids = ids;
+        this.kinds = kinds;
+        this.classes = classes;
+        this.shallowSizes = shallowSizes;
+        this.classNames = classNames;
+        this.edgeStarts = edgeStarts;
+        this.edges = edges;
+    }
+
+    /**
+     * @return bytes of temp files {@link #computeDominators()} needs for a graph of the given size
+     */
+    public static long estimateDominatorBytes(long objects, long references) {
+        return (objects + 1) * DOMINATOR_BYTES_PER_OBJECT + references * DOMINATOR_BYTES_PER_REFERENCE;
+    }
+
+    /**
+     * @return number of objects in the dump, reachable or not
+     */
+    public int getObjectCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return number of objects reachable from the GC roots
+     */
+    public int getReachableObjectCount() {
+        return reachable;
+    }
+
+    /**
+     * @return total shallow size of the reachable objects
+     */
+    public long getReachableSize() {
+        return retainedSizes.get(root);
+    }
+
+    /**
+     * @return number of references between objects, including those to objects missing from the dump
+     */
+    public long getReferenceCount() {
+        return edgeStarts.get(root + 1);
+    }
+
+    public long getObjectId(int node) {
+        return ids.get(node);
+    }
+
+    public long getShallowSize(int node) {
+        return shallowSizes.get(node);
+    }
+
+    public long getRetainedSize(int node) {
+        return retainedSizes.get(node);
+    }
+
+    /**
+     * @return immediate dominator of the object, {@link #getRoot()} for objects only dominated by
+     *         the GC roots and -1 for unreachable ones
+     */
+    public int getImmediateDominator(int node) {
+        return dominators.get(node);
+    }
+
+    public int getRoot() {
+        return root;
+    }
+
+    /**
+     * @return the node of an object id, or -1 if it is not in the dump
+     */
+    public int getNode(long objectId) {
+        long node = ids.binarySearch(objectId);
+        return node >= 0 ? (int) node : -1;
+    }
+
+    /**
+     * @return the class name of an object, or {@code "class X"} for the class object of X
+     */
+    public String describe(int node) {
+        String name = classNames[classes.get(node)];
+        return kinds.get(node) == CLASS_OBJECT ? "class " + name : name;
+    }
+
+    /**
+     * Build the dominator tree and the retained sizes.
+     *
+     * @throws IOException if the working arrays cannot be mapped
+     */
+    public void computeDominators() throws IOException {
+        int n = nodeCount + 1;
+        IntArray number = arrays.ints(n); // depth-first number + 1, 0 while unvisited
+        IntArray vertex = arrays.ints(n);
+        IntArray parent = arrays.ints(n);
+        IntArray stack = arrays.ints(n);
+        LongArray cursor = arrays.longs(n);
+
+        // Iterative depth-first search, object graphs are far too deep for recursion
+        int count = 0;
+        number.set(root, ++count);
+        vertex.set(0, root);
+        cursor.set(root, edgeStarts.get(root));
+        stack.set(0, root);
+        int top = 1;
+        while (top > 0) {
+            int v = stack.get(top - 1);
+            long e = cursor.get(v);
+            if (e < edgeStarts.get(v + 1)) {
+                cursor.set(v, e + 1);
+                int w = edges.get(e);
+                if (w >= 0 && number.get(w) == 0) {
+                    number.set(w, ++count);
+                    vertex.set(count - 1, w);
+                    parent.set(w, v);
+                    cursor.set(w, edgeStarts.get(w));
+                    stack.set(top++, w);
+                }
+            } else {
+                top--;
+            }
+        }
+        reachable = count - 1;
+
+        // Predecessors within the reachable graph
+        LongArray predecessorStarts = arrays.longs(n + 1);
+        for (int i = 0; i < count; i++) {
+            int v = vertex.get(i);
+            for (long e = edgeStarts.get(v); e < edgeStarts.get(v + 1); e++) {
+                int w = edges.get(e);
+                if (w >= 0) {
+                    predecessorStarts.add(w + 1, 1);
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            predecessorStarts.add(v + 1, predecessorStarts.get(v));
+        }
+        IntArray predecessors = arrays.ints(predecessorStarts.get(n));
+        LongArray fill = cursor; // reused, the search is done
+        for (int v = 0; v < n; v++) {
+            fill.set(v, predecessorStarts.get(v));
+        }
+        for (int i = 0; i < count; i++) {
+            int v = vertex.get(i);
+            for (long e = edgeStarts.get(v); e < edgeStarts.get(v + 1); e++) {
+                int w = edges.get(e);
+                if (w >= 0) {
+                    long p = fill.get(w);
+                    fill.set(w, p + 1);
+                    predecessors.set(p, v);
+                }
+            }
+        }
+
+        // Lengauer-Tarjan with path compression; semi holds depth-first numbers
+        IntArray semi = number;
+        IntArray label = arrays.ints(n);
+        IntArray ancestor = arrays.ints(n);
+        IntArray bucketHead = arrays.ints(n);
+        IntArray bucketNext = arrays.ints(n);
+        IntArray dominator = arrays.ints(n);
+        ancestor.fill(-1);
+        bucketHead.fill(-1);
+        dominator.fill(-1);
+        for (int v = 0; v < n; v++) {
+            label.set(v, v);
+        }
+
+        for (int i = count - 1; i > 0; i--) {
+            int w = vertex.get(i);
+            for (long p = predecessorStarts.get(w); p < predecessorStarts.get(w + 1); p++) {
+                int v = predecessors.get(p);
+                if (semi.get(v) == 0) {
+                    continue;
+                }
+                int u = eval(v, ancestor, label, semi, stack);
+                if (semi.get(u) < semi.get(w)) {
+                    semi.set(w, semi.get(u));
+                }
+            }
+            int semiDominator = vertex.get(semi.get(w) - 1);
+            bucketNext.set(w, bucketHead.get(semiDominator));
+            bucketHead.set(semiDominator, w);
+
+            int p = parent.get(w);
+            ancestor.set(w, p);
+            for (int v = bucketHead.get(p); v >= 0; v = bucketNext.get(v)) {
+                int u = eval(v, ancestor, label, semi, stack);
+                dominator.set(v, semi.get(u) < semi.get(v) ? u : p);
+            }
+            bucketHead.set(p, -1);
+        }
+        for (int i = 1; i < count; i++) {
+            int w = vertex.get(i);
+            if (dominator.get(w) != vertex.get(semi.get(w) - 1)) {
+                dominator.set(w, dominator.get(dominator.get(w)));
+            }
+        }
+
+        // Dominators come first in depth-first order, so one backwards pass sums the subtrees
+        LongArray retained = arrays.longs(n);
+        IntArray dominated = arrays.ints(n);
+        for (int i = 1; i < count; i++) {
+            int v = vertex.get(i);
+            retained.set(v, shallowSizes.get(v));
+            dominated.set(v, 1);
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int w = vertex.get(i);
+            int d = dominator.get(w);
+            retained.add(d, retained.get(w));
+            dominated.set(d, dominated.get(d) + dominated.get(w));
+        }
+        this.dominators = dominator;
+        this.retainedSizes = retained;
+        this.dominatedCounts = dominated;
+    }
+
+    /**
+     * Path compressing eval of Lengauer-Tarjan, iterative over an explicit stack.
+     */
+    private static int eval(int v, IntArray ancestor, IntArray label, IntArray semi, IntArray stack) {
+        if (ancestor.get(v) < 0) {
+            return v;
+        }
+        int top = 0;
+        for (int x = v; ancestor.get(ancestor.get(x)) >= 0; x = ancestor.get(x)) {
+            stack.set(top++, x);
+        }
+        while (top > 0) {
+            int x = stack.get(--top);
+            int a = ancestor.get(x);
+            if (semi.get(label.get(a)) < semi.get(label.get(x))) {
+                label.set(x, label.get(a));
+            }
+            ancestor.set(x, ancestor.get(a));
+        }
+        return label.get(v);
+    }
+
+    /**
+     * Summarise the reachable objects per class. The retained size of a class counts
+     * every instance whose immediate dominator is not an instance of the same class,
+     * so chains such as linked list nodes are not counted once per link.
+     *
+     * @return the classes with the highest retained size, highest first
+     */
+    public List<HeapClassSummaryDTO> getClassSummary(int limit) {
+        int classObjects = classNames.length;
+        int buckets = classNames.length + 1;
+        long[] instances = new long[buckets];
+        long[] shallow = new long[buckets];
+        long[] retained = new long[buckets];
+        for (int v = 0; v < nodeCount; v++) {
+            int dominator = dominators.get(v);
+            if (dominator < 0) {
+                continue;
+            }
+            int bucket = kinds.get(v) == CLASS_OBJECT ? classObjects : classes.get(v);
+            instances[bucket]++;
+            shallow[bucket] += shallowSizes.get(v);
+            if (dominator == root
+                    || (kinds.get(dominator) == CLASS_OBJECT ? classObjects : classes.get(dominator)) != bucket) {
+                retained[bucket] += retainedSizes.get(v);
+            }
+        }
+
+        List<HeapClassSummaryDTO> summary = new ArrayList<>();
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            if (instances[bucket] == 0) {
+                continue;
+            }
+            HeapClassSummaryDTO entry = new HeapClassSummaryDTO();
+            entry.setClassName(bucket == classObjects ? CLASS_OBJECTS : classNames[bucket]);
+            entry.setInstances(instances[bucket]);
+            entry.setShallowSize(shallow[bucket]);
+            entry.setRetainedSize(retained[bucket]);
+            summary.add(entry);
+        }
+        summary.sort((a, b) -> Long.compare(b.getRetainedSize(), a.getRetainedSize()));
+        return summary.size() > limit ? new ArrayList<>(summary.subList(0, limit)) : summary;
+    }
+
+    /**
+     * Find the accumulation points of the heap: objects retaining at least the given
+     * fraction of the reachable heap none of whose dominated objects does.
+     *
+     * @return the suspects, biggest first, with their dominator path from the GC roots
+     * @throws IOException if the working array cannot be mapped
+     */
+    public List<LeakSuspectDTO> getLeakSuspects(double minRetainedFraction) throws IOException {
+        long total = getReachableSize();
+        long threshold = Math.max(1, (long) Math.ceil(total * minRetainedFraction));
+        ByteArray hasBigChild = arrays.bytes(nodeCount + 1);
+        for (int v = 0; v < nodeCount; v++) {
+            int dominator = dominators.get(v);
+            if (dominator >= 0 && retainedSizes.get(v) >= threshold) {
+                hasBigChild.set(dominator, (byte) 1);
+            }
+        }
+
+        List<LeakSuspectDTO> suspects = new ArrayList<>();
+        for (int v = 0; v < nodeCount; v++) {
+            long retained = retainedSizes.get(v);
+            if (dominators.get(v) < 0 || retained < threshold || hasBigChild.get(v) != 0) {
+                continue;
+            }
+            List<String> path = new ArrayList<>();
+            for (int d = v; d != root && path.size() < MAX_PATH_LENGTH; d = dominators.get(d)) {
+                path.add(describe(d));
+            }
+            Collections.reverse(path);
+
+            LeakSuspectDTO suspect = new LeakSuspectDTO();
+            suspect.setObjectId(ids.get(v));
+            suspect.setClassName(describe(v));
+            suspect.setShallowSize(shallowSizes.get(v));
+            suspect.setRetainedSize(retained);
+            suspect.setRetainedPercentage(total > 0 ? retained * 100.0 / total : 0);
+            suspect.setDominatedObjects(dominatedCounts.get(v));
+            suspect.setDominatorPath(path);
+            suspects.add(suspect);
+        }
+        suspects.sort((a, b) -> Long.compare(b.getRetainedSize(), a.getRetainedSize()));
+        return suspects;
+    }
+
+}
@@ -0,0 +1,772 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import com.jvsnr.memory_monitoring_tool.store.MappedArrays.ByteArray;
+import com.jvsnr.memory_monitoring_tool.store.MappedArrays.IntArray;
+import com.jvsnr.memory_monitoring_tool.store.MappedArrays.LongArray;
+
+/**
+ * Memory-mapped reader of HPROF heap dumps as written by
+ * {@code HotSpotDiagnosticMXBean.dumpHeap} or {@code jcmd GC.heap_dump}.
+ *
+ * <pre>
+ * header:  "JAVA PROFILE 1.0.x\0", identifier size (u4), timestamp (u8)
+ * record:  tag (u1), time (u4), length (u4), body
+ * </pre>
+ *
+ * Opening the file only walks the record headers to remember the class names and the
+ * position of every heap dump segment. {@link #readHeapGraph()} then maps the segments
+ * and parses them in parallel, one task per segment, into a {@link HeapGraph}: a few
+ * primitive arrays per object and the references as one {@code int} per edge, all in
+ * memory-mapped temp files. Object contents stay in the mapping of the dump, so neither
+ * the dump nor the graph is copied onto the heap.
+ *
+ * Shallow sizes are the sizes of the records in the dump with a header of two
+ * identifiers, aligned to 8 bytes; with 8 byte identifiers references count as 8 bytes
+ * even if the dumped JVM used compressed oops.
+ */
+public class HprofFile {
+
+    static final String MAGIC = "JAVA PROFILE 1.0.";
+
+    static final int TAG_UTF8 = 0x01;
+    static final int TAG_LOAD_CLASS = 0x02;
+    static final int TAG_HEAP_DUMP = 0x0C;
+    static final int TAG_HEAP_DUMP_SEGMENT = 0x1C;
+
+    static final int ROOT_UNKNOWN = 0xFF;
+    static final int ROOT_JNI_GLOBAL = 0x01;
+    static final int ROOT_JNI_LOCAL = 0x02;
+    static final int ROOT_JAVA_FRAME = 0x03;
+    static final int ROOT_NATIVE_STACK = 0x04;
+    static final int ROOT_STICKY_CLASS = 0x05;
+    static final int ROOT_THREAD_BLOCK = 0x06;
+    static final int ROOT_MONITOR_USED = 0x07;
+    static final int ROOT_THREAD_OBJECT = 0x08;
+    static final int CLASS_DUMP = 0x20;
+    static final int INSTANCE_DUMP = 0x21;
+    static final int OBJECT_ARRAY_DUMP = 0x22;
+    static final int PRIMITIVE_ARRAY_DUMP = 0x23;
+
+    // Kinds of the records while building the graph
+    private static final byte INSTANCE = 0;
+    private static final byte OBJECT_ARRAY = 1;
+    private static final byte PRIMITIVE_ARRAY = 2;
+    private static final byte CLASS = 3; // class objects, added from the class dumps when merging
+
+    static final int TYPE_OBJECT = 2;
+    static final int TYPE_BOOLEAN = 4;
+    static final int TYPE_LONG = 11;
+
+    private static final String[] PRIMITIVE_ARRAY_NAMES = {
+        "boolean[]", "char[]", "float[]", "double[]", "byte[]", "short[]", "int[]", "long[]" };
+    private static final long WINDOW_SIZE = 64L << 20; // record headers are read through this window
+    private static final int RECORD_HEADER_SIZE = 9;
+
+    private final Path path;
+    private final int idSize;
+    private final long timestamp;
+    private final long[] segmentStarts;
+    private final long[] segmentLengths;
+    private final Map<Long, String> classNames; // class object id to name
+
+    private HprofFile(Path path, int idSize, long timestamp, long[] segmentStarts, long[] segmentLengths,
+            Map<Long, String> classNames) {
+        this.path = path;
+        this.idSize = idSize;
+        this.timestamp = timestamp;
+        this.segmentStarts = segmentStarts;
+        this.segmentLengths = segmentLengths;
+        this.classNames = classNames;
+    }
+
+    /**
+     * Walk the records of a heap dump.
+     *
+     * @throws IOException if the file cannot be read or is not an HPROF file
+     */
+    public static HprofFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            RecordWindow window = new RecordWindow(channel);
+            ByteBuffer header = window.map(0, (int) Math.min(64, window.size));
+            int end = 0;
+            while (end < header.limit() && header.get(end) != 0) {
+                end++;
+            }
+            byte[] magic = new byte[end];
+            header.get(0, magic);
+            if (end == header.limit() || !new String(magic, StandardCharsets.US_ASCII).startsWith(MAGIC)
+                    || header.limit() < end + 13) {
+                throw new IOException("Not an HPROF file: " + path);
+            }
+            int idSize = header.getInt(end + 1);
+            if (idSize != 4 && idSize != 8) {
+                throw new IOException("Unsupported identifier size " + idSize + ": " + path);
+            }
+            long timestamp = header.getLong(end + 5);
+
+            // Class names are written before or after the classes are loaded, so two passes
+            long recordsStart = end + 13L;
+            List<long[]> segments = new ArrayList<>();
+            Map<Long, Long> classNameIds = new HashMap<>();
+            for (long position = recordsStart; position < window.size;) {
+                ByteBuffer record = window.map(position, RECORD_HEADER_SIZE);
+                int tag = record.get(window.index(position)) & 0xFF;
+                long length = Integer.toUnsignedLong(record.getInt(window.index(position + 5)));
+                long body = position + RECORD_HEADER_SIZE;
+                if (body + length > window.size) {
+                    throw new IOException("Truncated HPROF record at " + position + ": " + path);
+                }
+                if (tag == TAG_HEAP_DUMP || tag == TAG_HEAP_DUMP_SEGMENT) {
+                    if (length > Integer.MAX_VALUE) {
+                        throw new IOException("Heap dump segment larger than 2 GB at " + position + ": " + path);
+                    }
+                    segments.add(new long[] { body, length });
+                } else if (tag == TAG_LOAD_CLASS) {
+                    ByteBuffer loadClass = window.map(body, (int) length);
+                    int index = window.index(body);
+                    classNameIds.put(readId(loadClass, index + 4, idSize),
+                        readId(loadClass, index + 8 + idSize, idSize));
+                }
+                position = body + length;
+            }
+
+            Set<Long> nameIds = new HashSet<>(classNameIds.values());
+            Map<Long, String> names = new HashMap<>();
+            for (long position = recordsStart; position < window.size;) {
+                ByteBuffer record = window.map(position, RECORD_HEADER_SIZE);
+                int tag = record.get(window.index(position)) & 0xFF;
+                long length = Integer.toUnsignedLong(record.getInt(window.index(position + 5)));
+                long body = position + RECORD_HEADER_SIZE;
+                if (tag == TAG_UTF8) {
+                    ByteBuffer utf8 = window.map(body, (int) length);
+                    int index = window.index(body);
+                    long id = readId(utf8, index, idSize);
+                    if (nameIds.contains(id)) {
+                        byte[] bytes = new byte[(int) length - idSize];
+                        utf8.get(index + idSize, bytes);
+                        names.put(id, new String(bytes, StandardCharsets.UTF_8));
+                    }
+                }
+                position = body + length;
+            }
+
+            Map<Long, String> classNames = new HashMap<>();
+            classNameIds.forEach((classId, nameId) -> classNames.put(classId, toJavaName(names.get(nameId))));
+            return new HprofFile(path, idSize, timestamp,
+                segments.stream().mapToLong(segment -> segment[0]).toArray(),
+                segments.stream().mapToLong(segment -> segment[1]).toArray(), classNames);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getIdSize() {
+        return idSize;
+    }
+
+    /**
+     * @return epoch millis of the dump
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getSegmentCount() {
+        return segmentStarts.length;
+    }
+
+    /**
+     * Parse the heap dump segments, in parallel, into the object graph, with its arrays in
+     * temp files next to the dump. Every class object and every GC root is reachable from
+     * the graph root.
+     *
+     * @throws IOException if the file cannot be mapped, a segment is malformed or the file
+     *         system has no room for the graph and its dominator tree
+     */
+    public HeapGraph readHeapGraph() throws IOException {
+        return readHeapGraph(new MappedArrays(path.toAbsolutePath().getParent()));
+    }
+
+    /**
+     * Parse the heap dump segments into the object graph, with its arrays allocated from the given ones.
+     */
+    public HeapGraph readHeapGraph(MappedArrays arrays) throws IOException {
+        MappedByteBuffer[] buffers = new MappedByteBuffer[segmentStarts.length];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (int segment = 0; segment < buffers.length; segment++) {
+                buffers[segment] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    segmentStarts[segment], segmentLengths[segment]);
+            }
+        }
+
+        try {
+            return new GraphBuilder(buffers, arrays).build();
+        } catch (MalformedSegmentException | IndexOutOfBoundsException e) {
+            throw new IOException("Malformed heap dump, " + e.getMessage() + ": " + path, e);
+        }
+    }
+
+    static long readId(ByteBuffer buffer, int index, int idSize) {
+        return idSize == 8 ? buffer.getLong(index) : Integer.toUnsignedLong(buffer.getInt(index));
+    }
+
+    static int valueSize(int type, int idSize) {
+        switch (type) {
+            case TYPE_OBJECT:
+                return idSize;
+            case TYPE_BOOLEAN:
+            case 8: // byte
+                return 1;
+            case 5: // char
+            case 9: // short
+                return 2;
+            case 6: // float
+            case 10: // int
+                return 4;
+            case 7: // double
+            case TYPE_LONG:
+                return 8;
+            default:
+                throw new MalformedSegmentException("Unknown basic type " + type);
+        }
+    }
+
+    /**
+     * Convert an internal class name, "java/util/HashMap$Node" or "[[I", to its Java name.
+     */
+    static String toJavaName(String internalName) {
+        if (internalName == null) {
+            return "<unknown>";
+        }
+        int dimensions = 0;
+        while (dimensions < internalName.length() && internalName.charAt(dimensions) == '[') {
+            dimensions++;
+        }
+        if (dimensions == 0) {
+            return internalName.replace('/', '.');
+        }
+        String element = internalName.substring(dimensions);
+        String name;
+        switch (element) {
+            case "Z": name = "boolean"; break;
+            case "C": name = "char"; break;
+            case "F": name = "float"; break;
+            case "D": name = "double"; break;
+            case "B": name = "byte"; break;
+            case "S": name = "short"; break;
+            case "I": name = "int"; break;
+            case "J": name = "long"; break;
+            default:
+                name = element.startsWith("L") && element.endsWith(";")
+                    ? element.substring(1, element.length() - 1).replace('/', '.')
+                    : element.replace('/', '.');
+        }
+        return name + "[]".repeat(dimensions);
+    }
+
+    private static int align(long size) {
+        return (int) Math.min(Integer.MAX_VALUE, (size + 7) & ~7L);
+    }
+
+    /**
+     * Remaps a window of the file whenever a record header or a small record is outside of it.
+     */
+    private static final class RecordWindow {
+
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer buffer;
+        private long start;
+
+        RecordWindow(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        ByteBuffer map(long position, int length) throws IOException {
+            if (position + length > size) {
+                throw new IOException("Truncated HPROF file at " + position);
+            }
+            if (buffer == null || position < start || position + length > start + buffer.limit()) {
+                start = position;
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(Math.max(WINDOW_SIZE, length), size - position));
+            }
+            return buffer;
+        }
+
+        int index(long position) {
+            return (int) (position - start);
+        }
+
+    }
+
+    private static final class MalformedSegmentException extends RuntimeException {
+
+        MalformedSegmentException(String message) {
+            super(message);
+        }
+
+    }
+
+    /**
+     * A class dump: the instance field layout and the references of the class object itself.
+     */
+    private static final class ClassDump {
+
+        long classId;
+        long superId;
+        long[] references; // class loader and static fields
+        int referenceCount;
+        byte[] fieldTypes; // declared instance fields, in dump order
+        int staticSize;
+
+    }
+
+    /**
+     * Receives the records of a heap dump segment in file order.
+     */
+    private interface RecordVisitor {
+
+        void root(long id);
+
+        void object(long id, long classId, int offset, int shallowSize, byte kind);
+
+        default void classDump(ClassDump dump) {
+        }
+
+    }
+
+    /**
+     * Walk the sub records of one segment.
+     */
+    static void parseSegment(ByteBuffer buffer, int idSize, int index, RecordVisitor visitor) {
+        int position = 0;
+        int limit = buffer.limit();
+        while (position < limit) {
+            int tag = buffer.get(position++) & 0xFF;
+            switch (tag) {
+                case ROOT_UNKNOWN:
+                case ROOT_STICKY_CLASS:
+                case ROOT_MONITOR_USED:
+                    visitor.root(readId(buffer, position, idSize));
+                    position += idSize;
+                    break;
+                case ROOT_JNI_GLOBAL:
+                    visitor.root(readId(buffer, position, idSize));
+                    position += 2 * idSize;
+                    break;
+                case ROOT_JNI_LOCAL:
+                case ROOT_JAVA_FRAME:
+                case ROOT_THREAD_OBJECT:
+                    visitor.root(readId(buffer, position, idSize));
+                    position += idSize + 8;
+                    break;
+                case ROOT_NATIVE_STACK:
+                case ROOT_THREAD_BLOCK:
+                    visitor.root(readId(buffer, position, idSize));
+                    position += idSize + 4;
+                    break;
+                case CLASS_DUMP:
+                    position = parseClass(buffer, position, idSize, visitor);
+                    break;
+                case INSTANCE_DUMP: {
+                    int length = buffer.getInt(position + 2 * idSize + 4);
+                    visitor.object(readId(buffer, position, idSize), readId(buffer, position + idSize + 4, idSize),
+                        position, align(2L * idSize + length), INSTANCE);
+                    position += 2 * idSize + 8 + length;
+                    break;
+                }
+                case OBJECT_ARRAY_DUMP: {
+                    long count = Integer.toUnsignedLong(buffer.getInt(position + idSize + 4));
+                    visitor.object(readId(buffer, position, idSize), readId(buffer, position + idSize + 8, idSize),
+                        position, align(2L * idSize + 4 + count * idSize), OBJECT_ARRAY);
+                    position += 2 * idSize + 8 + (int) (count * idSize);
+                    break;
+                }
+                case PRIMITIVE_ARRAY_DUMP: {
+                    long count = Integer.toUnsignedLong(buffer.getInt(position + idSize + 4));
+                    int type = buffer.get(position + idSize + 8);
+                    long bytes = count * valueSize(type, idSize);
+                    visitor.object(readId(buffer, position, idSize), type,
+                        position, align(2L * idSize + 4 + bytes), PRIMITIVE_ARRAY);
+                    position += idSize + 9 + (int) bytes;
+                    break;
+                }
+                default:
+                    throw new MalformedSegmentException("Unknown heap dump sub record " + tag
+                        + " at segment " + index + " offset " + (position - 1));
+            }
+        }
+    }
+
+    private static int parseClass(ByteBuffer buffer, int position, int idSize, RecordVisitor visitor) {
+        ClassDump dump = new ClassDump();
+        dump.classId = readId(buffer, position, idSize);
+        dump.superId = readId(buffer, position + idSize + 4, idSize);
+        long loaderId = readId(buffer, position + 2 * idSize + 4, idSize);
+        position += 7 * idSize + 8; // signers, protection domain, two reserved, instance size
+
+        int constants = buffer.getShort(position) & 0xFFFF;
+        position += 2;
+        for (int i = 0; i < constants; i++) {
+            position += 2;
+            int type = buffer.get(position++);
+            position += valueSize(type, idSize);
+        }
+
+        int statics = buffer.getShort(position) & 0xFFFF;
+        position += 2;
+        dump.references = new long[statics + 1];
+        if (loaderId != 0) {
+            dump.references[dump.referenceCount++] = loaderId;
+        }
+        for (int i = 0; i < statics; i++) {
+            position += idSize;
+            int type = buffer.get(position++);
+            int size = valueSize(type, idSize);
+            if (type == TYPE_OBJECT) {
+                long value = readId(buffer, position, idSize);
+                if (value != 0) {
+                    dump.references[dump.referenceCount++] = value;
+                }
+            }
+            dump.staticSize += size;
+            position += size;
+        }
+
+        int fields = buffer.getShort(position) & 0xFFFF;
+        position += 2;
+        dump.fieldTypes = new byte[fields];
+        for (int i = 0; i < fields; i++) {
+            dump.fieldTypes[i] = buffer.get(position + idSize);
+            position += idSize + 1;
+        }
+        visitor.classDump(dump);
+        return position;
+    }
+
+    /**
+     * Merges the segments into one graph ordered by object id and resolves the references.
+     *
+     * The segments are walked three times: to count the objects and collect the class
+     * dumps, to write the object ids to be sorted, and to store the objects at their
+     * position in the sorted order. Only the class dumps stay on the heap, everything per
+     * object and per reference is a {@link MappedArrays} array.
+     */
+    private final class GraphBuilder {
+
+        private static final int CHUNK = 1 << 14;
+        // id, sorting scratch, segment, offset, kind, class, shallow size and first edge
+        private static final int BYTES_PER_OBJECT = 3 * Long.BYTES + 4 * Integer.BYTES + 1;
+
+        private final MappedByteBuffer[] buffers;
+        private final MappedArrays arrays;
+
+        // Per segment, from the counting pass
+        private long[] objectStarts;
+        private long[] rootStarts;
+
+        // Per node, sorted by object id; class objects are nodes too
+        private LongArray ids;
+        private IntArray segmentOf;
+        private IntArray offsets;
+        private ByteArray kinds;
+        private IntArray classes;
+        private IntArray shallowSizes;
+        private LongArray roots;
+
+        private long[] classIds; // sorted
+        private ClassDump[] classDumps;
+        private int[][] referenceOffsets; // instance field offsets of references, per class
+
+        GraphBuilder(MappedByteBuffer[] buffers, MappedArrays arrays) {
+            this.buffers = buffers;
+            this.arrays = arrays;
+        }
+
+        HeapGraph build() throws IOException {
+            List<ClassDump> all = countSegments();
+            indexClasses(all);
+            long objects = objectStarts[buffers.length] + classDumps.length;
+            if (objects >= Integer.MAX_VALUE) {
+                throw new MalformedSegmentException("More than 2^31 objects in heap dump");
+            }
+            int nodes = (int) objects;
+            long rootCount = rootStarts[buffers.length];
+            requireSpace(nodes * (long) BYTES_PER_OBJECT + rootCount * Long.BYTES, "objects of the heap dump");
+            indexObjects(nodes, rootCount);
+
+            // Node count plus the graph root, which references all GC roots and class objects
+            int root = nodes;
+            LongArray edgeStarts = arrays.longs(nodes + 2L);
+            IntStream.range(0, (nodes + CHUNK - 1) / CHUNK).parallel().forEach(chunk -> {
+                for (int node = chunk * CHUNK, end = Math.min(nodes, node + CHUNK); node < end; node++) {
+                    edgeStarts.set(node, references(node, null, 0));
+                }
+            });
+            edgeStarts.set(root, rootCount + classDumps.length);
+
+            // Counts to starts in place
+            long total = 0;
+            for (int node = 0; node <= nodes; node++) {
+                long count = edgeStarts.get(node);
+                edgeStarts.set(node, total);
+                total += count;
+            }
+            edgeStarts.set(nodes + 1L, total);
+            requireSpace(total * Integer.BYTES + HeapGraph.estimateDominatorBytes(nodes, total),
+                "references and dominator tree of the heap dump");
+
+            IntArray edges = arrays.ints(total);
+            IntStream.range(0, (nodes + CHUNK - 1) / CHUNK).parallel().forEach(chunk -> {
+                for (int node = chunk * CHUNK, end = Math.min(nodes, node + CHUNK); node < end; node++) {
+                    references(node, edges, edgeStarts.get(node));
+                }
+            });
+            long position = edgeStarts.get(root);
+            for (long i = 0; i < rootCount; i++) {
+                edges.set(position++, resolve(roots.get(i)));
+            }
+            for (ClassDump dump : classDumps) {
+                edges.set(position++, resolve(dump.classId));
+            }
+
+            String[] classNames = new String[classDumps.length + PRIMITIVE_ARRAY_NAMES.length + 1];
+            for (int c = 0; c < classDumps.length; c++) {
+                classNames[c] = HprofFile.this.classNames.getOrDefault(classDumps[c].classId, "<unknown>");
+            }
+            System.arraycopy(PRIMITIVE_ARRAY_NAMES, 0, classNames, classDumps.length, PRIMITIVE_ARRAY_NAMES.length);
+            classNames[classNames.length - 1] = "<unknown>";
+
+            for (int node = 0; node < nodes; node++) {
+                kinds.set(node, kinds.get(node) == CLASS ? HeapGraph.CLASS_OBJECT : HeapGraph.OBJECT);
+            }
+            return new HeapGraph(arrays, ids, kinds, classes, shallowSizes, classNames, edgeStarts, edges);
+        }
+
+        private void requireSpace(long bytes, String purpose) throws IOException {
+            long usable = arrays.getUsableSpace();
+            if (bytes > usable) {
+                throw new IOException("Not enough space in " + arrays.getDirectory() + " for the " + purpose
+                    + ": " + bytes + " bytes needed, " + usable + " usable");
+            }
+        }
+
+        /**
+         * First pass: count the objects and roots of every segment and collect the class dumps.
+         */
+        private List<ClassDump> countSegments() {
+            long[] objectCounts = new long[buffers.length];
+            long[] rootCounts = new long[buffers.length];
+            List<List<ClassDump>> dumps = new ArrayList<>(Collections.nCopies(buffers.length, null));
+            IntStream.range(0, buffers.length).parallel().forEach(segment -> {
+                List<ClassDump> segmentDumps = new ArrayList<>();
+                parseSegment(buffers[segment], idSize, segment, new RecordVisitor() {
+                    @Override
+                    public void root(long id) {
+                        rootCounts[segment]++;
+                    }
+
+                    @Override
+                    public void object(long id, long classId, int offset, int shallowSize, byte kind) {
+                        objectCounts[segment]++;
+                    }
+
+                    @Override
+                    public void classDump(ClassDump dump) {
+                        segmentDumps.add(dump);
+                    }
+                });
+                dumps.set(segment, segmentDumps);
+            });
+
+            objectStarts = new long[buffers.length + 1];
+            rootStarts = new long[buffers.length + 1];
+            List<ClassDump> all = new ArrayList<>();
+            for (int segment = 0; segment < buffers.length; segment++) {
+                objectStarts[segment + 1] = objectStarts[segment] + objectCounts[segment];
+                rootStarts[segment + 1] = rootStarts[segment] + rootCounts[segment];
+                all.addAll(dumps.get(segment));
+            }
+            return all;
+        }
+
+        private void indexClasses(List<ClassDump> all) {
+            all.sort((a, b) -> Long.compare(a.classId, b.classId));
+            classDumps = all.toArray(new ClassDump[0]);
+            classIds = new long[classDumps.length];
+            for (int c = 0; c < classDumps.length; c++) {
+                classIds[c] = classDumps[c].classId;
+            }
+
+            // Instance data holds the fields of the class followed by those of its super classes
+            referenceOffsets = new int[classDumps.length][];
+            for (int c = 0; c < classDumps.length; c++) {
+                int[] offsets = new int[8];
+                int count = 0;
+                int offset = 0;
+                for (int k = c; k >= 0; k = classIndex(classDumps[k].superId)) {
+                    for (byte type : classDumps[k].fieldTypes) {
+                        if (type == TYPE_OBJECT) {
+                            if (count == offsets.length) {
+                                offsets = Arrays.copyOf(offsets, count * 2);
+                            }
+                            offsets[count++] = offset;
+                        }
+                        offset += valueSize(type, idSize);
+                    }
+                }
+                referenceOffsets[c] = Arrays.copyOf(offsets, count);
+            }
+        }
+
+        /**
+         * Second and third pass: sort the object ids, then store every object at its node.
+         */
+        private void indexObjects(int count, long rootCount) throws IOException {
+            ids = arrays.longs(count);
+            roots = arrays.longs(rootCount);
+            IntStream.range(0, buffers.length).parallel().forEach(segment -> {
+                long[] next = { objectStarts[segment], rootStarts[segment] };
+                parseSegment(buffers[segment], idSize, segment, new RecordVisitor() {
+                    @Override
+                    public void root(long id) {
+                        roots.set(next[1]++, id);
+                    }
+
+                    @Override
+                    public void object(long id, long classId, int offset, int shallowSize, byte kind) {
+                        ids.set(next[0]++, id);
+                    }
+                });
+            });
+            long position = objectStarts[buffers.length];
+            for (long classId : classIds) {
+                ids.set(position++, classId);
+            }
+            MappedArrays.sort(ids, arrays.longs(count));
+
+            segmentOf = arrays.ints(count);
+            offsets = arrays.ints(count);
+            kinds = arrays.bytes(count);
+            classes = arrays.ints(count);
+            shallowSizes = arrays.ints(count);
+            int unknownClass = classDumps.length + PRIMITIVE_ARRAY_NAMES.length;
+            IntStream.range(0, buffers.length).parallel().forEach(segment -> {
+                parseSegment(buffers[segment], idSize, segment, new RecordVisitor() {
+                    @Override
+                    public void root(long id) {
+                    }
+
+                    @Override
+                    public void object(long id, long classId, int offset, int shallowSize, byte kind) {
+                        long node = ids.binarySearch(id);
+                        segmentOf.set(node, segment);
+                        offsets.set(node, offset);
+                        kinds.set(node, kind);
+                        shallowSizes.set(node, shallowSize);
+                        if (kind == PRIMITIVE_ARRAY) {
+                            classes.set(node, classDumps.length + (int) classId - TYPE_BOOLEAN);
+                        } else {
+                            int c = classIndex(classId);
+                            classes.set(node, c >= 0 ? c : unknownClass);
+                        }
+                    }
+                });
+            });
+            for (int c = 0; c < classDumps.length; c++) {
+                long node = ids.binarySearch(classIds[c]);
+                kinds.set(node, CLASS);
+                classes.set(node, c);
+                shallowSizes.set(node, align(2L * idSize + classDumps[c].staticSize));
+            }
+        }
+
+        /**
+         * Count the non-null references of a node, and store them as node indexes if edges is given.
+         */
+        private int references(int node, IntArray edges, long start) {
+            int count = 0;
+            switch (kinds.get(node)) {
+                case CLASS: {
+                    ClassDump dump = classDumps[classes.get(node)];
+                    for (int i = 0; i < dump.referenceCount; i++) {
+                        if (edges != null) {
+                            edges.set(start + count, resolve(dump.references[i]));
+                        }
+                        count++;
+                    }
+                    break;
+                }
+                case INSTANCE: {
+                    int c = classes.get(node);
+                    if (c >= classDumps.length) {
+                        break;
+                    }
+                    ByteBuffer buffer = buffers[segmentOf.get(node)];
+                    int data = offsets.get(node) + 2 * idSize + 8;
+                    for (int offset : referenceOffsets[c]) {
+                        long id = readId(buffer, data + offset, idSize);
+                        if (id != 0) {
+                            if (edges != null) {
+                                edges.set(start + count, resolve(id));
+                            }
+                            count++;
+                        }
+                    }
+                    break;
+                }
+                case OBJECT_ARRAY: {
+                    ByteBuffer buffer = buffers[segmentOf.get(node)];
+                    int offset = offsets.get(node);
+                    int length = buffer.getInt(offset + idSize + 4);
+                    int data = offset + 2 * idSize + 8;
+                    for (int i = 0; i < length; i++) {
+                        long id = readId(buffer, data + i * idSize, idSize);
+                        if (id != 0) {
+                            if (edges != null) {
+                                edges.set(start + count, resolve(id));
+                            }
+                            count++;
+                        }
+                    }
+                    break;
+                }
+                default:
+                    break;
+            }
+            return count;
+        }
+
+        private int resolve(long id) {
+            long node = ids.binarySearch(id);
+            return node >= 0 ? (int) node : -1;
+        }
+
+        private int classIndex(long classId) {
+            return classId == 0 ? -1 : Math.max(-1, Arrays.binarySearch(classIds, classId));
+        }
+
+    }
+
+}
@@ -0,0 +1,258 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Allocates primitive arrays in memory-mapped temp files, for data structures that grow
+ * with the size of a heap dump and must not live on the heap.
+ *
+ * Every array is its own sparse file, deleted as soon as it is mapped: its pages live
+ * in the page cache and are written back to the file system under memory pressure, and
+ * its disk space is released once the array is garbage collected. Arrays are indexed by
+ * {@code long} and start zeroed; absolute reads and writes of different elements are
+ * safe from different threads.
+ */
+public class MappedArrays {
+
+    private static final int CHUNK_SHIFT = 30; // bytes per mapping
+    private static final String PREFIX = "mapped-array-";
+    private static final String SUFFIX = ".tmp";
+
+    private final Path directory;
+
+    /**
+     * @param directory where the temp files are created
+     */
+    public MappedArrays(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return the usable space of the file system the arrays are created on
+     */
+    public long getUsableSpace() throws IOException {
+        return Files.getFileStore(directory).getUsableSpace();
+    }
+
+    public IntArray ints(long length) throws IOException {
+        return new IntArray(map(length, Integer.BYTES), length);
+    }
+
+    public LongArray longs(long length) throws IOException {
+        return new LongArray(map(length, Long.BYTES), length);
+    }
+
+    public ByteArray bytes(long length) throws IOException {
+        return new ByteArray(map(length, Byte.BYTES), length);
+    }
+
+    private ByteBuffer[] map(long length, int elementSize) throws IOException {
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative array length: " + length);
+        }
+        long bytes = length * elementSize;
+        long chunkSize = 1L << CHUNK_SHIFT;
+        ByteBuffer[] chunks = new ByteBuffer[(int) ((bytes + chunkSize - 1) >>> CHUNK_SHIFT)];
+        if (chunks.length == 0) {
+            return chunks;
+        }
+        Path file = Files.createTempFile(directory, PREFIX, SUFFIX);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE)) {
+            for (int chunk = 0; chunk < chunks.length; chunk++) {
+                long start = (long) chunk << CHUNK_SHIFT;
+                // Mapping past the end extends the file without writing it
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, start,
+                    Math.min(chunkSize, bytes - start));
+                chunks[chunk] = buffer.order(ByteOrder.nativeOrder());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        return chunks;
+    }
+
+    /**
+     * Sort the values in ascending signed order with an LSD radix sort of 16 bit digits.
+     *
+     * @param scratch array at least as long as {@code values}, overwritten
+     */
+    public static void sort(LongArray values, LongArray scratch) {
+        long length = values.length();
+        if (scratch.length() < length) {
+            throw new IllegalArgumentException("Scratch array shorter than the values");
+        }
+        LongArray from = values;
+        LongArray to = scratch;
+        long[] counts = new long[1 << 16];
+        for (int shift = 0; shift < Long.SIZE; shift += 16) {
+            // The sign bit is flipped in the top digit so that negative values sort first
+            long flip = shift == 48 ? 0x8000L : 0L;
+            Arrays.fill(counts, 0L);
+            for (long i = 0; i < length; i++) {
+                counts[(int) (((from.get(i) >>> shift) & 0xFFFF) ^ flip)]++;
+            }
+            if (length == 0 || counts[(int) (((from.get(0) >>> shift) & 0xFFFF) ^ flip)] == length) {
+                continue; // every value has the same digit
+            }
+            long start = 0;
+            for (int digit = 0; digit < counts.length; digit++) {
+                long count = counts[digit];
+                counts[digit] = start;
+                start += count;
+            }
+            for (long i = 0; i < length; i++) {
+                long value = from.get(i);
+                to.set(counts[(int) (((value >>> shift) & 0xFFFF) ^ flip)]++, value);
+            }
+            LongArray sorted = to;
+            to = from;
+            from = sorted;
+        }
+        if (from != values) {
+            for (long i = 0; i < length; i++) {
+                values.set(i, from.get(i));
+            }
+        }
+    }
+
+    /**
+     * A mapped {@code int[]}.
+     */
+    public static final class IntArray {
+
+        private static final int SHIFT = CHUNK_SHIFT - 2;
+        private static final int MASK = (1 << SHIFT) - 1;
+
+        private final IntBuffer[] chunks;
+        private final long length;
+
+        IntArray(ByteBuffer[] buffers, long length) {
+            this.chunks = new IntBuffer[buffers.length];
+            for (int i = 0; i < buffers.length; i++) {
+                chunks[i] = buffers[i].asIntBuffer();
+            }
+            this.length = length;
+        }
+
+        public long length() {
+            return length;
+        }
+
+        public int get(long index) {
+            return chunks[(int) (index >>> SHIFT)].get((int) index & MASK);
+        }
+
+        public void set(long index, int value) {
+            chunks[(int) (index >>> SHIFT)].put((int) index & MASK, value);
+        }
+
+        public void fill(int value) {
+            for (long i = 0; i < length; i++) {
+                set(i, value);
+            }
+        }
+
+    }
+
+    /**
+     * A mapped {@code long[]}.
+     */
+    public static final class LongArray {
+
+        private static final int SHIFT = CHUNK_SHIFT - 3;
+        private static final int MASK = (1 << SHIFT) - 1;
+
+        private final LongBuffer[] chunks;
+        private final long length;
+
+        LongArray(ByteBuffer[] buffers, long length) {
+            this.chunks = new LongBuffer[buffers.length];
+            for (int i = 0; i < buffers.length; i++) {
+                chunks[i] = buffers[i].asLongBuffer();
+            }
+            this.length = length;
+        }
+
+        public long length() {
+            return length;
+        }
+
+        public long get(long index) {
+            return chunks[(int) (index >>> SHIFT)].get((int) index & MASK);
+        }
+
+        public void set(long index, long value) {
+            chunks[(int) (index >>> SHIFT)].put((int) index & MASK, value);
+        }
+
+        public void add(long index, long value) {
+            set(index, get(index) + value);
+        }
+
+        /**
+         * Search the array, which must be sorted, like {@link java.util.Arrays#binarySearch(long[], long)}.
+         *
+         * @return the index of the key, or {@code -(insertion point) - 1}
+         */
+        public long binarySearch(long key) {
+            long low = 0;
+            long high = length - 1;
+            while (low <= high) {
+                long middle = (low + high) >>> 1;
+                long value = get(middle);
+                if (value < key) {
+                    low = middle + 1;
+                } else if (value > key) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+    }
+
+    /**
+     * A mapped {@code byte[]}.
+     */
+    public static final class ByteArray {
+
+        private final ByteBuffer[] chunks;
+        private final long length;
+
+        ByteArray(ByteBuffer[] chunks, long length) {
+            this.chunks = chunks;
+            this.length = length;
+        }
+
+        public long length() {
+            return length;
+        }
+
+        public byte get(long index) {
+            return chunks[(int) (index >>> CHUNK_SHIFT)].get((int) index & ((1 << CHUNK_SHIFT) - 1));
+        }
+
+        public void set(long index, byte value) {
+            chunks[(int) (index >>> CHUNK_SHIFT)].put((int) index & ((1 << CHUNK_SHIFT) - 1), value);
+        }
+
+    }
+
+}
@@ -0,0 +1,608 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.jvsnr.memory_monitoring_tool.dto.GcEventDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemoryHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.event.GcEvent;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Append-only history of memory samples and GC events kept in fixed-size,
+ * memory-mapped segment files.
+ *
+ * Segment layout: a {@value #HEADER_SIZE} byte header (magic, version, segment id,
+ * committed write position, record count, min/max timestamp) followed by records of
+ * the form {@code [int length][byte type][payload]}. The write position in the header
+ * is only advanced once a record is fully written, so a crash never exposes a torn
+ * record. Strings used by GC events are written once per segment as dictionary
+ * records, which keeps every segment self-contained.
+ *
+ * With a positive {@code samplesPerChunk} memory samples are collected in a
+ * {@link GorillaChunk} and written as one compressed chunk record once it is full or
+ * the store is flushed, a few bytes per sample instead of {@value #MEMORY_SAMPLE_SIZE};
+ * samples of the pending chunk are readable but not persisted until it is written.
+ *
+ * When the active segment is full a new one is created and the oldest segments are
+ * deleted beyond the retention limit. On startup only the segment headers are read to
+ * rebuild the index; records are decoded lazily by the range queries.
+ */
+@Log4j2
+public class MappedSegmentStore implements Closeable {
+
+    static final int MAGIC = 0x4D4D5453; // "MMTS"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int SEGMENT_ID_OFFSET = 8;
+    private static final int WRITE_POSITION_OFFSET = 16;
+    private static final int RECORD_COUNT_OFFSET = 20;
+    private static final int MIN_TIMESTAMP_OFFSET = 24;
+    private static final int MAX_TIMESTAMP_OFFSET = 32;
+
+    static final byte MEMORY_SAMPLE = 1;
+    static final byte GC_EVENT = 2;
+    static final byte DICTIONARY_ENTRY = 3;
+    static final byte MEMORY_SAMPLE_CHUNK = 4;
+
+    private static final int RECORD_HEADER_SIZE = 5; // int length + byte type
+    private static final int MEMORY_SAMPLE_SIZE = RECORD_HEADER_SIZE + 7 * Long.BYTES;
+    private static final int GC_EVENT_FIXED_SIZE = RECORD_HEADER_SIZE + 3 * Long.BYTES + 4 * Integer.BYTES;
+    private static final int GC_POOL_ENTRY_SIZE = Integer.BYTES + 2 * Long.BYTES;
+    private static final int MEMORY_SAMPLE_CHUNK_FIXED_SIZE = RECORD_HEADER_SIZE + 2 * Long.BYTES; // + min/max timestamp
+    private static final int MEMORY_SAMPLE_COLUMNS = 6;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final int samplesPerChunk;
+
+    private final NavigableMap<Long, SegmentInfo> index = new TreeMap<>();
+    private final Map<String, byte[]> encodedNames = new HashMap<>();
+    private final Map<String, Integer> activeDictionary = new HashMap<>();
+    private MappedByteBuffer active;
+    private SegmentInfo activeInfo;
+
+    // Memory samples not yet written as a chunk record
+    private GorillaChunk pendingChunk;
+    private long pendingMinTimestamp;
+    private long pendingMaxTimestamp;
+    private final long[] chunkValues = new long[MEMORY_SAMPLE_COLUMNS];
+
+    /**
+     * Open the store, rebuilding the segment index from the segment headers.
+     *
+     * A new segment is started for this run; earlier segments stay read-only.
+     *
+     * @param directory directory holding the segment files, created if missing
+     * @param segmentSize size of every segment file in bytes
+     * @param maxSegments number of segments to retain before deleting the oldest
+     */
+    public MappedSegmentStore(Path directory, int segmentSize, int maxSegments) throws IOException {
+        this(directory, segmentSize, maxSegments, 0);
+    }
+
+    /**
+     * Open the store, compressing memory samples into chunk records.
+     *
+     * @param samplesPerChunk memory samples per chunk record, 0 to write every sample as its own record
+     */
+    public MappedSegmentStore(Path directory, int segmentSize, int maxSegments, int samplesPerChunk) throws IOException {
+        if (segmentSize < HEADER_SIZE + 4096) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("At least one segment must be retained: " + maxSegments);
+        }
+        // An uncompressible sample takes less than a raw record plus 8 bytes of chunk encoding
+        if (MEMORY_SAMPLE_CHUNK_FIXED_SIZE + 3 * Integer.BYTES + Long.BYTES
+                + (long) samplesPerChunk * (MEMORY_SAMPLE_SIZE + Long.BYTES) > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("A chunk of " + samplesPerChunk + " samples may not fit into a segment of "
+                + segmentSize + " bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.samplesPerChunk = Math.max(0, samplesPerChunk);
+
+        Files.createDirectories(directory);
+        loadIndex();
+    }
+
+    private void loadIndex() throws IOException {
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : segments) {
+                SegmentInfo info = readHeader(path);
+                if (info != null) {
+                    index.put(info.getId(), info);
+                }
+            }
+        }
+        log.info("Loaded {} history segments from {}", index.size(), directory);
+    }
+
+    private SegmentInfo readHeader(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+            if (header.hasRemaining() || header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION) {
+                log.warn("Ignoring invalid history segment {}", path);
+                return null;
+            }
+            return new SegmentInfo(header.getLong(SEGMENT_ID_OFFSET), path,
+                header.getInt(WRITE_POSITION_OFFSET), header.getInt(RECORD_COUNT_OFFSET),
+                header.getLong(MIN_TIMESTAMP_OFFSET), header.getLong(MAX_TIMESTAMP_OFFSET));
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable history segment {}", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Append a memory sample.
+     */
+    public synchronized void appendMemorySample(MemorySampleDTO sample) throws IOException {
+        if (samplesPerChunk > 0) {
+            appendToChunk(sample);
+            return;
+        }
+        ensureCapacity(MEMORY_SAMPLE_SIZE);
+
+        int position = activeInfo.getWritePosition();
+        active.putInt(position, MEMORY_SAMPLE_SIZE);
+        active.put(position + 4, MEMORY_SAMPLE);
+        int offset = position + RECORD_HEADER_SIZE;
+        active.putLong(offset, sample.getTimestamp());
+        active.putLong(offset + 8, sample.getHeapMemoryUsed());
+        active.putLong(offset + 16, sample.getHeapMemoryCommitted());
+        active.putLong(offset + 24, sample.getHeapMemoryMax());
+        active.putLong(offset + 32, sample.getNonHeapMemoryUsed());
+        active.putLong(offset + 40, sample.getNonHeapMemoryCommitted());
+        active.putLong(offset + 48, sample.getNonHeapMemoryMax());
+        commit(MEMORY_SAMPLE_SIZE, sample.getTimestamp());
+    }
+
+    private void appendToChunk(MemorySampleDTO sample) throws IOException {
+        if (pendingChunk == null) {
+            pendingChunk = new GorillaChunk(MEMORY_SAMPLE_COLUMNS);
+            pendingMinTimestamp = Long.MAX_VALUE;
+            pendingMaxTimestamp = Long.MIN_VALUE;
+        }
+        chunkValues[0] = sample.getHeapMemoryUsed();
+        chunkValues[1] = sample.getHeapMemoryCommitted();
+        chunkValues[2] = sample.getHeapMemoryMax();
+        chunkValues[3] = sample.getNonHeapMemoryUsed();
+        chunkValues[4] = sample.getNonHeapMemoryCommitted();
+        chunkValues[5] = sample.getNonHeapMemoryMax();
+        pendingChunk.append(sample.getTimestamp(), chunkValues);
+        pendingMinTimestamp = Math.min(pendingMinTimestamp, sample.getTimestamp());
+        pendingMaxTimestamp = Math.max(pendingMaxTimestamp, sample.getTimestamp());
+        if (pendingChunk.size() >= samplesPerChunk) {
+            writePendingChunk();
+        }
+    }
+
+    /**
+     * Write the pending memory samples as one chunk record.
+     */
+    private void writePendingChunk() throws IOException {
+        if (pendingChunk == null) {
+            return;
+        }
+        int recordSize = MEMORY_SAMPLE_CHUNK_FIXED_SIZE + pendingChunk.getSerializedSize();
+        ensureCapacity(recordSize);
+
+        int position = activeInfo.getWritePosition();
+        active.putInt(position, recordSize);
+        active.put(position + 4, MEMORY_SAMPLE_CHUNK);
+        active.putLong(position + RECORD_HEADER_SIZE, pendingMinTimestamp);
+        active.putLong(position + RECORD_HEADER_SIZE + 8, pendingMaxTimestamp);
+        pendingChunk.writeTo(active.duplicate().position(position + MEMORY_SAMPLE_CHUNK_FIXED_SIZE));
+        commit(recordSize, pendingMinTimestamp, pendingMaxTimestamp);
+        pendingChunk = null;
+    }
+
+    /**
+     * Append a GC event. Pools without a reported usage are skipped.
+     *
+     * @param event the drained GC event
+     * @param collectionName the name of the collector
+     * @param cause the GC cause
+     * @param action the GC action
+     * @param poolNames the memory pool names, indexed like the pool usages of the event
+     */
+    public synchronized void appendGcEvent(GcEvent event, String collectionName, String cause, String action,
+            String[] poolNames) throws IOException {
+        int pools = 0;
+        for (int pool = 0; pool < event.getPoolCount(); pool++) {
+            if (event.getPoolUsedBefore(pool) >= 0 || event.getPoolUsedAfter(pool) >= 0) {
+                pools++;
+            }
+        }
+        int recordSize = GC_EVENT_FIXED_SIZE + pools * GC_POOL_ENTRY_SIZE;
+
+        // Reserve room for the event and every dictionary entry it needs in the same segment;
+        // a new segment starts with an empty dictionary, so the size is recomputed after a roll
+        if (!ensureCapacity(recordSize + dictionarySize(event, collectionName, cause, action, poolNames))) {
+            ensureCapacity(recordSize + dictionarySize(event, collectionName, cause, action, poolNames));
+        }
+
+        // Dictionary entries are written ahead of the event, so every name is resolved first
+        int collectionId = nameId(collectionName);
+        int causeId = nameId(cause);
+        int actionId = nameId(action);
+        for (int pool = 0; pool < event.getPoolCount(); pool++) {
+            if (event.getPoolUsedBefore(pool) >= 0 || event.getPoolUsedAfter(pool) >= 0) {
+                nameId(poolNames[pool]);
+            }
+        }
+
+        int position = activeInfo.getWritePosition();
+        active.putInt(position, recordSize);
+        active.put(position + 4, GC_EVENT);
+        int offset = position + RECORD_HEADER_SIZE;
+        active.putLong(offset, event.getStartTime());
+        active.putLong(offset + 8, event.getGcId());
+        active.putLong(offset + 16, event.getDuration());
+        active.putInt(offset + 24, collectionId);
+        active.putInt(offset + 28, causeId);
+        active.putInt(offset + 32, actionId);
+        active.putInt(offset + 36, pools);
+        offset += 40;
+        for (int pool = 0; pool < event.getPoolCount(); pool++) {
+            if (event.getPoolUsedBefore(pool) >= 0 || event.getPoolUsedAfter(pool) >= 0) {
+                active.putInt(offset, nameId(poolNames[pool]));
+                active.putLong(offset + 4, event.getPoolUsedBefore(pool));
+                active.putLong(offset + 12, event.getPoolUsedAfter(pool));
+                offset += GC_POOL_ENTRY_SIZE;
+            }
+        }
+        commit(recordSize, event.getStartTime());
+    }
+
+    /**
+     * Read the persisted memory samples of a time range, oldest segment first.
+     *
+     * @param from inclusive lower bound in epoch millis
+     * @param to inclusive upper bound in epoch millis
+     * @param limit maximum number of samples
+     * @return the samples as primitive columns
+     */
+    public synchronized MemoryHistoryDTO readMemorySamples(long from, long to, int limit) throws IOException {
+        int capacity = Math.max(0, Math.min(limit, 1024));
+        long[][] columns = new long[7][capacity];
+        int count = 0;
+
+        for (SegmentInfo info : segmentsOverlapping(from, to)) {
+            ByteBuffer segment = mapForRead(info);
+            int position = HEADER_SIZE;
+            int end = info == activeInfo ? activeInfo.getWritePosition() : info.getWritePosition();
+            while (position < end && count < limit) {
+                int length = segment.getInt(position);
+                if (length < RECORD_HEADER_SIZE) {
+                    log.warn("Corrupted record at {} in history segment {}", position, info.getPath());
+                    break;
+                }
+                byte type = segment.get(position + 4);
+                if (type == MEMORY_SAMPLE) {
+                    long timestamp = segment.getLong(position + RECORD_HEADER_SIZE);
+                    if (timestamp >= from && timestamp <= to) {
+                        grow(columns, count, limit);
+                        for (int c = 0; c < columns.length; c++) {
+                            columns[c][count] = segment.getLong(position + RECORD_HEADER_SIZE + c * Long.BYTES);
+                        }
+                        count++;
+                    }
+                } else if (type == MEMORY_SAMPLE_CHUNK
+                        && segment.getLong(position + RECORD_HEADER_SIZE + 8) >= from
+                        && segment.getLong(position + RECORD_HEADER_SIZE) <= to) {
+                    GorillaChunk chunk;
+                    try {
+                        chunk = GorillaChunk.readFrom(segment.duplicate()
+                            .position(position + MEMORY_SAMPLE_CHUNK_FIXED_SIZE).limit(position + length));
+                    } catch (IllegalArgumentException e) {
+                        log.warn("Corrupted chunk at {} in history segment {}", position, info.getPath(), e);
+                        break;
+                    }
+                    count = readChunk(chunk, from, to, limit, columns, count);
+                }
+                position += length;
+            }
+        }
+        if (pendingChunk != null && count < limit) {
+            count = readChunk(pendingChunk, from, to, limit, columns, count);
+        }
+
+        MemoryHistoryDTO history = new MemoryHistoryDTO();
+        history.setTimestamps(Arrays.copyOf(columns[0], count));
+        history.setHeapMemoryUsed(Arrays.copyOf(columns[1], count));
+        history.setHeapMemoryCommitted(Arrays.copyOf(columns[2], count));
+        history.setHeapMemoryMax(Arrays.copyOf(columns[3], count));
+        history.setNonHeapMemoryUsed(Arrays.copyOf(columns[4], count));
+        history.setNonHeapMemoryCommitted(Arrays.copyOf(columns[5], count));
+        return history;
+    }
+
+    private static int readChunk(GorillaChunk chunk, long from, long to, int limit, long[][] columns, int count) {
+        GorillaChunk.Cursor cursor = chunk.cursor();
+        while (count < limit && cursor.next()) {
+            long timestamp = cursor.getTimestamp();
+            if (timestamp >= from && timestamp <= to) {
+                grow(columns, count, limit);
+                columns[0][count] = timestamp;
+                for (int c = 1; c < columns.length; c++) {
+                    columns[c][count] = cursor.getValue(c - 1);
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void grow(long[][] columns, int count, int limit) {
+        if (count == columns[0].length) {
+            int grown = (int) Math.min((long) limit, Math.max(16L, columns[0].length * 2L));
+            for (int c = 0; c < columns.length; c++) {
+                columns[c] = Arrays.copyOf(columns[c], grown);
+            }
+        }
+    }
+
+    /**
+     * Read the persisted GC events of a time range, oldest segment first.
+     *
+     * @param from inclusive lower bound in epoch millis
+     * @param to inclusive upper bound in epoch millis
+     * @param limit maximum number of events
+     * @return the events
+     */
+    public synchronized List<GcEventDTO> readGcEvents(long from, long to, int limit) throws IOException {
+        List<GcEventDTO> events = new ArrayList<>();
+
+        for (SegmentInfo info : segmentsOverlapping(from, to)) {
+            ByteBuffer segment = mapForRead(info);
+            Map<Integer, String> dictionary = new HashMap<>();
+            int position = HEADER_SIZE;
+            int end = info == activeInfo ? activeInfo.getWritePosition() : info.getWritePosition();
+            while (position < end && events.size() < limit) {
+                int length = segment.getInt(position);
+                if (length < RECORD_HEADER_SIZE) {
+                    log.warn("Corrupted record at {} in history segment {}", position, info.getPath());
+                    break;
+                }
+                byte type = segment.get(position + 4);
+                int offset = position + RECORD_HEADER_SIZE;
+                if (type == DICTIONARY_ENTRY) {
+                    byte[] name = new byte[length - RECORD_HEADER_SIZE - Integer.BYTES];
+                    segment.get(offset + Integer.BYTES, name);
+                    dictionary.put(segment.getInt(offset), new String(name, StandardCharsets.UTF_8));
+                } else if (type == GC_EVENT) {
+                    long startTime = segment.getLong(offset);
+                    if (startTime >= from && startTime <= to) {
+                        events.add(readGcEvent(segment, offset, dictionary));
+                    }
+                }
+                position += length;
+            }
+        }
+        return events;
+    }
+
+    private GcEventDTO readGcEvent(ByteBuffer segment, int offset, Map<Integer, String> dictionary) {
+        GcEventDTO event = new GcEventDTO();
+        event.setStartTime(segment.getLong(offset));
+        event.setGcId(segment.getLong(offset + 8));
+        event.setDuration(segment.getLong(offset + 16));
+        event.setCollectionName(dictionary.get(segment.getInt(offset + 24)));
+        event.setCause(dictionary.get(segment.getInt(offset + 28)));
+        event.setAction(dictionary.get(segment.getInt(offset + 32)));
+
+        int pools = segment.getInt(offset + 36);
+        Map<String, Long> usedBefore = new LinkedHashMap<>();
+        Map<String, Long> usedAfter = new LinkedHashMap<>();
+        int poolOffset = offset + 40;
+        for (int i = 0; i < pools; i++) {
+            String poolName = dictionary.get(segment.getInt(poolOffset));
+            usedBefore.put(poolName, segment.getLong(poolOffset + 4));
+            usedAfter.put(poolName, segment.getLong(poolOffset + 12));
+            poolOffset += GC_POOL_ENTRY_SIZE;
+        }
+        event.setMemoryUsedBeforeGc(usedBefore);
+        event.setMemoryUsedAfterGc(usedAfter);
+        return event;
+    }
+
+    /**
+     * @return the index of every retained segment, oldest first
+     */
+    public synchronized List<SegmentInfo> getSegments() {
+        return new ArrayList<>(index.values());
+    }
+
+    /**
+     * Write the pending memory samples and flush the active segment to disk.
+     */
+    public synchronized void flush() {
+        try {
+            writePendingChunk();
+        } catch (IOException e) {
+            log.error("Failed to write {} pending memory samples", pendingChunk.size(), e);
+        }
+        if (active != null) {
+            active.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        active = null;
+        activeInfo = null;
+    }
+
+    private Collection<SegmentInfo> segmentsOverlapping(long from, long to) {
+        List<SegmentInfo> segments = new ArrayList<>();
+        for (SegmentInfo info : index.values()) {
+            if (info.getRecordCount() > 0 && info.getMaxTimestamp() >= from && info.getMinTimestamp() <= to) {
+                segments.add(info);
+            }
+        }
+        return segments;
+    }
+
+    private ByteBuffer mapForRead(SegmentInfo info) throws IOException {
+        if (info == activeInfo) {
+            return active.duplicate();
+        }
+        try (FileChannel channel = FileChannel.open(info.getPath(), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), info.getWritePosition()));
+        }
+    }
+
+    /**
+     * @return true if the bytes fit into the active segment as it was, false if a new
+     *         segment had to be started
+     */
+    private boolean ensureCapacity(int bytes) throws IOException {
+        if (bytes > segmentSize - HEADER_SIZE) {
+            throw new IOException("Record of " + bytes + " bytes does not fit into a segment of " + segmentSize + " bytes");
+        }
+        if (active == null || segmentSize - activeInfo.getWritePosition() < bytes) {
+            roll();
+            return false;
+        }
+        return true;
+    }
+
+    private void roll() throws IOException {
+        if (active != null) {
+            active.force();
+        }
+
+        long id = index.isEmpty() ? 1L : index.lastKey() + 1;
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            active = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        active.putInt(MAGIC_OFFSET, MAGIC);
+        active.putInt(VERSION_OFFSET, VERSION);
+        active.putLong(SEGMENT_ID_OFFSET, id);
+        active.putInt(WRITE_POSITION_OFFSET, HEADER_SIZE);
+        active.putInt(RECORD_COUNT_OFFSET, 0);
+        active.putLong(MIN_TIMESTAMP_OFFSET, Long.MAX_VALUE);
+        active.putLong(MAX_TIMESTAMP_OFFSET, Long.MIN_VALUE);
+
+        activeInfo = new SegmentInfo(id, path, HEADER_SIZE, 0, Long.MAX_VALUE, Long.MIN_VALUE);
+        activeDictionary.clear();
+        index.put(id, activeInfo);
+
+        while (index.size() > maxSegments) {
+            SegmentInfo oldest = index.pollFirstEntry().getValue();
+            Files.deleteIfExists(oldest.getPath());
+        }
+    }
+
+    private void commit(int recordSize, long timestamp) {
+        commit(recordSize, timestamp, timestamp);
+    }
+
+    private void commit(int recordSize, long minTimestamp, long maxTimestamp) {
+        activeInfo.writePosition += recordSize;
+        activeInfo.recordCount++;
+        activeInfo.minTimestamp = Math.min(activeInfo.minTimestamp, minTimestamp);
+        activeInfo.maxTimestamp = Math.max(activeInfo.maxTimestamp, maxTimestamp);
+
+        active.putLong(MIN_TIMESTAMP_OFFSET, activeInfo.minTimestamp);
+        active.putLong(MAX_TIMESTAMP_OFFSET, activeInfo.maxTimestamp);
+        active.putInt(RECORD_COUNT_OFFSET, activeInfo.recordCount);
+        // Advance the committed position last, the record is now visible after a restart
+        active.putInt(WRITE_POSITION_OFFSET, activeInfo.writePosition);
+    }
+
+    private int dictionarySize(GcEvent event, String collectionName, String cause, String action, String[] poolNames) {
+        int size = dictionarySize(collectionName) + dictionarySize(cause) + dictionarySize(action);
+        for (int pool = 0; pool < event.getPoolCount(); pool++) {
+            size += dictionarySize(poolNames[pool]);
+        }
+        return size;
+    }
+
+    private int dictionarySize(String name) {
+        if (name == null || activeDictionary.containsKey(name)) {
+            return 0;
+        }
+        return RECORD_HEADER_SIZE + Integer.BYTES + encodedName(name).length;
+    }
+
+    private int nameId(String name) {
+        if (name == null) {
+            return -1;
+        }
+        Integer id = activeDictionary.get(name);
+        if (id != null) {
+            return id;
+        }
+
+        id = activeDictionary.size();
+        byte[] encoded = encodedName(name);
+        int recordSize = RECORD_HEADER_SIZE + Integer.BYTES + encoded.length;
+        int position = activeInfo.getWritePosition();
+        active.putInt(position, recordSize);
+        active.put(position + 4, DICTIONARY_ENTRY);
+        active.putInt(position + RECORD_HEADER_SIZE, id);
+        active.put(position + RECORD_HEADER_SIZE + Integer.BYTES, encoded);
+        activeInfo.writePosition += recordSize;
+        active.putInt(WRITE_POSITION_OFFSET, activeInfo.writePosition);
+        activeDictionary.put(name, id);
+        return id;
+    }
+
+    private byte[] encodedName(String name) {
+        return encodedNames.computeIfAbsent(name, n -> n.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Index entry of a segment file, rebuilt from its header on startup.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class SegmentInfo {
+        private final long id;
+        private final Path path;
+        private int writePosition;
+        private int recordCount;
+        private long minTimestamp;
+        private long maxTimestamp;
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Fixed-capacity ring buffer of memory samples backed by one primitive array per column.
+ *
+ * Appends never allocate and overwrite the oldest sample once the buffer is full.
+ * Index based accessors address retained samples from the oldest ({@code 0}) to the
+ * newest ({@code size() - 1}); they are meant for the sampling thread itself or for
+ * readers looking at recent samples. Readers that need a consistent copy of many
+ * samples while the writer keeps appending should use {@link #copyLatest}.
+ */
+public class MemoryTimeSeries {
+
+    private final int capacity;
+    private final int mask;
+
+    private final long[] timestamps;
+    private final long[] heapUsed;
+    private final long[] heapCommitted;
+    private final long[] heapMax;
+    private final long[] nonHeapUsed;
+    private final long[] nonHeapCommitted;
+
+    // Sequence of the sample currently being written; bumped before the slots are touched
+    private volatile long claimedSequence;
+    // Number of samples ever appended; bumped once the slots are fully written
+    private volatile long publishedSequence;
+
+    /**
+     * @param capacity number of samples to retain, rounded up to the next power of two
+     */
+    public MemoryTimeSeries(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.timestamps = new long[this.capacity];
+        this.heapUsed = new long[this.capacity];
+        this.heapCommitted = new long[this.capacity];
+        this.heapMax = new long[this.capacity];
+        this.nonHeapUsed = new long[this.capacity];
+        this.nonHeapCommitted = new long[this.capacity];
+    }
+
+    /**
+     * Append a sample, overwriting the oldest one when the buffer is full.
+     */
+    public synchronized void append(long timestamp, long heapUsed, long heapCommitted, long heapMax,
+            long nonHeapUsed, long nonHeapCommitted) {
+        long sequence = publishedSequence;
+        claimedSequence = sequence + 1;
+        // Keep the slot writes below from being reordered before the claim
+        VarHandle.storeStoreFence();
+
+        int slot = (int) (sequence & mask);
+        this.timestamps[slot] = timestamp;
+        this.heapUsed[slot] = heapUsed;
+        this.heapCommitted[slot] = heapCommitted;
+        this.heapMax[slot] = heapMax;
+        this.nonHeapUsed[slot] = nonHeapUsed;
+        this.nonHeapCommitted[slot] = nonHeapCommitted;
+
+        publishedSequence = sequence + 1;
+    }
+
+    /**
+     * @return the number of retained samples
+     */
+    public int size() {
+        return (int) Math.min(publishedSequence, capacity);
+    }
+
+    /**
+     * @return the maximum number of retained samples
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the total number of samples appended since creation
+     */
+    public long getAppendCount() {
+        return publishedSequence;
+    }
+
+    public boolean isEmpty() {
+        return publishedSequence == 0;
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[slotOf(index)];
+    }
+
+    public long getHeapUsed(int index) {
+        return heapUsed[slotOf(index)];
+    }
+
+    public long getHeapCommitted(int index) {
+        return heapCommitted[slotOf(index)];
+    }
+
+    public long getHeapMax(int index) {
+        return heapMax[slotOf(index)];
+    }
+
+    public long getNonHeapUsed(int index) {
+        return nonHeapUsed[slotOf(index)];
+    }
+
+    public long getNonHeapCommitted(int index) {
+        return nonHeapCommitted[slotOf(index)];
+    }
+
+    /**
+     * Copy the latest samples, oldest first, into the given arrays.
+     *
+     * The number of copied samples is the smaller of the retained sample count and the
+     * length of {@code timestamps}; every other array must be at least that long. The copy
+     * is retried if the writer overwrote any of the copied slots in the meantime, so the
+     * result is always a consistent window of the series.
+     *
+     * @return the number of copied samples
+     */
+    public int copyLatest(long[] timestamps, long[] heapUsed, long[] heapCommitted, long[] heapMax,
+            long[] nonHeapUsed, long[] nonHeapCommitted) {
+        while (true) {
+            long end = publishedSequence;
+            int count = (int) Math.min(Math.min(end, capacity), timestamps.length);
+            long start = end - count;
+
+            for (int i = 0; i < count; i++) {
+                int slot = (int) ((start + i) & mask);
+                timestamps[i] = this.timestamps[slot];
+                heapUsed[i] = this.heapUsed[slot];
+                heapCommitted[i] = this.heapCommitted[slot];
+                heapMax[i] = this.heapMax[slot];
+                nonHeapUsed[i] = this.nonHeapUsed[slot];
+                nonHeapCommitted[i] = this.nonHeapCommitted[slot];
+            }
+
+            // Make sure the slot reads above are not reordered after the validation read
+            VarHandle.loadLoadFence();
+            if (claimedSequence - capacity <= start) {
+                return count;
+            }
+        }
+    }
+
+    private int slotOf(int index) {
+        long end = publishedSequence;
+        int size = (int) Math.min(end, capacity);
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return (int) ((end - size + index) & mask);
+    }
+
+}
@@ -0,0 +1,301 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.jvsnr.memory_monitoring_tool.dto.NativeMemoryDiffDTO;
+import com.jvsnr.memory_monitoring_tool.dto.NativeMemoryGrowthDTO;
+
+/**
+ * Bounded history of native memory tracking summaries as printed by the
+ * {@code VM.native_memory summary} diagnostic command.
+ *
+ * Category names, "Java Heap", "Class", "Thread", "Code", "GC", "Internal" and so on,
+ * are interned into a dictionary, so a snapshot is a reserved and a committed column
+ * indexed by category, in bytes. A category that did not exist yet when a snapshot was
+ * recorded reads as zero. The oldest snapshot is replaced once the history is full;
+ * a baseline is copied out of the history and survives it.
+ *
+ * Not thread-safe, callers have to synchronise.
+ */
+public class NativeMemoryHistory {
+
+    private static final String TOTAL = "Total:";
+    private static final String RESERVED = "reserved=";
+    private static final String COMMITTED = "committed=";
+
+    private final int capacity;
+    private final Map<String, Integer> categoryIndices = new HashMap<>();
+    private final List<String> categoryNames = new ArrayList<>();
+
+    private final long[] timestamps;
+    private final long[][] reserved; // per snapshot, by category
+    private final long[][] committed;
+    private final long[] totalReserved;
+    private final long[] totalCommitted;
+    private int head; // slot of the oldest snapshot
+    private int count;
+
+    private long baselineTimestamp = -1;
+    private long[] baselineReserved = new long[0];
+    private long[] baselineCommitted = new long[0];
+    private long baselineTotalReserved;
+    private long baselineTotalCommitted;
+
+    /**
+     * @param capacity number of snapshots kept
+     */
+    public NativeMemoryHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.reserved = new long[capacity][];
+        this.committed = new long[capacity][];
+        this.totalReserved = new long[capacity];
+        this.totalCommitted = new long[capacity];
+    }
+
+    /**
+     * Parse a native memory summary and record it as the newest snapshot. Only the
+     * {@code Total:} line and the {@code "- <category> (reserved=.., committed=..)"} lines
+     * are read; sizes may be in any scale.
+     *
+     * @return number of categories in the snapshot
+     * @throws IllegalArgumentException if the text has no total, e.g. because native
+     *         memory tracking is off
+     */
+    public int record(String summary, long timestamp) {
+        long[] rowReserved = new long[categoryNames.size() + 32];
+        long[] rowCommitted = new long[rowReserved.length];
+        long rowTotalReserved = -1;
+        long rowTotalCommitted = -1;
+        int categories = 0;
+        int length = summary.length();
+        for (int lineStart = 0; lineStart < length; ) {
+            int lineEnd = summary.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = length;
+            }
+            int start = skipSpaces(summary, lineStart, lineEnd);
+            if (summary.startsWith(TOTAL, start)) {
+                rowTotalReserved = size(summary, RESERVED, start, lineEnd);
+                rowTotalCommitted = size(summary, COMMITTED, start, lineEnd);
+            } else if (start < lineEnd && summary.charAt(start) == '-') {
+                int open = summary.indexOf('(', start, lineEnd);
+                long categoryReserved = open < 0 ? -1 : size(summary, RESERVED, open, lineEnd);
+                long categoryCommitted = open < 0 ? -1 : size(summary, COMMITTED, open, lineEnd);
+                if (categoryReserved >= 0 && categoryCommitted >= 0) {
+                    String name = summary.substring(skipSpaces(summary, start + 1, open), open).strip();
+                    int category = categoryIndex(name);
+                    if (category >= rowReserved.length) {
+                        rowReserved = Arrays.copyOf(rowReserved, category * 2);
+                        rowCommitted = Arrays.copyOf(rowCommitted, category * 2);
+                    }
+                    rowReserved[category] = categoryReserved;
+                    rowCommitted[category] = categoryCommitted;
+                    categories++;
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        if (rowTotalReserved < 0 || rowTotalCommitted < 0) {
+            throw new IllegalArgumentException("No native memory total");
+        }
+
+        int slot;
+        if (count < capacity) {
+            slot = (head + count) % capacity;
+            count++;
+        } else {
+            slot = head;
+            head = (head + 1) % capacity;
+        }
+        timestamps[slot] = timestamp;
+        reserved[slot] = Arrays.copyOf(rowReserved, categoryNames.size());
+        committed[slot] = Arrays.copyOf(rowCommitted, categoryNames.size());
+        totalReserved[slot] = rowTotalReserved;
+        totalCommitted[slot] = rowTotalCommitted;
+        return categories;
+    }
+
+    private int categoryIndex(String name) {
+        Integer index = categoryIndices.get(name);
+        if (index == null) {
+            index = categoryNames.size();
+            categoryIndices.put(name, index);
+            categoryNames.add(name);
+        }
+        return index;
+    }
+
+    /**
+     * @return the size after {@code key} in bytes, e.g. {@code reserved=1538048KB}, or -1
+     */
+    private static long size(String text, String key, int from, int to) {
+        int keyStart = text.indexOf(key, from, to);
+        if (keyStart < 0) {
+            return -1;
+        }
+        int numberStart = keyStart + key.length();
+        int numberEnd = numberStart;
+        while (numberEnd < to && text.charAt(numberEnd) >= '0' && text.charAt(numberEnd) <= '9') {
+            numberEnd++;
+        }
+        if (numberEnd == numberStart) {
+            return -1;
+        }
+        long value = Long.parseLong(text, numberStart, numberEnd, 10);
+        char unit = numberEnd < to ? text.charAt(numberEnd) : 'B';
+        switch (unit) {
+            case 'K': return value << 10;
+            case 'M': return value << 20;
+            case 'G': return value << 30;
+            default: return value;
+        }
+    }
+
+    private static int skipSpaces(String text, int from, int to) {
+        while (from < to && text.charAt(from) == ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * @return number of snapshots kept
+     */
+    public int size() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the categories seen so far, in order of appearance
+     */
+    public List<String> getCategoryNames() {
+        return List.copyOf(categoryNames);
+    }
+
+    /**
+     * @return index of the category, or -1 if it never appeared
+     */
+    public int getCategoryIndex(String name) {
+        Integer index = categoryIndices.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param snapshot 0 for the oldest snapshot
+     */
+    public long getTimestamp(int snapshot) {
+        return timestamps[slot(snapshot)];
+    }
+
+    public long getTotalReserved(int snapshot) {
+        return totalReserved[slot(snapshot)];
+    }
+
+    public long getTotalCommitted(int snapshot) {
+        return totalCommitted[slot(snapshot)];
+    }
+
+    public long getReserved(int snapshot, int category) {
+        return valueOf(reserved[slot(snapshot)], category);
+    }
+
+    public long getCommitted(int snapshot, int category) {
+        return valueOf(committed[slot(snapshot)], category);
+    }
+
+    private static long valueOf(long[] column, int category) {
+        return category < column.length ? column[category] : 0;
+    }
+
+    private int slot(int snapshot) {
+        if (snapshot < 0 || snapshot >= count) {
+            throw new IndexOutOfBoundsException("Snapshot " + snapshot + " of " + count);
+        }
+        return (head + snapshot) % capacity;
+    }
+
+    /**
+     * Keep a copy of a snapshot to diff later snapshots against.
+     */
+    public void setBaseline(int snapshot) {
+        int slot = slot(snapshot);
+        baselineTimestamp = timestamps[slot];
+        baselineReserved = reserved[slot].clone();
+        baselineCommitted = committed[slot].clone();
+        baselineTotalReserved = totalReserved[slot];
+        baselineTotalCommitted = totalCommitted[slot];
+    }
+
+    public boolean hasBaseline() {
+        return baselineTimestamp >= 0;
+    }
+
+    /**
+     * Diff two snapshots.
+     *
+     * @param from index of the earlier snapshot, 0 for the oldest
+     * @param to index of the later snapshot
+     * @return every category, the one whose committed memory grew the most first
+     */
+    public NativeMemoryDiffDTO diff(int from, int to) {
+        int fromSlot = slot(from);
+        return diff(timestamps[fromSlot], reserved[fromSlot], committed[fromSlot], totalReserved[fromSlot],
+            totalCommitted[fromSlot], slot(to));
+    }
+
+    /**
+     * Diff a snapshot against the baseline.
+     *
+     * @throws IllegalStateException if no baseline was set
+     */
+    public NativeMemoryDiffDTO diffFromBaseline(int to) {
+        if (!hasBaseline()) {
+            throw new IllegalStateException("No baseline");
+        }
+        return diff(baselineTimestamp, baselineReserved, baselineCommitted, baselineTotalReserved,
+            baselineTotalCommitted, slot(to));
+    }
+
+    private NativeMemoryDiffDTO diff(long fromTimestamp, long[] fromReserved, long[] fromCommitted,
+            long fromTotalReserved, long fromTotalCommitted, int toSlot) {
+        List<NativeMemoryGrowthDTO> categories = new ArrayList<>(categoryNames.size());
+        for (int category = 0; category < categoryNames.size(); category++) {
+            long reservedBefore = valueOf(fromReserved, category);
+            long committedBefore = valueOf(fromCommitted, category);
+            long reservedAfter = valueOf(reserved[toSlot], category);
+            long committedAfter = valueOf(committed[toSlot], category);
+            if (reservedBefore == 0 && committedBefore == 0 && reservedAfter == 0 && committedAfter == 0) {
+                continue;
+            }
+            NativeMemoryGrowthDTO growth = new NativeMemoryGrowthDTO();
+            growth.setCategory(categoryNames.get(category));
+            growth.setReserved(reservedAfter);
+            growth.setCommitted(committedAfter);
+            growth.setReservedGrowth(reservedAfter - reservedBefore);
+            growth.setCommittedGrowth(committedAfter - committedBefore);
+            categories.add(growth);
+        }
+        categories.sort((a, b) -> Long.compare(b.getCommittedGrowth(), a.getCommittedGrowth()));
+
+        NativeMemoryDiffDTO diff = new NativeMemoryDiffDTO();
+        diff.setFrom(fromTimestamp);
+        diff.setTo(timestamps[toSlot]);
+        diff.setReservedGrowth(totalReserved[toSlot] - fromTotalReserved);
+        diff.setCommittedGrowth(totalCommitted[toSlot] - fromTotalCommitted);
+        diff.setCategories(categories);
+        return diff;
+    }
+
+}
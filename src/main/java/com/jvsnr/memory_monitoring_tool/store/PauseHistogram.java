@@ -0,0 +1,60 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Constant-memory, high dynamic range histogram of pause durations in microseconds.
+ *
+ * Pauses are recorded into a cumulative histogram and into an interval recorder.
+ * The cumulative view covers the whole lifetime of the histogram, the interval view
+ * covers the pauses recorded since the previous interval was taken and is reset by
+ * taking it. Recording is wait-free and never allocates.
+ */
+public class PauseHistogram {
+
+    public static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 2; // 1% value precision
+
+    private final ConcurrentHistogram cumulative;
+    private final Recorder intervalRecorder;
+
+    public PauseHistogram() {
+        this.cumulative = new ConcurrentHistogram(1, HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        this.cumulative.setStartTimeStamp(System.currentTimeMillis());
+        this.intervalRecorder = new Recorder(1, HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * Record a pause. Values outside of the trackable range are clamped.
+     *
+     * @param micros the pause duration in microseconds
+     */
+    public void recordPause(long micros) {
+        long value = Math.max(0L, Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+        cumulative.recordValue(value);
+        intervalRecorder.recordValue(value);
+    }
+
+    /**
+     * @return a copy of every pause recorded so far
+     */
+    public Histogram copyCumulative() {
+        Histogram copy = cumulative.copy();
+        copy.setEndTimeStamp(System.currentTimeMillis());
+        return copy;
+    }
+
+    /**
+     * Take the pauses recorded since the previous call and start a new interval.
+     *
+     * @return the interval histogram, with start and end timestamps set
+     */
+    public synchronized Histogram takeInterval() {
+        return intervalRecorder.getIntervalHistogram();
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read-only view of a HotSpot performance data file ({@code hsperfdata_<user>/<pid>}).
+ *
+ * Every JVM running with the default {@code -XX:+UsePerfData} publishes its jvmstat
+ * counters in this memory-mapped file and keeps updating them in place, so mapping it
+ * gives live heap and GC counters without attaching to the JVM. The file starts with a
+ * prologue followed by self-describing entries:
+ *
+ * <pre>
+ * prologue: magic 0xcafec0c0 (big endian), byte order, major, minor, accessible,
+ *           used, overflow, modification time stamp, entry offset, entry count
+ * entry:    entry length, name offset, vector length, type, flags, units,
+ *           variability, data offset, then the name and the data
+ * </pre>
+ *
+ * Entries are only ever appended. The index maps the names of long scalars and byte
+ * vectors to the offsets of their data and is extended when the entry count grows,
+ * so a counter is looked up once and then read with a single absolute get.
+ */
+public class PerfDataFile {
+
+    static final int MAGIC = 0xcafec0c0;
+    static final int SUPPORTED_MAJOR_VERSION = 2;
+
+    private static final int BYTE_ORDER_OFFSET = 4;
+    private static final int MAJOR_VERSION_OFFSET = 5;
+    private static final int ACCESSIBLE_OFFSET = 7;
+    private static final int ENTRY_OFFSET_OFFSET = 24;
+    private static final int NUM_ENTRIES_OFFSET = 28;
+    private static final int ENTRY_HEADER_SIZE = 20;
+    private static final byte TYPE_LONG = 'J';
+    private static final byte TYPE_BYTE = 'B';
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final Map<String, Integer> longs = new HashMap<>();
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final Map<String, Integer> stringLengths = new HashMap<>();
+    private int indexedEntries;
+    private int nextEntry;
+
+    private PerfDataFile(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Map a performance data file.
+     *
+     * @throws IOException if the file cannot be mapped or is not a supported performance data file
+     */
+    public static PerfDataFile open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < NUM_ENTRIES_OFFSET + 4) {
+                throw new IOException("Not a performance data file, too short: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a performance data file, bad magic: " + path);
+        }
+        if (buffer.get(MAJOR_VERSION_OFFSET) != SUPPORTED_MAJOR_VERSION) {
+            throw new IOException("Unsupported performance data version " + buffer.get(MAJOR_VERSION_OFFSET) + ": " + path);
+        }
+        buffer.order(buffer.get(BYTE_ORDER_OFFSET) == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+
+        PerfDataFile file = new PerfDataFile(path, buffer);
+        file.refresh();
+        return file;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return whether the JVM finished initialising the file
+     */
+    public boolean isAccessible() {
+        return buffer.get(ACCESSIBLE_OFFSET) != 0;
+    }
+
+    /**
+     * Index the entries created since the last refresh.
+     *
+     * @return true if new entries were indexed
+     */
+    public synchronized boolean refresh() {
+        int entries = buffer.getInt(NUM_ENTRIES_OFFSET);
+        if (entries <= indexedEntries) {
+            return false;
+        }
+        if (indexedEntries == 0) {
+            nextEntry = buffer.getInt(ENTRY_OFFSET_OFFSET);
+        }
+
+        int limit = buffer.capacity();
+        while (indexedEntries < entries) {
+            int entry = nextEntry;
+            if (entry < 0 || entry + ENTRY_HEADER_SIZE > limit) {
+                break;
+            }
+            int length = buffer.getInt(entry);
+            if (length < ENTRY_HEADER_SIZE || entry + length > limit) {
+                break;
+            }
+            int nameOffset = buffer.getInt(entry + 4);
+            int vectorLength = buffer.getInt(entry + 8);
+            byte type = buffer.get(entry + 12);
+            int dataOffset = buffer.getInt(entry + 16);
+
+            String name = readString(entry + nameOffset, entry + length);
+            if (type == TYPE_LONG && vectorLength == 0) {
+                longs.put(name, entry + dataOffset);
+            } else if (type == TYPE_BYTE && vectorLength > 0) {
+                strings.put(name, entry + dataOffset);
+                stringLengths.put(name, Math.min(vectorLength, entry + length - (entry + dataOffset)));
+            }
+
+            nextEntry = entry + length;
+            indexedEntries++;
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of indexed entries
+     */
+    public synchronized int getEntryCount() {
+        return indexedEntries;
+    }
+
+    /**
+     * Look up the data offset of a long counter, to be read with {@link #readLong(int)}.
+     *
+     * @return the offset, or -1 if there is no such counter
+     */
+    public synchronized int findLong(String name) {
+        Integer offset = longs.get(name);
+        return offset != null ? offset : -1;
+    }
+
+    /**
+     * Read the current value of a counter found with {@link #findLong(String)}.
+     */
+    public long readLong(int offset) {
+        return buffer.getLong(offset);
+    }
+
+    /**
+     * @return the current value of a long counter, or the default if there is no such counter
+     */
+    public long getLong(String name, long defaultValue) {
+        int offset = findLong(name);
+        return offset >= 0 ? readLong(offset) : defaultValue;
+    }
+
+    /**
+     * @return the value of a string counter, or null if there is no such counter
+     */
+    public synchronized String getString(String name) {
+        Integer offset = strings.get(name);
+        if (offset == null) {
+            return null;
+        }
+        return readString(offset, offset + stringLengths.get(name));
+    }
+
+    private String readString(int start, int end) {
+        int position = start;
+        while (position < end && buffer.get(position) != 0) {
+            position++;
+        }
+        byte[] bytes = new byte[position - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+/**
+ * Least-squares line over a sliding window of (timestamp, bytes) points.
+ *
+ * The running sums of x, y, x², xy and y² are updated when a point enters or leaves
+ * the window, so every update and every query is O(1) and allocation free. x is kept
+ * in seconds and y in MiB, and both origins are moved to the oldest point every time
+ * the window wraps: the sums only ever hold offsets within the window, which keeps
+ * them free of cancellation when a large heap changes by a few bytes.
+ *
+ * Updates and queries are synchronized: the window is fed from the GC event consumer
+ * and read by the leak detector.
+ */
+public class SlidingLinearRegression {
+
+    private static final double BYTES_PER_MIB = 1024.0 * 1024.0;
+    // Variance below this fraction of the raw sum of squares is rounding noise
+    private static final double VARIANCE_EPSILON = 1e-12;
+
+    private final int capacity;
+    private final double[] xs; // seconds since the first point, before shifting
+    private final double[] ys; // MiB relative to the first point, before shifting
+
+    private long originMillis;
+    private long originBytes;
+    private double shiftX; // subtracted from every stored x
+    private double shiftY; // subtracted from every stored y
+    private int head;
+    private int size;
+
+    private double sumX;
+    private double sumY;
+    private double sumXX;
+    private double sumXY;
+    private double sumYY;
+
+    /**
+     * @param capacity number of points in the window
+     */
+    public SlidingLinearRegression(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2: " + capacity);
+        }
+        this.capacity = capacity;
+        this.xs = new double[capacity];
+        this.ys = new double[capacity];
+    }
+
+    /**
+     * Add a point, evicting the oldest one once the window is full.
+     *
+     * @param timestamp epoch millis of the point
+     * @param bytes the value of the point in bytes
+     */
+    public synchronized void add(long timestamp, long bytes) {
+        if (size == 0) {
+            originMillis = timestamp;
+            originBytes = bytes;
+            shiftX = 0.0;
+            shiftY = 0.0;
+        }
+        double rawX = (timestamp - originMillis) / 1000.0;
+        double rawY = (bytes - originBytes) / BYTES_PER_MIB;
+
+        if (size == capacity) {
+            double oldX = xs[head] - shiftX;
+            double oldY = ys[head] - shiftY;
+            sumX -= oldX;
+            sumY -= oldY;
+            sumXX -= oldX * oldX;
+            sumXY -= oldX * oldY;
+            sumYY -= oldY * oldY;
+        } else {
+            size++;
+        }
+
+        xs[head] = rawX;
+        ys[head] = rawY;
+        double x = rawX - shiftX;
+        double y = rawY - shiftY;
+        sumX += x;
+        sumY += y;
+        sumXX += x * x;
+        sumXY += x * y;
+        sumYY += y * y;
+
+        head = (head + 1) % capacity;
+        if (head == 0) {
+            rebase(xs[0] - shiftX, ys[0] - shiftY);
+        }
+    }
+
+    /**
+     * Move the origin by {@code dx} seconds and {@code dy} MiB, adjusting the sums in O(1).
+     */
+    private void rebase(double dx, double dy) {
+        sumXY += -dx * sumY - dy * sumX + size * dx * dy;
+        sumXX += -2.0 * dx * sumX + size * dx * dx;
+        sumYY += -2.0 * dy * sumY + size * dy * dy;
+        sumX -= size * dx;
+        sumY -= size * dy;
+        shiftX += dx;
+        shiftY += dy;
+    }
+
+    /**
+     * @return the number of points in the window
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return the slope of the fitted line in bytes per second, 0 with fewer than two
+     *         distinct timestamps
+     */
+    public synchronized double slope() {
+        double varianceX = size * sumXX - sumX * sumX;
+        if (size < 2 || varianceX <= VARIANCE_EPSILON * size * sumXX) {
+            return 0.0;
+        }
+        return (size * sumXY - sumX * sumY) / varianceX * BYTES_PER_MIB;
+    }
+
+    /**
+     * The coefficient of determination (R²) of the fitted line: 1 when every point lies
+     * on it, close to 0 when the points show no linear trend.
+     *
+     * @return the confidence in the slope between 0 and 1, 0 with fewer than three points
+     */
+    public synchronized double confidence() {
+        double varianceX = size * sumXX - sumX * sumX;
+        double varianceY = size * sumYY - sumY * sumY;
+        if (size < 3 || varianceX <= VARIANCE_EPSILON * size * sumXX || varianceY <= VARIANCE_EPSILON * size * sumYY) {
+            return 0.0;
+        }
+        double covariance = size * sumXY - sumX * sumY;
+        double rSquared = (covariance * covariance) / (varianceX * varianceY);
+        return Math.max(0.0, Math.min(1.0, rSquared));
+    }
+
+}
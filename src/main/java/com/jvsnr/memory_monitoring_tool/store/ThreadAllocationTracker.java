@@ -0,0 +1,258 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+/**
+ * Per-thread allocation rates over a sliding window of ticks.
+ *
+ * Every tick records the cumulative allocated bytes of all live threads, as returned by
+ * one batch call to {@code ThreadMXBean.getThreadAllocatedBytes(long[])}. The state is
+ * an open-addressing table keyed by thread id whose slots own a ring of the last
+ * {@code window + 1} cumulative values, so the rate of a thread is the difference between
+ * its newest and its oldest retained value divided by the elapsed time. Recording never
+ * allocates unless the table has to grow for more threads than it ever held before;
+ * threads that are gone are removed from the table on the tick they are missing from.
+ *
+ * Not thread-safe, callers have to synchronise.
+ */
+public class ThreadAllocationTracker {
+
+    private static final long EMPTY = 0; // thread ids are positive
+
+    private final int window;
+    private final int ringLength; // window + 1 values span window intervals
+
+    private int mask;
+    private int size;
+    private long[] threadIds;
+    private long[] firstTicks;
+    private long[] lastTicks;
+    private long[] allocated; // ringLength values per slot
+
+    private final long[] tickTimes; // nanos of the retained ticks, shared by every slot
+    private long tick = -1;
+
+    /**
+     * @param window number of ticks the rates are averaged over
+     * @param expectedThreads initial number of threads the table holds without growing
+     */
+    public ThreadAllocationTracker(int window, int expectedThreads) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be positive: " + window);
+        }
+        this.window = window;
+        this.ringLength = window + 1;
+        this.tickTimes = new long[ringLength];
+        allocateTable(tableCapacity(Math.max(expectedThreads, 8)));
+    }
+
+    /**
+     * Record one tick.
+     *
+     * @param ids ids of the live threads
+     * @param allocatedBytes cumulative allocated bytes of each thread, negative if it is unknown
+     * @param count number of leading entries of the arrays to use
+     * @param nanoTime time of the reading
+     */
+    public void record(long[] ids, long[] allocatedBytes, int count, long nanoTime) {
+        tick++;
+        int ringIndex = (int) (tick % ringLength);
+        tickTimes[ringIndex] = nanoTime;
+
+        for (int i = 0; i < count; i++) {
+            long id = ids[i];
+            long bytes = allocatedBytes[i];
+            if (id <= 0 || bytes < 0) {
+                continue; // terminated between the two calls, or not supported
+            }
+            int slot = find(id);
+            if (slot < 0) {
+                if ((size + 1) * 2 > threadIds.length) {
+                    grow();
+                    slot = find(id);
+                }
+                slot = -slot - 1;
+                threadIds[slot] = id;
+                firstTicks[slot] = tick;
+                size++;
+            }
+            allocated[slot * ringLength + ringIndex] = bytes;
+            lastTicks[slot] = tick;
+        }
+
+        // Forget the threads missing from this tick; a removal shifts a later entry into the slot
+        int slot = 0;
+        while (slot < threadIds.length) {
+            if (threadIds[slot] != EMPTY && lastTicks[slot] != tick) {
+                remove(slot);
+            } else {
+                slot++;
+            }
+        }
+    }
+
+    /**
+     * @return number of tracked threads
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return number of ticks recorded so far
+     */
+    public long getTickCount() {
+        return tick + 1;
+    }
+
+    /**
+     * @return the window length in ticks
+     */
+    public int getWindow() {
+        return window;
+    }
+
+    /**
+     * Find the threads with the highest allocation rate over the window. Threads seen on
+     * the latest tick only have no rate yet and are not reported.
+     *
+     * @param limit maximum number of threads
+     * @param outIds receives the thread ids, highest rate first
+     * @param outRates receives the rates in bytes per second
+     * @param outAllocated receives the cumulative allocated bytes
+     * @return number of reported threads
+     */
+    public int top(int limit, long[] outIds, double[] outRates, long[] outAllocated) {
+        limit = Math.min(limit, Math.min(outIds.length, Math.min(outRates.length, outAllocated.length)));
+        int newest = (int) (tick % ringLength);
+        long windowStart = Math.max(0, tick - window);
+        int found = 0;
+        for (int slot = 0; slot < threadIds.length; slot++) {
+            if (threadIds[slot] == EMPTY) {
+                continue;
+            }
+            double rate = rate(slot, newest, windowStart);
+            if (Double.isNaN(rate) || (found == limit && (limit == 0 || rate <= outRates[found - 1]))) {
+                continue;
+            }
+            // Insertion into the sorted prefix, limit is small
+            int position = found < limit ? found++ : found - 1;
+            while (position > 0 && outRates[position - 1] < rate) {
+                outIds[position] = outIds[position - 1];
+                outRates[position] = outRates[position - 1];
+                outAllocated[position] = outAllocated[position - 1];
+                position--;
+            }
+            outIds[position] = threadIds[slot];
+            outRates[position] = rate;
+            outAllocated[position] = allocated[slot * ringLength + newest];
+        }
+        return found;
+    }
+
+    /**
+     * @return allocation rate of a thread in bytes per second, or NaN if it is unknown or has no rate yet
+     */
+    public double getRate(long threadId) {
+        int slot = threadId > 0 ? find(threadId) : -1;
+        return slot < 0 ? Double.NaN : rate(slot);
+    }
+
+    private double rate(int slot) {
+        return rate(slot, (int) (tick % ringLength), Math.max(0, tick - window));
+    }
+
+    private double rate(int slot, int newest, long windowStart) {
+        long first = firstTicks[slot];
+        if (first >= tick) {
+            return Double.NaN;
+        }
+        int oldest = (int) ((first > windowStart ? first : windowStart) % ringLength);
+        long elapsed = tickTimes[newest] - tickTimes[oldest];
+        if (elapsed <= 0) {
+            return Double.NaN;
+        }
+        int base = slot * ringLength;
+        long bytes = allocated[base + newest] - allocated[base + oldest];
+        return Math.max(0, bytes) * 1_000_000_000d / elapsed;
+    }
+
+    /**
+     * @return the slot of the thread, or {@code -(insertion slot) - 1} if it is not in the table
+     */
+    private int find(long id) {
+        int slot = hash(id) & mask;
+        while (threadIds[slot] != EMPTY) {
+            if (threadIds[slot] == id) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -slot - 1;
+    }
+
+    /**
+     * Backward shift deletion, keeps every probe sequence free of holes without tombstones.
+     */
+    private void remove(int slot) {
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            long id = threadIds[next];
+            if (id == EMPTY) {
+                break;
+            }
+            int home = hash(id) & mask;
+            // Move the entry unless its home lies cyclically in (hole, next]
+            boolean stays = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+            if (!stays) {
+                move(next, hole);
+                hole = next;
+            }
+        }
+        threadIds[hole] = EMPTY;
+        size--;
+    }
+
+    private void move(int from, int to) {
+        threadIds[to] = threadIds[from];
+        firstTicks[to] = firstTicks[from];
+        lastTicks[to] = lastTicks[from];
+        System.arraycopy(allocated, from * ringLength, allocated, to * ringLength, ringLength);
+    }
+
+    private void grow() {
+        long[] oldIds = threadIds;
+        long[] oldFirstTicks = firstTicks;
+        long[] oldLastTicks = lastTicks;
+        long[] oldAllocated = allocated;
+        allocateTable(oldIds.length * 2);
+        for (int from = 0; from < oldIds.length; from++) {
+            if (oldIds[from] == EMPTY) {
+                continue;
+            }
+            int to = -find(oldIds[from]) - 1;
+            threadIds[to] = oldIds[from];
+            firstTicks[to] = oldFirstTicks[from];
+            lastTicks[to] = oldLastTicks[from];
+            System.arraycopy(oldAllocated, from * ringLength, allocated, to * ringLength, ringLength);
+        }
+    }
+
+    private void allocateTable(int capacity) {
+        this.mask = capacity - 1;
+        this.threadIds = new long[capacity];
+        this.firstTicks = new long[capacity];
+        this.lastTicks = new long[capacity];
+        this.allocated = new long[capacity * ringLength];
+    }
+
+    private static int tableCapacity(int threads) {
+        return Integer.highestOneBit(threads * 2 - 1) << 1;
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+}
@@ -28,6 +28,20 @@ public class MemoryUtils {
         }
     }
 
+    /**
+     * utilisation of a memory area
+     *
+     * @param used bytes in use
+     * @param max maximum bytes, zero or negative when undefined
+     * @return utilisation in percentage, 0 when the maximum is undefined
+     */
+    public static float utilisation(long used, long max) {
+        if (max <= 0) {
+            return 0.0f;
+        }
+        return ((float) used / max) * 100;
+    }
+
     public static long nullifyNegativeToZero(long value) {
         if (value < 0) {
             return 0L;
@@ -0,0 +1,46 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jvsnr.memory_monitoring_tool.service.AdaptiveSamplingService;
+
+@WebMvcTest(AdaptiveSamplingController.class)
+class AdaptiveSamplingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AdaptiveSamplingService adaptiveSamplingService;
+
+    @Test
+    void getSamplingStatus_ShouldReturnCurrentInterval() throws Exception {
+        // Given
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("currentIntervalMs", 1581L);
+        status.put("pressure", 0.5);
+        when(adaptiveSamplingService.getSamplingStatus()).thenReturn(status);
+
+        // When/Then
+        mockMvc.perform(get("/memory-leak/sampling"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.currentIntervalMs").value(1581))
+            .andExpect(jsonPath("$.pressure").value(0.5));
+
+        verify(adaptiveSamplingService).getSamplingStatus();
+    }
+
+}
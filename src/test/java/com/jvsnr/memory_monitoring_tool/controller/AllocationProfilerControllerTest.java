@@ -0,0 +1,82 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jvsnr.memory_monitoring_tool.dto.AllocationSiteDTO;
+import com.jvsnr.memory_monitoring_tool.service.AllocationProfilerService;
+
+@WebMvcTest(controllers = AllocationProfilerController.class,
+    properties = "memory-monitor.allocation-profiler.enabled=true")
+class AllocationProfilerControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AllocationProfilerService allocationProfilerService;
+
+    @Test
+    void getTopSites_ShouldReturnSites() throws Exception {
+        // Given
+        AllocationSiteDTO site = new AllocationSiteDTO();
+        site.setClassName("byte[]");
+        site.setSite("Cache.put:12");
+        site.setBytes(4096L);
+        when(allocationProfilerService.getTopSites(5)).thenReturn(List.of(site));
+
+        // When/Then
+        mockMvc.perform(get("/allocation-profiler/top").param("limit", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].className").value("byte[]"))
+            .andExpect(jsonPath("$[0].site").value("Cache.put:12"))
+            .andExpect(jsonPath("$[0].bytes").value(4096));
+    }
+
+    @Test
+    void getFlameGraph_ShouldReturnCollapsedStacksAsText() throws Exception {
+        // Given
+        when(allocationProfilerService.getFlameGraph(0L)).thenReturn("Main.main:5;Cache.put:12;byte[] 4096\n");
+
+        // When/Then
+        mockMvc.perform(get("/allocation-profiler/flamegraph"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+            .andExpect(content().string("Main.main:5;Cache.put:12;byte[] 4096\n"));
+    }
+
+    @Test
+    void reset_ShouldReturnNoContent() throws Exception {
+        // When/Then
+        mockMvc.perform(delete("/allocation-profiler"))
+            .andExpect(status().isNoContent());
+        verify(allocationProfilerService).reset();
+    }
+
+    @Test
+    void getStats_ShouldReturnStats() throws Exception {
+        // Given
+        when(allocationProfilerService.getStats()).thenReturn(Map.of("samples", 12L));
+
+        // When/Then
+        mockMvc.perform(get("/allocation-profiler/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.samples").value(12));
+    }
+
+}
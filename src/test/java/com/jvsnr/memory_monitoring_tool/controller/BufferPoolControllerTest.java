@@ -0,0 +1,61 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jvsnr.memory_monitoring_tool.dto.BufferPoolDTO;
+import com.jvsnr.memory_monitoring_tool.service.BufferPoolMonitorService;
+
+@WebMvcTest(BufferPoolController.class)
+class BufferPoolControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BufferPoolMonitorService bufferPoolMonitorService;
+
+    @Test
+    void getBufferPools_ShouldReturnPools() throws Exception {
+        // Given
+        BufferPoolDTO direct = new BufferPoolDTO();
+        direct.setName("direct");
+        direct.setCount(3L);
+        direct.setTotalCapacity(4096L);
+        direct.setSecondsToExhaustion(120L);
+        when(bufferPoolMonitorService.getBufferPools()).thenReturn(List.of(direct));
+
+        // When/Then
+        mockMvc.perform(get("/buffer-pools"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].name").value("direct"))
+            .andExpect(jsonPath("$[0].count").value(3))
+            .andExpect(jsonPath("$[0].totalCapacity").value(4096))
+            .andExpect(jsonPath("$[0].secondsToExhaustion").value(120));
+    }
+
+    @Test
+    void getLeakStatus_ShouldReturnStatus() throws Exception {
+        // Given
+        when(bufferPoolMonitorService.getLeakDetectionStatus())
+            .thenReturn(Map.of("directMemoryLeakDetected", true, "exhaustionImminent", true));
+
+        // When/Then
+        mockMvc.perform(get("/buffer-pools/leak-status"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.directMemoryLeakDetected").value(true))
+            .andExpect(jsonPath("$.exhaustionImminent").value(true));
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jvsnr.memory_monitoring_tool.dto.ClassGrowthDTO;
+import com.jvsnr.memory_monitoring_tool.dto.ClassHistogramDTO;
+import com.jvsnr.memory_monitoring_tool.dto.ClassHistogramDiffDTO;
+import com.jvsnr.memory_monitoring_tool.service.ClassHistogramService;
+
+@WebMvcTest(controllers = ClassHistogramController.class, properties = "memory-monitor.class-histogram.enabled=true")
+class ClassHistogramControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ClassHistogramService classHistogramService;
+
+    private static ClassHistogramDTO snapshot() {
+        ClassHistogramDTO snapshot = new ClassHistogramDTO();
+        snapshot.setTimestamp(1_700_000_000_000L);
+        snapshot.setClasses(1200);
+        snapshot.setBytes(4096L);
+        return snapshot;
+    }
+
+    @Test
+    void getSnapshots_ShouldListSnapshots() throws Exception {
+        // Given
+        when(classHistogramService.getSnapshots()).thenReturn(List.of(snapshot()));
+
+        // When/Then
+        mockMvc.perform(get("/class-histogram"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].classes").value(1200))
+            .andExpect(jsonPath("$[0].bytes").value(4096));
+    }
+
+    @Test
+    void capture_ShouldReturnCreatedSnapshot() throws Exception {
+        // Given
+        when(classHistogramService.capture()).thenReturn(snapshot());
+
+        // When/Then
+        mockMvc.perform(post("/class-histogram"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.timestamp").value(1_700_000_000_000L));
+    }
+
+    @Test
+    void capture_WhenItFails_ShouldReturnServiceUnavailable() throws Exception {
+        // Given
+        when(classHistogramService.capture()).thenReturn(null);
+
+        // When/Then
+        mockMvc.perform(post("/class-histogram"))
+            .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void getDiff_ShouldRankByInstances() throws Exception {
+        // Given
+        ClassGrowthDTO growth = new ClassGrowthDTO();
+        growth.setClassName("java.lang.String");
+        growth.setInstanceGrowth(310L);
+        ClassHistogramDiffDTO diff = new ClassHistogramDiffDTO();
+        diff.setIntervals(3);
+        diff.setClasses(List.of(growth));
+        when(classHistogramService.getDiff(3, 5, true)).thenReturn(diff);
+
+        // When/Then
+        mockMvc.perform(get("/class-histogram/diff").param("intervals", "3").param("limit", "5")
+                .param("sort", "instances"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.intervals").value(3))
+            .andExpect(jsonPath("$.classes[0].className").value("java.lang.String"))
+            .andExpect(jsonPath("$.classes[0].instanceGrowth").value(310));
+    }
+
+    @Test
+    void getDiff_WithoutTwoSnapshots_ShouldReturnNoContent() throws Exception {
+        // Given
+        when(classHistogramService.getDiff(Integer.MAX_VALUE, 20, false)).thenReturn(null);
+
+        // When/Then
+        mockMvc.perform(get("/class-histogram/diff"))
+            .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void getDiff_WithUnknownSort_ShouldReturnBadRequest() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/class-histogram/diff").param("sort", "age"))
+            .andExpect(status().isBadRequest());
+        verify(classHistogramService, never()).getDiff(anyInt(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    void getStats_ShouldReturnStats() throws Exception {
+        // Given
+        when(classHistogramService.getStats()).thenReturn(Map.of("captured", 4L));
+
+        // When/Then
+        mockMvc.perform(get("/class-histogram/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.captured").value(4));
+    }
+
+}
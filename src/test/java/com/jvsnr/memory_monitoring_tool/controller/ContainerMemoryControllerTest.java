@@ -0,0 +1,86 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jvsnr.memory_monitoring_tool.dto.ContainerMemoryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.ContainerMemoryHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.service.ContainerMemoryService;
+
+@WebMvcTest(ContainerMemoryController.class)
+class ContainerMemoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ContainerMemoryService containerMemoryService;
+
+    @Test
+    void getLatest_ShouldReturnHeapRssAndCgroup() throws Exception {
+        // Given
+        ContainerMemoryDTO latest = new ContainerMemoryDTO();
+        latest.setHeapUsed(100L);
+        latest.setRss(300L);
+        latest.setCgroupLimit(1000L);
+        latest.setOomRiskDetected(true);
+        when(containerMemoryService.getLatest()).thenReturn(latest);
+
+        // When/Then
+        mockMvc.perform(get("/container-memory"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.heapUsed").value(100))
+            .andExpect(jsonPath("$.rss").value(300))
+            .andExpect(jsonPath("$.cgroupLimit").value(1000))
+            .andExpect(jsonPath("$.oomRiskDetected").value(true));
+    }
+
+    @Test
+    void getLatest_ShouldReturnNoContentBeforeFirstSample() throws Exception {
+        // Given
+        when(containerMemoryService.getLatest()).thenReturn(null);
+
+        // When/Then
+        mockMvc.perform(get("/container-memory"))
+            .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void getHistory_ShouldPassLimit() throws Exception {
+        // Given
+        ContainerMemoryHistoryDTO history = new ContainerMemoryHistoryDTO();
+        history.setTimestamps(new long[] { 1000L, 2000L });
+        history.setRss(new long[] { 300L, 400L });
+        when(containerMemoryService.getHistory(2)).thenReturn(history);
+
+        // When/Then
+        mockMvc.perform(get("/container-memory/history").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.timestamps[1]").value(2000))
+            .andExpect(jsonPath("$.rss[0]").value(300));
+    }
+
+    @Test
+    void getOomRisk_ShouldReturnStatus() throws Exception {
+        // Given
+        when(containerMemoryService.getOomRiskStatus())
+            .thenReturn(Map.of("oomRiskDetected", true, "cgroupAvailable", true));
+
+        // When/Then
+        mockMvc.perform(get("/container-memory/oom-risk"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.oomRiskDetected").value(true))
+            .andExpect(jsonPath("$.cgroupAvailable").value(true));
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jvsnr.memory_monitoring_tool.dto.FleetInstanceDTO;
+import com.jvsnr.memory_monitoring_tool.service.FleetAggregatorService;
+
+@WebMvcTest(controllers = FleetController.class, properties = "memory-monitor.fleet.enabled=true")
+class FleetControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private FleetAggregatorService fleetAggregatorService;
+
+    private static FleetInstanceDTO instance(String name, double utilisation) {
+        FleetInstanceDTO instance = new FleetInstanceDTO();
+        instance.setInstance(name);
+        instance.setMemoryUtilisation(utilisation);
+        return instance;
+    }
+
+    @Test
+    void ingest_ShouldAcceptBatches() throws Exception {
+        // Given
+        when(fleetAggregatorService.ingest(anyList())).thenReturn(2);
+
+        // When/Then
+        mockMvc.perform(post("/fleet/ingest")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"instance\":\"orders-1\",\"from\":0,\"to\":1000,"
+                    + "\"memory\":{\"timestamps\":[1000],\"heapMemoryUsed\":[10],\"heapMemoryCommitted\":[20],"
+                    + "\"heapMemoryMax\":[40],\"nonHeapMemoryUsed\":[1],\"nonHeapMemoryCommitted\":[2]},"
+                    + "\"gcEvents\":[{\"duration\":5}]},{\"instance\":\"orders-2\"}]"))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.accepted").value(2));
+    }
+
+    @Test
+    void ingest_WhenInvalid_ShouldReturnBadRequest() throws Exception {
+        // Given
+        when(fleetAggregatorService.ingest(anyList())).thenThrow(new IllegalArgumentException("Batch without instance name"));
+
+        // When/Then
+        mockMvc.perform(post("/fleet/ingest")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{}]"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTopByHeapUtilisation_ShouldPassLimit() throws Exception {
+        // Given
+        when(fleetAggregatorService.getTopByHeapUtilisation(2))
+            .thenReturn(List.of(instance("orders-1", 91.5), instance("orders-2", 80.0)));
+
+        // When/Then
+        mockMvc.perform(get("/fleet/top-heap").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].instance").value("orders-1"))
+            .andExpect(jsonPath("$[0].memoryUtilisation").value(91.5));
+    }
+
+    @Test
+    void getLeakSuspects_ShouldReturnSuspects() throws Exception {
+        // Given
+        when(fleetAggregatorService.getLeakSuspects()).thenReturn(List.of(instance("billing-3", 70.0)));
+
+        // When/Then
+        mockMvc.perform(get("/fleet/leak-suspects"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].instance").value("billing-3"));
+    }
+
+    @Test
+    void getGcOverheadOutliers_ShouldReturnThresholdAndOutliers() throws Exception {
+        // Given
+        when(fleetAggregatorService.getGcOverheadOutliers()).thenReturn(Map.of("threshold", 9.5,
+            "outliers", List.of(instance("orders-7", 40.0))));
+
+        // When/Then
+        mockMvc.perform(get("/fleet/gc-outliers"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.threshold").value(9.5))
+            .andExpect(jsonPath("$.outliers[0].instance").value("orders-7"));
+    }
+
+    @Test
+    void getInstance_WhenUnknown_ShouldReturnNotFound() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/fleet/instances/unknown"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void removeInstance_ShouldReturnNoContent() throws Exception {
+        // Given
+        when(fleetAggregatorService.removeInstance("orders-1")).thenReturn(true);
+
+        // When/Then
+        mockMvc.perform(delete("/fleet/instances/orders-1"))
+            .andExpect(status().isNoContent());
+    }
+
+}
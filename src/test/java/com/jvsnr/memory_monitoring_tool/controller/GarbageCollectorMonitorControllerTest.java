@@ -16,6 +16,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.jvsnr.memory_monitoring_tool.dto.GarbageCollectionMetricsDTO;
+import com.jvsnr.memory_monitoring_tool.dto.GcPauseHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.PauseHistogramDTO;
 import com.jvsnr.memory_monitoring_tool.service.GarbageCollectionMonitorService;
 
 @WebMvcTest(GarbageCollectorMonitorController.class)
@@ -107,4 +109,57 @@ class GarbageCollectorMonitorControllerTest {
             .andExpect(jsonPath("$.['PS Scavenge'].collectionCount").value(10))
             .andExpect(jsonPath("$.['PS Scavenge'].collectionTime").value("100ms"));
     }
+
+    @Test
+    void getGCEventPipelineStats_ShouldReturnCounters() throws Exception {
+        // Given
+        Map<String, Long> stats = new HashMap<>();
+        stats.put("claimed", 12L);
+        stats.put("consumed", 10L);
+        stats.put("dropped", 1L);
+        when(garbageCollectionMonitorService.getGCEventPipelineStats()).thenReturn(stats);
+
+        // When/Then
+        mockMvc.perform(get("/gc/event-pipeline"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.claimed").value(12))
+            .andExpect(jsonPath("$.consumed").value(10))
+            .andExpect(jsonPath("$.dropped").value(1));
+    }
+
+    @Test
+    void getPauseHistograms_ShouldPassIntervalFlag() throws Exception {
+        // Given
+        PauseHistogramDTO histogram = new PauseHistogramDTO();
+        histogram.setCollectionName("G1 Young Generation");
+        histogram.setCount(3L);
+        histogram.setP99Ms(20.0);
+        Map<String, PauseHistogramDTO> histograms = new HashMap<>();
+        histograms.put("G1 Young Generation", histogram);
+        when(garbageCollectionMonitorService.getPauseHistograms(true)).thenReturn(histograms);
+
+        // When/Then
+        mockMvc.perform(get("/gc/pause-histogram").param("interval", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.['G1 Young Generation'].count").value(3))
+            .andExpect(jsonPath("$.['G1 Young Generation'].p99Ms").value(20.0));
+    }
+
+    @Test
+    void getPauseHistory_ShouldPassLimit() throws Exception {
+        // Given
+        GcPauseHistoryDTO history = new GcPauseHistoryDTO();
+        history.setTimestamps(new long[] {1_700_000_000_000L});
+        history.setDurations(new long[] {12L});
+        history.setCollectionNames(new String[] {"G1 Young Generation"});
+        history.setCauses(new String[] {"G1 Evacuation Pause"});
+        when(garbageCollectionMonitorService.getPauseHistory(10)).thenReturn(history);
+
+        // When/Then
+        mockMvc.perform(get("/gc/pause-history").param("limit", "10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.durations[0]").value(12))
+            .andExpect(jsonPath("$.collectionNames[0]").value("G1 Young Generation"))
+            .andExpect(jsonPath("$.causes[0]").value("G1 Evacuation Pause"));
+    }
 }
@@ -0,0 +1,116 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jvsnr.memory_monitoring_tool.dto.HeapDumpAnalysisDTO;
+import com.jvsnr.memory_monitoring_tool.dto.HeapDumpDTO;
+import com.jvsnr.memory_monitoring_tool.dto.LeakSuspectDTO;
+import com.jvsnr.memory_monitoring_tool.service.HeapDumpService;
+
+@WebMvcTest(controllers = HeapDumpController.class, properties = "memory-monitor.heap-dump.enabled=true")
+class HeapDumpControllerTest {
+
+    private static final String NAME = "heap-20240101-120000-42.hprof";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private HeapDumpService heapDumpService;
+
+    private static HeapDumpDTO dump() {
+        HeapDumpDTO dump = new HeapDumpDTO();
+        dump.setName(NAME);
+        dump.setSize(1024L);
+        dump.setReason("manual");
+        return dump;
+    }
+
+    @Test
+    void getDumps_ShouldListDumps() throws Exception {
+        // Given
+        when(heapDumpService.getDumps()).thenReturn(List.of(dump()));
+
+        // When/Then
+        mockMvc.perform(get("/heap-dumps"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].name").value(NAME))
+            .andExpect(jsonPath("$[0].size").value(1024));
+    }
+
+    @Test
+    void capture_ShouldReturnCreatedDump() throws Exception {
+        // Given
+        when(heapDumpService.capture("manual")).thenReturn(dump());
+
+        // When/Then
+        mockMvc.perform(post("/heap-dumps"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.reason").value("manual"));
+    }
+
+    @Test
+    void capture_WhenSkipped_ShouldReturnTooManyRequests() throws Exception {
+        // Given
+        when(heapDumpService.capture("incident-42")).thenReturn(null);
+
+        // When/Then
+        mockMvc.perform(post("/heap-dumps").param("reason", "incident-42"))
+            .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void getAnalysis_ShouldReturnLeakSuspects() throws Exception {
+        // Given
+        LeakSuspectDTO suspect = new LeakSuspectDTO();
+        suspect.setClassName("java.lang.Object[]");
+        suspect.setRetainedSize(4096L);
+        suspect.setDominatorPath(List.of("class com.example.Cache", "java.lang.Object[]"));
+        HeapDumpAnalysisDTO analysis = new HeapDumpAnalysisDTO();
+        analysis.setName(NAME);
+        analysis.setClasses(List.of());
+        analysis.setLeakSuspects(List.of(suspect));
+        when(heapDumpService.getAnalysis(NAME)).thenReturn(analysis);
+
+        // When/Then
+        mockMvc.perform(get("/heap-dumps/" + NAME + "/analysis"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.leakSuspects[0].className").value("java.lang.Object[]"))
+            .andExpect(jsonPath("$.leakSuspects[0].dominatorPath[0]").value("class com.example.Cache"));
+    }
+
+    @Test
+    void getAnalysis_WhenUnknown_ShouldReturnNotFound() throws Exception {
+        // Given
+        when(heapDumpService.getAnalysis("heap-missing.hprof")).thenReturn(null);
+
+        // When/Then
+        mockMvc.perform(get("/heap-dumps/heap-missing.hprof/analysis"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getStats_ShouldReturnCounters() throws Exception {
+        // Given
+        when(heapDumpService.getStats()).thenReturn(Map.of("captured", 2L));
+
+        // When/Then
+        mockMvc.perform(get("/heap-dumps/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.captured").value(2));
+    }
+
+}
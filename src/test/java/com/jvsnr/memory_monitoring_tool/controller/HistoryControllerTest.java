@@ -0,0 +1,85 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jvsnr.memory_monitoring_tool.dto.GcEventDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemoryHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.service.HistoryPersistenceService;
+import com.jvsnr.memory_monitoring_tool.store.MappedSegmentStore;
+
+@WebMvcTest(controllers = HistoryController.class, properties = "memory-monitor.persistence.enabled=true")
+class HistoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private HistoryPersistenceService historyPersistenceService;
+
+    @Test
+    void getMemoryHistory_ShouldPassRangeToService() throws Exception {
+        // Given
+        MemoryHistoryDTO history = new MemoryHistoryDTO();
+        history.setTimestamps(new long[] {1000L, 2000L});
+        history.setHeapMemoryUsed(new long[] {10L, 20L});
+        when(historyPersistenceService.getMemoryHistory(500L, 2500L, 10)).thenReturn(history);
+
+        // When/Then
+        mockMvc.perform(get("/history/memory").param("from", "500").param("to", "2500").param("limit", "10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.timestamps[1]").value(2000))
+            .andExpect(jsonPath("$.heapMemoryUsed[0]").value(10));
+
+        verify(historyPersistenceService).getMemoryHistory(500L, 2500L, 10);
+    }
+
+    @Test
+    void getGcEvents_ShouldUseDefaultRange() throws Exception {
+        // Given
+        GcEventDTO event = new GcEventDTO();
+        event.setCollectionName("G1 Young Generation");
+        event.setCause("G1 Evacuation Pause");
+        event.setDuration(12L);
+        event.setMemoryUsedBeforeGc(Map.of("G1 Eden Space", 500L));
+        when(historyPersistenceService.getGcEvents(0L, Long.MAX_VALUE, 1000)).thenReturn(List.of(event));
+
+        // When/Then
+        mockMvc.perform(get("/history/gc-events"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].collectionName").value("G1 Young Generation"))
+            .andExpect(jsonPath("$[0].duration").value(12))
+            .andExpect(jsonPath("$[0].memoryUsedBeforeGc['G1 Eden Space']").value(500));
+
+        verify(historyPersistenceService).getGcEvents(0L, Long.MAX_VALUE, 1000);
+    }
+
+    @Test
+    void getSegments_ShouldDescribeRetainedSegments() throws Exception {
+        // Given
+        when(historyPersistenceService.getSegments()).thenReturn(List.of(new MappedSegmentStore.SegmentInfo(
+            3L, Path.of("/tmp/segment-00000000000000000003.seg"), 128, 2, 1000L, 2000L)));
+
+        // When/Then
+        mockMvc.perform(get("/history/segments"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(3))
+            .andExpect(jsonPath("$[0].file").value("segment-00000000000000000003.seg"))
+            .andExpect(jsonPath("$[0].records").value(2))
+            .andExpect(jsonPath("$[0].from").value(1000));
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jvsnr.memory_monitoring_tool.dto.PauseHistogramDTO;
+import com.jvsnr.memory_monitoring_tool.service.JfrGcEventService;
+
+@WebMvcTest(controllers = JfrGcController.class, properties = "memory-monitor.gc.source=jfr")
+class JfrGcControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JfrGcEventService jfrGcEventService;
+
+    private static PauseHistogramDTO histogram(String name, long count) {
+        PauseHistogramDTO histogram = new PauseHistogramDTO();
+        histogram.setCollectionName(name);
+        histogram.setCount(count);
+        histogram.setP99Ms(1.25);
+        return histogram;
+    }
+
+    @Test
+    void getPhasePauses_ShouldReturnHistogramsByPhase() throws Exception {
+        // Given
+        when(jfrGcEventService.getPhasePauses(false)).thenReturn(Map.of("GC Pause", histogram("GC Pause", 12L)));
+
+        // When/Then
+        mockMvc.perform(get("/gc/jfr/phase-pauses"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$['GC Pause'].count").value(12))
+            .andExpect(jsonPath("$['GC Pause'].p99Ms").value(1.25));
+    }
+
+    @Test
+    void getSafepoints_WithInterval_ShouldReturnIntervalHistograms() throws Exception {
+        // Given
+        when(jfrGcEventService.getSafepoints(true))
+            .thenReturn(Map.of("timeToSafepoint", histogram("timeToSafepoint", 3L)));
+
+        // When/Then
+        mockMvc.perform(get("/gc/jfr/safepoints").param("interval", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.timeToSafepoint.count").value(3));
+    }
+
+    @Test
+    void getStats_ShouldReturnStats() throws Exception {
+        // Given
+        when(jfrGcEventService.getStats()).thenReturn(Map.of("recording", true, "published", 5L));
+
+        // When/Then
+        mockMvc.perform(get("/gc/jfr/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.recording").value(true))
+            .andExpect(jsonPath("$.published").value(5));
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jvsnr.memory_monitoring_tool.dto.LocalJvmDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.service.LocalJvmMonitorService;
+
+@WebMvcTest(controllers = LocalJvmController.class, properties = "memory-monitor.local-jvms.enabled=true")
+class LocalJvmControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LocalJvmMonitorService localJvmMonitorService;
+
+    private static LocalJvmDTO localJvm(long pid) {
+        LocalJvmDTO jvm = new LocalJvmDTO();
+        jvm.setPid(pid);
+        jvm.setCommand("com.example.Orders");
+        jvm.setMemory(new MemorySampleDTO(0L, 1024L, 2048L, 4096L, 512L, 1024L, -1L));
+        jvm.setGcMetrics(Map.of());
+        return jvm;
+    }
+
+    @Test
+    void getJvms_ShouldReturnEveryJvm() throws Exception {
+        // Given
+        when(localJvmMonitorService.getJvms()).thenReturn(List.of(localJvm(101L), localJvm(202L)));
+
+        // When/Then
+        mockMvc.perform(get("/local-jvms"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].pid").value(101))
+            .andExpect(jsonPath("$[0].memory.heapMemoryUsed").value(1024));
+    }
+
+    @Test
+    void getJvm_ShouldReturnJvm() throws Exception {
+        // Given
+        when(localJvmMonitorService.getJvm(101L)).thenReturn(localJvm(101L));
+
+        // When/Then
+        mockMvc.perform(get("/local-jvms/101"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.command").value("com.example.Orders"));
+    }
+
+    @Test
+    void getJvm_WhenUnknown_ShouldReturnNotFound() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/local-jvms/999"))
+            .andExpect(status().isNotFound());
+    }
+
+}
@@ -7,6 +7,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
@@ -15,6 +16,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import com.jvsnr.memory_monitoring_tool.dto.MemoryHistoryDTO;
 import com.jvsnr.memory_monitoring_tool.service.MemoryLeakDetectorService;
 
 @WebMvcTest(MemoryLeakController.class)
@@ -114,4 +116,55 @@ class MemoryLeakControllerTest {
         // Verify service method was called
         verify(memoryLeakDetectorService).getLeakDetectionStatus();
     }
+
+    @Test
+    void getMemoryHistory_ShouldReturnPrimitiveColumns() throws Exception {
+        // Given
+        MemoryHistoryDTO history = new MemoryHistoryDTO();
+        history.setTimestamps(new long[] {1000L, 2000L});
+        history.setHeapMemoryUsed(new long[] {100L, 200L});
+        history.setHeapMemoryCommitted(new long[] {300L, 300L});
+        history.setHeapMemoryMax(new long[] {400L, 400L});
+        history.setNonHeapMemoryUsed(new long[] {50L, 60L});
+        history.setNonHeapMemoryCommitted(new long[] {70L, 70L});
+        when(memoryLeakDetectorService.getMemoryHistory(2)).thenReturn(history);
+
+        // When/Then
+        mockMvc.perform(get("/memory-leak/history").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.timestamps[1]").value(2000))
+            .andExpect(jsonPath("$.heapMemoryUsed[0]").value(100))
+            .andExpect(jsonPath("$.nonHeapMemoryUsed[1]").value(60));
+
+        verify(memoryLeakDetectorService).getMemoryHistory(2);
+    }
+
+    @Test
+    void getMemoryHistory_ShouldCapTheLimit() throws Exception {
+        // Given
+        when(memoryLeakDetectorService.getMemoryHistory(MemoryLeakController.MAX_HISTORY_LIMIT))
+            .thenReturn(new MemoryHistoryDTO());
+
+        // When/Then
+        mockMvc.perform(get("/memory-leak/history").param("limit", "604800"))
+            .andExpect(status().isOk());
+
+        verify(memoryLeakDetectorService).getMemoryHistory(MemoryLeakController.MAX_HISTORY_LIMIT);
+    }
+
+    @Test
+    void getMemoryHistoryStats_ShouldReturnCompressedSize() throws Exception {
+        // Given
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("samples", 3600L);
+        stats.put("chunks", 4L);
+        stats.put("compressedBytes", 9000L);
+        when(memoryLeakDetectorService.getHistoryStats()).thenReturn(stats);
+
+        // When/Then
+        mockMvc.perform(get("/memory-leak/history/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.samples").value(3600))
+            .andExpect(jsonPath("$.compressedBytes").value(9000));
+    }
 }
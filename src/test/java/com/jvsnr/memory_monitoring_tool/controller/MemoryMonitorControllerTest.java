@@ -1,17 +1,26 @@
 package com.jvsnr.memory_monitoring_tool.controller;
 
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.dto.ThreadAllocationDTO;
 import com.jvsnr.memory_monitoring_tool.service.MemoryMonitorService;
+import com.jvsnr.memory_monitoring_tool.service.ThreadAllocationService;
+import com.jvsnr.util.MemoryUtils;
 
 @WebMvcTest(MemoryMonitorController.class)
 class MemoryMonitorControllerTest {
@@ -22,6 +31,9 @@ class MemoryMonitorControllerTest {
     @MockBean
     private MemoryMonitorService memoryMonitorService;
 
+    @MockBean
+    private ThreadAllocationService threadAllocationService;
+
     @Test
     void getHeapMemoryMetrics_ShouldReturnHeapMemoryUsage() throws Exception {
         // Given
@@ -78,21 +90,76 @@ class MemoryMonitorControllerTest {
     }
 
     @Test
-    void getAllMetrics_ShouldReturnAllMemoryMetrics() throws Exception {
+    void getAllMetrics_ShouldReturnAllMemoryMetricsFromSingleSample() throws Exception {
         // Given
-        when(memoryMonitorService.getHeapMemoryUsage(true)).thenReturn("100 MB");
-        when(memoryMonitorService.getNonHeapMemoryUsage(true)).thenReturn("50 MB");
-        when(memoryMonitorService.getHeapMemoryMax(true)).thenReturn("200 MB");
-        when(memoryMonitorService.getHeapMemoryCommitted(true)).thenReturn("150 MB");
-        when(memoryMonitorService.getMemoryUtilisation()).thenReturn("50%");
+        long mb = 1024L * 1024L;
+        when(memoryMonitorService.sample()).thenReturn(
+            new MemorySampleDTO(1000L, 100 * mb, 150 * mb, 200 * mb, 50 * mb, 60 * mb, -1L));
 
         // When/Then
         mockMvc.perform(get("/memory-monitor/all"))
             .andExpect(status().isOk())
-            .andExpect(jsonPath("$.heapMemoryUsage").value("100 MB"))
-            .andExpect(jsonPath("$.nonHeapMemoryUsage").value("50 MB"))
-            .andExpect(jsonPath("$.heapMemoryMax").value("200 MB"))
-            .andExpect(jsonPath("$.heapMemoryCommitted").value("150 MB"))
-            .andExpect(jsonPath("$.memoryUtilisation").value("50%"));
+            .andExpect(jsonPath("$.heapMemoryUsage").value(MemoryUtils.formatBytes(100 * mb)))
+            .andExpect(jsonPath("$.nonHeapMemoryUsage").value(MemoryUtils.formatBytes(50 * mb)))
+            .andExpect(jsonPath("$.heapMemoryMax").value(MemoryUtils.formatBytes(200 * mb)))
+            .andExpect(jsonPath("$.heapMemoryCommitted").value(MemoryUtils.formatBytes(150 * mb)))
+            .andExpect(jsonPath("$.memoryUtilisation").value("50.0"));
+
+        verify(memoryMonitorService, times(1)).sample();
+        verifyNoMoreInteractions(memoryMonitorService);
+    }
+
+    @Test
+    void getMemorySample_ShouldReturnRawNumericValues() throws Exception {
+        // Given
+        when(memoryMonitorService.sample()).thenReturn(
+            new MemorySampleDTO(1000L, 100L, 150L, 200L, 50L, 60L, -1L));
+
+        // When/Then
+        mockMvc.perform(get("/memory-monitor/sample"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.timestamp").value(1000))
+            .andExpect(jsonPath("$.heapMemoryUsed").value(100))
+            .andExpect(jsonPath("$.heapMemoryCommitted").value(150))
+            .andExpect(jsonPath("$.heapMemoryMax").value(200))
+            .andExpect(jsonPath("$.nonHeapMemoryUsed").value(50))
+            .andExpect(jsonPath("$.nonHeapMemoryCommitted").value(60))
+            .andExpect(jsonPath("$.nonHeapMemoryMax").value(-1))
+            .andExpect(jsonPath("$.memoryUtilisation").value(50.0));
+    }
+
+    @Test
+    void getTopAllocators_ShouldReturnAllocatorsWithRequestedLimit() throws Exception {
+        // Given
+        ThreadAllocationDTO allocator = new ThreadAllocationDTO();
+        allocator.setThreadId(42L);
+        allocator.setThreadName("worker-1");
+        allocator.setBytesPerSecond(2048.0);
+        allocator.setAllocationRate("2.00 KB/s");
+        allocator.setAllocatedBytes(1_000_000L);
+        when(threadAllocationService.getTopAllocators(3)).thenReturn(List.of(allocator));
+
+        // When/Then
+        mockMvc.perform(get("/memory-monitor/top-allocators").param("limit", "3"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].threadId").value(42))
+            .andExpect(jsonPath("$[0].threadName").value("worker-1"))
+            .andExpect(jsonPath("$[0].bytesPerSecond").value(2048.0))
+            .andExpect(jsonPath("$[0].allocatedBytes").value(1_000_000));
+
+        verify(threadAllocationService).getTopAllocators(3);
+    }
+
+    @Test
+    void getTopAllocators_ShouldDefaultToTenThreads() throws Exception {
+        // Given
+        when(threadAllocationService.getTopAllocators(10)).thenReturn(List.of());
+
+        // When/Then
+        mockMvc.perform(get("/memory-monitor/top-allocators"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+
+        verify(threadAllocationService).getTopAllocators(10);
     }
 }
@@ -0,0 +1,48 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jvsnr.memory_monitoring_tool.dto.MemoryPoolThresholdDTO;
+import com.jvsnr.memory_monitoring_tool.service.MemoryPoolThresholdService;
+
+@WebMvcTest(controllers = MemoryPoolThresholdController.class, properties = "memory-monitor.pool-thresholds.enabled=true")
+class MemoryPoolThresholdControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MemoryPoolThresholdService memoryPoolThresholdService;
+
+    @Test
+    void getPoolThresholds_ShouldReturnThresholdStatus() throws Exception {
+        // Given
+        MemoryPoolThresholdDTO dto = new MemoryPoolThresholdDTO();
+        dto.setPoolName("G1 Old Gen");
+        dto.setUsageThreshold(800L);
+        dto.setUsageThresholdCount(3L);
+        when(memoryPoolThresholdService.getThresholdStatus()).thenReturn(List.of(dto));
+
+        // When/Then
+        mockMvc.perform(get("/memory-leak/pool-thresholds"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].poolName").value("G1 Old Gen"))
+            .andExpect(jsonPath("$[0].usageThreshold").value(800))
+            .andExpect(jsonPath("$[0].usageThresholdCount").value(3));
+
+        verify(memoryPoolThresholdService).getThresholdStatus();
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jvsnr.memory_monitoring_tool.dto.ClassLoaderStatsDTO;
+import com.jvsnr.memory_monitoring_tool.service.MetaspaceMonitorService;
+
+@WebMvcTest(MetaspaceController.class)
+class MetaspaceControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MetaspaceMonitorService metaspaceMonitorService;
+
+    @Test
+    void getMetaspaceStatus_ShouldReturnStatus() throws Exception {
+        // Given
+        when(metaspaceMonitorService.getLeakDetectionStatus())
+            .thenReturn(Map.of("metaspaceLeakDetected", true, "loadedClassCount", 12000L));
+
+        // When/Then
+        mockMvc.perform(get("/memory-leak/metaspace"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.metaspaceLeakDetected").value(true))
+            .andExpect(jsonPath("$.loadedClassCount").value(12000));
+    }
+
+    @Test
+    void getClassLoaderStats_ShouldReturnLoaderTypes() throws Exception {
+        // Given
+        ClassLoaderStatsDTO webApp = new ClassLoaderStatsDTO();
+        webApp.setType("org.example.WebAppClassLoader");
+        webApp.setLoaders(3);
+        webApp.setLoaderGrowth(1);
+        when(metaspaceMonitorService.getClassLoaderStats()).thenReturn(List.of(webApp));
+
+        // When/Then
+        mockMvc.perform(get("/memory-leak/class-loaders"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].type").value("org.example.WebAppClassLoader"))
+            .andExpect(jsonPath("$[0].loaders").value(3))
+            .andExpect(jsonPath("$[0].loaderGrowth").value(1));
+    }
+
+    @Test
+    void getClassLoaderStats_ShouldReturnServiceUnavailableOnFailure() throws Exception {
+        // Given
+        when(metaspaceMonitorService.getClassLoaderStats()).thenReturn(null);
+
+        // When/Then
+        mockMvc.perform(get("/memory-leak/class-loaders"))
+            .andExpect(status().isServiceUnavailable());
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.jvsnr.memory_monitoring_tool.service.MetricsStreamService;
+
+@WebMvcTest(MetricsStreamController.class)
+class MetricsStreamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MetricsStreamService metricsStreamService;
+
+    @Test
+    void streamMetrics_ShouldStartAsyncEventStream() throws Exception {
+        // Given
+        when(metricsStreamService.subscribe()).thenReturn(new SseEmitter());
+
+        // When/Then
+        mockMvc.perform(get("/stream/metrics"))
+            .andExpect(status().isOk())
+            .andExpect(request().asyncStarted());
+
+        verify(metricsStreamService).subscribe();
+    }
+
+    @Test
+    void getStreamStats_ShouldReturnStats() throws Exception {
+        // Given
+        when(metricsStreamService.getStreamStats()).thenReturn(Map.of("subscribers", 2L, "clientsDropped", 1L));
+
+        // When/Then
+        mockMvc.perform(get("/stream/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.subscribers").value(2))
+            .andExpect(jsonPath("$.clientsDropped").value(1));
+    }
+
+}
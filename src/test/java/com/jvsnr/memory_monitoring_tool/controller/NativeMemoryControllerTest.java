@@ -0,0 +1,126 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jvsnr.memory_monitoring_tool.dto.NativeMemoryDiffDTO;
+import com.jvsnr.memory_monitoring_tool.dto.NativeMemoryGrowthDTO;
+import com.jvsnr.memory_monitoring_tool.dto.NativeMemorySnapshotDTO;
+import com.jvsnr.memory_monitoring_tool.service.NativeMemoryService;
+
+@WebMvcTest(controllers = NativeMemoryController.class, properties = "memory-monitor.native-memory.enabled=true")
+class NativeMemoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private NativeMemoryService nativeMemoryService;
+
+    private static NativeMemorySnapshotDTO snapshot(String category) {
+        NativeMemorySnapshotDTO snapshot = new NativeMemorySnapshotDTO();
+        snapshot.setTimestamp(1_700_000_000_000L);
+        snapshot.setCategory(category);
+        snapshot.setCommitted(4096L);
+        return snapshot;
+    }
+
+    @Test
+    void getSeries_ShouldReturnTheCategorySeries() throws Exception {
+        // Given
+        when(nativeMemoryService.getSeries("Thread")).thenReturn(List.of(snapshot("Thread")));
+
+        // When/Then
+        mockMvc.perform(get("/native-memory").param("category", "Thread"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].category").value("Thread"))
+            .andExpect(jsonPath("$[0].committed").value(4096));
+    }
+
+    @Test
+    void getSeries_WithUnknownCategory_ShouldReturnNotFound() throws Exception {
+        // Given
+        when(nativeMemoryService.getSeries("Nope")).thenReturn(null);
+
+        // When/Then
+        mockMvc.perform(get("/native-memory").param("category", "Nope"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void capture_ShouldReturnCreatedSnapshot() throws Exception {
+        // Given
+        when(nativeMemoryService.capture()).thenReturn(snapshot(null));
+
+        // When/Then
+        mockMvc.perform(post("/native-memory"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.timestamp").value(1_700_000_000_000L));
+    }
+
+    @Test
+    void baseline_WhenTrackingIsOff_ShouldReturnServiceUnavailable() throws Exception {
+        // Given
+        when(nativeMemoryService.baseline()).thenReturn(null);
+
+        // When/Then
+        mockMvc.perform(post("/native-memory/baseline"))
+            .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void getDiff_ShouldReturnGrowingCategoriesFirst() throws Exception {
+        // Given
+        NativeMemoryGrowthDTO growth = new NativeMemoryGrowthDTO();
+        growth.setCategory("Thread");
+        growth.setCommittedGrowth(8192L);
+        NativeMemoryDiffDTO diff = new NativeMemoryDiffDTO();
+        diff.setCommittedGrowth(8192L);
+        diff.setCategories(List.of(growth));
+        when(nativeMemoryService.getDiff()).thenReturn(diff);
+
+        // When/Then
+        mockMvc.perform(get("/native-memory/diff"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.categories[0].category").value("Thread"))
+            .andExpect(jsonPath("$.categories[0].committedGrowth").value(8192));
+    }
+
+    @Test
+    void getDiff_WithoutSnapshots_ShouldReturnNoContent() throws Exception {
+        // Given
+        when(nativeMemoryService.getDiff()).thenReturn(null);
+
+        // When/Then
+        mockMvc.perform(get("/native-memory/diff"))
+            .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void getCategoriesAndStats_ShouldReturnThem() throws Exception {
+        // Given
+        when(nativeMemoryService.getCategories()).thenReturn(List.of("Java Heap", "Thread"));
+        when(nativeMemoryService.getStats()).thenReturn(Map.of("captured", 3L));
+
+        // When/Then
+        mockMvc.perform(get("/native-memory/categories"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[1]").value("Thread"));
+        mockMvc.perform(get("/native-memory/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.captured").value(3));
+    }
+
+}
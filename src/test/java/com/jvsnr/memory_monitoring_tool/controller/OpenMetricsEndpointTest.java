@@ -0,0 +1,44 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OpenMetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void scrape_ShouldServeOpenMetrics() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/actuator/openmetrics")
+                .accept(MediaType.parseMediaType("application/openmetrics-text;version=1.0.0"),
+                    MediaType.parseMediaType("text/plain;version=0.0.4;q=0.5")))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(OpenMetricsEndpoint.CONTENT_TYPE))
+            .andExpect(content().string(containsString("memory_monitor_memory_used_bytes{area=\"heap\"} ")))
+            .andExpect(content().string(containsString("memory_monitor_gc_collections_total{collector=")))
+            .andExpect(content().string(endsWith("# EOF\n")));
+    }
+
+    @Test
+    void scrape_WhenOnlyPlainTextAccepted_ShouldBeNotAcceptable() throws Exception {
+        // When/Then - the OpenMetrics payload is not valid in the 0.0.4 text format
+        mockMvc.perform(get("/actuator/openmetrics")
+                .accept(MediaType.parseMediaType("text/plain;version=0.0.4")))
+            .andExpect(status().isNotAcceptable());
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.jvsnr.memory_monitoring_tool.controller;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jvsnr.memory_monitoring_tool.dto.RemoteJvmStatusDTO;
+import com.jvsnr.memory_monitoring_tool.service.RemoteJvmMonitorService;
+
+@WebMvcTest(controllers = RemoteJvmController.class, properties = "memory-monitor.remote.enabled=true")
+class RemoteJvmControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RemoteJvmMonitorService remoteJvmMonitorService;
+
+    private static RemoteJvmStatusDTO remoteJvm(String name) {
+        RemoteJvmStatusDTO status = new RemoteJvmStatusDTO();
+        status.setName(name);
+        status.setUrl("service:jmx:rmi:///jndi/rmi://orders-host:9010/jmxrmi");
+        status.setAvailable(true);
+        status.setHeapMemoryUsed(1024L);
+        return status;
+    }
+
+    @Test
+    void getTargets_ShouldReturnEveryTarget() throws Exception {
+        // Given
+        when(remoteJvmMonitorService.getTargets()).thenReturn(List.of(remoteJvm("orders"), remoteJvm("billing")));
+
+        // When/Then
+        mockMvc.perform(get("/remote/targets"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].name").value("orders"))
+            .andExpect(jsonPath("$[0].heapMemoryUsed").value(1024));
+    }
+
+    @Test
+    void getTarget_WhenUnknown_ShouldReturnNotFound() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/remote/targets/unknown"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void addTarget_ShouldReturnCreated() throws Exception {
+        // Given
+        when(remoteJvmMonitorService.addTarget("orders", "orders-host:9010")).thenReturn(remoteJvm("orders"));
+
+        // When/Then
+        mockMvc.perform(post("/remote/targets").param("name", "orders").param("address", "orders-host:9010"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.name").value("orders"));
+    }
+
+    @Test
+    void addTarget_WhenInvalid_ShouldReturnBadRequest() throws Exception {
+        // Given
+        when(remoteJvmMonitorService.addTarget("orders", "service:jmx:"))
+            .thenThrow(new IllegalArgumentException("Invalid JMX address"));
+
+        // When/Then
+        mockMvc.perform(post("/remote/targets").param("name", "orders").param("address", "service:jmx:"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void removeTarget_ShouldReturnNoContent() throws Exception {
+        // Given
+        when(remoteJvmMonitorService.removeTarget("orders")).thenReturn(true);
+
+        // When/Then
+        mockMvc.perform(delete("/remote/targets/orders"))
+            .andExpect(status().isNoContent());
+        verify(remoteJvmMonitorService).removeTarget("orders");
+    }
+
+    @Test
+    void getStats_ShouldReturnSamplingStats() throws Exception {
+        // Given
+        when(remoteJvmMonitorService.getStats()).thenReturn(Map.of("targets", 2, "timeouts", 1L));
+
+        // When/Then
+        mockMvc.perform(get("/remote/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.targets").value(2))
+            .andExpect(jsonPath("$.timeouts").value(1));
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.jvsnr.memory_monitoring_tool.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class GcEventCodesTest {
+
+    @Test
+    void codeOf_ShouldReturnStableCodes() {
+        // Given
+        GcEventCodes codes = new GcEventCodes();
+
+        // When
+        int allocationFailure = codes.codeOf("Allocation Failure");
+        int systemGc = codes.codeOf("System.gc()");
+
+        // Then
+        assertNotEquals(allocationFailure, systemGc);
+        assertEquals(allocationFailure, codes.codeOf(new String("Allocation Failure")));
+        assertEquals("System.gc()", codes.nameOf(systemGc));
+    }
+
+    @Test
+    void codeOf_WhenNull_ShouldReturnMinusOne() {
+        // Given
+        GcEventCodes codes = new GcEventCodes();
+
+        // When/Then
+        assertEquals(-1, codes.codeOf(null));
+        assertNull(codes.nameOf(-1));
+        assertNull(codes.nameOf(42));
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.jvsnr.memory_monitoring_tool.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+class GcEventRingBufferTest {
+
+    @Test
+    void drain_ShouldDeliverPublishedEventsInOrder() {
+        // Given
+        GcEventRingBuffer buffer = new GcEventRingBuffer(8, 2);
+        for (int i = 0; i < 3; i++) {
+            long sequence = buffer.tryClaim();
+            buffer.setEvent(sequence, i, 10 + i, 20 + i, i, 1000L + i, 5L * i);
+            buffer.setPoolUsage(sequence, 1, 100L * i, 50L * i);
+            buffer.publish(sequence);
+        }
+        List<Long> gcIds = new ArrayList<>();
+        List<Long> poolAfter = new ArrayList<>();
+
+        // When
+        int drained = buffer.drain(new GcEvent(2), event -> {
+            gcIds.add(event.getGcId());
+            poolAfter.add(event.getPoolUsedAfter(1));
+            assertEquals(-1L, event.getPoolUsedBefore(0));
+        });
+
+        // Then
+        assertEquals(3, drained);
+        assertEquals(List.of(0L, 1L, 2L), gcIds);
+        assertEquals(List.of(0L, 50L, 100L), poolAfter);
+        assertEquals(3L, buffer.getConsumedCount());
+    }
+
+    @Test
+    void drain_ShouldStopAtFirstUnpublishedSlot() {
+        // Given
+        GcEventRingBuffer buffer = new GcEventRingBuffer(8, 0);
+        long first = buffer.tryClaim();
+        long second = buffer.tryClaim();
+        buffer.setEvent(second, 0, 0, 0, 2L, 0L, 0L);
+        buffer.publish(second);
+
+        // When/Then - the second event waits for the first one
+        assertEquals(0, buffer.drain(new GcEvent(0), event -> { }));
+
+        buffer.setEvent(first, 0, 0, 0, 1L, 0L, 0L);
+        buffer.publish(first);
+        assertEquals(2, buffer.drain(new GcEvent(0), event -> { }));
+    }
+
+    @Test
+    void tryClaim_WhenFull_ShouldDropInsteadOfBlocking() {
+        // Given
+        GcEventRingBuffer buffer = new GcEventRingBuffer(4, 0);
+        for (int i = 0; i < 4; i++) {
+            buffer.publish(buffer.tryClaim());
+        }
+
+        // When
+        long sequence = buffer.tryClaim();
+
+        // Then
+        assertEquals(-1L, sequence);
+        assertEquals(1L, buffer.getDroppedCount());
+
+        // And a drained slot can be claimed again
+        buffer.drain(new GcEvent(0), event -> { });
+        assertEquals(4L, buffer.tryClaim());
+    }
+
+    @Test
+    void concurrentProducers_ShouldNeverLoseOrDuplicateAcceptedEvents() throws InterruptedException {
+        // Given
+        GcEventRingBuffer buffer = new GcEventRingBuffer(1024, 1);
+        int producers = 4;
+        int eventsPerProducer = 50000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    long sequence;
+                    while ((sequence = buffer.tryClaim()) < 0) {
+                        Thread.onSpinWait();
+                    }
+                    buffer.setEvent(sequence, producer, 0, 0, i, 0L, i);
+                    buffer.setPoolUsage(sequence, 0, i, i);
+                    buffer.publish(sequence);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        long[] nextPerProducer = new long[producers];
+        long[] received = new long[1];
+        GcEvent event = new GcEvent(1);
+
+        // When
+        start.countDown();
+        long expected = (long) producers * eventsPerProducer;
+        while (received[0] < expected) {
+            buffer.drain(event, e -> {
+                // Then - events of one producer arrive in order and are never torn
+                assertEquals(nextPerProducer[e.getCollector()]++, e.getGcId());
+                assertEquals(e.getGcId(), e.getDuration());
+                assertEquals(e.getGcId(), e.getPoolUsedAfter(0));
+                received[0]++;
+            });
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(expected, received[0]);
+        assertTrue(buffer.getDroppedCount() >= 0);
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+
+@ExtendWith(MockitoExtension.class)
+class AdaptiveSamplingServiceTest {
+
+    private static final long MIN_INTERVAL_MS = 250L;
+    private static final long MAX_INTERVAL_MS = 10000L;
+    private static final long MAX_HEAP = 1000000000L;
+
+    @Mock
+    private MemoryLeakDetectorService memoryLeakDetectorService;
+
+    @Mock
+    private GarbageCollectionMonitorService garbageCollectionMonitorService;
+
+    @Mock
+    private ScheduledExecutorService timer;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private AdaptiveSamplingService adaptiveSamplingService;
+
+    @BeforeEach
+    void setUp() {
+        adaptiveSamplingService = new AdaptiveSamplingService(memoryLeakDetectorService, garbageCollectionMonitorService,
+            MIN_INTERVAL_MS, MAX_INTERVAL_MS, timer, clock::get);
+    }
+
+    private static MemorySampleDTO heap(long used) {
+        return new MemorySampleDTO(System.currentTimeMillis(), used, used, MAX_HEAP, 0L, 0L, -1L);
+    }
+
+    private long currentIntervalMs() {
+        return (long) adaptiveSamplingService.getSamplingStatus().get("currentIntervalMs");
+    }
+
+    @Test
+    void constructor_ShouldRegisterListenersAndValidateBounds() {
+        verify(memoryLeakDetectorService).addMemorySampleListener(adaptiveSamplingService);
+        verify(garbageCollectionMonitorService).addGcEventListener(adaptiveSamplingService);
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveSamplingService(memoryLeakDetectorService,
+            garbageCollectionMonitorService, 1000L, 500L, timer, clock::get));
+    }
+
+    @Test
+    void updateInterval_WhenNoPressure_ShouldUseMaxInterval() {
+        // When
+        adaptiveSamplingService.updateInterval(20.0, 0.0, Double.POSITIVE_INFINITY, 0.0);
+
+        // Then
+        assertEquals(MAX_INTERVAL_MS, currentIntervalMs());
+        assertEquals(0.0, (double) adaptiveSamplingService.getSamplingStatus().get("pressure"));
+    }
+
+    @Test
+    void updateInterval_WhenHeapAlmostFull_ShouldUseMinInterval() {
+        // When
+        adaptiveSamplingService.updateInterval(95.0, 0.0, Double.POSITIVE_INFINITY, 0.0);
+
+        // Then
+        assertEquals(MIN_INTERVAL_MS, currentIntervalMs());
+        assertEquals(1.0, (double) adaptiveSamplingService.getSamplingStatus().get("utilisationPressure"));
+    }
+
+    @Test
+    void updateInterval_WhenHalfPressure_ShouldUseGeometricMean() {
+        // When - 70% is halfway between 50% and 90%
+        adaptiveSamplingService.updateInterval(70.0, 0.0, Double.POSITIVE_INFINITY, 0.0);
+
+        // Then - sqrt(250 * 10000)
+        assertEquals(1581L, currentIntervalMs());
+    }
+
+    @Test
+    void updateInterval_WhenHeapExhaustedSoonWithConfidentSlope_ShouldSpeedUp() {
+        // When - full in 6 minutes, 90% of the one hour horizon
+        adaptiveSamplingService.updateInterval(20.0, 0.0, 360.0, 1.0);
+
+        // Then
+        assertEquals(0.9, (double) adaptiveSamplingService.getSamplingStatus().get("growthPressure"), 1e-9);
+        assertTrue(currentIntervalMs() < 500L);
+    }
+
+    @Test
+    void updateInterval_WhenPressureDrops_ShouldAtMostDoubleTheInterval() {
+        // Given
+        adaptiveSamplingService.updateInterval(95.0, 0.0, Double.POSITIVE_INFINITY, 0.0);
+
+        // When
+        adaptiveSamplingService.updateInterval(20.0, 0.0, Double.POSITIVE_INFINITY, 0.0);
+
+        // Then
+        assertEquals(2 * MIN_INTERVAL_MS, currentIntervalMs());
+    }
+
+    @Test
+    void onMemorySample_WhenGcRateHigh_ShouldRaiseGcPressure() {
+        // Given - 4 GCs within one second
+        adaptiveSamplingService.start();
+        for (int i = 0; i < 4; i++) {
+            adaptiveSamplingService.onGcEvent(null);
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // When
+        adaptiveSamplingService.onMemorySample(heap(100000000L));
+
+        // Then
+        assertEquals(1.0, (double) adaptiveSamplingService.getSamplingStatus().get("gcPressure"));
+        assertEquals(MIN_INTERVAL_MS, currentIntervalMs());
+    }
+
+    @Test
+    void sample_ShouldScheduleAgainstAbsoluteDeadlines() {
+        // Given - started at 0, the first sample is due at 10s but runs 300ms late and takes 200ms
+        adaptiveSamplingService.start();
+        verify(timer).schedule(any(Runnable.class), eq(TimeUnit.MILLISECONDS.toNanos(MAX_INTERVAL_MS)), eq(TimeUnit.NANOSECONDS));
+        clock.set(TimeUnit.MILLISECONDS.toNanos(10300));
+        doAnswer(invocation -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200)))
+            .when(memoryLeakDetectorService).analyseMemoryUsage();
+
+        // When
+        adaptiveSamplingService.sample();
+
+        // Then - the next sample is still due at 20s
+        verify(timer).schedule(any(Runnable.class), eq(TimeUnit.MILLISECONDS.toNanos(9500)), eq(TimeUnit.NANOSECONDS));
+        Map<String, Object> status = adaptiveSamplingService.getSamplingStatus();
+        assertEquals(300.0, (double) status.get("lastLatenessMs"), 1e-9);
+        assertEquals(1L, status.get("samples"));
+    }
+
+    @Test
+    void sample_WhenMoreThanAnIntervalBehind_ShouldRestartFromNow() {
+        // Given
+        adaptiveSamplingService.start();
+        clock.set(TimeUnit.MILLISECONDS.toNanos(35000));
+
+        // When
+        adaptiveSamplingService.sample();
+
+        // Then - once from start and once more from now instead of a burst of catch-up samples
+        verify(timer, times(2)).schedule(any(Runnable.class), eq(TimeUnit.MILLISECONDS.toNanos(MAX_INTERVAL_MS)), eq(TimeUnit.NANOSECONDS));
+        assertEquals(25000.0, (double) adaptiveSamplingService.getSamplingStatus().get("maxLatenessMs"), 1e-9);
+    }
+
+    @Test
+    void shutdown_ShouldStopTimer() {
+        // Given
+        when(timer.isShutdown()).thenReturn(true);
+
+        // When
+        adaptiveSamplingService.shutdown();
+        adaptiveSamplingService.sample();
+
+        // Then
+        verify(timer).shutdownNow();
+        verify(timer, never()).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+}
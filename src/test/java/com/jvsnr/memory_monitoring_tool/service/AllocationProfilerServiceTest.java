@@ -0,0 +1,106 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.jvsnr.memory_monitoring_tool.dto.AllocationSiteDTO;
+
+class AllocationProfilerServiceTest {
+
+    private static Object sink;
+
+    @Test
+    void recordSample_ShouldKeepTheTopFramesUpToTheStackDepth() {
+        // Given
+        AllocationProfilerService service = new AllocationProfilerService("100/s", 2, 100);
+
+        // When
+        service.recordSample(List.of("Cache.put:12", "Service.handle:30", "Main.main:5"), "[B", 64L);
+
+        // Then
+        assertEquals("Service.handle:30;Cache.put:12;byte[] 64\n", service.getFlameGraph(0));
+        List<AllocationSiteDTO> top = service.getTopSites(5);
+        assertEquals(1, top.size());
+        assertEquals("Cache.put:12", top.get(0).getSite());
+        assertFalse(service.isRecording());
+    }
+
+    @Test
+    void reset_ShouldStartANewProfile() {
+        // Given
+        AllocationProfilerService service = new AllocationProfilerService("100/s", 64, 100);
+        service.recordSample(List.of("Cache.put:12"), "[B", 64L);
+
+        // When
+        service.reset();
+
+        // Then
+        assertEquals("", service.getFlameGraph(0));
+        Map<String, Object> stats = service.getStats();
+        assertEquals(0L, stats.get("samples"));
+        assertEquals(1, stats.get("nodes"));
+        assertEquals("100/s", stats.get("throttle"));
+    }
+
+    @Test
+    void getStats_ShouldCountTruncatedSamples() {
+        // Given
+        AllocationProfilerService service = new AllocationProfilerService("100/s", 64, 3);
+        service.recordSample(List.of("a"), "[B", 1L);
+
+        // When
+        service.recordSample(List.of("b"), "[B", 1L);
+
+        // Then
+        Map<String, Object> stats = service.getStats();
+        assertEquals(2L, stats.get("samples"));
+        assertEquals(1L, stats.get("truncatedSamples"));
+        assertEquals(3, stats.get("maxNodes"));
+    }
+
+    @Test
+    void start_ShouldSampleTheAllocationsOfThisJvm() throws Exception {
+        // Given
+        AllocationProfilerService service = new AllocationProfilerService("1000/s", 64, 100_000);
+        try {
+            service.start();
+            assertTrue(service.isRecording());
+
+            // When
+            long deadline = System.currentTimeMillis() + 15_000L;
+            while (!allocatesLongArrays(service) && System.currentTimeMillis() < deadline) {
+                allocateLongArrays();
+                Thread.sleep(100L);
+            }
+
+            // Then
+            assertTrue(allocatesLongArrays(service));
+            assertTrue(service.getFlameGraph(0).contains("AllocationProfilerServiceTest.allocateLongArrays"));
+            assertTrue((Integer) service.getStats().get("cachedStacks") > 0);
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static boolean allocatesLongArrays(AllocationProfilerService service) {
+        return service.getTopSites(AllocationProfilerService.MAX_LIMIT).stream()
+            .anyMatch(site -> "long[]".equals(site.getClassName()) && site.getSite() != null
+                && site.getSite().contains("allocateLongArrays"));
+    }
+
+    private static void allocateLongArrays() {
+        List<long[]> arrays = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            arrays.add(new long[128]);
+        }
+        sink = arrays;
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.jvsnr.memory_monitoring_tool.dto.BufferPoolDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BufferPoolMonitorServiceTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    @Mock
+    private MemoryLeakDetectorService memoryLeakDetectorService;
+
+    @Mock
+    private BufferPoolMXBean directPool;
+
+    @Mock
+    private BufferPoolMXBean mappedPool;
+
+    private BufferPoolMonitorService service;
+
+    @BeforeEach
+    void setUp() {
+        when(directPool.getName()).thenReturn("direct");
+        when(mappedPool.getName()).thenReturn("mapped");
+        service = new BufferPoolMonitorService(memoryLeakDetectorService, List.of(directPool, mappedPool), 1024 * MB,
+            30, 0.8, 85, 600);
+    }
+
+    private static MemorySampleDTO sampleAt(long timestamp) {
+        return new MemorySampleDTO(timestamp, 10L, 20L, 30L, 40L, 50L, -1L);
+    }
+
+    /**
+     * Sample the direct pool once a second with the given capacities.
+     */
+    private void sampleDirect(long... capacities) {
+        for (int i = 0; i < capacities.length; i++) {
+            when(directPool.getCount()).thenReturn((long) i + 1);
+            when(directPool.getMemoryUsed()).thenReturn(capacities[i]);
+            when(directPool.getTotalCapacity()).thenReturn(capacities[i]);
+            service.onMemorySample(sampleAt(1_700_000_000_000L + i * 1000L));
+        }
+    }
+
+    @Test
+    void constructor_ShouldRegisterAsSampleListener() {
+        verify(memoryLeakDetectorService).addMemorySampleListener(service);
+    }
+
+    @Test
+    void getBufferPools_ShouldReportUsageGrowthAndLimit() {
+        // Given
+        when(mappedPool.getCount()).thenReturn(2L);
+        when(mappedPool.getTotalCapacity()).thenReturn(64 * MB);
+        sampleDirect(100 * MB, 110 * MB, 120 * MB, 130 * MB, 140 * MB);
+
+        // When
+        List<BufferPoolDTO> pools = service.getBufferPools();
+
+        // Then
+        BufferPoolDTO direct = pools.get(0);
+        assertEquals("direct", direct.getName());
+        assertEquals(5L, direct.getCount());
+        assertEquals(140 * MB, direct.getTotalCapacity());
+        assertEquals(10.0 * MB, direct.getGrowthSlopeBytesPerSecond(), 1.0);
+        assertEquals(1.0, direct.getGrowthConfidence(), 0.001);
+        assertEquals(1024 * MB, direct.getLimit());
+        assertEquals(140.0 * 100 / 1024, direct.getUsagePercentage(), 0.001);
+        assertEquals(88L, direct.getSecondsToExhaustion()); // 884 MB left at 10 MB/s
+
+        BufferPoolDTO mapped = pools.get(1);
+        assertEquals("mapped", mapped.getName());
+        assertEquals(64 * MB, mapped.getTotalCapacity());
+        assertEquals(-1L, mapped.getLimit());
+        assertEquals(-1.0, mapped.getUsagePercentage());
+        assertEquals(-1L, mapped.getSecondsToExhaustion());
+    }
+
+    @Test
+    void onMemorySample_WhenGrowthReachesTheLimitWithinTheHorizon_ShouldDetectLeak() {
+        // When
+        sampleDirect(100 * MB, 110 * MB, 120 * MB, 130 * MB, 140 * MB);
+
+        // Then
+        assertTrue(service.isDirectMemoryLeakDetected());
+        Map<String, Object> status = service.getLeakDetectionStatus();
+        assertEquals(true, status.get("consistentGrowthDetected"));
+        assertEquals(true, status.get("exhaustionImminent"));
+        assertEquals(false, status.get("highUsageDetected"));
+        assertEquals(5L, status.get("directBufferCount"));
+    }
+
+    @Test
+    void onMemorySample_WhenGrowingSlowlyFarBelowTheLimit_ShouldNotDetectLeak() {
+        // When, 1 MB/s with 884 MB left is far beyond the 600 s horizon
+        sampleDirect(100 * MB, 101 * MB, 102 * MB, 103 * MB, 104 * MB);
+
+        // Then
+        assertFalse(service.isDirectMemoryLeakDetected());
+        Map<String, Object> status = service.getLeakDetectionStatus();
+        assertEquals(true, status.get("consistentGrowthDetected"));
+        assertEquals(false, status.get("exhaustionImminent"));
+    }
+
+    @Test
+    void onMemorySample_WhenGrowingAboveTheUsageThreshold_ShouldDetectLeak() {
+        // Given, a long horizon does not matter once usage is high
+        service = new BufferPoolMonitorService(memoryLeakDetectorService, List.of(directPool), 1024 * MB, 30, 0.8,
+            85, 0);
+
+        // When
+        sampleDirect(900 * MB, 901 * MB, 902 * MB, 903 * MB, 904 * MB);
+
+        // Then
+        assertTrue(service.isDirectMemoryLeakDetected());
+        assertEquals(true, service.getLeakDetectionStatus().get("highUsageDetected"));
+    }
+
+    @Test
+    void onMemorySample_WhenHighButStable_ShouldNotDetectLeak() {
+        // When
+        sampleDirect(950 * MB, 940 * MB, 950 * MB, 940 * MB, 950 * MB);
+
+        // Then
+        assertFalse(service.isDirectMemoryLeakDetected());
+        assertEquals(true, service.getLeakDetectionStatus().get("highUsageDetected"));
+    }
+
+    @Test
+    void onMemorySample_WithFewerSamplesThanTheMinimum_ShouldNotDetectGrowth() {
+        // When
+        sampleDirect(100 * MB, 200 * MB, 300 * MB);
+
+        // Then
+        assertFalse(service.isDirectMemoryLeakDetected());
+        assertEquals(false, service.getLeakDetectionStatus().get("consistentGrowthDetected"));
+    }
+
+    @Test
+    void onMemorySample_WithThisJvmsPools_ShouldSeeAllocatedDirectBuffers() {
+        // Given
+        BufferPoolMonitorService live = new BufferPoolMonitorService(memoryLeakDetectorService,
+            ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class), BufferPoolMonitorService.maxDirectMemory(),
+            30, 0.8, 85, 600);
+        live.onMemorySample(sampleAt(System.currentTimeMillis()));
+        long before = directCapacity(live);
+        List<ByteBuffer> buffers = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            buffers.add(ByteBuffer.allocateDirect(1024 * 1024));
+        }
+        live.onMemorySample(sampleAt(System.currentTimeMillis()));
+
+        // Then
+        assertTrue(directCapacity(live) - before >= 4 * MB);
+        assertTrue(live.getMaxDirectMemory() > 0);
+        assertEquals(4, buffers.size());
+    }
+
+    private static long directCapacity(BufferPoolMonitorService service) {
+        return service.getBufferPools().stream()
+            .filter(pool -> BufferPoolMonitorService.DIRECT_POOL.equals(pool.getName()))
+            .findFirst().orElseThrow().getTotalCapacity();
+    }
+
+}
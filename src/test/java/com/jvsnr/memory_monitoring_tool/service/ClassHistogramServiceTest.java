@@ -0,0 +1,233 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.jvsnr.memory_monitoring_tool.dto.ClassGrowthDTO;
+import com.jvsnr.memory_monitoring_tool.dto.ClassHistogramDTO;
+import com.jvsnr.memory_monitoring_tool.dto.ClassHistogramDiffDTO;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ClassHistogramServiceTest {
+
+    // Retained by a static field while the live histograms are taken
+    private static List<PlantedLeak> plantedLeak;
+
+    private static final class PlantedLeak {
+        private final long[] payload = new long[16];
+    }
+
+    @Mock
+    private MemoryLeakDetectorService memoryLeakDetectorService;
+
+    @Mock
+    private MBeanServer mBeanServer;
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+
+    private ClassHistogramService service(MBeanServer server, boolean live) throws Exception {
+        return new ClassHistogramService(memoryLeakDetectorService, server, 4, live, 10, clock::get, Runnable::run);
+    }
+
+    private void histograms(String... histograms) throws Exception {
+        Object first = histograms[0];
+        Object[] rest = new Object[histograms.length - 1];
+        System.arraycopy(histograms, 1, rest, 0, rest.length);
+        when(mBeanServer.invoke(any(ObjectName.class), eq(ClassHistogramService.OPERATION), any(), any()))
+            .thenReturn(first, rest);
+    }
+
+    private static String histogram(long cacheInstances, long cacheBytes) {
+        return " num     #instances         #bytes  class name (module)\n"
+            + "-------------------------------------------------------\n"
+            + String.format("   1: %13d %14d  com.example.Cache%n", cacheInstances, cacheBytes)
+            + String.format("   2: %13d %14d  [B (java.base@21.0.1)%n", 10L, 1000L)
+            + String.format("Total %13d %14d%n", cacheInstances + 10, cacheBytes + 1000);
+    }
+
+    @Test
+    void constructor_ShouldRegisterAsLeakStatusContributor() throws Exception {
+        // When
+        ClassHistogramService service = service(mBeanServer, true);
+
+        // Then
+        verify(memoryLeakDetectorService).addLeakStatusContributor(service);
+    }
+
+    @Test
+    void sample_ShouldCaptureOnItsExecutorAndSkipWhileOneIsRunning() throws Exception {
+        // Given
+        histograms(histogram(5L, 400L));
+        List<Runnable> tasks = new ArrayList<>();
+        ClassHistogramService service = new ClassHistogramService(memoryLeakDetectorService, mBeanServer, 4, true,
+            10, clock::get, tasks::add);
+
+        // When
+        service.sample();
+        service.sample();
+
+        // Then - nothing ran on the scheduler thread
+        assertEquals(1, tasks.size());
+        assertEquals(0, service.getSnapshots().size());
+
+        // When
+        tasks.get(0).run();
+        service.sample();
+
+        // Then
+        assertEquals(1, service.getSnapshots().size());
+        assertEquals(2, tasks.size());
+    }
+
+    @Test
+    void capture_ShouldInvokeTheDiagnosticCommand() throws Exception {
+        // Given
+        histograms(histogram(5L, 400L));
+        ClassHistogramService live = service(mBeanServer, true);
+        ClassHistogramService all = service(mBeanServer, false);
+
+        // When
+        ClassHistogramDTO snapshot = live.capture();
+        all.capture();
+
+        // Then
+        assertNotNull(snapshot);
+        assertEquals(clock.get(), snapshot.getTimestamp());
+        assertEquals(2, snapshot.getClasses());
+        assertEquals(15L, snapshot.getInstances());
+        assertEquals(1400L, snapshot.getBytes());
+        ArgumentCaptor<Object[]> arguments = ArgumentCaptor.forClass(Object[].class);
+        verify(mBeanServer, times(2)).invoke(eq(new ObjectName(ClassHistogramService.DIAGNOSTIC_COMMAND)),
+            eq(ClassHistogramService.OPERATION), arguments.capture(), eq(new String[] { String[].class.getName() }));
+        assertArrayEquals(new String[0], (String[]) arguments.getAllValues().get(0)[0]);
+        assertArrayEquals(new String[] { "-all" }, (String[]) arguments.getAllValues().get(1)[0]);
+    }
+
+    @Test
+    void capture_WhenTheCommandFails_ShouldCountTheFailure() throws Exception {
+        // Given
+        when(mBeanServer.invoke(any(ObjectName.class), any(), any(), any()))
+            .thenThrow(new InstanceNotFoundException("no DiagnosticCommand"))
+            .thenReturn("unexpected output");
+        ClassHistogramService service = service(mBeanServer, true);
+
+        // When
+        ClassHistogramDTO failed = service.capture();
+        ClassHistogramDTO unparsable = service.capture();
+
+        // Then
+        assertNull(failed);
+        assertNull(unparsable);
+        assertEquals(0L, service.getStats().get("captured"));
+        assertEquals(2L, service.getStats().get("failures"));
+        assertTrue(service.getSnapshots().isEmpty());
+    }
+
+    @Test
+    void getDiff_ShouldCompareTheLatestHistogramWithAnEarlierOne() throws Exception {
+        // Given
+        histograms(histogram(1L, 100L), histogram(2L, 200L), histogram(4L, 400L));
+        ClassHistogramService service = service(mBeanServer, true);
+        assertNull(service.getDiff(Integer.MAX_VALUE, 10, false));
+        for (int i = 0; i < 3; i++) {
+            service.capture();
+            clock.addAndGet(60_000L);
+        }
+
+        // When
+        ClassHistogramDiffDTO all = service.getDiff(Integer.MAX_VALUE, 10, false);
+        ClassHistogramDiffDTO last = service.getDiff(1, 10, true);
+
+        // Then
+        assertEquals(3, service.getSnapshots().size());
+        assertEquals(2, all.getIntervals());
+        assertEquals(1, all.getClasses().size());
+        assertEquals("com.example.Cache", all.getClasses().get(0).getClassName());
+        assertEquals(300L, all.getClasses().get(0).getByteGrowth());
+        assertEquals(2, all.getClasses().get(0).getGrowingIntervals());
+        assertEquals(1, last.getIntervals());
+        assertEquals(2L, last.getClasses().get(0).getInstanceGrowth());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void contributeLeakStatus_ShouldAddTheGrowingClasses() throws Exception {
+        // Given
+        histograms(histogram(1L, 100L), histogram(2L, 200L));
+        ClassHistogramService service = service(mBeanServer, true);
+        Map<String, Object> status = new HashMap<>();
+
+        // When - a single histogram has nothing to compare with
+        service.capture();
+        service.contributeLeakStatus(status);
+
+        // Then
+        assertFalse(status.containsKey(ClassHistogramService.STATUS_KEY));
+
+        // When
+        service.capture();
+        service.contributeLeakStatus(status);
+
+        // Then
+        List<ClassGrowthDTO> classes = (List<ClassGrowthDTO>) status.get(ClassHistogramService.STATUS_KEY);
+        assertEquals(1, classes.size());
+        assertEquals(100L, classes.get(0).getByteGrowth());
+    }
+
+    @Test
+    void capture_ShouldFindAGrowingClassInThisJvm() throws Exception {
+        // Given
+        ClassHistogramService service = service(ManagementFactory.getPlatformMBeanServer(), true);
+        plantedLeak = new ArrayList<>();
+
+        try {
+            // When
+            assertNotNull(service.capture());
+            for (int i = 0; i < 10_000; i++) {
+                plantedLeak.add(new PlantedLeak());
+            }
+            assertNotNull(service.capture());
+
+            // Then
+            ClassHistogramDiffDTO diff = service.getDiff(1, 1000, true);
+            ClassGrowthDTO leak = diff.getClasses().stream()
+                .filter(growth -> growth.getClassName().equals(PlantedLeak.class.getName()))
+                .findFirst()
+                .orElseThrow();
+            assertEquals(10_000L, leak.getInstanceGrowth());
+            assertEquals(1, leak.getGrowingIntervals());
+        } finally {
+            plantedLeak = null;
+        }
+    }
+
+}
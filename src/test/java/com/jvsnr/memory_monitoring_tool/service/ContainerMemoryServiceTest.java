@@ -0,0 +1,158 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.jvsnr.memory_monitoring_tool.dto.ContainerMemoryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.ContainerMemoryHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.store.ContainerMemoryReader;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ContainerMemoryServiceTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    @Mock
+    private MemoryLeakDetectorService memoryLeakDetectorService;
+
+    @Mock
+    private ContainerMemoryReader reader;
+
+    private ContainerMemoryService service;
+
+    @BeforeEach
+    void setUp() {
+        when(reader.isCgroupAvailable()).thenReturn(true);
+        when(reader.isCgroupV2()).thenReturn(true);
+        when(reader.getCgroupLimit()).thenReturn(1024 * MB);
+        when(reader.getPressureFull()).thenReturn(0.0);
+        service = new ContainerMemoryService(memoryLeakDetectorService, reader, 3, 90, 10.0);
+    }
+
+    private void sample(long timestamp, long heapUsed, long rss, long workingSet) {
+        when(reader.getRss()).thenReturn(rss);
+        when(reader.getCgroupWorkingSet()).thenReturn(workingSet);
+        service.onMemorySample(new MemorySampleDTO(timestamp, heapUsed, 256 * MB, 512 * MB, 30 * MB, 40 * MB, -1L));
+    }
+
+    @Test
+    void constructor_ShouldRegisterAsSampleListener() {
+        verify(memoryLeakDetectorService).addMemorySampleListener(service);
+    }
+
+    @Test
+    void getLatest_ShouldReturnNullBeforeFirstSample() {
+        assertNull(service.getLatest());
+    }
+
+    @Test
+    void onMemorySample_ShouldJoinHeapRssAndCgroup() {
+        // Given
+        sample(1000L, 100 * MB, 400 * MB, 500 * MB);
+
+        // When
+        ContainerMemoryDTO latest = service.getLatest();
+
+        // Then
+        verify(reader).read();
+        assertEquals(1000L, latest.getTimestamp());
+        assertEquals(100 * MB, latest.getHeapUsed());
+        assertEquals(400 * MB, latest.getRss());
+        assertEquals(400 * MB - 256 * MB - 40 * MB, latest.getRssOutsideJvmPools());
+        assertEquals(500 * MB, latest.getCgroupWorkingSet());
+        assertEquals(1024 * MB, latest.getCgroupLimit());
+        assertEquals(500 * 100.0 / 1024, latest.getLimitUsagePercentage(), 1e-9);
+        assertTrue(latest.isCgroupV2());
+        assertFalse(latest.isOomRiskDetected());
+    }
+
+    @Test
+    void onMemorySample_ShouldDetectOomRiskNearTheLimit() {
+        // Given
+        sample(1000L, 100 * MB, 900 * MB, 950 * MB);
+
+        // When
+        Map<String, Object> status = service.getOomRiskStatus();
+
+        // Then
+        assertEquals(true, status.get("oomRiskDetected"));
+        assertEquals(String.format("%.2f", 950 * 100.0 / 1024), status.get("limitUsagePercentage"));
+        assertTrue(service.getLatest().isOomRiskDetected());
+    }
+
+    @Test
+    void onMemorySample_ShouldDetectOomRiskUnderFullPressure() {
+        // Given
+        when(reader.getCgroupLimit()).thenReturn(ContainerMemoryReader.UNLIMITED);
+        when(reader.getPressureFull()).thenReturn(25.0);
+
+        // When
+        sample(1000L, 100 * MB, 400 * MB, 500 * MB);
+
+        // Then
+        assertTrue(service.getLatest().isOomRiskDetected());
+        assertEquals(-1L, service.getLatest().getCgroupLimit());
+        assertEquals(-1.0, service.getLatest().getLimitUsagePercentage(), 1e-9);
+        assertEquals("unlimited", service.getOomRiskStatus().get("cgroupLimit"));
+    }
+
+    @Test
+    void onMemorySample_ShouldClearOomRiskOnceUsageDrops() {
+        // Given
+        sample(1000L, 100 * MB, 900 * MB, 950 * MB);
+
+        // When
+        sample(2000L, 100 * MB, 400 * MB, 500 * MB);
+
+        // Then
+        assertFalse(service.getLatest().isOomRiskDetected());
+    }
+
+    @Test
+    void getHistory_ShouldReturnTheLatestSamplesOldestFirst() {
+        // Given
+        sample(1000L, 1 * MB, 10 * MB, 100 * MB);
+        sample(2000L, 2 * MB, 20 * MB, 200 * MB);
+        sample(3000L, 3 * MB, 30 * MB, 300 * MB);
+        sample(4000L, 4 * MB, 40 * MB, 400 * MB);
+
+        // When
+        ContainerMemoryHistoryDTO all = service.getHistory(10);
+        ContainerMemoryHistoryDTO last = service.getHistory(2);
+
+        // Then
+        assertArrayEquals(new long[] { 2000L, 3000L, 4000L }, all.getTimestamps());
+        assertArrayEquals(new long[] { 2 * MB, 3 * MB, 4 * MB }, all.getHeapUsed());
+        assertArrayEquals(new long[] { 20 * MB, 30 * MB, 40 * MB }, all.getRss());
+        assertArrayEquals(new long[] { 200 * MB, 300 * MB, 400 * MB }, all.getCgroupWorkingSet());
+        assertArrayEquals(new long[] { 1024 * MB, 1024 * MB, 1024 * MB }, all.getCgroupLimit());
+        assertArrayEquals(new long[] { 3000L, 4000L }, last.getTimestamps());
+    }
+
+    @Test
+    void shutdown_ShouldCloseTheReader() {
+        // When
+        service.shutdown();
+
+        // Then
+        verify(reader).close();
+    }
+
+}
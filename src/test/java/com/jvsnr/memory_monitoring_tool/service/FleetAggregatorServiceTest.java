@@ -0,0 +1,197 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.jvsnr.memory_monitoring_tool.dto.FleetBatchDTO;
+import com.jvsnr.memory_monitoring_tool.dto.FleetInstanceDTO;
+import com.jvsnr.memory_monitoring_tool.dto.GcEventDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemoryHistoryDTO;
+
+class FleetAggregatorServiceTest {
+
+    private static final long MAX_HEAP = 1000L;
+
+    private AtomicLong clock;
+    private FleetAggregatorService service;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(100_000L);
+        service = new FleetAggregatorService(16, 3.0, 5.0, 60_000L, clock::get);
+    }
+
+    /**
+     * One push of a stand-in agent: a few samples ending at the given heap usage and GC
+     * events adding up to the given GC time over a one second window.
+     */
+    private static FleetBatchDTO push(String instance, long heapUsed, long gcMillis, boolean leak) {
+        int samples = 4;
+        MemoryHistoryDTO memory = new MemoryHistoryDTO();
+        memory.setTimestamps(new long[samples]);
+        memory.setHeapMemoryUsed(new long[samples]);
+        memory.setHeapMemoryCommitted(new long[samples]);
+        memory.setHeapMemoryMax(new long[samples]);
+        memory.setNonHeapMemoryUsed(new long[samples]);
+        memory.setNonHeapMemoryCommitted(new long[samples]);
+        for (int i = 0; i < samples; i++) {
+            memory.getTimestamps()[i] = i * 250L;
+            memory.getHeapMemoryUsed()[i] = heapUsed - (samples - 1 - i);
+            memory.getHeapMemoryMax()[i] = MAX_HEAP;
+        }
+
+        List<GcEventDTO> gcEvents = new ArrayList<>();
+        for (long remaining = gcMillis; remaining > 0; remaining -= 10) {
+            GcEventDTO event = new GcEventDTO();
+            event.setCollectionName("G1 Young Generation");
+            event.setDuration(Math.min(10, remaining));
+            gcEvents.add(event);
+        }
+
+        FleetBatchDTO batch = new FleetBatchDTO();
+        batch.setInstance(instance);
+        batch.setFrom(0L);
+        batch.setTo(1000L);
+        batch.setMemory(memory);
+        batch.setGcEvents(gcEvents);
+        batch.setMemoryLeakDetected(leak);
+        batch.setGrowthSlopeBytesPerSecond(leak ? heapUsed : 0.0);
+        return batch;
+    }
+
+    @Test
+    void ingest_FromConcurrentAgents_ShouldAnswerFleetQueries() throws Exception {
+        // Given 400 stand-in agents pushing 5 batches each from 8 threads
+        int instances = 400;
+        ExecutorService agents = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> pushes = new ArrayList<>();
+            for (int round = 0; round < 5; round++) {
+                for (int i = 0; i < instances; i++) {
+                    String instance = "app-" + i;
+                    long heapUsed = 100L + i; // app-399 is the fullest
+                    long gcMillis = i % 100 == 7 ? 300L : 10L; // app-7, 107, 207, 307 collect a lot
+                    boolean leak = i == 42 || i == 43;
+                    pushes.add(agents.submit(() -> service.ingest(List.of(push(instance, heapUsed, gcMillis, leak)))));
+                }
+            }
+            for (Future<?> push : pushes) {
+                push.get();
+            }
+        } finally {
+            agents.shutdownNow();
+        }
+
+        // When
+        List<FleetInstanceDTO> top = service.getTopByHeapUtilisation(3);
+        List<FleetInstanceDTO> suspects = service.getLeakSuspects();
+        Map<String, Object> outliers = service.getGcOverheadOutliers();
+
+        // Then
+        assertEquals(List.of("app-399", "app-398", "app-397"), top.stream().map(FleetInstanceDTO::getInstance).toList());
+        assertEquals(49.9, top.get(0).getMemoryUtilisation(), 0.01);
+        assertEquals(List.of("app-43", "app-42"), suspects.stream().map(FleetInstanceDTO::getInstance).toList());
+        @SuppressWarnings("unchecked")
+        List<FleetInstanceDTO> gcOutliers = (List<FleetInstanceDTO>) outliers.get("outliers");
+        assertEquals(List.of("app-107", "app-207", "app-307", "app-7"),
+            gcOutliers.stream().map(FleetInstanceDTO::getInstance).sorted().toList());
+        assertEquals(30.0, gcOutliers.get(0).getGcOverhead(), 1e-9);
+
+        Map<String, Object> stats = service.getStats();
+        assertEquals(instances, stats.get("instances"));
+        assertEquals(2000L, stats.get("batches"));
+        assertEquals(8000L, stats.get("samples"));
+        assertEquals(5L, service.getInstance("app-7").getBatches());
+        assertEquals(150L, service.getInstance("app-7").getGcCount());
+    }
+
+    @Test
+    void getGcOverheadOutliers_WhenFleetUniform_ShouldApplyMinimumOverhead() {
+        // Given: 2% is far above the 1% of the others, but below the 5% minimum
+        for (int i = 0; i < 20; i++) {
+            service.ingest(List.of(push("app-" + i, 100L, 10L, false)));
+        }
+        service.ingest(List.of(push("app-busy", 100L, 20L, false)));
+
+        // When
+        Map<String, Object> outliers = service.getGcOverheadOutliers();
+
+        // Then
+        assertEquals(5.0, outliers.get("threshold"));
+        assertEquals(List.of(), outliers.get("outliers"));
+    }
+
+    @Test
+    void getTopByHeapUtilisation_ShouldCapLimit() {
+        // Given
+        service.ingest(List.of(push("app-1", 100L, 0L, false), push("app-2", 200L, 0L, false)));
+
+        // When/Then
+        assertEquals(2, service.getTopByHeapUtilisation(Integer.MAX_VALUE).size());
+        assertEquals(0, service.getTopByHeapUtilisation(-1).size());
+    }
+
+    @Test
+    void ingest_WithoutInstanceName_ShouldThrow() {
+        // Given
+        FleetBatchDTO anonymous = push(" ", 100L, 0L, false);
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> service.ingest(List.of(anonymous)));
+    }
+
+    @Test
+    void ingest_WithMalformedBatch_ShouldRejectItAndKeepTheFleetConsistent() {
+        // Given
+        for (int i = 0; i < 9; i++) {
+            service.ingest(List.of(push("app-" + i, 100L, 10L, false)));
+        }
+        service.ingest(List.of(push("app-busy", 900L, 400L, false)));
+        FleetBatchDTO malformed = push("app-busy", 950L, 400L, false);
+        malformed.getMemory().setHeapMemoryUsed(null);
+        FleetBatchDTO truncated = push("app-busy", 950L, 400L, false);
+        truncated.getMemory().setHeapMemoryMax(new long[1]);
+
+        // When
+        assertThrows(IllegalArgumentException.class, () -> service.ingest(List.of(malformed)));
+        assertThrows(IllegalArgumentException.class, () -> service.ingest(List.of(truncated)));
+        service.ingest(List.of(push("app-busy", 950L, 400L, false)));
+
+        // Then
+        assertEquals("app-busy", service.getTopByHeapUtilisation(1).get(0).getInstance());
+        assertEquals(950L, service.getInstance("app-busy").getHeapMemoryUsed());
+        Map<String, Object> outliers = service.getGcOverheadOutliers();
+        assertEquals((9 * 1.0 + 40.0) / 10, (double) outliers.get("meanGcOverhead"), 1e-9);
+        assertEquals(11.7, (double) outliers.get("stdDevGcOverhead"), 0.01);
+    }
+
+    @Test
+    void evictStaleInstances_ShouldForgetInstancesPastTtl() {
+        // Given
+        service.ingest(List.of(push("app-old", 100L, 0L, false)));
+        clock.addAndGet(50_000L);
+        service.ingest(List.of(push("app-new", 100L, 0L, false)));
+
+        // When
+        clock.addAndGet(20_000L);
+        service.evictStaleInstances();
+
+        // Then
+        assertNull(service.getInstance("app-old"));
+        assertEquals("app-new", service.getInstance("app-new").getInstance());
+        assertEquals(1L, service.getStats().get("evicted"));
+    }
+
+}
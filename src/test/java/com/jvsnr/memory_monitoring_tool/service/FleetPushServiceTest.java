@@ -0,0 +1,222 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jvsnr.memory_monitoring_tool.dto.FleetBatchDTO;
+import com.jvsnr.memory_monitoring_tool.dto.FleetInstanceDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.event.GcEvent;
+import com.sun.net.httpserver.HttpServer;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FleetPushServiceTest {
+
+    @Mock
+    private MemoryLeakDetectorService memoryLeakDetectorService;
+
+    @Mock
+    private GarbageCollectionMonitorService garbageCollectionMonitorService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger status = new AtomicInteger(202);
+    private FleetAggregatorService aggregator;
+    private HttpServer server;
+    private FleetPushService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Stand-in aggregator: the real service behind a bare HTTP server
+        aggregator = new FleetAggregatorService(4, 3.0, 5.0, 60_000L, System::currentTimeMillis);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(FleetPushService.INGEST_PATH, exchange -> {
+            List<FleetBatchDTO> batches = objectMapper.readValue(exchange.getRequestBody(),
+                new TypeReference<List<FleetBatchDTO>>() { });
+            if (status.get() == 202) {
+                aggregator.ingest(batches);
+            }
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+
+        when(garbageCollectionMonitorService.getCollectorName(0)).thenReturn("G1 Young Generation");
+        when(garbageCollectionMonitorService.getGCEventCodeName(1)).thenReturn("G1 Evacuation Pause");
+        when(garbageCollectionMonitorService.getGCEventCodeName(2)).thenReturn("end of minor GC");
+        when(memoryLeakDetectorService.isMemoryLeakDetected()).thenReturn(true);
+        when(memoryLeakDetectorService.getGrowthSlope()).thenReturn(512.0);
+
+        service = new FleetPushService(memoryLeakDetectorService, garbageCollectionMonitorService, objectMapper,
+            HttpClient.newHttpClient(), "http://127.0.0.1:" + server.getAddress().getPort() + "/", "orders-1", 2000L, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private static GcEvent gcEvent(long duration) {
+        GcEvent event = mock(GcEvent.class);
+        when(event.getCollector()).thenReturn(0);
+        when(event.getCause()).thenReturn(1);
+        when(event.getAction()).thenReturn(2);
+        when(event.getDuration()).thenReturn(duration);
+        return event;
+    }
+
+    @Test
+    void constructor_ShouldRegisterAsListener() {
+        verify(memoryLeakDetectorService).addMemorySampleListener(service);
+        verify(garbageCollectionMonitorService).addGcEventListener(service);
+    }
+
+    @Test
+    void push_ShouldSendSamplesAndEventsSincePreviousPush() {
+        // Given
+        service.onMemorySample(new MemorySampleDTO(1000L, 100L, 200L, 1000L, 10L, 20L, -1L));
+        service.onMemorySample(new MemorySampleDTO(2000L, 300L, 400L, 1000L, 11L, 20L, -1L));
+        service.onGcEvent(gcEvent(7L));
+        service.onGcEvent(gcEvent(5L));
+
+        // When
+        service.pushAsync().join();
+
+        // Then
+        assertEquals(1L, service.getPushCount());
+        FleetInstanceDTO instance = aggregator.getInstance("orders-1");
+        assertEquals(300L, instance.getHeapMemoryUsed());
+        assertEquals(30.0, instance.getMemoryUtilisation(), 0.01);
+        assertEquals(2L, instance.getSamples());
+        assertEquals(2L, instance.getGcCount());
+        assertEquals(12L, instance.getGcTime());
+        assertTrue(instance.isMemoryLeakDetected());
+        assertEquals(512.0, instance.getGrowthSlopeBytesPerSecond());
+
+        // When nothing happened since
+        service.pushAsync().join();
+
+        // Then
+        instance = aggregator.getInstance("orders-1");
+        assertEquals(2L, instance.getBatches());
+        assertEquals(2L, instance.getSamples());
+        assertEquals(300L, instance.getHeapMemoryUsed());
+    }
+
+    @Test
+    void cutBatch_WhenBehind_ShouldKeepNewestSamplesAndEvents() {
+        // Given more than max-batch-size samples and events
+        for (int i = 1; i <= 6; i++) {
+            service.onMemorySample(new MemorySampleDTO(i * 1000L, i, i, 100L, 0L, 0L, -1L));
+            service.onGcEvent(gcEvent(i));
+        }
+
+        // When
+        FleetBatchDTO batch = service.cutBatch(10_000L);
+
+        // Then
+        assertArrayEquals(new long[] { 3L, 4L, 5L, 6L }, batch.getMemory().getHeapMemoryUsed());
+        assertEquals(List.of(3L, 4L, 5L, 6L), batch.getGcEvents().stream().map(event -> event.getDuration()).toList());
+        assertEquals("G1 Evacuation Pause", batch.getGcEvents().get(0).getCause());
+        assertEquals(2L, service.getDroppedGcEventCount());
+        assertEquals(10_000L, batch.getTo());
+        assertEquals(10_000L, service.cutBatch(11_000L).getFrom());
+    }
+
+    @Test
+    void push_WhenRejected_ShouldCountFailure() {
+        // Given
+        status.set(503);
+        service.onMemorySample(new MemorySampleDTO(1000L, 100L, 200L, 1000L, 10L, 20L, -1L));
+
+        // When
+        service.pushAsync().join();
+
+        // Then
+        assertEquals(1L, service.getFailureCount());
+        assertEquals(0L, service.getPushCount());
+        assertEquals(null, aggregator.getInstance("orders-1"));
+    }
+
+    @Test
+    void push_WhileAggregatorHangs_ShouldReturnAndKeepTheSamplesForTheNextPush() throws Exception {
+        // Given - an aggregator that holds the first request
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger requests = new AtomicInteger();
+        server.removeContext(FleetPushService.INGEST_PATH);
+        server.createContext(FleetPushService.INGEST_PATH, exchange -> {
+            List<FleetBatchDTO> batches = objectMapper.readValue(exchange.getRequestBody(),
+                new TypeReference<List<FleetBatchDTO>>() { });
+            if (requests.incrementAndGet() == 1) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            aggregator.ingest(batches);
+            exchange.sendResponseHeaders(202, -1);
+            exchange.close();
+        });
+        service.onMemorySample(new MemorySampleDTO(1000L, 100L, 200L, 1000L, 10L, 20L, -1L));
+
+        // When
+        long start = System.nanoTime();
+        CompletableFuture<Void> first = service.pushAsync();
+        service.onMemorySample(new MemorySampleDTO(2000L, 300L, 400L, 1000L, 11L, 20L, -1L));
+        service.push();
+
+        // Then - neither push waited, the second one kept its sample
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertFalse(first.isDone());
+        assertEquals(1L, service.getSkippedPushCount());
+
+        // When
+        release.countDown();
+        first.join();
+        service.pushAsync().join();
+
+        // Then
+        assertEquals(2L, service.getPushCount());
+        assertEquals(2L, aggregator.getInstance("orders-1").getSamples());
+        assertEquals(300L, aggregator.getInstance("orders-1").getHeapMemoryUsed());
+    }
+
+    @Test
+    void push_WhenAggregatorDown_ShouldCountFailure() {
+        // Given
+        server.stop(0);
+
+        // When
+        service.pushAsync().join();
+
+        // Then
+        assertEquals(1L, service.getFailureCount());
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.jvsnr.memory_monitoring_tool.service;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -12,6 +13,7 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
@@ -38,6 +40,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.jvsnr.memory_monitoring_tool.constant.GarbageCollectionType;
 import com.jvsnr.memory_monitoring_tool.dto.GarbageCollectionMetricsDTO;
+import com.jvsnr.memory_monitoring_tool.dto.GcPauseHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.PauseHistogramDTO;
 import com.sun.management.GarbageCollectionNotificationInfo;
 import com.sun.management.GcInfo;
 
@@ -97,6 +101,22 @@ public class GarbageCollectionMonitorServiceTest {
         assertEquals("600ms", totalTime); // 100ms young + 500ms old
     }
 
+    @Test
+    void getCollectionCountAndTime_ShouldReadOneCollector() {
+        // Given
+        gcMonitorService = new GarbageCollectionMonitorService(garbageCollectorMXBeans);
+
+        when(oldGenGC.getCollectionCount()).thenReturn(2L);
+        when(oldGenGC.getCollectionTime()).thenReturn(500L);
+        when(youngGenGC.getCollectionTime()).thenReturn(-1L);
+
+        // When/Then
+        assertEquals(2, gcMonitorService.getCollectorCount());
+        assertEquals(2L, gcMonitorService.getCollectionCount(1));
+        assertEquals(500L, gcMonitorService.getCollectionTime(1));
+        assertEquals(0L, gcMonitorService.getCollectionTime(0)); // undefined
+    }
+
     @Test
     void determineGCType_ShouldIdentifyYoungGenGC() {
         // Given
@@ -366,4 +386,211 @@ public class GarbageCollectionMonitorServiceTest {
         assertEquals("N/A", dto.getLastGCStartTime());
     }
 
+    @Test
+    void recordGCEvent_ShouldBeAggregatedByConsumer() {
+        // Given
+        GarbageCollectorMXBean youngGenBean = mock(GarbageCollectorMXBean.class);
+        when(youngGenBean.getName()).thenReturn("G1 Young Generation");
+        when(youngGenBean.getCollectionCount()).thenReturn(3L);
+        when(youngGenBean.getCollectionTime()).thenReturn(30L);
+
+        GcInfo gcInfo = mock(GcInfo.class);
+        when(gcInfo.getId()).thenReturn(3L);
+        when(gcInfo.getStartTime()).thenReturn(100L);
+        when(gcInfo.getDuration()).thenReturn(12L);
+        when(gcInfo.getMemoryUsageBeforeGc()).thenReturn(new HashMap<>());
+        when(gcInfo.getMemoryUsageAfterGc()).thenReturn(new HashMap<>());
+
+        gcMonitorService = spy(new GarbageCollectionMonitorService(Arrays.asList(youngGenBean)));
+
+        // When - the listener records, the consumer drains
+        gcMonitorService.recordGCEvent(0, "G1 Evacuation Pause", "end of minor GC", gcInfo);
+        assertNull(gcMonitorService.getLastGCInfo(), "Metrics are only updated by the consumer");
+        gcMonitorService.drainGCEvents();
+
+        // Then
+        GarbageCollectionMetricsDTO metricsDTO = gcMonitorService.getLastGCInfo();
+        assertNotNull(metricsDTO);
+        assertEquals("G1 Young Generation", metricsDTO.getCollectionName());
+        assertEquals(3L, metricsDTO.getCollectionCount());
+        assertEquals("30ms", metricsDTO.getCollectionTime());
+        assertEquals("12ms", metricsDTO.getLastGCDuration());
+        assertEquals(GarbageCollectionType.YOUNG_GENERATION.name(), metricsDTO.getType());
+        verify(gcMonitorService).logGCEvent(any());
+
+        Map<String, Long> stats = gcMonitorService.getGCEventPipelineStats();
+        assertEquals(1L, stats.get("claimed"));
+        assertEquals(1L, stats.get("consumed"));
+        assertEquals(0L, stats.get("dropped"));
+    }
+
+    @Test
+    void shutdown_ShouldRemoveNotificationListeners() throws Exception {
+        // Given
+        GarbageCollectorMXBean youngGenBean = mock(GarbageCollectorMXBean.class, withSettings()
+            .extraInterfaces(NotificationEmitter.class));
+        NotificationEmitter emitter = (NotificationEmitter) youngGenBean;
+        ArgumentCaptor<NotificationListener> listenerCaptor = ArgumentCaptor.forClass(NotificationListener.class);
+        doNothing().when(emitter).addNotificationListener(listenerCaptor.capture(), isNull(), isNull());
+        gcMonitorService = new GarbageCollectionMonitorService(Arrays.asList(youngGenBean));
+
+        // When
+        gcMonitorService.shutdown();
+
+        // Then
+        verify(emitter).removeNotificationListener(listenerCaptor.getValue());
+    }
+
+    @Test
+    void getPauseHistograms_ShouldAggregatePausesPerCollector() {
+        // Given
+        GarbageCollectorMXBean youngGenBean = mock(GarbageCollectorMXBean.class);
+        when(youngGenBean.getName()).thenReturn("G1 Young Generation");
+        gcMonitorService = new GarbageCollectionMonitorService(Arrays.asList(youngGenBean));
+
+        for (long duration : new long[] {5L, 10L, 20L}) {
+            GcInfo gcInfo = mock(GcInfo.class);
+            when(gcInfo.getDuration()).thenReturn(duration);
+            when(gcInfo.getMemoryUsageBeforeGc()).thenReturn(new HashMap<>());
+            when(gcInfo.getMemoryUsageAfterGc()).thenReturn(new HashMap<>());
+            gcMonitorService.recordGCEvent(0, "G1 Evacuation Pause", "end of minor GC", gcInfo);
+        }
+        gcMonitorService.drainGCEvents();
+
+        // When
+        PauseHistogramDTO interval = gcMonitorService.getPauseHistograms(true).get("G1 Young Generation");
+        PauseHistogramDTO nextInterval = gcMonitorService.getPauseHistograms(true).get("G1 Young Generation");
+        PauseHistogramDTO cumulative = gcMonitorService.getPauseHistograms(false).get("G1 Young Generation");
+
+        // Then
+        assertEquals(3L, interval.getCount());
+        assertEquals(20.0, interval.getMaxMs(), 0.2);
+        assertEquals(5.0, interval.getMinMs(), 0.05);
+        assertEquals(0L, nextInterval.getCount(), "Taking an interval should reset it");
+        assertEquals(3L, cumulative.getCount());
+        assertEquals(20.0, cumulative.getP99Ms(), 0.2);
+    }
+
+    @Test
+    void addGcEventListener_ShouldReceiveDrainedEvents() {
+        // Given
+        GarbageCollectorMXBean youngGenBean = mock(GarbageCollectorMXBean.class);
+        when(youngGenBean.getName()).thenReturn("G1 Young Generation");
+        gcMonitorService = new GarbageCollectionMonitorService(Arrays.asList(youngGenBean));
+
+        GcInfo gcInfo = mock(GcInfo.class);
+        when(gcInfo.getId()).thenReturn(7L);
+        when(gcInfo.getDuration()).thenReturn(4L);
+        when(gcInfo.getMemoryUsageBeforeGc()).thenReturn(new HashMap<>());
+        when(gcInfo.getMemoryUsageAfterGc()).thenReturn(new HashMap<>());
+
+        List<String> received = new ArrayList<>();
+        gcMonitorService.addGcEventListener(event -> received.add(
+            gcMonitorService.getCollectorName(event.getCollector()) + "/"
+                + gcMonitorService.getGCEventCodeName(event.getCause()) + "/"
+                + event.getGcId()));
+
+        // When
+        gcMonitorService.recordGCEvent(0, "G1 Evacuation Pause", "end of minor GC", gcInfo);
+        gcMonitorService.drainGCEvents();
+
+        // Then
+        assertEquals(List.of("G1 Young Generation/G1 Evacuation Pause/7"), received);
+        assertNull(gcMonitorService.getCollectorName(1));
+    }
+
+    @Test
+    void publishGCEvent_ShouldBeAggregatedLikeNotifications() {
+        // Given
+        GarbageCollectorMXBean youngGenBean = mock(GarbageCollectorMXBean.class);
+        when(youngGenBean.getName()).thenReturn("G1 Young Generation");
+        gcMonitorService = new GarbageCollectionMonitorService(Arrays.asList(youngGenBean));
+        int pools = gcMonitorService.getMemoryPoolNames().length;
+        long[] before = new long[pools];
+        long[] after = new long[pools];
+        Arrays.fill(before, -1L);
+        Arrays.fill(after, -1L);
+        before[0] = 2048L;
+        after[0] = 1024L;
+
+        List<String> received = new ArrayList<>();
+        gcMonitorService.addGcEventListener(event -> received.add(
+            gcMonitorService.getGCEventCodeName(event.getAction()) + "/" + event.getGcId() + "/"
+                + event.getPoolUsedBefore(0) + "/" + event.getPoolUsedAfter(0)));
+
+        // When
+        boolean published = gcMonitorService.publishGCEvent(0, "G1 Evacuation Pause", "end of minor GC", 42L,
+            1_700_000_000_000L, 12L, before, after);
+        gcMonitorService.drainGCEvents();
+
+        // Then
+        assertTrue(published);
+        assertEquals(List.of("end of minor GC/42/2048/1024"), received);
+        assertEquals(1L, gcMonitorService.getPauseHistograms(false).get("G1 Young Generation").getCount());
+        assertEquals("12ms", gcMonitorService.getLastGCInfo().getLastGCDuration());
+    }
+
+    @Test
+    void getPauseHistory_ShouldReturnLatestPausesOldestFirst() {
+        // Given
+        GarbageCollectorMXBean youngGenBean = mock(GarbageCollectorMXBean.class);
+        when(youngGenBean.getName()).thenReturn("G1 Young Generation");
+        GarbageCollectorMXBean oldGenBean = mock(GarbageCollectorMXBean.class);
+        when(oldGenBean.getName()).thenReturn("G1 Old Generation");
+        gcMonitorService = new GarbageCollectionMonitorService(Arrays.asList(youngGenBean, oldGenBean));
+        long[] usage = new long[gcMonitorService.getMemoryPoolNames().length];
+
+        gcMonitorService.publishGCEvent(0, "G1 Evacuation Pause", "end of minor GC", 1L, 1_700_000_000_000L, 5L,
+            usage, usage);
+        gcMonitorService.publishGCEvent(1, "System.gc()", "end of major GC", 2L, 1_700_000_001_000L, 120L,
+            usage, usage);
+        gcMonitorService.publishGCEvent(0, "G1 Evacuation Pause", "end of minor GC", 3L, 1_700_000_002_500L, 7L,
+            usage, usage);
+        gcMonitorService.drainGCEvents();
+
+        // When
+        GcPauseHistoryDTO latest = gcMonitorService.getPauseHistory(2);
+        GcPauseHistoryDTO all = gcMonitorService.getPauseHistory(10);
+
+        // Then
+        assertArrayEquals(new long[] {1_700_000_001_000L, 1_700_000_002_500L}, latest.getTimestamps());
+        assertArrayEquals(new long[] {120L, 7L}, latest.getDurations());
+        assertArrayEquals(new String[] {"G1 Old Generation", "G1 Young Generation"}, latest.getCollectionNames());
+        assertArrayEquals(new String[] {"System.gc()", "G1 Evacuation Pause"}, latest.getCauses());
+        assertEquals(3, all.getTimestamps().length);
+        assertEquals(5L, all.getDurations()[0]);
+        assertEquals(0, gcMonitorService.getPauseHistory(-1).getTimestamps().length);
+    }
+
+    @Test
+    void getCollectorIndex_ShouldFindTheBeanByName() {
+        // Given
+        when(youngGenGC.getName()).thenReturn("G1 Young Generation");
+        when(oldGenGC.getName()).thenReturn("G1 Old Generation");
+        gcMonitorService = new GarbageCollectionMonitorService(garbageCollectorMXBeans);
+
+        // When/Then
+        assertEquals(0, gcMonitorService.getCollectorIndex("G1 Young Generation"));
+        assertEquals(1, gcMonitorService.getCollectorIndex("G1 Old Generation"));
+        assertEquals(-1, gcMonitorService.getCollectorIndex("PS Scavenge"));
+    }
+
+    @Test
+    void detachNotificationListeners_ShouldRemoveListenersOnce() throws Exception {
+        // Given
+        GarbageCollectorMXBean youngGenBean = mock(GarbageCollectorMXBean.class, withSettings()
+            .extraInterfaces(NotificationEmitter.class));
+        NotificationEmitter emitter = (NotificationEmitter) youngGenBean;
+        ArgumentCaptor<NotificationListener> listenerCaptor = ArgumentCaptor.forClass(NotificationListener.class);
+        doNothing().when(emitter).addNotificationListener(listenerCaptor.capture(), isNull(), isNull());
+        gcMonitorService = new GarbageCollectionMonitorService(Arrays.asList(youngGenBean));
+
+        // When
+        gcMonitorService.detachNotificationListeners();
+        gcMonitorService.shutdown();
+
+        // Then
+        verify(emitter, times(1)).removeNotificationListener(listenerCaptor.getValue());
+    }
+
 }
@@ -0,0 +1,276 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.jvsnr.memory_monitoring_tool.dto.HeapDumpAnalysisDTO;
+import com.jvsnr.memory_monitoring_tool.dto.HeapDumpDTO;
+import com.jvsnr.memory_monitoring_tool.dto.LeakSuspectDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.store.HprofTestFiles;
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HeapDumpServiceTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    // Retained by a static field while the live dump is taken
+    private static List<byte[]> plantedLeak;
+
+    @TempDir
+    Path temporaryDirectory;
+
+    private Path directory;
+
+    @Mock
+    private MemoryLeakDetectorService memoryLeakDetectorService;
+
+    @Mock
+    private MemoryMonitorService memoryMonitorService;
+
+    @Mock
+    private HotSpotDiagnosticMXBean diagnosticMXBean;
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = temporaryDirectory.resolve("dumps");
+        heapUsed(1000L);
+        // A holder class whose static array retains sixteen 256 byte arrays
+        doAnswer(invocation -> {
+            long[] elements = new long[16];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = 0x2000L + i;
+            }
+            HprofTestFiles.Builder dump = HprofTestFiles.builder(8)
+                .loadClass(0x100L, "com/example/Cache")
+                .loadClass(0x200L, "[Ljava/lang/Object;")
+                .classDump(0x100L, 0, 0, new long[] { 0x1000L })
+                .classDump(0x200L, 0, 0, new long[0])
+                .objectArray(0x1000L, 0x200L, elements);
+            for (long element : elements) {
+                dump.primitiveArray(element, HprofTestFiles.BYTE, 256);
+            }
+            dump.write(Path.of(invocation.<String>getArgument(0)));
+            return null;
+        }).when(diagnosticMXBean).dumpHeap(anyString(), anyBoolean());
+    }
+
+    private void heapUsed(long used) {
+        when(memoryMonitorService.sample()).thenReturn(new MemorySampleDTO(0L, used, used, used * 2, 0L, 0L, -1L));
+    }
+
+    private HeapDumpService service(int maxDumps, long maxTotalBytes, boolean analyse) throws IOException {
+        return new HeapDumpService(memoryLeakDetectorService, memoryMonitorService, diagnosticMXBean,
+            directory, HOUR, maxDumps, maxTotalBytes, true, analyse, 10, Runnable::run, clock::get);
+    }
+
+    private List<String> files() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    @Test
+    void onMemorySample_ShouldCaptureAndAnalyseOnceWhenALeakIsDetected() throws Exception {
+        // Given
+        HeapDumpService service = service(3, Long.MAX_VALUE, true);
+        verify(memoryLeakDetectorService).addMemorySampleListener(service);
+        when(memoryLeakDetectorService.isMemoryLeakDetected()).thenReturn(true);
+
+        // When - the detector keeps reporting the leak on every sample
+        service.onMemorySample(null);
+        clock.addAndGet(1000L);
+        service.onMemorySample(null);
+
+        // Then
+        verify(diagnosticMXBean, times(1)).dumpHeap(anyString(), anyBoolean());
+        List<HeapDumpDTO> dumps = service.getDumps();
+        assertEquals(1, dumps.size());
+        assertEquals(HeapDumpService.REASON_MEMORY_LEAK, dumps.get(0).getReason());
+        assertTrue(dumps.get(0).isAnalysed());
+        assertTrue(dumps.get(0).getSize() > 0);
+
+        HeapDumpAnalysisDTO analysis = service.getAnalysis(dumps.get(0).getName());
+        assertEquals(19, analysis.getObjects());
+        assertEquals(1, analysis.getLeakSuspects().size());
+        assertEquals("java.lang.Object[]", analysis.getLeakSuspects().get(0).getClassName());
+        assertEquals(List.of("class com.example.Cache", "java.lang.Object[]"),
+            analysis.getLeakSuspects().get(0).getDominatorPath());
+        assertTrue(analysis.getClasses().stream()
+            .anyMatch(c -> c.getClassName().equals("byte[]") && c.getInstances() == 16));
+    }
+
+    @Test
+    void onMemorySample_ShouldNotCaptureWithoutALeak() throws Exception {
+        // Given
+        HeapDumpService service = service(3, Long.MAX_VALUE, true);
+        when(memoryLeakDetectorService.isMemoryLeakDetected()).thenReturn(false);
+
+        // When
+        service.onMemorySample(null);
+
+        // Then
+        verify(diagnosticMXBean, never()).dumpHeap(anyString(), anyBoolean());
+        assertTrue(files().isEmpty());
+    }
+
+    @Test
+    void capture_ShouldBeRateLimited() throws Exception {
+        // Given
+        HeapDumpService service = service(3, Long.MAX_VALUE, false);
+        assertNotNull(service.capture("manual"));
+
+        // When
+        clock.addAndGet(HOUR - 1);
+        HeapDumpDTO tooEarly = service.capture("manual");
+        clock.addAndGet(1);
+        HeapDumpDTO due = service.capture("manual");
+
+        // Then
+        assertNull(tooEarly);
+        assertNotNull(due);
+        assertEquals(2, files().size());
+        assertEquals(1L, service.getStats().get("rateLimited"));
+        assertEquals(2L, service.getStats().get("captured"));
+        assertFalse(service.getDumps().get(0).isAnalysed());
+    }
+
+    @Test
+    void capture_ShouldDeleteTheOldestDumpsBeyondMaxDumps() throws Exception {
+        // Given
+        HeapDumpService service = service(2, Long.MAX_VALUE, false);
+        List<String> names = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            names.add(service.capture("manual").getName());
+            clock.addAndGet(HOUR);
+        }
+
+        // Then
+        assertEquals(List.of(names.get(1), names.get(2)), files());
+        assertEquals(1L, service.getStats().get("deleted"));
+    }
+
+    @Test
+    void capture_ShouldDeleteOldDumpsToFitTheTotalBytes() throws Exception {
+        // Given - the dumps are about 5 KB
+        HeapDumpService service = service(10, 12_000L, false);
+        assertNotNull(service.capture("manual"));
+        heapUsed(8000L);
+        clock.addAndGet(HOUR);
+
+        // When
+        String second = service.capture("manual").getName();
+
+        // Then
+        assertEquals(List.of(second), files());
+    }
+
+    @Test
+    void capture_ShouldSkipADumpThatCanNeverFit() throws Exception {
+        // Given
+        HeapDumpService service = service(10, 1_000_000L, false);
+        String existing = service.capture("manual").getName();
+        clock.addAndGet(HOUR);
+        heapUsed(2_000_000L);
+
+        // When
+        HeapDumpDTO skipped = service.capture("manual");
+
+        // Then - nothing was deleted for it
+        assertNull(skipped);
+        assertEquals(List.of(existing), files());
+        assertEquals(1L, service.getStats().get("quotaExceeded"));
+    }
+
+    @Test
+    void capture_WhenDumpFails_ShouldCountTheFailure() throws Exception {
+        // Given
+        HeapDumpService service = service(3, Long.MAX_VALUE, true);
+        doAnswer(invocation -> {
+            throw new IOException("No space left on device");
+        }).when(diagnosticMXBean).dumpHeap(anyString(), anyBoolean());
+
+        // When
+        HeapDumpDTO dump = service.capture("manual");
+
+        // Then
+        assertNull(dump);
+        assertEquals(1L, service.getStats().get("failures"));
+    }
+
+    @Test
+    void getAnalysis_ShouldOnlyServeDumpsOfTheDirectory() throws Exception {
+        // Given
+        HeapDumpService service = service(3, Long.MAX_VALUE, false);
+        Files.writeString(temporaryDirectory.resolve("heap-outside.hprof"), "JAVA PROFILE 1.0.2");
+
+        // When/Then
+        assertNull(service.getAnalysis("heap-missing.hprof"));
+        assertNull(service.getAnalysis("../heap-outside.hprof"));
+        assertNull(service.getAnalysis("notes.txt"));
+    }
+
+    @Test
+    void capture_ShouldFindAPlantedLeakInALiveDumpOfThisJvm() throws Exception {
+        // Given - 32 MB held by a static list, in chunks too small to be suspects themselves
+        plantedLeak = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            plantedLeak.add(new byte[512 * 1024]);
+        }
+        HeapDumpService service = new HeapDumpService(memoryLeakDetectorService, memoryMonitorService,
+            ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class), directory, HOUR, 1, Long.MAX_VALUE,
+            true, true, 5, Runnable::run, System::currentTimeMillis);
+
+        try {
+            // When
+            HeapDumpDTO dump = service.capture("test");
+            HeapDumpAnalysisDTO analysis = service.getAnalysis(dump.getName());
+
+            // Then
+            assertTrue(analysis.getObjects() > 10_000);
+            LeakSuspectDTO suspect = analysis.getLeakSuspects().stream()
+                .filter(s -> s.getDominatorPath().get(0).equals("class " + HeapDumpServiceTest.class.getName()))
+                .findFirst()
+                .orElseThrow();
+            assertEquals("java.lang.Object[]", suspect.getClassName());
+            assertTrue(suspect.getRetainedSize() >= 32L * 1024 * 1024);
+            assertTrue(suspect.getDominatedObjects() >= 65);
+        } finally {
+            plantedLeak = null;
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.jvsnr.memory_monitoring_tool.dto.GcEventDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.store.MappedSegmentStore;
+import com.sun.management.GcInfo;
+
+@ExtendWith(MockitoExtension.class)
+class HistoryPersistenceServiceTest {
+
+    @Mock
+    private MemoryLeakDetectorService memoryLeakDetectorService;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void constructor_ShouldRegisterAsListener() throws IOException {
+        // Given
+        GarbageCollectionMonitorService gcMonitorService = mock(GarbageCollectionMonitorService.class);
+
+        // When
+        HistoryPersistenceService service = new HistoryPersistenceService(memoryLeakDetectorService, gcMonitorService,
+            directory.toString(), 8192, 4, 0);
+
+        // Then
+        verify(memoryLeakDetectorService).addMemorySampleListener(service);
+        verify(gcMonitorService).addGcEventListener(service);
+        service.close();
+    }
+
+    @Test
+    void onMemorySample_ShouldPersistSample() throws IOException {
+        // Given
+        HistoryPersistenceService service = new HistoryPersistenceService(memoryLeakDetectorService,
+            mock(GarbageCollectionMonitorService.class), directory.toString(), 8192, 4, 0);
+
+        // When
+        service.onMemorySample(new MemorySampleDTO(1000L, 10L, 20L, 30L, 40L, 50L, -1L));
+        service.onMemorySample(new MemorySampleDTO(2000L, 11L, 21L, 31L, 41L, 51L, -1L));
+
+        // Then
+        assertArrayEquals(new long[] {11L}, service.getMemoryHistory(1500L, 2500L, 10).getHeapMemoryUsed());
+        assertEquals(1, service.getSegments().size());
+        service.close();
+    }
+
+    @Test
+    void onMemorySample_WithChunks_ShouldPersistPendingSamplesOnClose() throws IOException {
+        // Given
+        HistoryPersistenceService service = new HistoryPersistenceService(memoryLeakDetectorService,
+            mock(GarbageCollectionMonitorService.class), directory.toString(), 8192, 4, 16);
+        service.onMemorySample(new MemorySampleDTO(1000L, 10L, 20L, 30L, 40L, 50L, -1L));
+        service.onMemorySample(new MemorySampleDTO(2000L, 11L, 21L, 31L, 41L, 51L, -1L));
+        assertArrayEquals(new long[] {10L, 11L}, service.getMemoryHistory(0L, 5000L, 10).getHeapMemoryUsed());
+
+        // When
+        service.close();
+
+        // Then
+        MappedSegmentStore reopened = new MappedSegmentStore(directory, 8192, 4);
+        assertEquals(1, reopened.getSegments().get(0).getRecordCount());
+        assertArrayEquals(new long[] {1000L, 2000L}, reopened.readMemorySamples(0L, 5000L, 10).getTimestamps());
+        reopened.close();
+    }
+
+    @Test
+    void onGcEvent_ShouldPersistEventWithNames() throws IOException {
+        // Given - a real GC service so the event runs through the pipeline
+        GarbageCollectorMXBean youngGenBean = mock(GarbageCollectorMXBean.class);
+        when(youngGenBean.getName()).thenReturn("G1 Young Generation");
+        GarbageCollectionMonitorService gcMonitorService = new GarbageCollectionMonitorService(List.of(youngGenBean));
+        HistoryPersistenceService service = new HistoryPersistenceService(memoryLeakDetectorService, gcMonitorService,
+            new MappedSegmentStore(directory, 8192, 4));
+
+        GcInfo gcInfo = mock(GcInfo.class);
+        when(gcInfo.getId()).thenReturn(5L);
+        when(gcInfo.getDuration()).thenReturn(9L);
+        when(gcInfo.getMemoryUsageBeforeGc()).thenReturn(new HashMap<>());
+        when(gcInfo.getMemoryUsageAfterGc()).thenReturn(new HashMap<>());
+
+        // When
+        gcMonitorService.recordGCEvent(0, "G1 Evacuation Pause", "end of minor GC", gcInfo);
+        gcMonitorService.drainGCEvents();
+
+        // Then
+        List<GcEventDTO> events = service.getGcEvents(0L, Long.MAX_VALUE, 10);
+        assertEquals(1, events.size());
+        assertEquals("G1 Young Generation", events.get(0).getCollectionName());
+        assertEquals("G1 Evacuation Pause", events.get(0).getCause());
+        assertEquals(9L, events.get(0).getDuration());
+        service.close();
+        gcMonitorService.shutdown();
+    }
+
+}
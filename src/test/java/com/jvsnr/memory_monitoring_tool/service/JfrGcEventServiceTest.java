@@ -0,0 +1,256 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.jvsnr.memory_monitoring_tool.dto.PauseHistogramDTO;
+
+import jdk.jfr.consumer.RecordedEvent;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class JfrGcEventServiceTest {
+
+    @Mock
+    private GarbageCollectionMonitorService garbageCollectionMonitorService;
+
+    private final List<long[]> publishedBefore = new ArrayList<>();
+    private final List<long[]> publishedAfter = new ArrayList<>();
+
+    private JfrGcEventService jfrGcEventService;
+
+    @BeforeEach
+    void setUp() {
+        when(garbageCollectionMonitorService.getCollectorCount()).thenReturn(2);
+        when(garbageCollectionMonitorService.getCollectorIndex(anyString())).thenReturn(-1);
+        when(garbageCollectionMonitorService.getCollectorIndex("G1 Young Generation")).thenReturn(0);
+        when(garbageCollectionMonitorService.getCollectorIndex("G1 Old Generation")).thenReturn(1);
+        when(garbageCollectionMonitorService.determineGCType("G1 Young Generation")).thenReturn("YOUNG_GENERATION");
+        when(garbageCollectionMonitorService.determineGCType("G1 Old Generation")).thenReturn("OLD_GENERATION");
+        when(garbageCollectionMonitorService.getMemoryPoolNames())
+            .thenReturn(new String[] { "G1 Eden Space", "G1 Old Gen", "G1 Survivor Space" });
+        when(garbageCollectionMonitorService.publishGCEvent(anyInt(), any(), any(), anyLong(), anyLong(), anyLong(),
+                any(), any())).thenAnswer(invocation -> {
+                    publishedBefore.add(((long[]) invocation.getArgument(6)).clone());
+                    publishedAfter.add(((long[]) invocation.getArgument(7)).clone());
+                    return true;
+                });
+        jfrGcEventService = new JfrGcEventService(garbageCollectionMonitorService);
+    }
+
+    @Test
+    void flush_ShouldPublishSummarisedGCWithGenerationUsages() {
+        // Given
+        jfrGcEventService.onHeapSummary(7, false);
+        jfrGcEventService.onGenerationSummary(7, false, 300L, 20L, 1000L);
+        jfrGcEventService.onHeapSummary(7, true);
+        jfrGcEventService.onGenerationSummary(7, true, 0L, 30L, 1100L);
+        jfrGcEventService.onGarbageCollection(7, "G1New", "G1 Evacuation Pause", 1_700_000_000_000L, 4_500_000L);
+
+        // When
+        jfrGcEventService.flush();
+
+        // Then
+        verify(garbageCollectionMonitorService).publishGCEvent(eq(0), eq("G1 Evacuation Pause"),
+            eq("end of minor GC"), eq(7L), eq(1_700_000_000_000L), eq(4L), any(), any());
+        assertArrayEquals(new long[] { 300L, 1000L, 20L }, publishedBefore.get(0));
+        assertArrayEquals(new long[] { 0L, 1100L, 30L }, publishedAfter.get(0));
+        assertEquals(1L, jfrGcEventService.getStats().get("published"));
+    }
+
+    @Test
+    void flush_WithoutSummary_ShouldPublishOneFlushLaterWithUnknownUsages() {
+        // Given
+        jfrGcEventService.onGarbageCollection(3, "G1Full", "System.gc()", 1_700_000_000_000L, 80_000_000L);
+
+        // When
+        jfrGcEventService.flush();
+
+        // Then
+        verify(garbageCollectionMonitorService, never()).publishGCEvent(anyInt(), any(), any(), anyLong(),
+            anyLong(), anyLong(), any(), any());
+
+        // When
+        jfrGcEventService.flush();
+
+        // Then
+        verify(garbageCollectionMonitorService).publishGCEvent(eq(1), eq("System.gc()"), eq("end of major GC"),
+            eq(3L), anyLong(), eq(80L), any(), any());
+        assertArrayEquals(new long[] { -1L, -1L, -1L }, publishedBefore.get(0));
+        jfrGcEventService.flush();
+        verify(garbageCollectionMonitorService, times(1)).publishGCEvent(anyInt(), any(), any(), anyLong(),
+            anyLong(), anyLong(), any(), any());
+    }
+
+    @Test
+    void onGarbageCollection_WithConcurrentCycle_ShouldPublishTheSumOfPausesNotTheSpan() {
+        // Given - a G1 concurrent cycle of 2 s with 6 ms of remark and cleanup pauses
+        when(garbageCollectionMonitorService.getCollectorIndex("G1 Concurrent GC")).thenReturn(1);
+        JfrGcEventService service = new JfrGcEventService(garbageCollectionMonitorService);
+        RecordedEvent event = mock(RecordedEvent.class);
+        when(event.getInt("gcId")).thenReturn(9);
+        when(event.getString("name")).thenReturn("G1Old");
+        when(event.getString("cause")).thenReturn("G1 Periodic Collection");
+        when(event.getStartTime()).thenReturn(Instant.ofEpochMilli(1_700_000_000_000L));
+        when(event.getDuration()).thenReturn(Duration.ofSeconds(2));
+        when(event.getDuration("sumOfPauses")).thenReturn(Duration.ofMillis(6));
+
+        // When
+        service.onGarbageCollection(event);
+        service.flush();
+        service.flush();
+
+        // Then
+        verify(garbageCollectionMonitorService).publishGCEvent(eq(1), eq("G1 Periodic Collection"), any(),
+            eq(9L), eq(1_700_000_000_000L), eq(6L), any(), any());
+    }
+
+    @Test
+    void onGarbageCollection_WhenSlotIsReused_ShouldPublishThePendingGC() {
+        // Given
+        jfrGcEventService.onGarbageCollection(1, "G1New", "G1 Evacuation Pause", 1L, 1_000_000L);
+
+        // When
+        jfrGcEventService.onGarbageCollection(17, "G1New", "G1 Evacuation Pause", 2L, 1_000_000L);
+
+        // Then
+        verify(garbageCollectionMonitorService).publishGCEvent(eq(0), any(), any(), eq(1L), eq(1L), eq(1L), any(),
+            any());
+    }
+
+    @Test
+    void onGarbageCollection_WithUnknownCollector_ShouldCountIt() {
+        // When
+        jfrGcEventService.onGarbageCollection(1, "ZGC Major", "Allocation Rate", 1L, 1L);
+        jfrGcEventService.flush();
+        jfrGcEventService.flush();
+
+        // Then
+        assertEquals(1L, jfrGcEventService.getStats().get("unknownCollectors"));
+        verify(garbageCollectionMonitorService, never()).publishGCEvent(anyInt(), any(), any(), anyLong(),
+            anyLong(), anyLong(), any(), any());
+    }
+
+    @Test
+    void getStats_WhenPublishIsDropped_ShouldCountIt() {
+        // Given
+        doReturn(false).when(garbageCollectionMonitorService).publishGCEvent(anyInt(), any(), any(), anyLong(),
+            anyLong(), anyLong(), any(), any());
+        jfrGcEventService.onGarbageCollection(1, "G1New", "G1 Evacuation Pause", 1L, 1L);
+        jfrGcEventService.onHeapSummary(1, true);
+
+        // When
+        jfrGcEventService.flush();
+
+        // Then
+        Map<String, Object> stats = jfrGcEventService.getStats();
+        assertEquals(0L, stats.get("published"));
+        assertEquals(1L, stats.get("dropped"));
+        assertFalse((Boolean) stats.get("recording"));
+    }
+
+    @Test
+    void getPhasePauses_ShouldKeepNanosecondPausesByPhase() {
+        // Given
+        jfrGcEventService.onPhasePause("GC Pause", 1_500_000L);
+        jfrGcEventService.onPhasePause("GC Pause", 2_500_000L);
+        jfrGcEventService.onPhasePause("Pause Remark", 250_000L);
+
+        // When
+        Map<String, PauseHistogramDTO> pauses = jfrGcEventService.getPhasePauses(false);
+
+        // Then
+        assertEquals(List.of("GC Pause", "Pause Remark"), new ArrayList<>(pauses.keySet()));
+        assertEquals(2L, pauses.get("GC Pause").getCount());
+        assertEquals(0.25, pauses.get("Pause Remark").getMaxMs(), 0.001);
+        assertEquals(2L, jfrGcEventService.getPhasePauses(true).get("GC Pause").getCount());
+        assertEquals(0L, jfrGcEventService.getPhasePauses(true).get("GC Pause").getCount());
+    }
+
+    @Test
+    void onPhasePause_BeyondMaxPhases_ShouldUseOtherBucket() {
+        // Given
+        for (int phase = 0; phase < JfrGcEventService.MAX_PHASES + 5; phase++) {
+            jfrGcEventService.onPhasePause("Phase " + phase, 1_000L);
+        }
+
+        // When
+        Map<String, PauseHistogramDTO> pauses = jfrGcEventService.getPhasePauses(false);
+
+        // Then
+        assertEquals(JfrGcEventService.MAX_PHASES + 1, pauses.size());
+        assertTrue(pauses.get(JfrGcEventService.OTHER_PHASES).getCount() >= 5);
+    }
+
+    @Test
+    void getSafepoints_ShouldPairBeginAndEndInEitherOrder() {
+        // Given
+        jfrGcEventService.onSafepointBegin(10L, 1_000_000_000L, 50_000L);
+        jfrGcEventService.onSafepointEnd(10L, 1_002_000_000L);
+        jfrGcEventService.onSafepointEnd(11L, 2_004_000_000L);
+        jfrGcEventService.onSafepointBegin(11L, 2_000_000_000L, 100_000L);
+
+        // When
+        Map<String, PauseHistogramDTO> safepoints = jfrGcEventService.getSafepoints(false);
+
+        // Then
+        assertEquals(2L, safepoints.get(JfrGcEventService.TIME_TO_SAFEPOINT).getCount());
+        assertEquals(0.1, safepoints.get(JfrGcEventService.TIME_TO_SAFEPOINT).getMaxMs(), 0.001);
+        assertEquals(2L, safepoints.get(JfrGcEventService.SAFEPOINT).getCount());
+        assertEquals(2.0, safepoints.get(JfrGcEventService.SAFEPOINT).getMinMs(), 0.05);
+        assertEquals(4.0, safepoints.get(JfrGcEventService.SAFEPOINT).getMaxMs(), 0.05);
+    }
+
+    @Test
+    void start_ShouldPublishGarbageCollectionsOfThisJvm() throws Exception {
+        // Given
+        GarbageCollectionMonitorService monitorService = new GarbageCollectionMonitorService();
+        JfrGcEventService liveService = new JfrGcEventService(monitorService);
+        try {
+            liveService.start();
+            assertTrue(liveService.isRecording());
+
+            // When
+            long deadline = System.currentTimeMillis() + 15_000L;
+            while ((Long) liveService.getStats().get("published") == 0 && System.currentTimeMillis() < deadline) {
+                System.gc();
+                Thread.sleep(200L);
+            }
+
+            // Then
+            assertTrue((Long) liveService.getStats().get("published") > 0);
+            assertFalse(liveService.getSafepoints(false).isEmpty());
+        } finally {
+            liveService.shutdown();
+            monitorService.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,240 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServerConnection;
+import javax.management.NotificationListener;
+import javax.management.remote.JMXConnectionNotification;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXServiceURL;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class JmxConnectionPoolTest {
+
+    private final List<JMXConnector> connectors = new ArrayList<>();
+    private final AtomicInteger connects = new AtomicInteger();
+    private JMXServiceURL url;
+    private JmxConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        url = new JMXServiceURL("service:jmx:rmi:///jndi/rmi://localhost:9999/jmxrmi");
+        pool = new JmxConnectionPool((address, environment) -> {
+            connects.incrementAndGet();
+            JMXConnector connector = mock(JMXConnector.class);
+            when(connector.getMBeanServerConnection()).thenReturn(mock(MBeanServerConnection.class));
+            connectors.add(connector);
+            return connector;
+        }, Map.of());
+    }
+
+    @Test
+    void acquire_ShouldReuseOpenConnection() throws IOException {
+        // When
+        MBeanServerConnection first = pool.acquire(url);
+        MBeanServerConnection second = pool.acquire(url);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, connects.get());
+        assertEquals(1, pool.getOpenCount());
+    }
+
+    @Test
+    void acquire_WhenManyThreadsConnectAtOnce_ShouldOpenOneConnection() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MBeanServerConnection>> results = new ArrayList<>();
+
+        try {
+            // When
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return pool.acquire(url);
+                }));
+            }
+            start.countDown();
+
+            // Then
+            MBeanServerConnection connection = results.get(0).get();
+            for (Future<MBeanServerConnection> result : results) {
+                assertSame(connection, result.get());
+            }
+            assertEquals(1, connects.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void invalidate_ShouldCloseConnectionAndReconnectOnNextAcquire() throws IOException {
+        // Given
+        pool.acquire(url);
+
+        // When
+        pool.invalidate(url);
+        pool.acquire(url);
+
+        // Then
+        verify(connectors.get(0), timeout(5000)).close();
+        assertEquals(2, connects.get());
+        assertEquals(1L, pool.getDroppedCount());
+        assertEquals(2L, pool.getOpenedCount());
+    }
+
+    @Test
+    void acquire_WhenConnectorReportsFailure_ShouldDropConnection() throws IOException {
+        // Given
+        pool.acquire(url);
+        JMXConnector connector = connectors.get(0);
+        ArgumentCaptor<NotificationListener> listener = ArgumentCaptor.forClass(NotificationListener.class);
+        verify(connector).addConnectionNotificationListener(listener.capture(), isNull(), isNull());
+
+        // When
+        listener.getValue().handleNotification(new JMXConnectionNotification(JMXConnectionNotification.FAILED,
+            connector, "connection-1", 1L, "lost", null), null);
+
+        // Then
+        assertEquals(0, pool.getOpenCount());
+        verify(connector, never()).close();
+        pool.acquire(url);
+        assertEquals(2, connects.get());
+    }
+
+    @Test
+    void acquire_WhenConnectFails_ShouldThrowAndRetryNextTime() throws IOException {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+        JmxConnectionPool failingPool = new JmxConnectionPool((address, environment) -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IOException("refused");
+            }
+            JMXConnector connector = mock(JMXConnector.class);
+            when(connector.getMBeanServerConnection()).thenReturn(mock(MBeanServerConnection.class));
+            return connector;
+        }, Map.of());
+
+        // When/Then
+        assertThrows(IOException.class, () -> failingPool.acquire(url));
+        failingPool.acquire(url);
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void invalidate_WhileConnecting_ShouldNotBlockAndDiscardTheConnection() throws Exception {
+        // Given - a connect that hangs until released
+        CountDownLatch connecting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        JMXConnector connector = mock(JMXConnector.class);
+        when(connector.getMBeanServerConnection()).thenReturn(mock(MBeanServerConnection.class));
+        JmxConnectionPool hangingPool = new JmxConnectionPool((address, environment) -> {
+            connecting.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return connector;
+        }, Map.of());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<MBeanServerConnection> acquired = executor.submit(() -> hangingPool.acquire(url));
+            assertTrue(connecting.await(5, TimeUnit.SECONDS));
+
+            // When
+            long start = System.nanoTime();
+            hangingPool.invalidate(url);
+            hangingPool.remove(url);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // Then
+            assertTrue(elapsed < 1000L, "invalidate took " + elapsed + " ms");
+            release.countDown();
+            Exception e = assertThrows(Exception.class, () -> acquired.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IOException, String.valueOf(e.getCause()));
+            verify(connector, timeout(5000)).close();
+            assertEquals(0, hangingPool.getOpenCount());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void acquire_WhenTargetAcceptsButNeverAnswers_ShouldTimeOut() throws Exception {
+        // Given - a registry port that accepts connections but never writes a byte
+        JmxConnectionPool timeoutPool = new JmxConnectionPool(Map.of(), 200L);
+        List<Socket> accepted = new ArrayList<>();
+        try (ServerSocket silent = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            Thread acceptor = Thread.ofVirtual().start(() -> {
+                try {
+                    while (true) {
+                        accepted.add(silent.accept());
+                    }
+                } catch (IOException e) {
+                    // closed
+                }
+            });
+            JMXServiceURL silentUrl = new JMXServiceURL("service:jmx:rmi:///jndi/rmi://127.0.0.1:" + silent.getLocalPort() + "/jmxrmi");
+
+            // When
+            long start = System.nanoTime();
+            assertThrows(IOException.class, () -> timeoutPool.acquire(silentUrl));
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // Then - instead of the RMI handshake timeout of a minute
+            assertTrue(elapsed < 10000L, "connect took " + elapsed + " ms");
+            assertEquals(0, timeoutPool.getOpenCount());
+            silent.close();
+            acceptor.join(5000);
+        } finally {
+            for (Socket socket : accepted) {
+                socket.close();
+            }
+            timeoutPool.close();
+        }
+    }
+
+    @Test
+    void close_ShouldCloseConnectionsAndRejectAcquire() throws IOException {
+        // Given
+        pool.acquire(url);
+
+        // When
+        pool.close();
+
+        // Then
+        verify(connectors.get(0), timeout(5000)).close();
+        assertThrows(IOException.class, () -> pool.acquire(url));
+    }
+
+}
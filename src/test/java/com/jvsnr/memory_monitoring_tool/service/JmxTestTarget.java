@@ -0,0 +1,53 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXConnectorServerFactory;
+import javax.management.remote.JMXServiceURL;
+
+/**
+ * Child JVM for the remote monitoring tests.
+ *
+ * Exposes its platform MBean server over an RMI connector without a registry, prints
+ * the connector address on the first line of stdout and keeps allocating until stdin
+ * is closed.
+ */
+public final class JmxTestTarget {
+
+    private JmxTestTarget() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        JMXConnectorServer server = JMXConnectorServerFactory.newJMXConnectorServer(
+            new JMXServiceURL("service:jmx:rmi://127.0.0.1"), null, ManagementFactory.getPlatformMBeanServer());
+        server.start();
+        System.out.println(server.getAddress());
+        System.out.flush();
+
+        Thread allocator = new Thread(() -> {
+            List<byte[]> garbage = new ArrayList<>();
+            while (!Thread.currentThread().isInterrupted()) {
+                garbage.add(new byte[64 * 1024]);
+                if (garbage.size() > 64) {
+                    garbage.clear();
+                }
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        allocator.setDaemon(true);
+        allocator.start();
+
+        while (System.in.read() >= 0) {
+            // Run until the parent closes stdin or dies
+        }
+        server.stop();
+    }
+
+}
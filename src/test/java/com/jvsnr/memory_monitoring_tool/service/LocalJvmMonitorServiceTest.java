@@ -0,0 +1,257 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.jvsnr.memory_monitoring_tool.dto.GarbageCollectionMetricsDTO;
+import com.jvsnr.memory_monitoring_tool.dto.LocalJvmDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.store.PerfDataTestFiles;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LocalJvmMonitorServiceTest {
+
+    private static final long PID = 4242L;
+    private static final long MB = 1024L * 1024L;
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private GarbageCollectionMonitorService garbageCollectionMonitorService;
+
+    private Set<Long> alive;
+    private LocalJvmMonitorService service;
+
+    @BeforeEach
+    void setUp() {
+        alive = new HashSet<>(Set.of(PID));
+        when(garbageCollectionMonitorService.determineGCType("G1 Young Generation")).thenReturn("Young Generation");
+        when(garbageCollectionMonitorService.determineGCType("G1 Old Generation")).thenReturn("Old Generation");
+        service = new LocalJvmMonitorService(directory, garbageCollectionMonitorService, alive::contains);
+    }
+
+    private static Map<String, Object> counters(long startTime) {
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("sun.os.hrt.frequency", 1000000000L);
+        counters.put("sun.os.hrt.ticks", 60000000000L);
+        counters.put("sun.rt.createVmBeginTime", startTime);
+        counters.put("sun.rt.javaCommand", "com.example.Orders --port 8080");
+        counters.put("java.property.java.vm.name", "OpenJDK 64-Bit Server VM");
+        counters.put("sun.gc.policy.name", "GarbageFirst");
+        // G1 reports the whole heap as the maximum of both generations
+        counters.put("sun.gc.generation.0.capacity", 64 * MB);
+        counters.put("sun.gc.generation.0.maxCapacity", 1024 * MB);
+        counters.put("sun.gc.generation.0.spaces", 3L);
+        counters.put("sun.gc.generation.0.space.0.used", 10 * MB);
+        counters.put("sun.gc.generation.0.space.1.used", 2 * MB);
+        counters.put("sun.gc.generation.0.space.2.used", 0L);
+        counters.put("sun.gc.generation.1.capacity", 128 * MB);
+        counters.put("sun.gc.generation.1.maxCapacity", 1024 * MB);
+        counters.put("sun.gc.generation.1.spaces", 1L);
+        counters.put("sun.gc.generation.1.space.0.used", 100 * MB);
+        counters.put("sun.gc.metaspace.used", 30 * MB);
+        counters.put("sun.gc.metaspace.capacity", 32 * MB);
+        counters.put("sun.gc.metaspace.maxCapacity", 1024 * MB);
+        counters.put("sun.gc.collector.0.name", "G1 Young Generation");
+        counters.put("sun.gc.collector.0.invocations", 12L);
+        counters.put("sun.gc.collector.0.time", 600000000L);
+        counters.put("sun.gc.collector.0.lastEntryTime", 59000000000L);
+        counters.put("sun.gc.collector.0.lastExitTime", 59025000000L);
+        counters.put("sun.gc.collector.1.name", "G1 Old Generation");
+        counters.put("sun.gc.collector.1.invocations", 0L);
+        counters.put("sun.gc.collector.1.time", 0L);
+        counters.put("sun.gc.collector.1.lastEntryTime", 0L);
+        counters.put("sun.gc.collector.1.lastExitTime", 0L);
+        return counters;
+    }
+
+    @Test
+    void discover_ShouldDecodeMemoryAndGcCounters() throws IOException {
+        // Given
+        long startTime = System.currentTimeMillis() - 60000L;
+        PerfDataTestFiles.write(directory.resolve(Long.toString(PID)), ByteOrder.LITTLE_ENDIAN, counters(startTime));
+
+        // When
+        service.discover();
+        LocalJvmDTO jvm = service.getJvm(PID);
+
+        // Then
+        assertNotNull(jvm);
+        assertEquals(PID, jvm.getPid());
+        assertEquals("com.example.Orders --port 8080", jvm.getCommand());
+        assertEquals("OpenJDK 64-Bit Server VM", jvm.getVmName());
+        assertEquals(startTime, jvm.getStartTime());
+
+        MemorySampleDTO memory = jvm.getMemory();
+        assertEquals(112 * MB, memory.getHeapMemoryUsed());
+        assertEquals(192 * MB, memory.getHeapMemoryCommitted());
+        assertEquals(1024 * MB, memory.getHeapMemoryMax());
+        assertEquals(30 * MB, memory.getNonHeapMemoryUsed());
+        assertEquals(32 * MB, memory.getNonHeapMemoryCommitted());
+
+        GarbageCollectionMetricsDTO young = jvm.getGcMetrics().get("G1 Young Generation");
+        assertEquals(12L, young.getCollectionCount());
+        assertEquals("Young Generation", young.getType());
+        assertEquals(1.0, young.getGcOverhead(), 0.05);
+        assertEquals("25ms", young.getLastGCDuration());
+        GarbageCollectionMetricsDTO old = jvm.getGcMetrics().get("G1 Old Generation");
+        assertEquals("Old Generation", old.getType());
+        assertEquals("N/A", old.getLastGCDuration());
+    }
+
+    @Test
+    void sampleMemory_WithDisjointGenerations_ShouldAddMaximaLessOneSurvivor() throws IOException {
+        // Given - Serial: young and old generation split the heap, two 16 MB survivor spaces
+        Map<String, Object> counters = counters(System.currentTimeMillis());
+        counters.put("sun.gc.policy.name", "Copy:MSC");
+        counters.put("sun.gc.generation.0.maxCapacity", 256 * MB);
+        counters.put("sun.gc.generation.0.space.1.maxCapacity", 16 * MB);
+        counters.put("sun.gc.generation.0.space.2.maxCapacity", 16 * MB);
+        counters.put("sun.gc.generation.1.maxCapacity", 768 * MB);
+        PerfDataTestFiles.write(directory.resolve(Long.toString(PID)), ByteOrder.LITTLE_ENDIAN, counters);
+        service.discover();
+
+        // When
+        MemorySampleDTO memory = service.sampleMemory(PID);
+
+        // Then
+        assertEquals(1008 * MB, memory.getHeapMemoryMax());
+        assertEquals(192 * MB, memory.getHeapMemoryCommitted());
+    }
+
+    @Test
+    void sampleMemory_WithoutPolicy_ShouldNotAddOverlappingMaxima() throws IOException {
+        // Given - generational ZGC publishes no policy, both generations report the heap
+        Map<String, Object> counters = counters(System.currentTimeMillis());
+        counters.remove("sun.gc.policy.name");
+        PerfDataTestFiles.write(directory.resolve(Long.toString(PID)), ByteOrder.LITTLE_ENDIAN, counters);
+        service.discover();
+
+        // When/Then
+        assertEquals(1024 * MB, service.sampleMemory(PID).getHeapMemoryMax());
+    }
+
+    @Test
+    void sampleMemory_ShouldReadLiveCounters() throws IOException {
+        // Given
+        Path file = directory.resolve(Long.toString(PID));
+        PerfDataTestFiles.write(file, ByteOrder.BIG_ENDIAN, counters(System.currentTimeMillis()));
+        service.discover();
+
+        // When
+        PerfDataTestFiles.update(file, ByteOrder.BIG_ENDIAN, "sun.gc.generation.1.space.0.used", 200 * MB);
+
+        // Then
+        assertEquals(212 * MB, service.sampleMemory(PID).getHeapMemoryUsed());
+    }
+
+    @Test
+    void discover_ShouldIgnoreDeadAndForeignFiles() throws IOException {
+        // Given
+        PerfDataTestFiles.write(directory.resolve("1111"), ByteOrder.LITTLE_ENDIAN, counters(0L));
+        Files.writeString(directory.resolve("notes.txt"), "not a pid");
+        Files.write(directory.resolve(Long.toString(PID)), new byte[16]);
+
+        // When
+        service.discover();
+
+        // Then
+        assertTrue(service.getPids().isEmpty());
+        assertTrue(service.getJvms().isEmpty());
+    }
+
+    @Test
+    void discover_WhenCountersMissing_ShouldNotReportJvm() throws IOException {
+        // Given
+        Map<String, Object> counters = counters(0L);
+        counters.remove("sun.os.hrt.frequency");
+        PerfDataTestFiles.write(directory.resolve(Long.toString(PID)), ByteOrder.LITTLE_ENDIAN, counters);
+
+        // When
+        service.discover();
+
+        // Then
+        assertEquals(Set.of(PID), service.getPids());
+        assertNull(service.getJvm(PID));
+        assertNull(service.sampleMemory(PID));
+    }
+
+    @Test
+    void discover_WhenJvmExited_ShouldForgetIt() throws IOException {
+        // Given
+        PerfDataTestFiles.write(directory.resolve(Long.toString(PID)), ByteOrder.LITTLE_ENDIAN, counters(0L));
+        service.discover();
+        assertEquals(1, service.getJvms().size());
+
+        // When
+        alive.remove(PID);
+        service.discover();
+
+        // Then
+        assertTrue(service.getPids().isEmpty());
+        assertNull(service.getJvm(PID));
+    }
+
+    @Test
+    void discover_WhenDirectoryMissing_ShouldFindNothing() {
+        // Given
+        LocalJvmMonitorService missing = new LocalJvmMonitorService(directory.resolve("missing"),
+            garbageCollectionMonitorService, alive::contains);
+
+        // When
+        missing.discover();
+
+        // Then
+        assertTrue(missing.getPids().isEmpty());
+    }
+
+    @Test
+    void getJvm_ShouldSampleOwnJvm() {
+        // Given
+        Path hsperfdata = Path.of(System.getProperty("java.io.tmpdir"), "hsperfdata_" + System.getProperty("user.name"));
+        long pid = ProcessHandle.current().pid();
+        assumeTrue(Files.exists(hsperfdata.resolve(Long.toString(pid))), "perf data disabled");
+        LocalJvmMonitorService own = new LocalJvmMonitorService(hsperfdata, garbageCollectionMonitorService);
+
+        // When
+        own.discover();
+        LocalJvmDTO jvm = own.getJvm(pid);
+
+        // Then
+        assertNotNull(jvm);
+        long heapMax = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax();
+        assertTrue(jvm.getMemory().getHeapMemoryUsed() > 0);
+        assertEquals(heapMax, jvm.getMemory().getHeapMemoryMax());
+        assertTrue(jvm.getMemory().getNonHeapMemoryUsed() > 0);
+        List<String> collectors = ManagementFactory.getGarbageCollectorMXBeans().stream()
+            .map(bean -> bean.getName()).toList();
+        assertEquals(collectors.size(), jvm.getGcMetrics().size());
+    }
+
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -17,24 +18,72 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.jvsnr.memory_monitoring_tool.dto.MemoryHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.event.GcEvent;
+import com.jvsnr.memory_monitoring_tool.event.GcEventRingBuffer;
+
 @ExtendWith(MockitoExtension.class)
 class MemoryLeakDetectorServiceTest {
 
+    private static final long MAX_HEAP = 5000000L; // 5MB max
+
     @Mock
     private MemoryMonitorService memoryMonitorService;
 
+    @Mock
+    private GarbageCollectionMonitorService garbageCollectionMonitorService;
+
     private MemoryLeakDetectorService memoryLeakDetector;
 
+    private long sampleTime = 1736180000000L;
+
+    // GC action codes of the test events
+    private static final int MINOR_GC = 1;
+    private static final int MAJOR_GC = 2;
+
     @BeforeEach
     void setUp() {
-        memoryLeakDetector = new MemoryLeakDetectorService(memoryMonitorService);
+        when(garbageCollectionMonitorService.getMemoryPoolNames()).thenReturn(new String[] {"G1 Eden Space", "G1 Old Gen"});
+        lenient().when(garbageCollectionMonitorService.getGCEventCodeName(MINOR_GC)).thenReturn("end of minor GC");
+        lenient().when(garbageCollectionMonitorService.getGCEventCodeName(MAJOR_GC)).thenReturn("end of major GC");
+        memoryLeakDetector = new MemoryLeakDetectorService(memoryMonitorService, garbageCollectionMonitorService, 30, 0.8);
+    }
+
+    // Samples 10 seconds apart, like the scheduler takes them
+    private MemorySampleDTO heap(long used) {
+        sampleTime += 10000L;
+        return new MemorySampleDTO(sampleTime, used, used, MAX_HEAP, 1000L, 2000L, -1L);
+    }
+
+    // Major GC event carrying the old generation usage after GC
+    private GcEvent gcEvent(long startTime, long oldGenUsedAfter) {
+        return gcEvent(startTime, MAJOR_GC, oldGenUsedAfter);
+    }
+
+    // Young GCs every intervalMillis up to endTime with a stable old generation
+    private void youngGcs(long endTime, long intervalMillis, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            memoryLeakDetector.onGcEvent(gcEvent(endTime - i * intervalMillis, MINOR_GC, 2000000L));
+        }
+    }
+
+    private GcEvent gcEvent(long startTime, int action, long oldGenUsedAfter) {
+        GcEventRingBuffer buffer = new GcEventRingBuffer(1, 2);
+        long sequence = buffer.tryClaim();
+        buffer.setEvent(sequence, 0, 0, action, 1L, startTime, 5L);
+        buffer.setPoolUsage(sequence, 0, 1000L, 0L);
+        buffer.setPoolUsage(sequence, 1, oldGenUsedAfter, oldGenUsedAfter);
+        buffer.publish(sequence);
+        GcEvent event = new GcEvent(2);
+        buffer.drain(event, drained -> { });
+        return event;
     }
 
     @Test
     void analyseMemoryUsage_ShouldAddSnapshot() {
         // Given
-        when(memoryMonitorService.getHeapMemoryUsage(false)).thenReturn("1000000");
-        when(memoryMonitorService.getHeapMemoryMax(false)).thenReturn("5000000");
+        when(memoryMonitorService.sample()).thenReturn(heap(1000000L));
 
         // When
         memoryLeakDetector.analyseMemoryUsage();
@@ -62,22 +111,20 @@ class MemoryLeakDetectorServiceTest {
     }
 
     @Test
-    void detectMemoryLeak_WithConsistentGrowthAndHighGCFrequency() throws InterruptedException {
+    void detectMemoryLeak_WithConsistentGrowthAndHighGCFrequency() {
         // Given - Memory usage starts high and keeps growing
-        when(memoryMonitorService.getHeapMemoryUsage(false))
-            .thenReturn("4300000")  // 86% of max
-            .thenReturn("4350000")  // 87% of max
-            .thenReturn("4400000")  // 88% of max
-            .thenReturn("4450000")  // 89% of max
-            .thenReturn("4500000"); // 90% of max
+        when(memoryMonitorService.sample())
+            .thenReturn(heap(4300000L))  // 86% of max
+            .thenReturn(heap(4350000L))  // 87% of max
+            .thenReturn(heap(4400000L))  // 88% of max
+            .thenReturn(heap(4450000L))  // 89% of max
+            .thenReturn(heap(4500000L)); // 90% of max
 
-        when(memoryMonitorService.getHeapMemoryMax(false)).thenReturn("5000000"); // 5MB max
 
         // When - Add snapshots with increasing memory usage and high GC frequency
+        youngGcs(sampleTime, 2000L, 5); // 2s apart is less than GC_FREQUENCY_THRESHOLD (10s)
         for (int i = 0; i < 5; i++) {
             memoryLeakDetector.analyseMemoryUsage();
-            // Simulate high GC frequency by waiting less than GC_FREQUENCY_THRESHOLD
-            Thread.sleep(100); // 100ms is less than GC_FREQUENCY_THRESHOLD (10s)
         }
 
         // Then
@@ -92,14 +139,13 @@ class MemoryLeakDetectorServiceTest {
     @Test
     void noMemoryLeak_WithStableMemoryUsage() {
         // Given
-        when(memoryMonitorService.getHeapMemoryUsage(false))
-            .thenReturn("1000000")  // 1MB
-            .thenReturn("1000000")  // 1MB
-            .thenReturn("1000000")  // 1MB
-            .thenReturn("1000000")  // 1MB
-            .thenReturn("1000000"); // 1MB
+        when(memoryMonitorService.sample())
+            .thenReturn(heap(1000000L))  // 1MB
+            .thenReturn(heap(1000000L))  // 1MB
+            .thenReturn(heap(1000000L))  // 1MB
+            .thenReturn(heap(1000000L))  // 1MB
+            .thenReturn(heap(1000000L)); // 1MB
 
-        when(memoryMonitorService.getHeapMemoryMax(false)).thenReturn("5000000"); // 5MB max
 
         // When - Add snapshots with stable memory usage
         for (int i = 0; i < 5; i++) {
@@ -116,13 +162,12 @@ class MemoryLeakDetectorServiceTest {
     @Test
     void checkMemoryReclamation_WhenMemoryUsageExceedsThreshold() {
         // Given
-        when(memoryMonitorService.getHeapMemoryUsage(false))
-            .thenReturn("4500000") // 90% of max (all snapshots high to ensure poor reclamation)
-            .thenReturn("4500000")
-            .thenReturn("4500000")
-            .thenReturn("4500000")
-            .thenReturn("4500000");
-        when(memoryMonitorService.getHeapMemoryMax(false)).thenReturn("5000000");   // 5MB max
+        when(memoryMonitorService.sample())
+            .thenReturn(heap(4500000L)) // 90% of max (all snapshots high to ensure poor reclamation)
+            .thenReturn(heap(4500000L))
+            .thenReturn(heap(4500000L))
+            .thenReturn(heap(4500000L))
+            .thenReturn(heap(4500000L));
 
         // When - Add enough snapshots to trigger checks
         for (int i = 0; i < 5; i++) {
@@ -139,11 +184,10 @@ class MemoryLeakDetectorServiceTest {
     @Test
     void analyseMemoryUsage_WithLessThanSampleSize() {
         // Given
-        when(memoryMonitorService.getHeapMemoryUsage(false))
-            .thenReturn("1000000")
-            .thenReturn("1100000")
-            .thenReturn("1200000");
-        when(memoryMonitorService.getHeapMemoryMax(false)).thenReturn("5000000");
+        when(memoryMonitorService.sample())
+            .thenReturn(heap(1000000L))
+            .thenReturn(heap(1100000L))
+            .thenReturn(heap(1200000L));
 
         // When - Add less than SAMPLE_SIZE snapshots
         for (int i = 0; i < 3; i++) {
@@ -159,13 +203,12 @@ class MemoryLeakDetectorServiceTest {
     @Test
     void analyseMemoryUsage_WithFluctuatingMemory() {
         // Given
-        when(memoryMonitorService.getHeapMemoryUsage(false))
-            .thenReturn("1000000")  // Up
-            .thenReturn("900000")   // Down
-            .thenReturn("1100000")  // Up
-            .thenReturn("1000000")  // Down
-            .thenReturn("1200000"); // Up
-        when(memoryMonitorService.getHeapMemoryMax(false)).thenReturn("5000000");
+        when(memoryMonitorService.sample())
+            .thenReturn(heap(1000000L))  // Up
+            .thenReturn(heap(900000L))   // Down
+            .thenReturn(heap(1100000L))  // Up
+            .thenReturn(heap(1000000L))  // Down
+            .thenReturn(heap(1200000L)); // Up
 
         // When
         for (int i = 0; i < 5; i++) {
@@ -179,15 +222,15 @@ class MemoryLeakDetectorServiceTest {
     }
 
     @Test
-    void checkGCFrequency_WithNormalFrequency() throws InterruptedException {
+    void checkGCFrequency_WithNormalFrequency() {
         // Given
-        when(memoryMonitorService.getHeapMemoryUsage(false)).thenReturn("1000000");
-        when(memoryMonitorService.getHeapMemoryMax(false)).thenReturn("5000000");
+        when(memoryMonitorService.sample()).thenReturn(heap(1000000L));
 
         // When - Add snapshots with normal GC frequency (> 10 seconds)
-        memoryLeakDetector.analyseMemoryUsage();
-        Thread.sleep(11000); // Wait longer than GC_FREQUENCY_THRESHOLD
-        memoryLeakDetector.analyseMemoryUsage();
+        youngGcs(sampleTime, 11000L, 5); // longer than GC_FREQUENCY_THRESHOLD
+        for (int i = 0; i < 5; i++) {
+            memoryLeakDetector.analyseMemoryUsage();
+        }
 
         // Then
         Map<String, Object> status = memoryLeakDetector.getLeakDetectionStatus();
@@ -196,40 +239,82 @@ class MemoryLeakDetectorServiceTest {
     }
 
     @Test
-    void analyseMemoryUsage_ShouldLimitSnapshotSize() {
+    void analyseMemoryUsage_ShouldKeepHistoryBeyondSampleSize() {
         // Given
-        when(memoryMonitorService.getHeapMemoryUsage(false)).thenReturn("1000000");
-        when(memoryMonitorService.getHeapMemoryMax(false)).thenReturn("5000000");
+        when(memoryMonitorService.sample()).thenReturn(heap(1000000L));
 
         // When - Add more than SAMPLE_SIZE snapshots
         for (int i = 0; i < 7; i++) {
             memoryLeakDetector.analyseMemoryUsage();
         }
 
-        // Then - Verify that getHeapMemoryUsage was called exactly 7 times
-        verify(memoryMonitorService, times(7)).getHeapMemoryUsage(false);
+        // Then - Verify that a sample was taken exactly 7 times
+        verify(memoryMonitorService, times(7)).sample();
 
-        // And verify that older snapshots were removed
+        // And verify that the history keeps every sample while the checks use the latest window
         Map<String, Object> status = memoryLeakDetector.getLeakDetectionStatus();
         assertNotNull(status.get("currentHeapUsage"));
+        assertEquals(7, memoryLeakDetector.getMemoryHistory(100).getTimestamps().length);
+    }
+
+    @Test
+    void getMemoryHistory_ShouldReturnLatestSamplesOldestFirst() {
+        // Given
+        when(memoryMonitorService.sample())
+            .thenReturn(heap(1000000L))
+            .thenReturn(heap(2000000L))
+            .thenReturn(heap(3000000L));
+
+        for (int i = 0; i < 3; i++) {
+            memoryLeakDetector.analyseMemoryUsage();
+        }
+
+        // When
+        MemoryHistoryDTO history = memoryLeakDetector.getMemoryHistory(2);
+
+        // Then
+        assertEquals(2, history.getTimestamps().length);
+        assertEquals(2000000L, history.getHeapMemoryUsed()[0]);
+        assertEquals(3000000L, history.getHeapMemoryUsed()[1]);
+        assertEquals(MAX_HEAP, history.getHeapMemoryMax()[1]);
+        assertEquals(1000L, history.getNonHeapMemoryUsed()[1]);
+        assertEquals(2000L, history.getNonHeapMemoryCommitted()[1]);
     }
 
     @Test
-    void detectMemoryLeak_WithConsistentGrowthButNormalGC() throws InterruptedException {
+    void getHistoryStats_ShouldReportCompressedSize() {
+        // Given
+        when(memoryMonitorService.sample()).thenReturn(heap(1000000L));
+
+        for (int i = 0; i < 100; i++) {
+            memoryLeakDetector.analyseMemoryUsage();
+        }
+
+        // When
+        Map<String, Long> stats = memoryLeakDetector.getHistoryStats();
+
+        // Then - unchanged values cost a bit per column after the first sample
+        assertEquals(100L, stats.get("samples"));
+        assertEquals(1L, stats.get("chunks"));
+        assertTrue(stats.get("compressedBytes") < 100 * 6 * Long.BYTES / 10,
+            "Compressed history should be far smaller than raw longs: " + stats.get("compressedBytes"));
+    }
+
+    @Test
+    void detectMemoryLeak_WithConsistentGrowthButNormalGC() {
         // Given - Memory usage starts high and keeps growing
-        when(memoryMonitorService.getHeapMemoryUsage(false))
-            .thenReturn("4300000")  // 86% of max
-            .thenReturn("4350000")  // 87% of max
-            .thenReturn("4400000")  // 88% of max
-            .thenReturn("4450000")  // 89% of max
-            .thenReturn("4500000"); // 90% of max
+        when(memoryMonitorService.sample())
+            .thenReturn(heap(4300000L))  // 86% of max
+            .thenReturn(heap(4350000L))  // 87% of max
+            .thenReturn(heap(4400000L))  // 88% of max
+            .thenReturn(heap(4450000L))  // 89% of max
+            .thenReturn(heap(4500000L)); // 90% of max
 
-        when(memoryMonitorService.getHeapMemoryMax(false)).thenReturn("5000000"); // 5MB max
 
         // When - Add snapshots with increasing memory usage but normal GC frequency
+        youngGcs(sampleTime, 11000L, 5); // longer than GC_FREQUENCY_THRESHOLD
         for (int i = 0; i < 5; i++) {
             memoryLeakDetector.analyseMemoryUsage();
-            Thread.sleep(11000); // Wait longer than GC_FREQUENCY_THRESHOLD
         }
 
         // Then
@@ -241,21 +326,20 @@ class MemoryLeakDetectorServiceTest {
     }
 
     @Test
-    void detectMemoryLeak_WithHighGCButNoGrowth() throws InterruptedException {
+    void detectMemoryLeak_WithHighGCButNoGrowth() {
         // Given - Memory usage is stable but high
-        when(memoryMonitorService.getHeapMemoryUsage(false))
-            .thenReturn("4500000")  // 90% of max
-            .thenReturn("4500000")
-            .thenReturn("4500000")
-            .thenReturn("4500000")
-            .thenReturn("4500000");
+        when(memoryMonitorService.sample())
+            .thenReturn(heap(4500000L))  // 90% of max
+            .thenReturn(heap(4500000L))
+            .thenReturn(heap(4500000L))
+            .thenReturn(heap(4500000L))
+            .thenReturn(heap(4500000L));
 
-        when(memoryMonitorService.getHeapMemoryMax(false)).thenReturn("5000000"); // 5MB max
 
         // When - Add snapshots with high GC frequency
+        youngGcs(sampleTime, 2000L, 5);
         for (int i = 0; i < 5; i++) {
             memoryLeakDetector.analyseMemoryUsage();
-            Thread.sleep(100); // High GC frequency
         }
 
         // Then
@@ -265,5 +349,194 @@ class MemoryLeakDetectorServiceTest {
         assertTrue((boolean) status.get("poorReclamationDetected"), "Memory reclamation should be poor");
         assertFalse((boolean) status.get("memoryLeakDetected"), "No memory leak without consistent growth");
     }
-    
+
+    @Test
+    void addMemorySampleListener_ShouldReceiveEverySample() {
+        // Given
+        MemorySampleDTO sample = heap(1000000L);
+        when(memoryMonitorService.sample()).thenReturn(sample);
+        MemorySampleListener listener = mock(MemorySampleListener.class);
+        memoryLeakDetector.addMemorySampleListener(listener);
+
+        // When
+        memoryLeakDetector.analyseMemoryUsage();
+        memoryLeakDetector.analyseMemoryUsage();
+
+        // Then
+        verify(listener, times(2)).onMemorySample(sample);
+    }
+
+    @Test
+    void addLeakStatusContributor_ShouldOnlyContributeWhileALeakIsDetected() {
+        // Given - a failing contributor does not hide the others
+        memoryLeakDetector.addLeakStatusContributor(status -> {
+            throw new IllegalStateException("broken");
+        });
+        memoryLeakDetector.addLeakStatusContributor(status -> status.put("growingClasses", "byte[]"));
+        when(memoryMonitorService.sample())
+            .thenReturn(heap(4300000L))
+            .thenReturn(heap(4350000L))
+            .thenReturn(heap(4400000L))
+            .thenReturn(heap(4450000L))
+            .thenReturn(heap(4500000L));
+
+        // When/Then
+        assertFalse(memoryLeakDetector.getLeakDetectionStatus().containsKey("growingClasses"));
+        for (int i = 0; i < 5; i++) {
+            memoryLeakDetector.analyseMemoryUsage();
+        }
+        Map<String, Object> status = memoryLeakDetector.getLeakDetectionStatus();
+        assertTrue((boolean) status.get("memoryLeakDetected"));
+        assertEquals("byte[]", status.get("growingClasses"));
+    }
+
+    @Test
+    void constructor_ShouldListenForGcEvents() {
+        verify(garbageCollectionMonitorService).addGcEventListener(memoryLeakDetector);
+    }
+
+    @Test
+    void getLeakDetectionStatus_ShouldExposeGrowthSlopeAndConfidence() {
+        // Given - 10000 bytes more every 10 seconds
+        when(memoryMonitorService.sample())
+            .thenReturn(heap(1000000L))
+            .thenReturn(heap(1010000L))
+            .thenReturn(heap(1020000L))
+            .thenReturn(heap(1030000L))
+            .thenReturn(heap(1040000L));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            memoryLeakDetector.analyseMemoryUsage();
+        }
+
+        // Then
+        Map<String, Object> status = memoryLeakDetector.getLeakDetectionStatus();
+        assertEquals(1000.0, (double) status.get("growthSlopeBytesPerSecond"), 0.01);
+        assertEquals(1.0, (double) status.get("growthConfidence"), 1e-9);
+        assertEquals(MemoryLeakDetectorService.GROWTH_SOURCE_HEAP, status.get("growthSource"));
+        assertTrue((boolean) status.get("consistentGrowthDetected"));
+    }
+
+    @Test
+    void analyseMemoryUsage_WhenPostGcOldGenStable_ShouldIgnoreGrowingHeapSamples() {
+        // Given - heap samples grow with young generation churn, the live set after GC does not
+        for (int i = 0; i < 5; i++) {
+            memoryLeakDetector.onGcEvent(gcEvent(sampleTime + i * 2000L, 2000000L));
+        }
+        when(memoryMonitorService.sample())
+            .thenReturn(heap(1000000L))
+            .thenReturn(heap(1100000L))
+            .thenReturn(heap(1200000L))
+            .thenReturn(heap(1300000L))
+            .thenReturn(heap(1400000L));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            memoryLeakDetector.analyseMemoryUsage();
+        }
+
+        // Then
+        Map<String, Object> status = memoryLeakDetector.getLeakDetectionStatus();
+        assertEquals(MemoryLeakDetectorService.GROWTH_SOURCE_POST_GC, status.get("growthSource"));
+        assertEquals(0.0, (double) status.get("growthSlopeBytesPerSecond"), 1e-6);
+        assertFalse((boolean) status.get("consistentGrowthDetected"));
+    }
+
+    @Test
+    void analyseMemoryUsage_WhenPostGcOldGenGrows_ShouldDetectGrowth() {
+        // Given - the live set after GC grows by 50000 bytes per GC, one GC every 2 seconds
+        for (int i = 0; i < 10; i++) {
+            memoryLeakDetector.onGcEvent(gcEvent(sampleTime + i * 2000L, 2000000L + i * 50000L));
+        }
+        when(memoryMonitorService.sample()).thenReturn(heap(1000000L));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            memoryLeakDetector.analyseMemoryUsage();
+        }
+
+        // Then
+        Map<String, Object> status = memoryLeakDetector.getLeakDetectionStatus();
+        assertEquals(MemoryLeakDetectorService.GROWTH_SOURCE_POST_GC, status.get("growthSource"));
+        assertEquals(25000.0, (double) status.get("growthSlopeBytesPerSecond"), 0.01);
+        assertTrue((boolean) status.get("consistentGrowthDetected"));
+    }
+
+
+    @Test
+    void onGcEvent_WhenYoungGcsPromoteIntoOldGen_ShouldNotReportGrowth() {
+        // Given - young GCs every 2 seconds promote 50000 bytes each, a mixed GC every
+        // 10th collection reclaims the old generation back to the same live set
+        for (int i = 0; i < 60; i++) {
+            long oldGenUsed = 2000000L + (i % 10) * 50000L;
+            memoryLeakDetector.onGcEvent(gcEvent(sampleTime + i * 2000L, MINOR_GC, oldGenUsed));
+        }
+        when(memoryMonitorService.sample()).thenReturn(heap(1000000L));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            memoryLeakDetector.analyseMemoryUsage();
+        }
+
+        // Then - only the low point of every cycle counts
+        Map<String, Object> status = memoryLeakDetector.getLeakDetectionStatus();
+        assertEquals(MemoryLeakDetectorService.GROWTH_SOURCE_POST_GC, status.get("growthSource"));
+        assertEquals(0.0, (double) status.get("growthSlopeBytesPerSecond"), 1e-6);
+        assertFalse((boolean) status.get("consistentGrowthDetected"));
+    }
+
+    @Test
+    void onGcEvent_WhenOnlyYoungGcsPromote_ShouldIgnoreThem() {
+        // Given - a near-perfect upward line of young GC promotion
+        for (int i = 0; i < 30; i++) {
+            memoryLeakDetector.onGcEvent(gcEvent(sampleTime + i * 2000L, MINOR_GC, 2000000L + i * 50000L));
+        }
+        when(memoryMonitorService.sample()).thenReturn(heap(1000000L));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            memoryLeakDetector.analyseMemoryUsage();
+        }
+
+        // Then - the trend falls back to the stable heap samples
+        Map<String, Object> status = memoryLeakDetector.getLeakDetectionStatus();
+        assertEquals(MemoryLeakDetectorService.GROWTH_SOURCE_HEAP, status.get("growthSource"));
+        assertFalse((boolean) status.get("consistentGrowthDetected"));
+    }
+
+
+    @Test
+    void checkGCFrequency_WithFrequentSamplesButNoGCs_ShouldNotBeHigh() {
+        // Given - the adaptive sampler runs every 250ms, no collection happens
+        when(memoryMonitorService.sample()).thenAnswer(invocation -> {
+            sampleTime += 250L;
+            return new MemorySampleDTO(sampleTime, 1000000L, 1000000L, MAX_HEAP, 1000L, 2000L, -1L);
+        });
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            memoryLeakDetector.analyseMemoryUsage();
+        }
+
+        // Then
+        assertFalse(memoryLeakDetector.isHighGCFrequencyDetected(),
+            "Frequent analysis runs without collections are no high GC frequency");
+    }
+
+    @Test
+    void checkGCFrequency_WhenCollectionsStopped_ShouldNotBeHigh() {
+        // Given - a burst of collections 2s apart, the latest one over a minute before the sample
+        youngGcs(sampleTime - 60000L, 2000L, 5);
+        when(memoryMonitorService.sample()).thenReturn(heap(1000000L));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            memoryLeakDetector.analyseMemoryUsage();
+        }
+
+        // Then
+        assertFalse(memoryLeakDetector.isHighGCFrequencyDetected());
+    }
+
 }
@@ -2,6 +2,9 @@ package com.jvsnr.memory_monitoring_tool.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.lang.management.MemoryMXBean;
@@ -13,6 +16,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+
 @ExtendWith(MockitoExtension.class)
 public class MemoryMonitorServiceTest {
 
@@ -198,4 +203,27 @@ public class MemoryMonitorServiceTest {
         assertEquals("50.0", memoryUtilisation);
     }
 
+    @Test
+    void sample_ShouldReadHeapAndNonHeapUsageOnce() {
+        // Given
+        long mb = 1024L * 1024L;
+        when(memoryMXBean.getHeapMemoryUsage()).thenReturn(new MemoryUsage(0L, 256 * mb, 512 * mb, 1024 * mb));
+        when(memoryMXBean.getNonHeapMemoryUsage()).thenReturn(new MemoryUsage(0L, 64 * mb, 80 * mb, -1L));
+
+        // When
+        MemorySampleDTO sample = memoryMonitorService.sample();
+
+        // Then
+        verify(memoryMXBean, times(1)).getHeapMemoryUsage();
+        verify(memoryMXBean, times(1)).getNonHeapMemoryUsage();
+        assertEquals(256 * mb, sample.getHeapMemoryUsed());
+        assertEquals(512 * mb, sample.getHeapMemoryCommitted());
+        assertEquals(1024 * mb, sample.getHeapMemoryMax());
+        assertEquals(64 * mb, sample.getNonHeapMemoryUsed());
+        assertEquals(80 * mb, sample.getNonHeapMemoryCommitted());
+        assertEquals(-1L, sample.getNonHeapMemoryMax());
+        assertEquals(25.0, sample.getMemoryUtilisation());
+        assertTrue(sample.getTimestamp() > 0);
+    }
+
 }
@@ -0,0 +1,175 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.jvsnr.memory_monitoring_tool.dto.MemoryPoolThresholdDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+
+@ExtendWith(MockitoExtension.class)
+class MemoryPoolThresholdServiceTest {
+
+    private static final long POOL_MAX = 1000L;
+
+    @Mock
+    private MemoryLeakDetectorService memoryLeakDetectorService;
+
+    @Mock
+    private MemoryPoolMXBean oldGen;
+
+    @Mock
+    private MemoryPoolMXBean eden;
+
+    @Mock
+    private ExecutorService analysisExecutor;
+
+    private MemoryMXBean memoryMXBean;
+
+    @BeforeEach
+    void setUp() {
+        memoryMXBean = mock(MemoryMXBean.class, withSettings().extraInterfaces(NotificationEmitter.class));
+
+        when(oldGen.getName()).thenReturn("G1 Old Gen");
+        when(oldGen.getType()).thenReturn(MemoryType.HEAP);
+        when(oldGen.isUsageThresholdSupported()).thenReturn(true);
+        when(oldGen.isCollectionUsageThresholdSupported()).thenReturn(true);
+        when(oldGen.getUsage()).thenReturn(new MemoryUsage(0L, 100L, 1000L, POOL_MAX));
+
+        lenient().when(eden.getType()).thenReturn(MemoryType.HEAP);
+        lenient().when(eden.isUsageThresholdSupported()).thenReturn(false);
+
+        lenient().doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(analysisExecutor).execute(any());
+    }
+
+    private MemoryPoolThresholdService createService() {
+        return new MemoryPoolThresholdService(memoryLeakDetectorService, memoryMXBean, List.of(eden, oldGen),
+            80, 70, 5, analysisExecutor);
+    }
+
+    @Test
+    void constructor_ShouldSetThresholdsOnTenuredPoolsOnly() throws Exception {
+        // When
+        MemoryPoolThresholdService service = createService();
+
+        // Then
+        verify(oldGen).setUsageThreshold(800L);
+        verify(oldGen).setCollectionUsageThreshold(700L);
+        verify(eden, never()).setUsageThreshold(anyLong());
+        verify((NotificationEmitter) memoryMXBean).addNotificationListener(any(NotificationListener.class), isNull(), isNull());
+        verify(memoryLeakDetectorService).addMemorySampleListener(service);
+    }
+
+    @Test
+    void onThresholdExceeded_ShouldRaiseThresholdAndAnalyse() {
+        // Given
+        MemoryPoolThresholdService service = createService();
+        when(oldGen.getUsageThreshold()).thenReturn(800L);
+
+        // When
+        service.onThresholdExceeded(MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED, "G1 Old Gen",
+            new MemoryUsage(0L, 820L, 1000L, POOL_MAX));
+
+        // Then
+        verify(oldGen).setUsageThreshold(870L);
+        verify(memoryLeakDetectorService).analyseMemoryUsage();
+    }
+
+    @Test
+    void onThresholdExceeded_WhenCollectionThreshold_ShouldAnalyseWithoutChangingThreshold() {
+        // Given
+        MemoryPoolThresholdService service = createService();
+
+        // When
+        service.onThresholdExceeded(MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED, "G1 Old Gen",
+            new MemoryUsage(0L, 750L, 1000L, POOL_MAX));
+
+        // Then
+        verify(oldGen, never()).setUsageThreshold(870L);
+        verify(memoryLeakDetectorService).analyseMemoryUsage();
+        assertEquals(1, service.getThresholdStatus().stream()
+            .filter(status -> status.getLastExceededTime() > 0).count());
+    }
+
+    @Test
+    void onMemorySample_WhenUsageBackBelowBase_ShouldReArmBaseThreshold() {
+        // Given
+        MemoryPoolThresholdService service = createService();
+        when(oldGen.getUsageThreshold()).thenReturn(870L);
+        when(oldGen.getUsage()).thenReturn(new MemoryUsage(0L, 300L, 1000L, POOL_MAX));
+
+        // When
+        service.onMemorySample(new MemorySampleDTO(1000L, 300L, 1000L, POOL_MAX, 0L, 0L, -1L));
+
+        // Then
+        verify(oldGen, times(2)).setUsageThreshold(800L);
+    }
+
+    @Test
+    void getThresholdStatus_ShouldDescribeTenuredPools() {
+        // Given
+        MemoryPoolThresholdService service = createService();
+        when(oldGen.getUsageThreshold()).thenReturn(800L);
+        when(oldGen.getUsageThresholdCount()).thenReturn(2L);
+        when(oldGen.getCollectionUsageThreshold()).thenReturn(700L);
+
+        // When
+        List<MemoryPoolThresholdDTO> status = service.getThresholdStatus();
+
+        // Then
+        assertEquals(1, status.size());
+        assertEquals("G1 Old Gen", status.get(0).getPoolName());
+        assertEquals(800L, status.get(0).getUsageThreshold());
+        assertEquals(2L, status.get(0).getUsageThresholdCount());
+        assertEquals(700L, status.get(0).getCollectionUsageThreshold());
+        assertEquals(100L, status.get(0).getUsed());
+    }
+
+    @Test
+    void shutdown_ShouldRemoveListenerAndClearThresholds() throws Exception {
+        // Given
+        ArgumentCaptor<NotificationListener> listenerCaptor = ArgumentCaptor.forClass(NotificationListener.class);
+        MemoryPoolThresholdService service = createService();
+        verify((NotificationEmitter) memoryMXBean).addNotificationListener(listenerCaptor.capture(), isNull(), isNull());
+
+        // When
+        service.shutdown();
+
+        // Then
+        verify((NotificationEmitter) memoryMXBean).removeNotificationListener(listenerCaptor.getValue());
+        verify(oldGen).setUsageThreshold(0L);
+        verify(oldGen).setCollectionUsageThreshold(0L);
+        verify(analysisExecutor).shutdownNow();
+    }
+
+}
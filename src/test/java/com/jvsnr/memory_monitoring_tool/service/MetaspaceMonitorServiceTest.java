@@ -0,0 +1,332 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.jvsnr.memory_monitoring_tool.dto.ClassLoaderStatsDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.event.GcEvent;
+import com.jvsnr.memory_monitoring_tool.event.GcEventRingBuffer;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class MetaspaceMonitorServiceTest {
+
+    private static final long MB = 1024L * 1024L;
+    private static final int OLD_COLLECTOR = 0;
+    private static final int YOUNG_COLLECTOR = 1;
+
+    @Mock
+    private MemoryLeakDetectorService memoryLeakDetectorService;
+
+    @Mock
+    private GarbageCollectionMonitorService garbageCollectionMonitorService;
+
+    @Mock
+    private ClassLoadingMXBean classLoadingMXBean;
+
+    @Mock
+    private MemoryPoolMXBean metaspacePool;
+
+    @Mock
+    private MemoryPoolMXBean compressedClassSpacePool;
+
+    @Mock
+    private MBeanServer mBeanServer;
+
+    private MetaspaceMonitorService service;
+
+    private long sampleTime = 1_700_000_000_000L;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(garbageCollectionMonitorService.getMemoryPoolNames()).thenReturn(new String[] { "Tenured Gen", "Metaspace" });
+        when(garbageCollectionMonitorService.getCollectorCount()).thenReturn(2);
+        when(garbageCollectionMonitorService.getCollectorName(OLD_COLLECTOR)).thenReturn("MarkSweepCompact");
+        when(garbageCollectionMonitorService.getCollectorName(YOUNG_COLLECTOR)).thenReturn("Copy");
+        when(garbageCollectionMonitorService.determineGCType("MarkSweepCompact")).thenReturn("OLD_GENERATION");
+        when(garbageCollectionMonitorService.determineGCType("Copy")).thenReturn("YOUNG_GENERATION");
+        when(classLoadingMXBean.getUnloadedClassCount()).thenReturn(100L);
+        when(metaspacePool.getName()).thenReturn("Metaspace");
+        when(compressedClassSpacePool.getName()).thenReturn("Compressed Class Space");
+        when(compressedClassSpacePool.getUsage()).thenReturn(new MemoryUsage(0, 2 * MB, 2 * MB, 1024 * MB));
+        service = new MetaspaceMonitorService(memoryLeakDetectorService, garbageCollectionMonitorService,
+            classLoadingMXBean, List.of(metaspacePool, compressedClassSpacePool), mBeanServer, 30, 0.8, 85, 60, 3600);
+    }
+
+    // Samples 10 seconds apart, like the scheduler takes them
+    private void sample(long loadedClasses, long metaspaceUsed, long metaspaceMax) {
+        sampleTime += 10000L;
+        when(classLoadingMXBean.getLoadedClassCount()).thenReturn((int) loadedClasses);
+        when(classLoadingMXBean.getTotalLoadedClassCount()).thenReturn(loadedClasses + 100);
+        when(classLoadingMXBean.getUnloadedClassCount()).thenReturn(100L);
+        when(metaspacePool.getUsage()).thenReturn(new MemoryUsage(0, metaspaceUsed, metaspaceUsed, metaspaceMax));
+        service.onMemorySample(new MemorySampleDTO(sampleTime, 10L, 20L, 30L, 40L, 50L, -1L));
+    }
+
+    // Old GC event carrying the Metaspace usage after GC
+    private GcEvent gcEvent(long startTime, long metaspaceUsedAfter) {
+        return gcEvent(OLD_COLLECTOR, startTime, metaspaceUsedAfter);
+    }
+
+    private GcEvent gcEvent(int collector, long startTime, long metaspaceUsedAfter) {
+        GcEventRingBuffer buffer = new GcEventRingBuffer(1, 2);
+        long sequence = buffer.tryClaim();
+        buffer.setEvent(sequence, collector, 0, 0, 1L, startTime, 5L);
+        buffer.setPoolUsage(sequence, 0, 1000L, 500L);
+        buffer.setPoolUsage(sequence, 1, metaspaceUsedAfter, metaspaceUsedAfter);
+        buffer.publish(sequence);
+        GcEvent event = new GcEvent(2);
+        buffer.drain(event, drained -> { });
+        return event;
+    }
+
+    @Test
+    void constructor_ShouldRegisterAsSampleAndGcEventListener() {
+        verify(memoryLeakDetectorService).addMemorySampleListener(service);
+        verify(garbageCollectionMonitorService).addGcEventListener(service);
+    }
+
+    @Test
+    void findMetaspacePools_ShouldFindMetaspaceOnly() {
+        int[] pools = MetaspaceMonitorService.findMetaspacePools(
+            new String[] { "G1 Eden Space", "Metaspace", "Compressed Class Space", "G1 Old Gen" });
+
+        assertEquals(1, pools.length);
+        assertEquals(1, pools[0]);
+    }
+
+    @Test
+    void onMemorySample_ShouldDetectLeakWhenClassesAndMetaspaceGrowTowardsTheMaximum() {
+        // Given/When - 0.2 MB/s, 42 MB left of MaxMetaspaceSize after the warm-up
+        for (int i = 0; i < 10; i++) {
+            sample(5000 + i * 200, 40 * MB + i * 2 * MB, 100 * MB);
+        }
+
+        // Then
+        Map<String, Object> status = service.getLeakDetectionStatus();
+        assertTrue(service.isMetaspaceLeakDetected());
+        assertEquals(true, status.get("loadedClassGrowthDetected"));
+        assertEquals(true, status.get("metaspaceGrowthDetected"));
+        assertEquals(false, status.get("highUsageDetected"));
+        assertEquals(true, status.get("exhaustionImminent"));
+        assertEquals(false, status.get("warmingUp"));
+        assertEquals(210L, status.get("secondsToExhaustion"));
+        assertEquals(MetaspaceMonitorService.GROWTH_SOURCE_SAMPLES, status.get("metaspaceGrowthSource"));
+        assertEquals(6800L, status.get("loadedClassCount"));
+        assertEquals(100L, status.get("unloadedClassCount"));
+        assertEquals(20.0, (double) status.get("classGrowthPerSecond"), 1e-6);
+    }
+
+    @Test
+    void onMemorySample_WhenStartupLoadsClassesSteadily_ShouldNotDetectLeak() {
+        // Given/When - a large application loading classes for its first minute
+        for (int i = 0; i < 6; i++) {
+            sample(5000 + i * 2000, 40 * MB + i * 10 * MB, 100 * MB);
+        }
+
+        // Then - within the warm-up, however fast and close to the maximum
+        Map<String, Object> status = service.getLeakDetectionStatus();
+        assertFalse(service.isMetaspaceLeakDetected());
+        assertEquals(true, status.get("warmingUp"));
+        assertEquals(true, status.get("loadedClassGrowthDetected"));
+        assertEquals(true, status.get("metaspaceGrowthDetected"));
+
+        // When - it keeps loading at a slower pace, far from any limit
+        for (int i = 0; i < 30; i++) {
+            sample(20000 + i * 50, 90 * MB + i * MB / 10, -1);
+        }
+
+        // Then
+        status = service.getLeakDetectionStatus();
+        assertFalse(service.isMetaspaceLeakDetected());
+        assertEquals(false, status.get("warmingUp"));
+        assertEquals(true, status.get("metaspaceGrowthDetected"));
+        assertEquals(false, status.get("exhaustionImminent"));
+        assertEquals(-1L, status.get("secondsToExhaustion"));
+    }
+
+    @Test
+    void onMemorySample_ShouldNotDetectLeakWhenGcsReclaimMetaspace() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            service.onGcEvent(gcEvent(sampleTime + i * 2000L, 40 * MB));
+        }
+
+        // When
+        for (int i = 0; i < 6; i++) {
+            sample(5000 + i * 200, 40 * MB + i * 2 * MB, -1);
+        }
+
+        // Then
+        Map<String, Object> status = service.getLeakDetectionStatus();
+        assertFalse(service.isMetaspaceLeakDetected());
+        assertEquals(true, status.get("loadedClassGrowthDetected"));
+        assertEquals(false, status.get("metaspaceGrowthDetected"));
+        assertEquals(MetaspaceMonitorService.GROWTH_SOURCE_POST_GC, status.get("metaspaceGrowthSource"));
+    }
+
+    @Test
+    void onGcEvent_ShouldDetectMetaspaceGrowthAcrossGcs() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            service.onGcEvent(gcEvent(sampleTime + i * 2000L, 40 * MB + i * MB));
+        }
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            sample(5000 + i * 200, 50 * MB, 100 * MB);
+        }
+
+        // Then
+        Map<String, Object> status = service.getLeakDetectionStatus();
+        assertTrue(service.isMetaspaceLeakDetected());
+        assertEquals(MetaspaceMonitorService.GROWTH_SOURCE_POST_GC, status.get("metaspaceGrowthSource"));
+        assertEquals(MB / 2.0, (double) status.get("metaspaceGrowthSlopeBytesPerSecond"), 1.0);
+    }
+
+    @Test
+    void onGcEvent_ShouldOnlyFeedCollectionsThatCanUnloadClasses() {
+        // Given - young collections that unload nothing
+        for (int i = 0; i < 5; i++) {
+            service.onGcEvent(gcEvent(YOUNG_COLLECTOR, sampleTime + i * 2000L, 40 * MB + i * MB));
+        }
+        sample(5000, 50 * MB, -1);
+        assertEquals(MetaspaceMonitorService.GROWTH_SOURCE_SAMPLES,
+            service.getLeakDetectionStatus().get("metaspaceGrowthSource"));
+
+        // When - they start unloading classes
+        for (int i = 0; i < 5; i++) {
+            when(classLoadingMXBean.getUnloadedClassCount()).thenReturn(200L + i);
+            service.onGcEvent(gcEvent(YOUNG_COLLECTOR, sampleTime + i * 2000L, 40 * MB));
+        }
+        sample(5000, 50 * MB, -1);
+
+        // Then
+        assertEquals(MetaspaceMonitorService.GROWTH_SOURCE_POST_GC,
+            service.getLeakDetectionStatus().get("metaspaceGrowthSource"));
+    }
+
+    @Test
+    void findUnloadingCollectors_ShouldSkipYoungCollections() {
+        // Given
+        when(garbageCollectionMonitorService.getCollectorCount()).thenReturn(4);
+        when(garbageCollectionMonitorService.getCollectorName(0)).thenReturn("G1 Young Generation");
+        when(garbageCollectionMonitorService.getCollectorName(1)).thenReturn("G1 Concurrent GC");
+        when(garbageCollectionMonitorService.getCollectorName(2)).thenReturn("ZGC Minor Cycles");
+        when(garbageCollectionMonitorService.getCollectorName(3)).thenReturn("Shenandoah Cycles");
+        when(garbageCollectionMonitorService.determineGCType(any())).thenReturn("UNKNOWN");
+        when(garbageCollectionMonitorService.determineGCType("G1 Young Generation")).thenReturn("YOUNG_GENERATION");
+        when(garbageCollectionMonitorService.determineGCType("ZGC Minor Cycles")).thenReturn("YOUNG_GENERATION");
+
+        // When
+        boolean[] collectors = MetaspaceMonitorService.findUnloadingCollectors(garbageCollectionMonitorService);
+
+        // Then
+        assertArrayEquals(new boolean[] { false, true, false, true }, collectors);
+    }
+
+    @Test
+    void onMemorySample_ShouldNotDetectLeakWithStableClassCount() {
+        // Given/When
+        for (int i = 0; i < 6; i++) {
+            sample(5000, 40 * MB + i * 2 * MB, -1);
+        }
+
+        // Then
+        assertFalse(service.isMetaspaceLeakDetected());
+        assertEquals(false, service.getLeakDetectionStatus().get("loadedClassGrowthDetected"));
+    }
+
+    @Test
+    void onMemorySample_ShouldDetectHighUsageAgainstMaxMetaspaceSize() {
+        // Given/When
+        sample(5000, 90 * MB, 100 * MB);
+
+        // Then
+        Map<String, Object> status = service.getLeakDetectionStatus();
+        assertEquals(true, status.get("highUsageDetected"));
+        assertEquals(String.format("%.2f", 90.0), status.get("usagePercentage"));
+        assertFalse(service.isMetaspaceLeakDetected());
+    }
+
+    @Test
+    void getClassLoaderStats_ShouldReportGrowthSincePreviousRequest() throws Exception {
+        // Given
+        String before = "ClassLoader         Parent              CLD*               Classes   ChunkSz   BlockSz  Type\n"
+            + "0x00007f5f08001470  0x00007f5f0706aa18  0x00007f5f604b10a0     120    262144    250000  org.example.WebAppClassLoader\n"
+            + "Total = 1                                                      120    262144    250000\n";
+        String after = "ClassLoader         Parent              CLD*               Classes   ChunkSz   BlockSz  Type\n"
+            + "0x00007f5f08001470  0x00007f5f0706aa18  0x00007f5f604b10a0     120    262144    250000  org.example.WebAppClassLoader\n"
+            + "0x00007f5f08001480  0x00007f5f0706aa18  0x00007f5f604b10b0     125    262144    255000  org.example.WebAppClassLoader\n"
+            + "Total = 2                                                      245    524288    505000\n";
+        when(mBeanServer.invoke(any(ObjectName.class), eq(MetaspaceMonitorService.OPERATION), any(), any()))
+            .thenReturn(before, after);
+
+        // When
+        List<ClassLoaderStatsDTO> first = service.getClassLoaderStats();
+        List<ClassLoaderStatsDTO> second = service.getClassLoaderStats();
+
+        // Then
+        assertEquals(0, first.get(0).getLoaderGrowth());
+        assertEquals(2, second.get(0).getLoaders());
+        assertEquals(1, second.get(0).getLoaderGrowth());
+        assertEquals(125L, second.get(0).getClassGrowth());
+    }
+
+    @Test
+    void getClassLoaderStats_ShouldReturnNullOnFailure() throws Exception {
+        // Given
+        when(mBeanServer.invoke(any(ObjectName.class), eq(MetaspaceMonitorService.OPERATION), any(), any()))
+            .thenThrow(new InstanceNotFoundException("no diagnostic command"));
+
+        // When/Then
+        assertNull(service.getClassLoaderStats());
+    }
+
+    @Test
+    void platformBeans_ShouldReadThisJvm() throws Exception {
+        // Given
+        MetaspaceMonitorService live = new MetaspaceMonitorService(memoryLeakDetectorService,
+            garbageCollectionMonitorService, ManagementFactory.getClassLoadingMXBean(),
+            ManagementFactory.getMemoryPoolMXBeans(), ManagementFactory.getPlatformMBeanServer(), 30, 0.8, 85, 600,
+            3600);
+
+        // When
+        live.onMemorySample(new MemorySampleDTO(sampleTime, 10L, 20L, 30L, 40L, 50L, -1L));
+        List<ClassLoaderStatsDTO> stats = live.getClassLoaderStats();
+
+        // Then
+        assertTrue((long) live.getLeakDetectionStatus().get("loadedClassCount") > 0);
+        assertNotNull(stats);
+        assertTrue(stats.stream().anyMatch(type -> type.getType().equals("<boot class loader>") && type.getClasses() > 0));
+    }
+
+}
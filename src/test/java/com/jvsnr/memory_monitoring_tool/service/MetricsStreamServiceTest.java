@@ -0,0 +1,190 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+
+@ExtendWith(MockitoExtension.class)
+class MetricsStreamServiceTest {
+
+    private static final int MAX_CONFLATED_FRAMES = 3;
+
+    @Mock
+    private MemoryMonitorService memoryMonitorService;
+
+    @Mock
+    private GarbageCollectionMonitorService garbageCollectionMonitorService;
+
+    private MetricsStreamService metricsStreamService;
+
+    @BeforeEach
+    void setUp() {
+        metricsStreamService = new MetricsStreamService(memoryMonitorService, garbageCollectionMonitorService,
+            new ObjectMapper(), MAX_CONFLATED_FRAMES, 60000L, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        metricsStreamService.shutdown();
+    }
+
+    @Test
+    void publish_WhenNoSubscribers_ShouldNotReadMetrics() {
+        // When
+        metricsStreamService.publish();
+
+        // Then
+        verify(memoryMonitorService, never()).sample();
+        verify(garbageCollectionMonitorService, never()).getGCMetricsByCollectionName();
+    }
+
+    @Test
+    void publish_ShouldReadOnceAndSendSameFrameToEverySubscriber() throws InterruptedException {
+        // Given
+        when(memoryMonitorService.sample()).thenReturn(new MemorySampleDTO(1000L, 10L, 20L, 30L, 40L, 50L, -1L));
+        when(garbageCollectionMonitorService.getGCMetricsByCollectionName()).thenReturn(Map.of());
+        RecordingEmitter first = new RecordingEmitter(1);
+        RecordingEmitter second = new RecordingEmitter(1);
+        metricsStreamService.subscribe(first);
+        metricsStreamService.subscribe(second);
+
+        // When
+        metricsStreamService.publish();
+
+        // Then
+        assertTrue(first.received.await(5, TimeUnit.SECONDS));
+        assertTrue(second.received.await(5, TimeUnit.SECONDS));
+        verify(memoryMonitorService, times(1)).sample();
+        assertEquals(first.frames, second.frames);
+        assertTrue(first.frames.get(0).contains("\"heapMemoryUsed\":10"));
+        assertTrue(first.frames.get(0).contains("\"sequence\":1"));
+        assertEquals(1L, metricsStreamService.getStreamStats().get("framesPublished"));
+    }
+
+    @Test
+    void publish_WhenSubscriberTooSlow_ShouldConflateThenDropIt() throws InterruptedException {
+        // Given - the slow subscriber blocks in its first send
+        when(memoryMonitorService.sample()).thenReturn(new MemorySampleDTO(1000L, 10L, 20L, 30L, 40L, 50L, -1L));
+        when(garbageCollectionMonitorService.getGCMetricsByCollectionName()).thenReturn(Map.of());
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingEmitter slow = new BlockingEmitter(release);
+        metricsStreamService.subscribe(slow);
+        metricsStreamService.publish();
+        assertTrue(slow.blocked.await(5, TimeUnit.SECONDS));
+
+        int frames = MAX_CONFLATED_FRAMES + 2;
+        RecordingEmitter fast = new RecordingEmitter(frames);
+        metricsStreamService.subscribe(fast);
+
+        try {
+            // When - every frame after the first one replaces the pending one of the slow
+            // subscriber, while the fast one receives each frame before the next tick
+            for (int i = 0; i < frames; i++) {
+                metricsStreamService.publish();
+                assertTrue(fast.sent.tryAcquire(5, TimeUnit.SECONDS));
+            }
+
+            // Then
+            Map<String, Long> stats = metricsStreamService.getStreamStats();
+            assertEquals(1L, stats.get("clientsDropped"));
+            assertEquals(1L, stats.get("subscribers"));
+            assertTrue(stats.get("framesConflated") >= MAX_CONFLATED_FRAMES + 1);
+            assertTrue(fast.received.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void publish_WhenVirtualThreadsEnabled_ShouldSendOnVirtualThreads() throws InterruptedException {
+        // Given
+        metricsStreamService.shutdown();
+        metricsStreamService = new MetricsStreamService(memoryMonitorService, garbageCollectionMonitorService,
+            new ObjectMapper(), MAX_CONFLATED_FRAMES, 60000L, true);
+        when(memoryMonitorService.sample()).thenReturn(new MemorySampleDTO(1000L, 10L, 20L, 30L, 40L, 50L, -1L));
+        when(garbageCollectionMonitorService.getGCMetricsByCollectionName()).thenReturn(Map.of());
+        RecordingEmitter emitter = new RecordingEmitter(1);
+        metricsStreamService.subscribe(emitter);
+
+        // When
+        metricsStreamService.publish();
+
+        // Then
+        assertTrue(emitter.received.await(5, TimeUnit.SECONDS));
+        assertTrue(emitter.sentOnVirtualThread);
+    }
+
+    /**
+     * Emitter recording the data of every sent event.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private final CountDownLatch received;
+        private final Semaphore sent = new Semaphore(0);
+        private volatile boolean sentOnVirtualThread;
+
+        RecordingEmitter(int expectedFrames) {
+            this.received = new CountDownLatch(expectedFrames);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            frames.add(builder.build().stream()
+                .map(data -> data.getData().toString())
+                .collect(Collectors.joining()));
+            sentOnVirtualThread = Thread.currentThread().isVirtual();
+            received.countDown();
+            sent.release();
+        }
+
+    }
+
+    /**
+     * Emitter whose sends block until released, like a client that stopped reading.
+     */
+    private static class BlockingEmitter extends SseEmitter {
+
+        private final CountDownLatch release;
+        private final CountDownLatch blocked = new CountDownLatch(1);
+
+        BlockingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.jvsnr.memory_monitoring_tool.dto.NativeMemoryDiffDTO;
+import com.jvsnr.memory_monitoring_tool.dto.NativeMemorySnapshotDTO;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class NativeMemoryServiceTest {
+
+    @Mock
+    private MBeanServer mBeanServer;
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+
+    private NativeMemoryService service() throws Exception {
+        return new NativeMemoryService(mBeanServer, 4, clock::get);
+    }
+
+    private void summaries(String first, String... rest) throws Exception {
+        when(mBeanServer.invoke(any(ObjectName.class), eq(NativeMemoryService.OPERATION), any(), any()))
+            .thenReturn(first, (Object[]) rest);
+    }
+
+    private static String summary(long threadCommittedKb, long internalCommittedKb) {
+        return "Native Memory Tracking:\n\n"
+            + "Total: reserved=200000KB, committed=" + (1000 + threadCommittedKb + internalCommittedKb) + "KB\n\n"
+            + "-                 Java Heap (reserved=100000KB, committed=1000KB)\n"
+            + "-                    Thread (reserved=50000KB, committed=" + threadCommittedKb + "KB)\n"
+            + "                            (thread #12)\n"
+            + "-                  Internal (reserved=50000KB, committed=" + internalCommittedKb + "KB)\n";
+    }
+
+    @Test
+    void capture_ShouldReturnTheTotals() throws Exception {
+        // Given
+        summaries(summary(100, 200));
+        NativeMemoryService service = service();
+
+        // When
+        NativeMemorySnapshotDTO snapshot = service.capture();
+
+        // Then
+        assertNotNull(snapshot);
+        assertNull(snapshot.getCategory());
+        assertEquals(1_700_000_000_000L, snapshot.getTimestamp());
+        assertEquals(200000L * 1024, snapshot.getReserved());
+        assertEquals(1300L * 1024, snapshot.getCommitted());
+        assertEquals(List.of("Java Heap", "Thread", "Internal"), service.getCategories());
+    }
+
+    @Test
+    void capture_WhenTrackingIsOff_ShouldReturnNullAndReportIt() throws Exception {
+        // Given
+        summaries("Native memory tracking is not enabled\n");
+        NativeMemoryService service = service();
+
+        // When
+        NativeMemorySnapshotDTO snapshot = service.capture();
+
+        // Then
+        assertNull(snapshot);
+        Map<String, Object> stats = service.getStats();
+        assertEquals(false, stats.get("trackingEnabled"));
+        assertEquals(1L, stats.get("failures"));
+        assertEquals(0, stats.get("snapshots"));
+    }
+
+    @Test
+    void capture_WhenInvocationFails_ShouldReturnNull() throws Exception {
+        // Given
+        when(mBeanServer.invoke(any(ObjectName.class), eq(NativeMemoryService.OPERATION), any(), any()))
+            .thenThrow(new InstanceNotFoundException("no diagnostic command"));
+
+        // When/Then
+        assertNull(service().capture());
+    }
+
+    @Test
+    void getSeries_ShouldReturnTheCategoryOverTime() throws Exception {
+        // Given
+        summaries(summary(100, 200), summary(300, 200));
+        NativeMemoryService service = service();
+        service.capture();
+        clock.addAndGet(60_000L);
+        service.capture();
+
+        // When
+        List<NativeMemorySnapshotDTO> series = service.getSeries("Thread");
+
+        // Then
+        assertEquals(2, series.size());
+        assertEquals("Thread", series.get(1).getCategory());
+        assertEquals(100L * 1024, series.get(0).getCommitted());
+        assertEquals(300L * 1024, series.get(1).getCommitted());
+        assertEquals(1_700_000_060_000L, series.get(1).getTimestamp());
+        assertEquals(1500L * 1024, service.getSeries(null).get(1).getCommitted());
+        assertNull(service.getSeries("GC"));
+    }
+
+    @Test
+    void getDiff_WithoutBaseline_ShouldDiffFromTheOldestSnapshot() throws Exception {
+        // Given
+        summaries(summary(100, 200), summary(150, 900), summary(200, 1200));
+        NativeMemoryService service = service();
+        service.capture();
+        assertNull(service.getDiff());
+        service.capture();
+        service.capture();
+
+        // When
+        NativeMemoryDiffDTO diff = service.getDiff();
+
+        // Then
+        assertEquals("Internal", diff.getCategories().get(0).getCategory());
+        assertEquals(1000L * 1024, diff.getCategories().get(0).getCommittedGrowth());
+        assertEquals("Thread", diff.getCategories().get(1).getCategory());
+    }
+
+    @Test
+    void getDiff_WithBaseline_ShouldDiffFromTheBaseline() throws Exception {
+        // Given
+        summaries(summary(100, 200), summary(150, 900), summary(4150, 900));
+        NativeMemoryService service = service();
+        service.capture();
+        clock.addAndGet(60_000L);
+        NativeMemorySnapshotDTO baseline = service.baseline();
+        clock.addAndGet(60_000L);
+        service.capture();
+
+        // When
+        NativeMemoryDiffDTO diff = service.getDiff();
+
+        // Then
+        assertEquals(baseline.getTimestamp(), diff.getFrom());
+        assertEquals(1_700_000_120_000L, diff.getTo());
+        assertEquals("Thread", diff.getCategories().get(0).getCategory());
+        assertEquals(4000L * 1024, diff.getCategories().get(0).getCommittedGrowth());
+        assertEquals(0L, diff.getCategories().get(1).getCommittedGrowth());
+        assertEquals(true, service.getStats().get("baseline"));
+    }
+
+    @Test
+    void capture_OnThisJvmWithoutTracking_ShouldReturnNull() throws Exception {
+        // Given, the test JVM runs without -XX:NativeMemoryTracking
+        NativeMemoryService service = new NativeMemoryService(ManagementFactory.getPlatformMBeanServer(), 4,
+            clock::get);
+
+        // When
+        NativeMemorySnapshotDTO snapshot = service.capture();
+
+        // Then
+        assertNull(snapshot);
+        assertEquals(false, service.getStats().get("trackingEnabled"));
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.dto.PauseHistogramDTO;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OpenMetricsServiceTest {
+
+    private static final long MAX_AGE = 10_000L;
+
+    @Mock
+    private MemoryMonitorService memoryMonitorService;
+
+    @Mock
+    private GarbageCollectionMonitorService garbageCollectionMonitorService;
+
+    @Mock
+    private MemoryLeakDetectorService memoryLeakDetectorService;
+
+    private AtomicLong clock;
+    private OpenMetricsService service;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000_000L);
+        when(garbageCollectionMonitorService.getCollectorCount()).thenReturn(2);
+        when(garbageCollectionMonitorService.getCollectorName(0)).thenReturn("G1 Young Generation");
+        when(garbageCollectionMonitorService.getCollectorName(1)).thenReturn("Odd \"Old\" Gen");
+        when(garbageCollectionMonitorService.getCollectionCount(0)).thenReturn(42L);
+        when(garbageCollectionMonitorService.getCollectionTime(0)).thenReturn(1234L);
+        when(garbageCollectionMonitorService.getCollectionCount(1)).thenReturn(0L);
+        when(garbageCollectionMonitorService.getCollectionTime(1)).thenReturn(0L);
+        when(garbageCollectionMonitorService.getGCEventPipelineStats()).thenReturn(Map.of("dropped", 3L));
+
+        PauseHistogramDTO young = new PauseHistogramDTO();
+        young.setCount(4L);
+        young.setMeanMs(2.5);
+        young.setP50Ms(2.0);
+        young.setP90Ms(3.5);
+        young.setP99Ms(4.0);
+        young.setP999Ms(4.001);
+        Map<String, PauseHistogramDTO> pauses = new LinkedHashMap<>();
+        pauses.put("G1 Young Generation", young);
+        pauses.put("Odd \"Old\" Gen", new PauseHistogramDTO());
+        when(garbageCollectionMonitorService.getPauseHistograms(false)).thenReturn(pauses);
+
+        when(memoryLeakDetectorService.isConsistentGrowthDetected()).thenReturn(true);
+        when(memoryLeakDetectorService.isPoorReclamationDetected()).thenReturn(true);
+        when(memoryLeakDetectorService.isMemoryLeakDetected()).thenReturn(true);
+        when(memoryLeakDetectorService.getGrowthSlope()).thenReturn(-1536.25);
+        when(memoryLeakDetectorService.getGrowthConfidence()).thenReturn(0.912345);
+
+        service = new OpenMetricsService(memoryMonitorService, garbageCollectionMonitorService,
+            memoryLeakDetectorService, MAX_AGE, clock::get);
+    }
+
+    private MemorySampleDTO sample(long heapUsed) {
+        return new MemorySampleDTO(clock.get(), heapUsed, 2048L, 4096L, 512L, 1024L, -1L);
+    }
+
+    private String scrape() {
+        return new String(service.scrape(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void constructor_ShouldRegisterAsListener() {
+        verify(memoryLeakDetectorService).addMemorySampleListener(service);
+    }
+
+    @Test
+    void scrape_ShouldEncodeOpenMetrics() {
+        // Given
+        service.onMemorySample(sample(1024L));
+
+        // When
+        String payload = scrape();
+
+        // Then
+        assertTrue(payload.startsWith("# TYPE memory_monitor_memory_used_bytes gauge\n"
+            + "# UNIT memory_monitor_memory_used_bytes bytes\n"));
+        assertTrue(payload.contains("memory_monitor_memory_used_bytes{area=\"heap\"} 1024\n"));
+        assertTrue(payload.contains("memory_monitor_memory_committed_bytes{area=\"nonheap\"} 1024\n"));
+        assertTrue(payload.contains("memory_monitor_memory_max_bytes{area=\"heap\"} 4096\n"));
+        assertTrue(!payload.contains("memory_monitor_memory_max_bytes{area=\"nonheap\"}"));
+        assertTrue(payload.contains("memory_monitor_gc_collections_total{collector=\"G1 Young Generation\"} 42\n"));
+        assertTrue(payload.contains("memory_monitor_gc_collection_seconds_total{collector=\"G1 Young Generation\"} 1.234\n"));
+        assertTrue(payload.contains("memory_monitor_gc_collections_total{collector=\"Odd \\\"Old\\\" Gen\"} 0\n"));
+        assertTrue(payload.contains("memory_monitor_gc_pause_seconds{collector=\"G1 Young Generation\",quantile=\"0.999\"} 0.004001\n"));
+        assertTrue(payload.contains("memory_monitor_gc_pause_seconds_sum{collector=\"G1 Young Generation\"} 0.010000\n"));
+        assertTrue(payload.contains("memory_monitor_gc_pause_seconds_count{collector=\"Odd \\\"Old\\\" Gen\"} 0\n"));
+        assertTrue(!payload.contains("Odd \\\"Old\\\" Gen\",quantile"));
+        assertTrue(payload.contains("memory_monitor_gc_events_dropped_total 3\n"));
+        assertTrue(payload.contains("memory_monitor_leak_signal{signal=\"consistent_growth\"} 1\n"));
+        assertTrue(payload.contains("memory_monitor_leak_signal{signal=\"high_gc_frequency\"} 0\n"));
+        assertTrue(payload.contains("memory_monitor_leak_signal{signal=\"memory_leak\"} 1\n"));
+        assertTrue(payload.contains("memory_monitor_leak_growth_slope -1536.250\n"));
+        assertTrue(payload.contains("memory_monitor_leak_growth_confidence 0.912345\n"));
+        assertTrue(payload.endsWith("# EOF\n"));
+        verify(memoryMonitorService, never()).sample();
+    }
+
+    @Test
+    void scrape_WithinSameTick_ShouldReturnCachedPayload() {
+        // Given
+        service.onMemorySample(sample(1024L));
+        byte[] first = service.scrape();
+
+        // When
+        clock.addAndGet(500L);
+        byte[] second = service.scrape();
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1L, service.getEncodeCount());
+    }
+
+    @Test
+    void scrape_AfterNextSample_ShouldEncodeAgain() {
+        // Given
+        service.onMemorySample(sample(1024L));
+        byte[] first = service.scrape();
+
+        // When
+        service.onMemorySample(sample(2048L));
+        byte[] second = service.scrape();
+
+        // Then
+        assertNotSame(first, second);
+        assertTrue(new String(second, StandardCharsets.UTF_8).contains("{area=\"heap\"} 2048\n"));
+        assertEquals(2L, service.getEncodeCount());
+    }
+
+    @Test
+    void scrape_WhenSamplerStopped_ShouldSampleAfterMaxAge() {
+        // Given
+        service.onMemorySample(sample(1024L));
+        service.scrape();
+        clock.addAndGet(MAX_AGE);
+        when(memoryMonitorService.sample()).thenReturn(sample(4000L));
+
+        // When
+        String payload = scrape();
+
+        // Then
+        assertTrue(payload.contains("{area=\"heap\"} 4000\n"));
+        verify(memoryMonitorService, times(1)).sample();
+    }
+
+    @Test
+    void scrape_WhenConcurrent_ShouldEncodeOnce() throws Exception {
+        // Given
+        service.onMemorySample(sample(1024L));
+        ExecutorService scrapers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<byte[]>> scrapes = new ArrayList<>();
+
+            // When
+            for (int i = 0; i < 64; i++) {
+                scrapes.add(scrapers.submit(service::scrape));
+            }
+
+            // Then
+            byte[] payload = scrapes.get(0).get();
+            for (Future<byte[]> scrape : scrapes) {
+                assertSame(payload, scrape.get());
+            }
+            assertEquals(1L, service.getEncodeCount());
+        } finally {
+            scrapers.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,365 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.jvsnr.memory_monitoring_tool.dto.RemoteJvmStatusDTO;
+
+class RemoteJvmMonitorServiceTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    private final ScheduledExecutorService timer = mock(ScheduledExecutorService.class);
+    private RemoteJvmMonitorService remoteJvmMonitorService;
+
+    @AfterEach
+    void tearDown() {
+        if (remoteJvmMonitorService != null) {
+            remoteJvmMonitorService.shutdown();
+        }
+    }
+
+    private RemoteJvmMonitorService service(JmxConnectionPool pool, long timeoutMillis) {
+        remoteJvmMonitorService = new RemoteJvmMonitorService(pool, 1000L, timeoutMillis, 30, 0.5, timer);
+        return remoteJvmMonitorService;
+    }
+
+    /**
+     * Pool connecting "fake" targets to the given connections and every other address for real.
+     */
+    private static JmxConnectionPool pool(Map<String, MBeanServerConnection> fakes) throws IOException {
+        // Mocks are created up front, creating them while sampling could exceed the timeout
+        Map<String, JMXConnector> connectors = new HashMap<>();
+        for (Map.Entry<String, MBeanServerConnection> fake : fakes.entrySet()) {
+            JMXConnector connector = mock(JMXConnector.class);
+            when(connector.getMBeanServerConnection()).thenReturn(fake.getValue());
+            connectors.put(fake.getKey(), connector);
+        }
+        return new JmxConnectionPool((url, environment) -> {
+            JMXConnector connector = connectors.get(url.getURLPath());
+            return connector != null ? connector : JMXConnectorFactory.connect(url, environment);
+        }, Map.of());
+    }
+
+    @Test
+    void sampleAll_ShouldSampleChildJvmOverPooledConnection() throws Exception {
+        // Given
+        Process child = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+            "-Xmx64m", "-cp", System.getProperty("java.class.path"), JmxTestTarget.class.getName())
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+        try {
+            BufferedReader stdout = new BufferedReader(new InputStreamReader(child.getInputStream()));
+            String address = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return stdout.readLine();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }).get(60, TimeUnit.SECONDS);
+            RemoteJvmMonitorService service = service(new JmxConnectionPool(Map.of(), 10000L), 10000L);
+            service.addTarget("child", address);
+
+            // When
+            service.sampleAll();
+            service.sampleAll();
+
+            // Then
+            RemoteJvmStatusDTO status = service.getTarget("child");
+            assertTrue(status.isAvailable(), status.getLastError());
+            assertEquals(2L, status.getSamples());
+            assertEquals(64L * MB, status.getHeapMemoryMax(), 8L * MB);
+            assertTrue(status.getHeapMemoryUsed() > 0);
+            assertTrue(status.getNonHeapMemoryUsed() > 0);
+            Map<String, Object> stats = service.getStats();
+            assertEquals(1L, stats.get("connectionsOpened"));
+            assertEquals(1, stats.get("openConnections"));
+            assertEquals(2L, stats.get("rounds"));
+        } finally {
+            child.destroy();
+            child.waitFor(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void sampleAll_WhenTargetHangs_ShouldTimeOutWithoutDelayingOthers() throws Exception {
+        // Given
+        MBeanServerConnection hanging = mock(MBeanServerConnection.class);
+        when(hanging.queryNames(any(ObjectName.class), isNull())).thenAnswer(invocation -> {
+            Thread.sleep(30000);
+            return Set.of();
+        });
+        FakeJvm fast = new FakeJvm(100 * MB, 1000 * MB);
+        RemoteJvmMonitorService service = service(pool(Map.of("/hanging", hanging, "/fast", fast.connection)), 1000L);
+        service.addTarget("hanging", "service:jmx:test:///hanging");
+        service.addTarget("fast", "service:jmx:test:///fast");
+
+        // When
+        long start = System.nanoTime();
+        service.sampleAll();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertTrue(elapsed < 5000L, "round took " + elapsed + " ms");
+        RemoteJvmStatusDTO hangingStatus = service.getTarget("hanging");
+        assertEquals(1L, hangingStatus.getTimeouts());
+        assertFalse(hangingStatus.isAvailable());
+        assertEquals(0L, hangingStatus.getFailures());
+        RemoteJvmStatusDTO fastStatus = service.getTarget("fast");
+        assertEquals(1L, fastStatus.getSamples(), fastStatus.getLastError());
+        assertEquals(100 * MB, fastStatus.getHeapMemoryUsed());
+        assertEquals(1L, service.getStats().get("timeouts"));
+    }
+
+    @Test
+    void sampleAll_WhenTimedOutSampleStillBlocked_ShouldSkipTargetUntilItReturns() throws Exception {
+        // Given - a remote call that ignores the interrupt of the cancelled sample
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        MBeanServerConnection hanging = mock(MBeanServerConnection.class);
+        when(hanging.queryNames(any(ObjectName.class), isNull())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            while (true) {
+                try {
+                    release.await();
+                    throw new IOException("Connection reset");
+                } catch (InterruptedException e) {
+                    // like a blocked RMI read
+                }
+            }
+        });
+        RemoteJvmMonitorService service = service(pool(Map.of("/hanging", hanging)), 200L);
+        service.addTarget("hanging", "service:jmx:test:///hanging");
+
+        // When
+        service.sampleAll();
+        service.sampleAll();
+
+        // Then - no second sample piles up behind the blocked one
+        assertEquals(1, calls.get());
+        assertEquals(1L, service.getTarget("hanging").getTimeouts());
+        assertEquals(1L, service.getTarget("hanging").getSkipped());
+
+        // And once the blocked call returns, the target is sampled again
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (calls.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            service.sampleAll();
+        }
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void sampleAll_WhenConnectHangs_ShouldNotDelayTheRounds() throws Exception {
+        // Given - a connect that ignores the interrupt of the cancelled sample, like a blocked RMI handshake
+        CountDownLatch release = new CountDownLatch(1);
+        FakeJvm fast = new FakeJvm(100 * MB, 1000 * MB);
+        JMXConnector fastConnector = mock(JMXConnector.class);
+        when(fastConnector.getMBeanServerConnection()).thenReturn(fast.connection);
+        RemoteJvmMonitorService service = service(new JmxConnectionPool((url, environment) -> {
+            if (url.getURLPath().equals("/fast")) {
+                return fastConnector;
+            }
+            while (true) {
+                try {
+                    release.await();
+                    throw new IOException("Connection reset");
+                } catch (InterruptedException e) {
+                    // not interruptible
+                }
+            }
+        }, Map.of()), 200L);
+        service.addTarget("hanging", "service:jmx:test:///hanging");
+        service.addTarget("fast", "service:jmx:test:///fast");
+
+        try {
+            // When - dropping the connection of the timed out target must not wait for its connect
+            long start = System.nanoTime();
+            service.sampleAll();
+            service.sampleAll();
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // Then
+            assertTrue(elapsed < 3000L, "rounds took " + elapsed + " ms");
+            assertEquals(1L, service.getTarget("hanging").getTimeouts());
+            assertEquals(1L, service.getTarget("hanging").getSkipped());
+            assertEquals(2L, service.getTarget("fast").getSamples());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void sampleAll_WhenConnectFails_ShouldRecordFailure() throws IOException {
+        // Given
+        RemoteJvmMonitorService service = service(new JmxConnectionPool((url, environment) -> {
+            throw new IOException("Connection refused");
+        }, Map.of()), 1000L);
+        service.addTarget("down", "localhost:1");
+
+        // When
+        service.sampleAll();
+
+        // Then
+        RemoteJvmStatusDTO status = service.getTarget("down");
+        assertEquals(1L, status.getFailures());
+        assertFalse(status.isAvailable());
+        assertTrue(status.getLastError().contains("Connection refused"));
+    }
+
+    @Test
+    void sampleAll_WhenOldGenKeepsGrowingAfterGc_ShouldDetectLeak() throws Exception {
+        // Given - the old generation after GC grows 10 MiB between samples, one GC each
+        FakeJvm jvm = new FakeJvm(900 * MB, 1000 * MB);
+        RemoteJvmMonitorService service = service(pool(Map.of("/leaking", jvm.connection)), 1000L);
+        service.addTarget("leaking", "service:jmx:test:///leaking");
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            jvm.gcCount++;
+            jvm.oldGenUsedAfterGc += 10 * MB;
+            service.sampleAll();
+            Thread.sleep(20);
+        }
+
+        // Then
+        RemoteJvmStatusDTO status = service.getTarget("leaking");
+        assertEquals(8L, status.getSamples());
+        assertEquals(MemoryLeakDetectorService.GROWTH_SOURCE_POST_GC, status.getGrowthSource());
+        assertTrue(status.getGrowthSlopeBytesPerSecond() > 0);
+        assertTrue(status.isConsistentGrowthDetected());
+        assertTrue(status.isPoorReclamationDetected());
+        assertTrue(status.isMemoryLeakDetected());
+        assertEquals(8L, status.getGcCollectionCount());
+    }
+
+    @Test
+    void addTarget_ShouldParseNamesAndAddresses() {
+        // Given
+        RemoteJvmMonitorService service = service(new JmxConnectionPool(Map.of(), 1000L), 1000L);
+
+        // When
+        RemoteJvmStatusDTO bare = service.addTarget("app-host:9010");
+        RemoteJvmStatusDTO named = service.addTarget("orders=orders-host:9010");
+        RemoteJvmStatusDTO stub = service.addTarget("service:jmx:rmi://127.0.0.1/stub/rO0ABQ==");
+
+        // Then
+        assertEquals("app-host:9010", bare.getName());
+        assertEquals("service:jmx:rmi:///jndi/rmi://app-host:9010/jmxrmi", bare.getUrl());
+        assertEquals("orders", named.getName());
+        assertEquals("service:jmx:rmi:///jndi/rmi://orders-host:9010/jmxrmi", named.getUrl());
+        assertEquals("service:jmx:rmi://127.0.0.1/stub/rO0ABQ==", stub.getName());
+        assertEquals(3, service.getTargets().size());
+        assertThrows(IllegalArgumentException.class, () -> service.addTarget("orders=other-host:9010"));
+        assertThrows(IllegalArgumentException.class, () -> service.addTarget("broken", "service:jmx:"));
+    }
+
+    @Test
+    void removeTarget_ShouldStopMonitoring() {
+        // Given
+        RemoteJvmMonitorService service = service(new JmxConnectionPool(Map.of(), 1000L), 1000L);
+        service.addTarget("orders=orders-host:9010");
+
+        // When/Then
+        assertTrue(service.removeTarget("orders"));
+        assertFalse(service.removeTarget("orders"));
+        assertNull(service.getTarget("orders"));
+        assertNotNull(service.getStats());
+    }
+
+    /**
+     * Remote JVM behind a mocked connection with one collector and one old generation pool.
+     */
+    private static class FakeJvm {
+
+        private static final ObjectName COLLECTOR = name("java.lang:type=GarbageCollector,name=G1 Young Generation");
+        private static final ObjectName EDEN = name("java.lang:type=MemoryPool,name=G1 Eden Space");
+        private static final ObjectName OLD_GEN = name("java.lang:type=MemoryPool,name=G1 Old Gen");
+
+        private static CompositeData usageTemplate;
+
+        private final MBeanServerConnection connection = mock(MBeanServerConnection.class);
+        private final long heapUsed;
+        private final long heapMax;
+        private volatile long gcCount;
+        private volatile long oldGenUsedAfterGc = 100 * MB;
+
+        FakeJvm(long heapUsed, long heapMax) throws Exception {
+            // Read up front, starting the platform MBean server while sampling could exceed the timeout
+            usageTemplate = (CompositeData) ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(name("java.lang:type=Memory"), "HeapMemoryUsage");
+            this.heapUsed = heapUsed;
+            this.heapMax = heapMax;
+            when(connection.queryNames(any(ObjectName.class), isNull())).thenAnswer(invocation -> {
+                ObjectName pattern = invocation.getArgument(0);
+                return "GarbageCollector".equals(pattern.getKeyProperty("type")) ? Set.of(COLLECTOR) : Set.of(EDEN, OLD_GEN);
+            });
+            when(connection.getAttributes(any(ObjectName.class), any(String[].class))).thenAnswer(invocation -> {
+                ObjectName name = invocation.getArgument(0);
+                return switch (name.getKeyProperty("type")) {
+                    case "Memory" -> new AttributeList(List.of(
+                        new Attribute("HeapMemoryUsage", usage(this.heapUsed, this.heapMax)),
+                        new Attribute("NonHeapMemoryUsage", usage(50 * MB, -1L))));
+                    case "GarbageCollector" -> new AttributeList(List.of(
+                        new Attribute("CollectionCount", gcCount),
+                        new Attribute("CollectionTime", gcCount * 5)));
+                    default -> new AttributeList(List.of(
+                        new Attribute("CollectionUsage", usage(oldGenUsedAfterGc, this.heapMax))));
+                };
+            });
+        }
+
+        private static CompositeData usage(long used, long max) throws Exception {
+            return new CompositeDataSupport(usageTemplate.getCompositeType(),
+                new String[] { "init", "used", "committed", "max" },
+                new Object[] { 0L, used, used, max });
+        }
+
+        private static ObjectName name(String name) {
+            try {
+                return new ObjectName(name);
+            } catch (Exception e) {
+                throw new IllegalArgumentException(name, e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.jvsnr.memory_monitoring_tool.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.jvsnr.memory_monitoring_tool.dto.ThreadAllocationDTO;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ThreadAllocationServiceTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final long MB = 1024L * 1024L;
+
+    @Mock
+    private com.sun.management.ThreadMXBean threadMXBean;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private ThreadAllocationService service;
+
+    @BeforeEach
+    void setUp() {
+        when(threadMXBean.getThreadCount()).thenReturn(2);
+        when(threadMXBean.isThreadAllocatedMemorySupported()).thenReturn(true);
+        when(threadMXBean.isThreadAllocatedMemoryEnabled()).thenReturn(true);
+        when(threadMXBean.getAllThreadIds()).thenReturn(new long[] { 11L, 12L });
+        ThreadInfo worker = mock(ThreadInfo.class);
+        when(worker.getThreadName()).thenReturn("worker");
+        when(threadMXBean.getThreadInfo(any(long[].class), eq(0))).thenReturn(new ThreadInfo[] { worker, null });
+        service = new ThreadAllocationService(threadMXBean, 5, nanoTime::get);
+    }
+
+    private void tick(long... allocatedBytes) {
+        when(threadMXBean.getThreadAllocatedBytes(any(long[].class))).thenReturn(allocatedBytes);
+        service.sample();
+        nanoTime.addAndGet(SECOND);
+    }
+
+    @Test
+    void getTopAllocators_ShouldReportRatesHighestFirst() {
+        // Given
+        tick(0L, 0L);
+        tick(4 * MB, 2 * MB);
+
+        // When
+        List<ThreadAllocationDTO> allocators = service.getTopAllocators(10);
+
+        // Then
+        assertEquals(2, allocators.size());
+        assertEquals(11L, allocators.get(0).getThreadId());
+        assertEquals("worker", allocators.get(0).getThreadName());
+        assertEquals(4.0 * MB, allocators.get(0).getBytesPerSecond(), 1e-6);
+        assertEquals(4 * MB, allocators.get(0).getAllocatedBytes());
+        assertTrue(allocators.get(0).getAllocationRate().endsWith("/s"));
+        assertEquals(12L, allocators.get(1).getThreadId());
+        assertNull(allocators.get(1).getThreadName());
+        assertEquals(2, service.getTrackedThreadCount());
+    }
+
+    @Test
+    void getTopAllocators_ShouldCapTheLimit() {
+        // Given
+        tick(0L, 0L);
+        tick(4 * MB, 2 * MB);
+
+        // When/Then
+        assertEquals(1, service.getTopAllocators(1).size());
+        assertTrue(service.getTopAllocators(-1).isEmpty());
+        assertEquals(2, service.getTopAllocators(Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    void getTopAllocators_ShouldBeEmptyBeforeTheSecondTick() {
+        // Given
+        tick(MB, MB);
+
+        // When/Then
+        assertTrue(service.getTopAllocators(10).isEmpty());
+        verify(threadMXBean, never()).getThreadInfo(any(long[].class), eq(0));
+    }
+
+    @Test
+    void sample_ShouldDoNothingWhenAllocatedMemoryIsDisabled() {
+        // Given
+        when(threadMXBean.isThreadAllocatedMemoryEnabled()).thenReturn(false);
+
+        // When
+        service.sample();
+
+        // Then
+        verify(threadMXBean, never()).getAllThreadIds();
+        assertEquals(0, service.getTrackedThreadCount());
+    }
+
+    @Test
+    void getTopAllocators_ShouldFindAnAllocatingThreadOfThisJvm() throws Exception {
+        // Given
+        com.sun.management.ThreadMXBean platform = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(platform.isThreadAllocatedMemorySupported() && platform.isThreadAllocatedMemoryEnabled());
+        ThreadAllocationService live = new ThreadAllocationService(platform, 5, System::nanoTime);
+        live.sample();
+
+        // When - this thread allocates about 64 MB between the two ticks
+        long sink = 0;
+        for (int i = 0; i < 64; i++) {
+            sink += new byte[(int) MB].length;
+        }
+        Thread.sleep(10);
+        live.sample();
+
+        // Then
+        ThreadAllocationDTO top = live.getTopAllocators(1).get(0);
+        assertEquals(Thread.currentThread().getId(), top.getThreadId());
+        assertEquals(Thread.currentThread().getName(), top.getThreadName());
+        assertTrue(top.getBytesPerSecond() > 0);
+        assertEquals(64 * MB, sink);
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.jvsnr.memory_monitoring_tool.dto.AllocationSiteDTO;
+
+class AllocationCallTreeTest {
+
+    /**
+     * Record a stack given root first, ending with the binary class name.
+     */
+    private static boolean record(AllocationCallTree tree, long weight, String... stack) {
+        int[] frames = new int[stack.length];
+        for (int i = 0; i < stack.length - 1; i++) {
+            frames[i] = tree.internFrame(stack[i]);
+        }
+        frames[stack.length - 1] = tree.internClass(stack[stack.length - 1]);
+        return tree.record(frames, frames.length, weight);
+    }
+
+    private static Map<String, Long> collapsed(AllocationCallTree tree, long minBytes) {
+        StringBuilder out = new StringBuilder();
+        tree.writeCollapsed(out, minBytes);
+        Map<String, Long> stacks = new HashMap<>();
+        for (String line : out.toString().split("\n")) {
+            if (!line.isEmpty()) {
+                int space = line.lastIndexOf(' ');
+                stacks.put(line.substring(0, space), Long.parseLong(line.substring(space + 1)));
+            }
+        }
+        return stacks;
+    }
+
+    @Test
+    void constructor_ShouldRejectFewerThanTwoNodes() {
+        assertThrows(IllegalArgumentException.class, () -> new AllocationCallTree(1));
+    }
+
+    @Test
+    void writeCollapsed_ShouldSumRepeatedStacksAndShareTheirPrefix() {
+        // Given
+        AllocationCallTree tree = new AllocationCallTree(100);
+
+        // When
+        record(tree, 100, "Main.main:5", "Cache.put:12", "[B");
+        record(tree, 50, "Main.main:5", "Cache.put:12", "[B");
+        record(tree, 30, "Main.main:5", "Cache.put:12", "java/util/HashMap$Node");
+        record(tree, 20, "Main.main:5", "Parser.parse:40", "[Ljava.lang.String;");
+
+        // Then
+        assertEquals(Map.of(
+            "Main.main:5;Cache.put:12;byte[]", 150L,
+            "Main.main:5;Cache.put:12;java.util.HashMap$Node", 30L,
+            "Main.main:5;Parser.parse:40;java.lang.String[]", 20L), collapsed(tree, 0));
+        assertEquals(7, tree.getNodeCount()); // root, main, put, parse and three classes
+        assertEquals(6, tree.getFrameCount());
+        assertEquals(4L, tree.getSamples());
+        assertEquals(200L, tree.getTotalBytes());
+        assertEquals(Map.of("Main.main:5;Cache.put:12;byte[]", 150L), collapsed(tree, 100));
+    }
+
+    @Test
+    void topSites_ShouldSumTheSiteOverEveryCallerAndRankByBytes() {
+        // Given
+        AllocationCallTree tree = new AllocationCallTree(100);
+        record(tree, 100, "Main.main:5", "Cache.put:12", "[B");
+        record(tree, 300, "Worker.run:9", "Cache.put:12", "[B");
+        record(tree, 200, "Worker.run:9", "Parser.parse:40", "java/lang/String");
+        record(tree, 400, "java/lang/Object");
+
+        // When
+        List<AllocationSiteDTO> top = tree.topSites(2);
+
+        // Then
+        assertEquals(2, top.size());
+        assertEquals("byte[]", top.get(0).getClassName());
+        assertEquals("Cache.put:12", top.get(0).getSite());
+        assertEquals(400L, top.get(0).getBytes());
+        assertEquals(2L, top.get(0).getSamples());
+        assertEquals(40.0, top.get(0).getPercentage(), 0.001);
+        assertEquals("java.lang.Object", top.get(1).getClassName());
+        assertNull(top.get(1).getSite());
+        assertEquals(3, tree.topSites(10).size());
+        assertTrue(tree.topSites(0).isEmpty());
+    }
+
+    @Test
+    void record_WhenNodesAreExhausted_ShouldCountTheStackAsTruncated() {
+        // Given
+        AllocationCallTree tree = new AllocationCallTree(4);
+        assertTrue(record(tree, 10, "a", "b", "[B"));
+
+        // When
+        boolean fits = record(tree, 7, "a", "c", "[B");
+
+        // Then
+        assertFalse(fits);
+        assertTrue(record(tree, 5, "a", "b", "[B"));
+        assertEquals(4, tree.getNodeCount());
+        assertEquals(1L, tree.getTruncatedSamples());
+        assertEquals(7L, tree.getTruncatedBytes());
+        assertEquals(3L, tree.getSamples());
+        assertEquals(22L, tree.getTotalBytes());
+        assertEquals(Map.of("a;b;byte[]", 15L, AllocationCallTree.TRUNCATED_FRAME, 7L), collapsed(tree, 0));
+    }
+
+    @Test
+    void internFrame_WhenDictionaryIsFull_ShouldReturnMinusOne() {
+        // Given
+        AllocationCallTree tree = new AllocationCallTree(2);
+        tree.internFrame("a");
+        tree.internFrame("b");
+
+        // When/Then
+        assertEquals(-1, tree.internFrame("c"));
+        assertEquals(1, tree.internFrame("b"));
+        assertFalse(tree.record(new int[] { -1 }, 1, 3));
+    }
+
+    @Test
+    void record_ManyRandomStacks_ShouldMatchAMapOfStacks() {
+        // Given
+        AllocationCallTree tree = new AllocationCallTree(1_000_000);
+        Map<String, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            int depth = 1 + random.nextInt(8);
+            String[] stack = new String[depth + 1];
+            for (int d = 0; d < depth; d++) {
+                stack[d] = "m" + random.nextInt(6) + ":" + d;
+            }
+            stack[depth] = "C" + random.nextInt(4);
+            long weight = 1 + random.nextInt(1000);
+            assertTrue(record(tree, weight, stack));
+            expected.merge(String.join(";", stack), weight, Long::sum);
+        }
+
+        // Then
+        assertEquals(expected, collapsed(tree, 0));
+    }
+
+    @Test
+    void clear_ShouldForgetStacksAndFrames() {
+        // Given
+        AllocationCallTree tree = new AllocationCallTree(10);
+        record(tree, 10, "a", "b", "[B");
+
+        // When
+        tree.clear();
+
+        // Then
+        assertEquals(1, tree.getNodeCount());
+        assertEquals(0, tree.getFrameCount());
+        assertEquals(0L, tree.getTotalBytes());
+        assertTrue(collapsed(tree, 0).isEmpty());
+        assertTrue(record(tree, 4, "c", "[I"));
+        assertEquals(Map.of("c;int[]", 4L), collapsed(tree, 0));
+    }
+
+}
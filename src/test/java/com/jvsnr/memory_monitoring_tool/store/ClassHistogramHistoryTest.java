@@ -0,0 +1,189 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.jvsnr.memory_monitoring_tool.dto.ClassGrowthDTO;
+import com.jvsnr.memory_monitoring_tool.dto.ClassHistogramDiffDTO;
+
+class ClassHistogramHistoryTest {
+
+    /**
+     * Format rows like {@code GC.class_histogram}: name, instances, bytes.
+     */
+    private static String histogram(Object... rows) {
+        StringBuilder text = new StringBuilder(" num     #instances         #bytes  class name (module)\n")
+            .append("-------------------------------------------------------\n");
+        long instances = 0;
+        long bytes = 0;
+        for (int i = 0; i < rows.length; i += 3) {
+            text.append(String.format("%4d: %13d %14d  %s (java.base@21.0.1)%n", i / 3 + 1, rows[i + 1], rows[i + 2],
+                rows[i]));
+            instances += (long) rows[i + 1];
+            bytes += (long) rows[i + 2];
+        }
+        return text.append(String.format("Total %13d %14d%n", instances, bytes)).toString();
+    }
+
+    @Test
+    void constructor_ShouldRejectCapacityBelowTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new ClassHistogramHistory(1));
+    }
+
+    @Test
+    void record_ShouldParseRowsAndIgnoreHeaderAndTotal() {
+        // Given
+        ClassHistogramHistory history = new ClassHistogramHistory(4);
+
+        // When
+        int classes = history.record(histogram("[B", 100L, 4000L, "java.lang.String", 90L, 2160L,
+            "[Ljava.lang.Object;", 5L, 200L), 1000L);
+
+        // Then
+        assertEquals(3, classes);
+        assertEquals(1, history.size());
+        assertEquals(1000L, history.getTimestamp(0));
+        assertEquals(3, history.getClassCount(0));
+        assertEquals(195L, history.getTotalInstances(0));
+        assertEquals(6360L, history.getTotalBytes(0));
+    }
+
+    @Test
+    void record_ShouldRejectTextWithoutRows() {
+        // Given
+        ClassHistogramHistory history = new ClassHistogramHistory(4);
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> history.record("DiagnosticCommand failed\n", 0L));
+        assertEquals(0, history.size());
+    }
+
+    @Test
+    void record_ShouldSumHiddenClassesAndClassesOfOtherLoaders() {
+        // Given
+        ClassHistogramHistory history = new ClassHistogramHistory(4);
+
+        // When
+        int classes = history.record(histogram(
+            "com.example.Foo$$Lambda/0x00007f6b9c0790f8", 2L, 32L,
+            "com.example.Foo$$Lambda/0x00007f6b9c079400", 3L, 48L,
+            "com.example.Bar", 1L, 16L,
+            "com.example.Bar", 4L, 64L), 0L);
+
+        // Then
+        assertEquals(2, classes);
+        assertEquals(2, history.getClassNameCount());
+        history.record(histogram("com.example.Foo$$Lambda/0x00007f6b9c079800", 6L, 96L, "com.example.Bar", 5L, 80L), 1L);
+        ClassHistogramDiffDTO diff = history.diff(0, 1, 10, false);
+        assertEquals(1, diff.getClasses().size());
+        assertEquals("com.example.Foo$$Lambda", diff.getClasses().get(0).getClassName());
+        assertEquals(16L, diff.getClasses().get(0).getByteGrowth());
+        assertEquals(1L, diff.getClasses().get(0).getInstanceGrowth());
+    }
+
+    @Test
+    void diff_ShouldRankGrowingClassesWithJavaNames() {
+        // Given
+        ClassHistogramHistory history = new ClassHistogramHistory(4);
+        history.record(histogram("[B", 100L, 4000L, "java.lang.String", 90L, 2160L, "com.example.Gone", 1L, 16L), 1000L);
+        history.record(histogram("[B", 150L, 9000L, "java.lang.String", 400L, 9600L, "com.example.New", 2L, 64L), 2000L);
+
+        // When
+        ClassHistogramDiffDTO byBytes = history.diff(0, 1, 10, false);
+        ClassHistogramDiffDTO byInstances = history.diff(0, 1, 1, true);
+
+        // Then - shrunk and vanished classes are not listed
+        assertEquals(1000L, byBytes.getFrom());
+        assertEquals(2000L, byBytes.getTo());
+        assertEquals(1, byBytes.getIntervals());
+        List<ClassGrowthDTO> classes = byBytes.getClasses();
+        assertEquals(3, classes.size());
+        assertEquals("java.lang.String", classes.get(0).getClassName());
+        assertEquals(7440L, classes.get(0).getByteGrowth());
+        assertEquals(400L, classes.get(0).getInstances());
+        assertEquals("byte[]", classes.get(1).getClassName());
+        assertEquals(5000L, classes.get(1).getByteGrowth());
+        assertEquals(9000L, classes.get(1).getBytes());
+        assertEquals("com.example.New", classes.get(2).getClassName());
+        assertEquals(2L, classes.get(2).getInstanceGrowth());
+
+        assertEquals(1, byInstances.getClasses().size());
+        assertEquals("java.lang.String", byInstances.getClasses().get(0).getClassName());
+        assertEquals(310L, byInstances.getClasses().get(0).getInstanceGrowth());
+    }
+
+    @Test
+    void diff_ShouldCountGrowingIntervalsAndDropTheOldestSnapshot() {
+        // Given - the cache grows every time, the buffer only once
+        ClassHistogramHistory history = new ClassHistogramHistory(3);
+        history.record(histogram("com.example.Cache", 1L, 100L, "com.example.Buffer", 1L, 100L), 0L);
+        history.record(histogram("com.example.Cache", 2L, 200L, "com.example.Buffer", 1L, 900L), 1L);
+        history.record(histogram("com.example.Cache", 3L, 300L, "com.example.Buffer", 1L, 900L), 2L);
+        history.record(histogram("com.example.Cache", 4L, 400L, "com.example.Buffer", 1L, 900L), 3L);
+
+        // When
+        ClassHistogramDiffDTO diff = history.diff(0, history.size() - 1, 10, false);
+
+        // Then
+        assertEquals(3, history.size());
+        assertEquals(1L, history.getTimestamp(0));
+        assertEquals(2, diff.getIntervals());
+        assertEquals(1, diff.getClasses().size());
+        assertEquals("com.example.Cache", diff.getClasses().get(0).getClassName());
+        assertEquals(200L, diff.getClasses().get(0).getByteGrowth());
+        assertEquals(2, diff.getClasses().get(0).getGrowingIntervals());
+        assertThrows(IndexOutOfBoundsException.class, () -> history.getTimestamp(3));
+        assertThrows(IllegalArgumentException.class, () -> history.diff(2, 1, 10, false));
+    }
+
+    @Test
+    void diff_ShouldMatchAReferenceModel() {
+        // Given - random histograms of overlapping class sets
+        Random random = new Random(18);
+        ClassHistogramHistory history = new ClassHistogramHistory(2);
+        Map<String, Long> before = new HashMap<>();
+        Map<String, Long> after = new HashMap<>();
+        Object[] first = new Object[3 * 300];
+        Object[] second = new Object[3 * 300];
+        for (int i = 0; i < 300; i++) {
+            String name = "com.example.C" + random.nextInt(400);
+            long bytes = 16L * random.nextInt(1000);
+            first[3 * i] = name;
+            first[3 * i + 1] = 1L;
+            first[3 * i + 2] = bytes;
+            before.merge(name, bytes, Long::sum);
+            name = "com.example.C" + random.nextInt(400);
+            bytes = 16L * random.nextInt(1000);
+            second[3 * i] = name;
+            second[3 * i + 1] = 1L;
+            second[3 * i + 2] = bytes;
+            after.merge(name, bytes, Long::sum);
+        }
+        history.record(histogram(first), 0L);
+        history.record(histogram(second), 1L);
+
+        // When
+        List<ClassGrowthDTO> classes = history.diff(0, 1, 1000, false).getClasses();
+
+        // Then
+        long grown = after.entrySet().stream()
+            .filter(entry -> entry.getValue() > before.getOrDefault(entry.getKey(), 0L))
+            .count();
+        assertEquals(grown, classes.size());
+        for (int i = 0; i < classes.size(); i++) {
+            ClassGrowthDTO growth = classes.get(i);
+            assertEquals(after.get(growth.getClassName()) - before.getOrDefault(growth.getClassName(), 0L),
+                growth.getByteGrowth());
+            assertTrue(i == 0 || classes.get(i - 1).getByteGrowth() >= growth.getByteGrowth());
+        }
+    }
+
+}
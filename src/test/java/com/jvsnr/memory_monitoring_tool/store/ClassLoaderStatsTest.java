@@ -0,0 +1,58 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.jvsnr.memory_monitoring_tool.dto.ClassLoaderStatsDTO;
+
+class ClassLoaderStatsTest {
+
+    /**
+     * Output of {@code VM.classloader_stats} of JDK 21 with two instances of a web app loader.
+     */
+    static final String STATS = "ClassLoader         Parent              CLD*               Classes   ChunkSz   BlockSz  Type\n"
+        + "0x00007f5f08001470  0x00007f5f0706aa18  0x00007f5f604b10a0     120    262144    250000  org.example.WebAppClassLoader\n"
+        + "0x00007f5f08001480  0x00007f5f0706aa18  0x00007f5f604b10b0     130    270000    260000  org.example.WebAppClassLoader\n"
+        + "                                                                 5     10000      9000   + hidden classes\n"
+        + "0x00007f5f0706b2a8  0x0000000000000000  0x00007f5f600a78e0      74    264192    248064  jdk.internal.loader.ClassLoaders$PlatformClassLoader\n"
+        + "0x0000000000000000  0x0000000000000000  0x00007f5f60047880    1877   5945344   4745104  <boot class loader>\n"
+        + "                                                                98    299008    176568   + hidden classes\n"
+        + "Total = 4                                                     2299   7050688   5688736  \n"
+        + "ChunkSz: Total size of all allocated metaspace chunks\n"
+        + "BlockSz: Total size of all allocated metaspace blocks (each chunk has several blocks)\n";
+
+    @Test
+    void parse_ShouldSumLoadersByTypeLargestFirst() {
+        // When
+        List<ClassLoaderStatsDTO> stats = ClassLoaderStats.parse(STATS);
+
+        // Then
+        assertEquals(3, stats.size());
+        ClassLoaderStatsDTO boot = stats.get(0);
+        assertEquals("<boot class loader>", boot.getType());
+        assertEquals(1, boot.getLoaders());
+        assertEquals(1877L, boot.getClasses());
+        assertEquals(98L, boot.getHiddenClasses());
+        assertEquals(5945344L + 299008L, boot.getChunkBytes());
+        assertEquals(4745104L + 176568L, boot.getBlockBytes());
+
+        ClassLoaderStatsDTO webApp = stats.get(1);
+        assertEquals("org.example.WebAppClassLoader", webApp.getType());
+        assertEquals(2, webApp.getLoaders());
+        assertEquals(250L, webApp.getClasses());
+        assertEquals(5L, webApp.getHiddenClasses());
+        assertEquals(262144L + 270000L + 10000L, webApp.getChunkBytes());
+
+        assertEquals("jdk.internal.loader.ClassLoaders$PlatformClassLoader", stats.get(2).getType());
+    }
+
+    @Test
+    void parse_ShouldRejectOutputWithoutTable() {
+        assertThrows(IllegalArgumentException.class, () -> ClassLoaderStats.parse("Unknown diagnostic command\n"));
+    }
+
+}
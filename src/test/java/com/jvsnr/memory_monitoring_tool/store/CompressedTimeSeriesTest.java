@@ -0,0 +1,82 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CompressedTimeSeriesTest {
+
+    private static CompressedTimeSeries series(int points, int chunkSize, int capacity) {
+        CompressedTimeSeries series = new CompressedTimeSeries(2, chunkSize, capacity);
+        for (long i = 1; i <= points; i++) {
+            series.append(i * 1000, new long[] {i * 10, -i});
+        }
+        return series;
+    }
+
+    @Test
+    void constructor_WhenCapacityNotPositive_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new CompressedTimeSeries(2, 16, 0));
+        assertThrows(IllegalArgumentException.class, () -> new CompressedTimeSeries(2, 0, 16));
+    }
+
+    @Test
+    void append_ShouldStartNewChunkWhenFull() {
+        // When
+        CompressedTimeSeries series = series(25, 10, 100);
+
+        // Then
+        assertEquals(25, series.size());
+        assertEquals(3, series.getChunkCount());
+        assertTrue(series.getCompressedBytes() > 0);
+    }
+
+    @Test
+    void append_WhenCapacityReached_ShouldDropOldestChunk() {
+        // When
+        CompressedTimeSeries series = series(45, 10, 20);
+
+        // Then - the chunks after the oldest hold the capacity on their own
+        assertEquals(25, series.size());
+        assertEquals(3, series.getChunkCount());
+        assertEquals(45L, series.getAppendCount());
+    }
+
+    @Test
+    void copyLatest_ShouldDecodeAcrossChunksOldestFirst() {
+        // Given
+        CompressedTimeSeries series = series(45, 10, 20);
+        long[] timestamps = new long[12];
+        long[][] values = {new long[12], new long[12]};
+
+        // When
+        int copied = series.copyLatest(timestamps, values);
+
+        // Then
+        assertEquals(12, copied);
+        assertEquals(34_000L, timestamps[0]);
+        assertEquals(45_000L, timestamps[11]);
+        assertEquals(340L, values[0][0]);
+        assertEquals(-45L, values[1][11]);
+    }
+
+    @Test
+    void copyLatest_WhenFewerPointsRetained_ShouldCopyAll() {
+        // Given
+        CompressedTimeSeries series = series(3, 10, 20);
+        long[] timestamps = new long[5];
+        long[][] values = {new long[5], new long[5]};
+
+        // When
+        int copied = series.copyLatest(timestamps, values);
+
+        // Then
+        assertEquals(3, copied);
+        assertArrayEquals(new long[] {1000L, 2000L, 3000L, 0L, 0L}, timestamps);
+        assertEquals(0, new CompressedTimeSeries(2, 10, 20).copyLatest(timestamps, values));
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ContainerMemoryReaderTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    @TempDir
+    Path directory;
+
+    private Path proc(String cgroup) throws IOException {
+        Path proc = Files.createDirectories(directory.resolve("proc"));
+        Files.writeString(proc.resolve("cgroup"), cgroup);
+        Files.writeString(proc.resolve("status"), "Name:\tjava\n"
+            + "VmPeak:\t 5000000 kB\n"
+            + "VmHWM:\t  400000 kB\n"
+            + "VmRSS:\t  300000 kB\n"
+            + "RssAnon:\t  250000 kB\n"
+            + "RssFile:\t   50000 kB\n"
+            + "RssShmem:\t       0 kB\n"
+            + "Threads:\t20\n");
+        return proc;
+    }
+
+    private Path cgroupV2(String limit) throws IOException {
+        Path cgroup = Files.createDirectories(directory.resolve("cgroup").resolve("app.slice"));
+        Files.writeString(cgroup.resolve("memory.current"), (512 * MB) + "\n");
+        Files.writeString(cgroup.resolve("memory.max"), limit + "\n");
+        Files.writeString(cgroup.resolve("memory.stat"), "anon " + (400 * MB) + "\n"
+            + "file " + (100 * MB) + "\n"
+            + "kernel " + (12 * MB) + "\n"
+            + "shmem " + (2 * MB) + "\n"
+            + "active_file " + (40 * MB) + "\n"
+            + "inactive_file " + (60 * MB) + "\n");
+        Files.writeString(cgroup.resolve("memory.pressure"), "some avg10=12.50 avg60=3.25 avg300=0.00 total=123\n"
+            + "full avg10=4.05 avg60=1.00 avg300=0.00 total=45\n");
+        return directory.resolve("cgroup");
+    }
+
+    @Test
+    void read_ShouldParseCgroupV2AndProcessStatus() throws IOException {
+        // Given
+        Path proc = proc("0::/app.slice\n");
+        Path cgroupRoot = cgroupV2(String.valueOf(1024 * MB));
+
+        try (ContainerMemoryReader reader = ContainerMemoryReader.open(cgroupRoot, proc)) {
+            // When
+            reader.read();
+
+            // Then
+            assertTrue(reader.isCgroupAvailable());
+            assertTrue(reader.isCgroupV2());
+            assertEquals(300000L * 1024, reader.getRss());
+            assertEquals(400000L * 1024, reader.getRssHighWaterMark());
+            assertEquals(250000L * 1024, reader.getRssAnon());
+            assertEquals(50000L * 1024, reader.getRssFile());
+            assertEquals(512 * MB, reader.getCgroupUsage());
+            assertEquals(1024 * MB, reader.getCgroupLimit());
+            assertEquals(400 * MB, reader.getCgroupAnon());
+            assertEquals(100 * MB, reader.getCgroupFile());
+            assertEquals(2 * MB, reader.getCgroupShmem());
+            assertEquals(60 * MB, reader.getCgroupInactiveFile());
+            assertEquals(452 * MB, reader.getCgroupWorkingSet());
+            assertEquals(12.5, reader.getPressureSome(), 1e-9);
+            assertEquals(4.05, reader.getPressureFull(), 1e-9);
+        }
+    }
+
+    @Test
+    void read_ShouldReportMaxAsUnlimitedAndPickUpChanges() throws IOException {
+        // Given
+        Path proc = proc("0::/app.slice\n");
+        Path cgroupRoot = cgroupV2("max");
+
+        try (ContainerMemoryReader reader = ContainerMemoryReader.open(cgroupRoot, proc)) {
+            reader.read();
+            assertEquals(ContainerMemoryReader.UNLIMITED, reader.getCgroupLimit());
+
+            // When
+            Path cgroup = cgroupRoot.resolve("app.slice");
+            Files.writeString(cgroup.resolve("memory.current"), (600 * MB) + "\n");
+            Files.writeString(cgroup.resolve("memory.max"), (800 * MB) + "\n");
+            reader.read();
+
+            // Then
+            assertEquals(600 * MB, reader.getCgroupUsage());
+            assertEquals(800 * MB, reader.getCgroupLimit());
+        }
+    }
+
+    @Test
+    void read_ShouldFallBackToCgroupV1WithHybridPressure() throws IOException {
+        // Given
+        Path proc = proc("12:pids:/docker/abc\n11:cpu,cpuacct:/docker/abc\n10:memory:/docker/abc\n0::/docker/abc\n");
+        Path cgroupRoot = directory.resolve("cgroup");
+        Path memory = Files.createDirectories(cgroupRoot.resolve("memory"));
+        Files.writeString(memory.resolve("memory.usage_in_bytes"), (300 * MB) + "\n");
+        Files.writeString(memory.resolve("memory.limit_in_bytes"), "9223372036854771712\n");
+        Files.writeString(memory.resolve("memory.stat"), "cache " + (80 * MB) + "\n"
+            + "rss " + (200 * MB) + "\n"
+            + "shmem " + MB + "\n"
+            + "inactive_file " + (50 * MB) + "\n"
+            + "total_cache " + (80 * MB) + "\n");
+        Path unified = Files.createDirectories(cgroupRoot.resolve("unified"));
+        Files.writeString(unified.resolve("memory.pressure"), "some avg10=0.00 avg60=0.00 avg300=0.00 total=0\n"
+            + "full avg10=0.00 avg60=0.00 avg300=0.00 total=0\n");
+
+        try (ContainerMemoryReader reader = ContainerMemoryReader.open(cgroupRoot, proc)) {
+            // When
+            reader.read();
+
+            // Then
+            assertTrue(reader.isCgroupAvailable());
+            assertFalse(reader.isCgroupV2());
+            assertEquals(300 * MB, reader.getCgroupUsage());
+            assertEquals(ContainerMemoryReader.UNLIMITED, reader.getCgroupLimit());
+            assertEquals(200 * MB, reader.getCgroupAnon());
+            assertEquals(80 * MB, reader.getCgroupFile());
+            assertEquals(MB, reader.getCgroupShmem());
+            assertEquals(250 * MB, reader.getCgroupWorkingSet());
+            assertEquals(0.0, reader.getPressureFull(), 1e-9);
+        }
+    }
+
+    @Test
+    void read_ShouldReportUnknownWithoutCgroup() throws IOException {
+        // Given
+        Path proc = proc("");
+
+        try (ContainerMemoryReader reader = ContainerMemoryReader.open(directory.resolve("missing"), proc)) {
+            // When
+            reader.read();
+
+            // Then
+            assertFalse(reader.isCgroupAvailable());
+            assertEquals(300000L * 1024, reader.getRss());
+            assertEquals(ContainerMemoryReader.UNKNOWN, reader.getCgroupUsage());
+            assertEquals(ContainerMemoryReader.UNKNOWN, reader.getCgroupLimit());
+            assertEquals(ContainerMemoryReader.UNKNOWN, reader.getCgroupWorkingSet());
+            assertEquals(ContainerMemoryReader.UNKNOWN, reader.getPressureFull(), 1e-9);
+        }
+    }
+
+    @Test
+    void open_ShouldReadThisProcess() {
+        // Given
+        try (ContainerMemoryReader reader = ContainerMemoryReader.open()) {
+            // When
+            reader.read();
+
+            // Then
+            if (Files.isReadable(Path.of("/proc/self/status"))) {
+                assertTrue(reader.getRss() > 0);
+                assertTrue(reader.getRssHighWaterMark() >= reader.getRss());
+            }
+        }
+    }
+
+}
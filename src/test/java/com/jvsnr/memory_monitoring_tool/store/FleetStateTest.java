@@ -0,0 +1,186 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.jvsnr.memory_monitoring_tool.dto.FleetBatchDTO;
+import com.jvsnr.memory_monitoring_tool.dto.FleetInstanceDTO;
+import com.jvsnr.memory_monitoring_tool.dto.GcEventDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemoryHistoryDTO;
+
+class FleetStateTest {
+
+    private static FleetBatchDTO batch(String instance, long heapUsed, long heapMax, long gcMillis, long window) {
+        MemoryHistoryDTO memory = new MemoryHistoryDTO();
+        memory.setTimestamps(new long[] { 1000L, 2000L });
+        memory.setHeapMemoryUsed(new long[] { heapUsed / 2, heapUsed });
+        memory.setHeapMemoryCommitted(new long[] { heapMax, heapMax });
+        memory.setHeapMemoryMax(new long[] { heapMax, heapMax });
+        memory.setNonHeapMemoryUsed(new long[] { 10L, 20L });
+        memory.setNonHeapMemoryCommitted(new long[] { 30L, 30L });
+
+        List<GcEventDTO> gcEvents = new ArrayList<>();
+        if (gcMillis > 0) {
+            GcEventDTO event = new GcEventDTO();
+            event.setDuration(gcMillis);
+            gcEvents.add(event);
+        }
+
+        FleetBatchDTO batch = new FleetBatchDTO();
+        batch.setInstance(instance);
+        batch.setFrom(0L);
+        batch.setTo(window);
+        batch.setMemory(memory);
+        batch.setGcEvents(gcEvents);
+        return batch;
+    }
+
+    @Test
+    void constructor_ShouldRoundShardsToPowerOfTwo() {
+        assertEquals(16, new FleetState(10).getShardCount());
+        assertEquals(1, new FleetState(1).getShardCount());
+        assertThrows(IllegalArgumentException.class, () -> new FleetState(0));
+    }
+
+    @Test
+    void ingest_ShouldKeepLatestSampleAndAccumulateCounters() {
+        // Given
+        FleetState state = new FleetState(4);
+
+        // When
+        state.ingest(batch("orders-1", 400L, 1000L, 50L, 1000L), 5000L);
+        state.ingest(batch("orders-1", 600L, 1000L, 0L, 1000L), 6000L);
+
+        // Then
+        FleetInstanceDTO instance = state.get("orders-1");
+        assertEquals(1, state.size());
+        assertEquals(600L, instance.getHeapMemoryUsed());
+        assertEquals(60.0, instance.getMemoryUtilisation(), 0.01);
+        assertEquals(20L, instance.getNonHeapMemoryUsed());
+        assertEquals(2L, instance.getBatches());
+        assertEquals(4L, instance.getSamples());
+        assertEquals(1L, instance.getGcCount());
+        assertEquals(50L, instance.getGcTime());
+        assertEquals(6000L, instance.getLastSeen());
+        // 5% on the first batch, smoothed with 0% on the second one
+        assertEquals(5.0 * (1 - FleetState.GC_OVERHEAD_SMOOTHING), instance.getGcOverhead(), 1e-9);
+        assertNull(state.get("orders-2"));
+    }
+
+    @Test
+    void getTopByUtilisation_ShouldMergeShardsInOrder() {
+        // Given
+        FleetState state = new FleetState(8);
+        for (int i = 0; i < 100; i++) {
+            state.ingest(batch("instance-" + i, i * 10L, 1000L, 0L, 1000L), 0L);
+        }
+        // Moves instance-5 from near the bottom to the top
+        state.ingest(batch("instance-5", 995L, 1000L, 0L, 1000L), 0L);
+
+        // When
+        List<FleetInstanceDTO> top = state.getTopByUtilisation(3);
+
+        // Then
+        assertEquals(List.of("instance-5", "instance-99", "instance-98"),
+            top.stream().map(FleetInstanceDTO::getInstance).toList());
+        assertEquals(100, state.getTopByUtilisation(1000).size());
+    }
+
+    @Test
+    void getLeakSuspects_ShouldFollowLatestStatus() {
+        // Given
+        FleetState state = new FleetState(4);
+        FleetBatchDTO slow = batch("slow", 100L, 1000L, 0L, 1000L);
+        slow.setMemoryLeakDetected(true);
+        slow.setGrowthSlopeBytesPerSecond(10.0);
+        FleetBatchDTO fast = batch("fast", 100L, 1000L, 0L, 1000L);
+        fast.setMemoryLeakDetected(true);
+        fast.setGrowthSlopeBytesPerSecond(1000.0);
+        state.ingest(slow, 0L);
+        state.ingest(fast, 0L);
+        state.ingest(batch("healthy", 100L, 1000L, 0L, 1000L), 0L);
+
+        // When
+        List<FleetInstanceDTO> suspects = state.getLeakSuspects();
+
+        // Then
+        assertEquals(List.of("fast", "slow"), suspects.stream().map(FleetInstanceDTO::getInstance).toList());
+
+        // When
+        state.ingest(batch("fast", 100L, 1000L, 0L, 1000L), 0L);
+
+        // Then
+        assertEquals(List.of("slow"), state.getLeakSuspects().stream().map(FleetInstanceDTO::getInstance).toList());
+    }
+
+    @Test
+    void getGcOverheadAbove_ShouldUseRunningSums() {
+        // Given
+        FleetState state = new FleetState(4);
+        for (int i = 0; i < 9; i++) {
+            state.ingest(batch("quiet-" + i, 100L, 1000L, 10L, 1000L), 0L);
+        }
+        state.ingest(batch("busy", 100L, 1000L, 400L, 1000L), 0L);
+
+        // When
+        double[] meanAndStdDev = state.getGcOverheadMeanAndStdDev();
+        List<FleetInstanceDTO> outliers = state.getGcOverheadAbove(meanAndStdDev[0] + 2 * meanAndStdDev[1]);
+
+        // Then
+        assertEquals((9 * 1.0 + 40.0) / 10, meanAndStdDev[0], 1e-9);
+        assertEquals(11.7, meanAndStdDev[1], 0.01);
+        assertEquals(List.of("busy"), outliers.stream().map(FleetInstanceDTO::getInstance).toList());
+        assertEquals("busy", state.getTopByGcOverhead(1).get(0).getInstance());
+    }
+
+    @Test
+    void ingest_WhenBatchColumnsMissing_ShouldLeaveInstanceIndexed() {
+        // Given
+        FleetState state = new FleetState(4);
+        state.ingest(batch("quiet", 100L, 1000L, 10L, 1000L), 0L);
+        state.ingest(batch("busy", 900L, 1000L, 400L, 1000L), 0L);
+        FleetBatchDTO malformed = batch("busy", 950L, 1000L, 400L, 1000L);
+        malformed.getMemory().setNonHeapMemoryUsed(null);
+
+        // When
+        assertThrows(NullPointerException.class, () -> state.ingest(malformed, 1000L));
+        state.ingest(batch("busy", 950L, 1000L, 400L, 1000L), 2000L);
+        state.remove("quiet");
+
+        // Then - unindexed once per change, so the running sums only hold busy
+        assertEquals(List.of("busy"), state.getTopByUtilisation(2).stream().map(FleetInstanceDTO::getInstance).toList());
+        assertEquals(40.0, state.getGcOverheadMeanAndStdDev()[0], 1e-9);
+        assertEquals(0.0, state.getGcOverheadMeanAndStdDev()[1], 1e-6);
+        assertEquals(2L, state.get("busy").getBatches());
+    }
+
+    @Test
+    void evictOlderThan_ShouldForgetSilentInstances() {
+        // Given
+        FleetState state = new FleetState(4);
+        state.ingest(batch("silent", 100L, 1000L, 500L, 1000L), 1000L);
+        state.ingest(batch("alive", 100L, 1000L, 100L, 1000L), 5000L);
+
+        // When
+        int evicted = state.evictOlderThan(2000L);
+
+        // Then
+        assertEquals(1, evicted);
+        assertEquals(1, state.size());
+        assertNull(state.get("silent"));
+        assertEquals(10.0, state.getGcOverheadMeanAndStdDev()[0], 1e-9);
+        assertTrue(state.getGcOverheadAbove(10.0).isEmpty());
+        assertTrue(state.remove("alive"));
+        assertFalse(state.remove("alive"));
+        assertEquals(0, state.size());
+    }
+
+}
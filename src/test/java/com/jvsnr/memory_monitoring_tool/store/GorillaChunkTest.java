@@ -0,0 +1,204 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class GorillaChunkTest {
+
+    private static void assertPoints(GorillaChunk chunk, long[] timestamps, long[][] values) {
+        GorillaChunk.Cursor cursor = chunk.cursor();
+        for (int i = 0; i < timestamps.length; i++) {
+            assertTrue(cursor.next(), "Missing point " + i);
+            assertEquals(i, cursor.getIndex());
+            assertEquals(timestamps[i], cursor.getTimestamp(), "Timestamp of point " + i);
+            for (int column = 0; column < values[i].length; column++) {
+                assertEquals(values[i][column], cursor.getValue(column), "Column " + column + " of point " + i);
+            }
+        }
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    void constructor_WhenNoColumns_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new GorillaChunk(0));
+    }
+
+    @Test
+    void append_WhenTooFewValues_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new GorillaChunk(3).append(1L, new long[2]));
+    }
+
+    @Test
+    void cursor_ShouldDecodeIrregularTimestampsAndExtremeValues() {
+        // Given - every delta-of-delta range and value edge case
+        long[] timestamps = {-5L, 995L, 1995L, 2990L, 3200L, 3100L, 10_000L, 5_000_000_000L, Long.MAX_VALUE / 2, 0L};
+        long[][] values = {
+            {0L, Long.MIN_VALUE},
+            {0L, Long.MIN_VALUE},
+            {1L, Long.MAX_VALUE},
+            {-1L, 42L},
+            {1L << 40, 43L},
+            {(1L << 40) + 1, -43L},
+            {Long.MAX_VALUE, 0L},
+            {Long.MIN_VALUE, 0L},
+            {12345L, 1L << 63},
+            {12345L, 7L}
+        };
+        GorillaChunk chunk = new GorillaChunk(2);
+
+        // When
+        for (int i = 0; i < timestamps.length; i++) {
+            chunk.append(timestamps[i], values[i]);
+        }
+
+        // Then
+        assertEquals(timestamps.length, chunk.size());
+        assertEquals(0L, chunk.getLastTimestamp());
+        assertPoints(chunk, timestamps, values);
+    }
+
+    @Test
+    void cursor_ShouldDecodeRandomSeries() {
+        // Given
+        Random random = new Random(42);
+        int points = 5000;
+        long[] timestamps = new long[points];
+        long[][] values = new long[points][3];
+        GorillaChunk chunk = new GorillaChunk(3);
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < points; i++) {
+            timestamp += 1000 + random.nextInt(50) - 25;
+            timestamps[i] = timestamp;
+            values[i][0] = random.nextLong();
+            values[i][1] = i > 0 && random.nextBoolean() ? values[i - 1][1] : random.nextInt(1 << 20);
+            values[i][2] = -random.nextInt(100);
+
+            // When
+            chunk.append(timestamps[i], values[i]);
+        }
+
+        // Then
+        assertPoints(chunk, timestamps, values);
+    }
+
+    @Test
+    void cursor_ShouldOnlySeePointsAppendedBeforeItWasCreated() {
+        // Given
+        GorillaChunk chunk = new GorillaChunk(1);
+        chunk.append(1000L, new long[] {1L});
+        GorillaChunk.Cursor cursor = chunk.cursor();
+
+        // When
+        chunk.append(2000L, new long[] {2L});
+
+        // Then
+        assertTrue(cursor.next());
+        assertFalse(cursor.next());
+        assertEquals(2, chunk.cursor().skip(5));
+    }
+
+    @Test
+    void skip_ShouldPositionCursorOnLaterPoint() {
+        // Given
+        GorillaChunk chunk = new GorillaChunk(1);
+        for (long i = 0; i < 10; i++) {
+            chunk.append(i * 1000, new long[] {i * i});
+        }
+        GorillaChunk.Cursor cursor = chunk.cursor();
+
+        // When
+        int skipped = cursor.skip(6);
+
+        // Then
+        assertEquals(6, skipped);
+        assertTrue(cursor.next());
+        assertEquals(6, cursor.getIndex());
+        assertEquals(6000L, cursor.getTimestamp());
+        assertEquals(36L, cursor.getValue(0));
+    }
+
+    @Test
+    void readFrom_ShouldRestoreChunkThatCanBeAppendedTo() {
+        // Given
+        GorillaChunk chunk = new GorillaChunk(2);
+        long[] timestamps = {1000L, 2000L, 3000L, 4100L, 5100L};
+        long[][] values = {{100L, 7L}, {120L, 7L}, {90L, 8L}, {90L, 8L}, {4096L, -1L}};
+        for (int i = 0; i < 3; i++) {
+            chunk.append(timestamps[i], values[i]);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(chunk.getSerializedSize());
+        chunk.writeTo(buffer);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+
+        // When
+        GorillaChunk restored = GorillaChunk.readFrom(buffer);
+        restored.append(timestamps[3], values[3]);
+        restored.append(timestamps[4], values[4]);
+
+        // Then
+        assertEquals(2, restored.getColumns());
+        assertEquals(5, restored.size());
+        assertPoints(restored, timestamps, values);
+    }
+
+    @Test
+    void readFrom_WhenHeaderCorrupted_ShouldThrow() {
+        // Given - claims more words than the buffer holds
+        ByteBuffer buffer = ByteBuffer.allocate(20).putInt(1).putInt(3).putInt(640).putLong(0L);
+        buffer.flip();
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> GorillaChunk.readFrom(buffer));
+    }
+
+    @Test
+    void copy_ShouldKeepItsPointsWhileTheOriginalIsAppendedTo() {
+        // Given
+        GorillaChunk chunk = new GorillaChunk(2);
+        long[] timestamps = {1000L, 2000L, 3000L, 4100L};
+        long[][] values = {{100L, 7L}, {120L, 7L}, {90L, 8L}, {4096L, -1L}};
+        for (int i = 0; i < 3; i++) {
+            chunk.append(timestamps[i], values[i]);
+        }
+
+        // When
+        GorillaChunk copy = chunk.copy();
+        chunk.append(5000L, new long[] {1L, 1L});
+        copy.append(timestamps[3], values[3]);
+
+        // Then
+        assertEquals(4, chunk.size());
+        assertPoints(copy, timestamps, values);
+    }
+
+    @Test
+    void getCompressedBytes_ShouldTakeFewBytesPerRegularHeapSample() {
+        // Given - 1s samples with jitter, a sawtooth heap and rarely changing sizes
+        Random random = new Random(7);
+        GorillaChunk chunk = new GorillaChunk(5);
+        long[] values = {64L << 20, 256L << 20, 4L << 30, 80L << 20, 96L << 20};
+        long timestamp = 1_700_000_000_000L;
+        int points = 3600;
+        for (int i = 0; i < points; i++) {
+            timestamp += 1000 + (random.nextInt(10) == 0 ? random.nextInt(5) - 2 : 0);
+            values[0] = i % 60 == 0 ? 64L << 20 : values[0] + (random.nextInt(512) << 10);
+            values[3] += i % 100 == 0 ? 4096 : 0;
+
+            // When
+            chunk.append(timestamp, values);
+        }
+
+        // Then - raw storage takes 48 bytes per sample
+        double bytesPerPoint = (double) chunk.getCompressedBytes() / points;
+        assertTrue(bytesPerPoint < 5.0, "Expected a few bytes per sample, got " + bytesPerPoint);
+    }
+
+}
@@ -0,0 +1,180 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.jvsnr.memory_monitoring_tool.dto.HeapClassSummaryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.LeakSuspectDTO;
+import com.jvsnr.memory_monitoring_tool.store.MappedArrays.IntArray;
+import com.jvsnr.memory_monitoring_tool.store.MappedArrays.LongArray;
+
+class HeapGraphTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Build a graph of objects 0..n-1 plus the root n from adjacency lists, the root's last.
+     */
+    private HeapGraph graph(int[] classes, long[] shallowSizes, String[] classNames, int[]... adjacency)
+            throws IOException {
+        MappedArrays arrays = new MappedArrays(directory);
+        int n = classes.length;
+        LongArray edgeStarts = arrays.longs(n + 2);
+        long total = 0;
+        for (int v = 0; v <= n; v++) {
+            edgeStarts.set(v, total);
+            total += adjacency[v].length;
+        }
+        edgeStarts.set(n + 1, total);
+        IntArray edges = arrays.ints(total);
+        for (int v = 0; v <= n; v++) {
+            for (int i = 0; i < adjacency[v].length; i++) {
+                edges.set(edgeStarts.get(v) + i, adjacency[v][i]);
+            }
+        }
+        LongArray ids = arrays.longs(n);
+        IntArray classArray = arrays.ints(n);
+        IntArray shallowArray = arrays.ints(n);
+        for (int v = 0; v < n; v++) {
+            ids.set(v, 100 + v);
+            classArray.set(v, classes[v]);
+            shallowArray.set(v, (int) shallowSizes[v]);
+        }
+        return new HeapGraph(arrays, ids, arrays.bytes(n), classArray, shallowArray, classNames, edgeStarts, edges);
+    }
+
+    @Test
+    void computeDominators_ShouldMatchTheLengauerTarjanExample() throws IOException {
+        // Given - the example graph of Lengauer and Tarjan, A..L are 0..11 and R is the root 12
+        int a = 0, b = 1, c = 2, d = 3, e = 4, f = 5, g = 6, h = 7, i = 8, j = 9, k = 10, l = 11, r = 12;
+        long[] shallow = new long[12];
+        Arrays.fill(shallow, 1L);
+        HeapGraph graph = graph(new int[12], shallow, new String[] { "X" },
+            new int[] { d }, new int[] { a, d, e }, new int[] { f, g }, new int[] { l }, new int[] { h },
+            new int[] { i }, new int[] { i, j }, new int[] { e, k }, new int[] { k }, new int[] { i },
+            new int[] { i, r }, new int[] { h }, new int[] { a, b, c });
+
+        // When
+        graph.computeDominators();
+
+        // Then
+        int[] expected = { r, r, r, r, r, c, c, r, r, g, r, d };
+        for (int v = 0; v < 12; v++) {
+            assertEquals(expected[v], graph.getImmediateDominator(v), "idom of " + (char) ('A' + v));
+        }
+        assertEquals(12, graph.getReachableObjectCount());
+        assertEquals(12L, graph.getReachableSize());
+        assertEquals(4L, graph.getRetainedSize(c));
+        assertEquals(2L, graph.getRetainedSize(d));
+        assertEquals(2L, graph.getRetainedSize(g));
+        assertEquals(1L, graph.getRetainedSize(i));
+    }
+
+    @Test
+    void computeDominators_ShouldIgnoreUnreachableObjectsAndUnknownReferences() throws IOException {
+        // Given - 0 -> 1 -> unknown, 2 is garbage referencing 1
+        HeapGraph graph = graph(new int[3], new long[] { 10L, 20L, 30L }, new String[] { "X" },
+            new int[] { 1 }, new int[] { -1 }, new int[] { 1 }, new int[] { 0 });
+
+        // When
+        graph.computeDominators();
+
+        // Then
+        assertEquals(2, graph.getReachableObjectCount());
+        assertEquals(-1, graph.getImmediateDominator(2));
+        assertEquals(0, graph.getImmediateDominator(1));
+        assertEquals(30L, graph.getRetainedSize(0));
+        assertEquals(30L, graph.getReachableSize());
+    }
+
+    @Test
+    void computeDominators_ShouldHandleLongChains() throws IOException {
+        // Given - a linked list of a million nodes, far deeper than any call stack
+        int n = 1_000_000;
+        int[][] adjacency = new int[n + 1][];
+        for (int v = 0; v < n; v++) {
+            adjacency[v] = v + 1 < n ? new int[] { v + 1 } : new int[0];
+        }
+        adjacency[n] = new int[] { 0 };
+        long[] shallow = new long[n];
+        Arrays.fill(shallow, 8L);
+
+        // When
+        HeapGraph graph = graph(new int[n], shallow, new String[] { "Node" }, adjacency);
+        graph.computeDominators();
+
+        // Then
+        assertEquals(8L * n, graph.getRetainedSize(0));
+        assertEquals(n - 2, graph.getImmediateDominator(n - 1));
+    }
+
+    @Test
+    void getClassSummary_ShouldNotCountNestedInstancesOfTheSameClassTwice() throws IOException {
+        // Given - a list of three nodes (class 0) holding one payload each (class 1)
+        HeapGraph graph = graph(new int[] { 0, 0, 0, 1, 1, 1 }, new long[] { 16, 16, 16, 100, 100, 100 },
+            new String[] { "Node", "byte[]" },
+            new int[] { 1, 3 }, new int[] { 2, 4 }, new int[] { 5 }, new int[0], new int[0], new int[0],
+            new int[] { 0 });
+        graph.computeDominators();
+
+        // When
+        List<HeapClassSummaryDTO> summary = graph.getClassSummary(10);
+
+        // Then
+        assertEquals(2, summary.size());
+        assertEquals("Node", summary.get(0).getClassName());
+        assertEquals(3, summary.get(0).getInstances());
+        assertEquals(48L, summary.get(0).getShallowSize());
+        assertEquals(348L, summary.get(0).getRetainedSize());
+        assertEquals("byte[]", summary.get(1).getClassName());
+        assertEquals(300L, summary.get(1).getRetainedSize());
+        assertEquals(1, graph.getClassSummary(1).size());
+    }
+
+    @Test
+    void getLeakSuspects_ShouldReportTheAccumulationPointWithItsPath() throws IOException {
+        // Given - holder -> list -> array -> 50 small entries, next to a small unrelated object
+        int entries = 50;
+        int n = 4 + entries;
+        int[] classes = new int[n];
+        long[] shallow = new long[n];
+        int[][] adjacency = new int[n + 1][];
+        classes[0] = 0; shallow[0] = 16; adjacency[0] = new int[] { 1 };
+        classes[1] = 1; shallow[1] = 24; adjacency[1] = new int[] { 2 };
+        classes[2] = 2; shallow[2] = 416; adjacency[2] = new int[entries];
+        classes[3] = 3; shallow[3] = 100; adjacency[3] = new int[0];
+        for (int v = 4; v < n; v++) {
+            classes[v] = 3;
+            shallow[v] = 32;
+            adjacency[2][v - 4] = v;
+            adjacency[v] = new int[0];
+        }
+        adjacency[n] = new int[] { 0, 3 };
+        HeapGraph graph = graph(classes, shallow, new String[] { "Holder", "java.util.ArrayList",
+            "java.lang.Object[]", "Entry" }, adjacency);
+        graph.computeDominators();
+
+        // When
+        List<LeakSuspectDTO> suspects = graph.getLeakSuspects(0.5);
+
+        // Then
+        assertEquals(1, suspects.size());
+        LeakSuspectDTO suspect = suspects.get(0);
+        assertEquals(102L, suspect.getObjectId());
+        assertEquals("java.lang.Object[]", suspect.getClassName());
+        assertEquals(416L + 32L * entries, suspect.getRetainedSize());
+        assertEquals(entries + 1, suspect.getDominatedObjects());
+        assertEquals(List.of("Holder", "java.util.ArrayList", "java.lang.Object[]"), suspect.getDominatorPath());
+        assertTrue(suspect.getRetainedPercentage() > 90);
+    }
+
+}
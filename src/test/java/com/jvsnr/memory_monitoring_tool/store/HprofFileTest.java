@@ -0,0 +1,195 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.jvsnr.memory_monitoring_tool.dto.HeapClassSummaryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.LeakSuspectDTO;
+
+class HprofFileTest {
+
+    private static final long OBJECT_CLASS = 0x100L;
+    private static final long HOLDER_CLASS = 0x200L;
+    private static final long NODE_CLASS = 0x300L;
+    private static final long ARRAY_CLASS = 0x400L;
+    private static final long SUB_CLASS = 0x500L;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Holder.static -> Object[] { node1, node2 }; a frame root -> sub -> node1 -> node2.
+     * node1 holds a byte[1000], node2 a byte[100] and a reference missing from the dump,
+     * sub an int[10]; one more node is garbage. The sub class is dumped in the second segment.
+     */
+    private Path writeDump(int idSize) throws IOException {
+        return HprofTestFiles.builder(idSize)
+            .loadClass(OBJECT_CLASS, "java/lang/Object")
+            .loadClass(HOLDER_CLASS, "com/example/Holder")
+            .loadClass(NODE_CLASS, "com/example/Node")
+            .loadClass(ARRAY_CLASS, "[Ljava/lang/Object;")
+            .loadClass(SUB_CLASS, "com/example/Sub")
+            .classDump(OBJECT_CLASS, 0, 0, new long[0])
+            .classDump(HOLDER_CLASS, OBJECT_CLASS, 0, new long[] { 0x1000L })
+            .classDump(NODE_CLASS, OBJECT_CLASS, 0, new long[0],
+                HprofTestFiles.OBJECT, HprofTestFiles.OBJECT, HprofTestFiles.INT)
+            .classDump(ARRAY_CLASS, OBJECT_CLASS, 0, new long[0])
+            .root(HprofFile.ROOT_STICKY_CLASS, OBJECT_CLASS)
+            .objectArray(0x1000L, ARRAY_CLASS, 0x2000L, 0x2100L, 0L)
+            .instance(0x2000L, NODE_CLASS, 0x2100L, 0x3000L, 1)
+            .instance(0x2100L, NODE_CLASS, 0x9999L, 0x3100L, 2)
+            .primitiveArray(0x3000L, HprofTestFiles.BYTE, 1000)
+            .segment()
+            .classDump(SUB_CLASS, NODE_CLASS, 0, new long[0], HprofTestFiles.LONG, HprofTestFiles.OBJECT)
+            .primitiveArray(0x3100L, HprofTestFiles.BYTE, 100)
+            .primitiveArray(0x3200L, HprofTestFiles.INT, 10)
+            .instance(0x4000L, SUB_CLASS, 5, 0x3200L, 0x2000L, 0L, 3)
+            .instance(0x5000L, NODE_CLASS, 0x2000L, 0L, 4)
+            .root(HprofFile.ROOT_JAVA_FRAME, 0x4000L)
+            .root(HprofFile.ROOT_THREAD_OBJECT, 0x4000L)
+            .write(directory.resolve("test-" + idSize + ".hprof"));
+    }
+
+    @Test
+    void readHeapGraph_ShouldResolveReferencesAcrossSegmentsAndSuperClasses() throws IOException {
+        // Given
+        HprofFile hprof = HprofFile.open(writeDump(8));
+
+        // When
+        HeapGraph graph = hprof.readHeapGraph();
+        graph.computeDominators();
+
+        // Then
+        assertEquals(8, hprof.getIdSize());
+        assertEquals(1_700_000_000_000L, hprof.getTimestamp());
+        assertEquals(2, hprof.getSegmentCount());
+        assertEquals(13, graph.getObjectCount()); // 8 objects and 5 class objects
+        assertEquals(12, graph.getReachableObjectCount());
+
+        int array = graph.getNode(0x1000L);
+        int node1 = graph.getNode(0x2000L);
+        int node2 = graph.getNode(0x2100L);
+        int sub = graph.getNode(0x4000L);
+        int payload = graph.getNode(0x3000L);
+        assertEquals(graph.getNode(HOLDER_CLASS), graph.getImmediateDominator(array));
+        assertEquals(graph.getRoot(), graph.getImmediateDominator(node1));
+        assertEquals(graph.getRoot(), graph.getImmediateDominator(node2));
+        assertEquals(node1, graph.getImmediateDominator(payload));
+        assertEquals(sub, graph.getImmediateDominator(graph.getNode(0x3200L)));
+        assertEquals(-1, graph.getImmediateDominator(graph.getNode(0x5000L)));
+        assertEquals(-1, graph.getNode(0x9999L));
+
+        // Headers of two ids, fields and array elements as dumped, aligned to 8
+        assertEquals(48L, graph.getShallowSize(array));
+        assertEquals(40L, graph.getShallowSize(node1));
+        assertEquals(56L, graph.getShallowSize(sub));
+        assertEquals(1024L, graph.getShallowSize(payload));
+        assertEquals(1064L, graph.getRetainedSize(node1));
+        assertEquals(120L, graph.getRetainedSize(sub));
+        assertEquals(1392L + 128L, graph.getReachableSize());
+
+        assertEquals("com.example.Sub", graph.describe(sub));
+        assertEquals("java.lang.Object[]", graph.describe(array));
+        assertEquals("class com.example.Holder", graph.describe(graph.getNode(HOLDER_CLASS)));
+    }
+
+    @Test
+    void readHeapGraph_ShouldReportClassesAndLeakSuspects() throws IOException {
+        // Given
+        HeapGraph graph = HprofFile.open(writeDump(8)).readHeapGraph();
+        graph.computeDominators();
+
+        // When
+        List<HeapClassSummaryDTO> classes = graph.getClassSummary(100);
+        List<LeakSuspectDTO> suspects = graph.getLeakSuspects(0.5);
+
+        // Then
+        HeapClassSummaryDTO nodes = classes.get(0);
+        assertEquals("com.example.Node", nodes.getClassName());
+        assertEquals(2, nodes.getInstances()); // the garbage node is not counted
+        assertEquals(80L, nodes.getShallowSize());
+        assertEquals(1064L + 160L, nodes.getRetainedSize());
+        HeapClassSummaryDTO bytes = classes.get(1);
+        assertEquals("byte[]", bytes.getClassName());
+        assertEquals(2, bytes.getInstances());
+        assertEquals(1144L, bytes.getRetainedSize());
+        assertTrue(classes.stream().anyMatch(c -> c.getClassName().equals("java.lang.Class") && c.getInstances() == 5));
+
+        assertEquals(1, suspects.size());
+        assertEquals(0x3000L, suspects.get(0).getObjectId());
+        assertEquals(List.of("com.example.Node", "byte[]"), suspects.get(0).getDominatorPath());
+    }
+
+    @Test
+    void readHeapGraph_ShouldSupportFourByteIdentifiers() throws IOException {
+        // Given
+        HeapGraph graph = HprofFile.open(writeDump(4)).readHeapGraph();
+
+        // When
+        graph.computeDominators();
+
+        // Then
+        assertEquals(12, graph.getReachableObjectCount());
+        assertEquals(graph.getNode(0x2000L), graph.getImmediateDominator(graph.getNode(0x3000L)));
+        assertEquals(24L, graph.getShallowSize(graph.getNode(0x2000L))); // 8 + 12 bytes of fields
+    }
+
+    @Test
+    void open_ShouldRejectOtherFiles() throws IOException {
+        Path file = Files.write(directory.resolve("other.hprof"), "JAVA PROFILE 9\0xxxxxxxxxxxx".getBytes());
+        assertThrows(IOException.class, () -> HprofFile.open(file));
+        Path empty = Files.write(directory.resolve("empty.hprof"), new byte[0]);
+        assertThrows(IOException.class, () -> HprofFile.open(empty));
+    }
+
+    @Test
+    void readHeapGraph_ShouldRejectUnknownSubRecords() throws IOException {
+        // Given
+        Path file = HprofTestFiles.builder(8).root(0x42, 1L).write(directory.resolve("bad.hprof"));
+
+        // When/Then
+        HprofFile hprof = HprofFile.open(file);
+        assertThrows(IOException.class, hprof::readHeapGraph);
+    }
+
+    @Test
+    void readHeapGraph_WhenScratchSpaceTooSmall_ShouldRefuseAndLeaveNoTempFiles() throws IOException {
+        // Given - room for the objects but not for their dominator tree
+        HprofFile hprof = HprofFile.open(writeDump(8));
+        Path scratch = Files.createDirectory(directory.resolve("scratch"));
+        MappedArrays arrays = new MappedArrays(scratch) {
+            @Override
+            public long getUsableSpace() {
+                return 1000;
+            }
+        };
+
+        // When
+        IOException e = assertThrows(IOException.class, () -> hprof.readHeapGraph(arrays));
+
+        // Then
+        assertTrue(e.getMessage().startsWith("Not enough space"), e.getMessage());
+        try (Stream<Path> files = Files.list(scratch)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void toJavaName_ShouldConvertInternalNames() {
+        assertEquals("java.util.HashMap$Node", HprofFile.toJavaName("java/util/HashMap$Node"));
+        assertEquals("int[][]", HprofFile.toJavaName("[[I"));
+        assertEquals("java.lang.String[]", HprofFile.toJavaName("[Ljava/lang/String;"));
+        assertEquals("<unknown>", HprofFile.toJavaName(null));
+    }
+
+}
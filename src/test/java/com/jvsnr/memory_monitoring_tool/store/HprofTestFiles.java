@@ -0,0 +1,234 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes HPROF heap dumps in the layout of HotSpot for tests.
+ *
+ * Strings and classes are written first, then every heap dump segment. Instance field
+ * values are given in dump order: the fields of the class followed by those of its
+ * super classes.
+ */
+public final class HprofTestFiles {
+
+    public static final byte OBJECT = HprofFile.TYPE_OBJECT;
+    public static final byte INT = 10;
+    public static final byte LONG = HprofFile.TYPE_LONG;
+    public static final byte BYTE = 8;
+
+    private HprofTestFiles() {
+    }
+
+    public static Builder builder(int idSize) {
+        return new Builder(idSize);
+    }
+
+    public static final class Builder {
+
+        private final int idSize;
+        private final ByteArrayOutputStream records = new ByteArrayOutputStream();
+        private final List<ByteArrayOutputStream> segments = new ArrayList<>();
+        private final Map<Long, Long> superClasses = new HashMap<>();
+        private final Map<Long, byte[]> fieldTypes = new HashMap<>();
+        private long nextStringId = 0x7000_0000L;
+        private int classSerial;
+
+        private Builder(int idSize) {
+            this.idSize = idSize;
+            segments.add(new ByteArrayOutputStream());
+        }
+
+        /**
+         * Write the name of a class and its load class record.
+         */
+        public Builder loadClass(long classId, String internalName) throws IOException {
+            long nameId = nextStringId++;
+            byte[] name = internalName.getBytes(StandardCharsets.UTF_8);
+            DataOutputStream body = record(HprofFile.TAG_UTF8, idSize + name.length);
+            writeId(body, nameId);
+            body.write(name);
+
+            body = record(HprofFile.TAG_LOAD_CLASS, 8 + 2 * idSize);
+            body.writeInt(++classSerial);
+            writeId(body, classId);
+            body.writeInt(0);
+            writeId(body, nameId);
+            return this;
+        }
+
+        /**
+         * Dump a class with one int constant, one int static and the given object statics.
+         */
+        public Builder classDump(long classId, long superId, long loaderId, long[] staticReferences,
+                byte... instanceFieldTypes) throws IOException {
+            superClasses.put(classId, superId);
+            fieldTypes.put(classId, instanceFieldTypes);
+            DataOutputStream out = subRecord(HprofFile.CLASS_DUMP);
+            writeId(out, classId);
+            out.writeInt(0);
+            writeId(out, superId);
+            writeId(out, loaderId);
+            for (int i = 0; i < 4; i++) {
+                writeId(out, 0); // signers, protection domain, reserved
+            }
+            out.writeInt(0); // instance size
+
+            out.writeShort(1);
+            out.writeShort(7);
+            out.writeByte(INT);
+            out.writeInt(42);
+
+            out.writeShort(staticReferences.length + 1);
+            writeId(out, nextStringId++);
+            out.writeByte(INT);
+            out.writeInt(7);
+            for (long reference : staticReferences) {
+                writeId(out, nextStringId++);
+                out.writeByte(OBJECT);
+                writeId(out, reference);
+            }
+
+            out.writeShort(instanceFieldTypes.length);
+            for (byte type : instanceFieldTypes) {
+                writeId(out, nextStringId++);
+                out.writeByte(type);
+            }
+            return this;
+        }
+
+        public Builder instance(long id, long classId, long... fieldValues) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream data = new DataOutputStream(bytes);
+            int value = 0;
+            for (long c = classId; c != 0 && fieldTypes.containsKey(c); c = superClasses.get(c)) {
+                for (byte type : fieldTypes.get(c)) {
+                    writeValue(data, type, fieldValues[value++]);
+                }
+            }
+
+            DataOutputStream out = subRecord(HprofFile.INSTANCE_DUMP);
+            writeId(out, id);
+            out.writeInt(0);
+            writeId(out, classId);
+            out.writeInt(bytes.size());
+            out.write(bytes.toByteArray());
+            return this;
+        }
+
+        public Builder objectArray(long id, long arrayClassId, long... elements) throws IOException {
+            DataOutputStream out = subRecord(HprofFile.OBJECT_ARRAY_DUMP);
+            writeId(out, id);
+            out.writeInt(0);
+            out.writeInt(elements.length);
+            writeId(out, arrayClassId);
+            for (long element : elements) {
+                writeId(out, element);
+            }
+            return this;
+        }
+
+        public Builder primitiveArray(long id, byte type, int length) throws IOException {
+            DataOutputStream out = subRecord(HprofFile.PRIMITIVE_ARRAY_DUMP);
+            writeId(out, id);
+            out.writeInt(0);
+            out.writeInt(length);
+            out.writeByte(type);
+            for (int i = 0; i < length; i++) {
+                writeValue(out, type, i);
+            }
+            return this;
+        }
+
+        /**
+         * Write a GC root of the given sub record tag.
+         */
+        public Builder root(int tag, long id) throws IOException {
+            DataOutputStream out = subRecord(tag);
+            writeId(out, id);
+            switch (tag) {
+                case HprofFile.ROOT_JNI_GLOBAL -> writeId(out, 0);
+                case HprofFile.ROOT_JNI_LOCAL, HprofFile.ROOT_JAVA_FRAME, HprofFile.ROOT_THREAD_OBJECT -> {
+                    out.writeInt(1);
+                    out.writeInt(0);
+                }
+                case HprofFile.ROOT_NATIVE_STACK, HprofFile.ROOT_THREAD_BLOCK -> out.writeInt(1);
+                default -> { }
+            }
+            return this;
+        }
+
+        /**
+         * Start a new heap dump segment.
+         */
+        public Builder segment() {
+            segments.add(new ByteArrayOutputStream());
+            return this;
+        }
+
+        public Path write(Path file) throws IOException {
+            try (OutputStream stream = Files.newOutputStream(file)) {
+                DataOutputStream out = new DataOutputStream(stream);
+                out.write("JAVA PROFILE 1.0.2".getBytes(StandardCharsets.US_ASCII));
+                out.writeByte(0);
+                out.writeInt(idSize);
+                out.writeLong(1_700_000_000_000L);
+                out.write(records.toByteArray());
+                for (ByteArrayOutputStream segment : segments) {
+                    out.writeByte(HprofFile.TAG_HEAP_DUMP_SEGMENT);
+                    out.writeInt(0);
+                    out.writeInt(segment.size());
+                    out.write(segment.toByteArray());
+                }
+                out.writeByte(0x2C); // heap dump end
+                out.writeInt(0);
+                out.writeInt(0);
+                out.flush();
+            }
+            return file;
+        }
+
+        private DataOutputStream record(int tag, int length) throws IOException {
+            DataOutputStream out = new DataOutputStream(records);
+            out.writeByte(tag);
+            out.writeInt(0);
+            out.writeInt(length);
+            return out;
+        }
+
+        private DataOutputStream subRecord(int tag) throws IOException {
+            DataOutputStream out = new DataOutputStream(segments.get(segments.size() - 1));
+            out.writeByte(tag);
+            return out;
+        }
+
+        private void writeId(DataOutputStream out, long id) throws IOException {
+            if (idSize == 8) {
+                out.writeLong(id);
+            } else {
+                out.writeInt((int) id);
+            }
+        }
+
+        private void writeValue(DataOutputStream out, byte type, long value) throws IOException {
+            switch (type) {
+                case OBJECT -> writeId(out, value);
+                case INT -> out.writeInt((int) value);
+                case LONG -> out.writeLong(value);
+                case BYTE -> out.writeByte((int) value);
+                default -> throw new IllegalArgumentException("Unsupported type " + type);
+            }
+        }
+
+    }
+
+}
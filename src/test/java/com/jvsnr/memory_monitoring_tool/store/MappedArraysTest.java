@@ -0,0 +1,96 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.jvsnr.memory_monitoring_tool.store.MappedArrays.ByteArray;
+import com.jvsnr.memory_monitoring_tool.store.MappedArrays.IntArray;
+import com.jvsnr.memory_monitoring_tool.store.MappedArrays.LongArray;
+
+class MappedArraysTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void arrays_ShouldStartZeroedAndKeepTheirValuesWithoutTempFiles() throws IOException {
+        // Given
+        MappedArrays arrays = new MappedArrays(directory);
+
+        // When
+        IntArray ints = arrays.ints(1000);
+        LongArray longs = arrays.longs(1000);
+        ByteArray bytes = arrays.bytes(1000);
+        for (int i = 0; i < 1000; i += 2) {
+            ints.set(i, -i);
+            longs.set(i, Long.MAX_VALUE - i);
+            bytes.set(i, (byte) i);
+        }
+
+        // Then
+        assertEquals(0, ints.get(1));
+        assertEquals(-998, ints.get(998));
+        assertEquals(Long.MAX_VALUE - 4, longs.get(4));
+        assertEquals((byte) 200, bytes.get(200));
+        assertEquals(1000, longs.length());
+        assertEquals(0, arrays.ints(0).length());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void sort_ShouldOrderNegativeAndDuplicateValues() throws IOException {
+        // Given
+        MappedArrays arrays = new MappedArrays(directory);
+        long[] expected = new Random(42).longs(10_000).toArray();
+        expected[0] = Long.MIN_VALUE;
+        expected[1] = Long.MAX_VALUE;
+        expected[2] = expected[3] = -1L;
+        LongArray values = arrays.longs(expected.length);
+        for (int i = 0; i < expected.length; i++) {
+            values.set(i, expected[i]);
+        }
+
+        // When
+        MappedArrays.sort(values, arrays.longs(expected.length));
+
+        // Then
+        Arrays.sort(expected);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], values.get(i), "at " + i);
+        }
+        assertEquals(Arrays.binarySearch(expected, expected[777]), values.binarySearch(expected[777]));
+        assertEquals(Arrays.binarySearch(expected, 12345L), values.binarySearch(12345L));
+    }
+
+    @Test
+    void sort_WhenOnlyLowDigitsDiffer_ShouldOrderThem() throws IOException {
+        // Given - heap dump ids share their high bits
+        MappedArrays arrays = new MappedArrays(directory);
+        LongArray values = arrays.longs(4);
+        long[] ids = { 0x7f0000102L, 0x7f0000010L, 0x7f0000101L, 0x7f0000008L };
+        for (int i = 0; i < ids.length; i++) {
+            values.set(i, ids[i]);
+        }
+
+        // When
+        MappedArrays.sort(values, arrays.longs(4));
+
+        // Then
+        assertEquals(0x7f0000008L, values.get(0));
+        assertEquals(0x7f0000010L, values.get(1));
+        assertEquals(0x7f0000101L, values.get(2));
+        assertEquals(0x7f0000102L, values.get(3));
+    }
+
+}
@@ -0,0 +1,216 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.jvsnr.memory_monitoring_tool.dto.GcEventDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemoryHistoryDTO;
+import com.jvsnr.memory_monitoring_tool.dto.MemorySampleDTO;
+import com.jvsnr.memory_monitoring_tool.event.GcEvent;
+import com.jvsnr.memory_monitoring_tool.event.GcEventRingBuffer;
+
+class MappedSegmentStoreTest {
+
+    private static final int SEGMENT_SIZE = 8192;
+
+    @TempDir
+    Path directory;
+
+    private static MemorySampleDTO sample(long timestamp) {
+        return new MemorySampleDTO(timestamp, timestamp * 10, timestamp * 20, 1000000L, 30L, 40L, -1L);
+    }
+
+    @Test
+    void constructor_WhenSegmentTooSmall_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new MappedSegmentStore(directory, 128, 4));
+    }
+
+    @Test
+    void readMemorySamples_ShouldReturnSamplesInRange() throws IOException {
+        // Given
+        MappedSegmentStore store = new MappedSegmentStore(directory, SEGMENT_SIZE, 4);
+        for (long timestamp = 1; timestamp <= 10; timestamp++) {
+            store.appendMemorySample(sample(timestamp));
+        }
+
+        // When
+        MemoryHistoryDTO history = store.readMemorySamples(3L, 6L, 100);
+
+        // Then
+        assertArrayEquals(new long[] {3L, 4L, 5L, 6L}, history.getTimestamps());
+        assertArrayEquals(new long[] {30L, 40L, 50L, 60L}, history.getHeapMemoryUsed());
+        assertArrayEquals(new long[] {60L, 80L, 100L, 120L}, history.getHeapMemoryCommitted());
+        assertEquals(40L, history.getNonHeapMemoryCommitted()[0]);
+        assertEquals(2, store.readMemorySamples(0L, Long.MAX_VALUE, 2).getTimestamps().length);
+        store.close();
+    }
+
+    @Test
+    void appendMemorySample_WhenSegmentFull_ShouldRollAndEnforceRetention() throws IOException {
+        // Given - 63 byte records, so a little more than 120 samples fit into one segment
+        MappedSegmentStore store = new MappedSegmentStore(directory, SEGMENT_SIZE, 2);
+
+        // When
+        for (long timestamp = 1; timestamp <= 500; timestamp++) {
+            store.appendMemorySample(sample(timestamp));
+        }
+
+        // Then
+        List<MappedSegmentStore.SegmentInfo> segments = store.getSegments();
+        assertEquals(2, segments.size());
+        try (var files = Files.list(directory)) {
+            assertEquals(2L, files.count(), "Segments beyond the retention limit should be deleted");
+        }
+        assertEquals(500L, segments.get(1).getMaxTimestamp());
+        long[] timestamps = store.readMemorySamples(0L, Long.MAX_VALUE, 1000).getTimestamps();
+        assertEquals(segments.get(0).getMinTimestamp(), timestamps[0]);
+        assertEquals(500L, timestamps[timestamps.length - 1]);
+        store.close();
+    }
+
+    @Test
+    void constructor_WhenChunkMayNotFitIntoSegment_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new MappedSegmentStore(directory, SEGMENT_SIZE, 4, 1000));
+    }
+
+    @Test
+    void appendMemorySample_WithChunks_ShouldCompressAndReadPendingSamples() throws IOException {
+        // Given
+        MappedSegmentStore store = new MappedSegmentStore(directory, SEGMENT_SIZE, 4, 50);
+        for (long timestamp = 1; timestamp <= 120; timestamp++) {
+            store.appendMemorySample(sample(timestamp));
+        }
+
+        // When
+        MemoryHistoryDTO history = store.readMemorySamples(48L, 53L, 100);
+        MemoryHistoryDTO all = store.readMemorySamples(0L, Long.MAX_VALUE, 1000);
+
+        // Then - two chunk records are written, the last 20 samples are pending
+        MappedSegmentStore.SegmentInfo segment = store.getSegments().get(0);
+        assertEquals(2, segment.getRecordCount());
+        assertEquals(1L, segment.getMinTimestamp());
+        assertEquals(100L, segment.getMaxTimestamp());
+        assertTrue(segment.getWritePosition() < MappedSegmentStore.HEADER_SIZE + 100 * 61 / 4,
+            "Chunks should be far smaller than raw records: " + segment.getWritePosition());
+        assertArrayEquals(new long[] {48L, 49L, 50L, 51L, 52L, 53L}, history.getTimestamps());
+        assertArrayEquals(new long[] {480L, 490L, 500L, 510L, 520L, 530L}, history.getHeapMemoryUsed());
+        assertEquals(1060L, history.getHeapMemoryCommitted()[5]);
+        assertEquals(1000000L, history.getHeapMemoryMax()[5]);
+        assertEquals(120, all.getTimestamps().length);
+        assertEquals(120L, all.getTimestamps()[119]);
+        assertEquals(3, store.readMemorySamples(0L, Long.MAX_VALUE, 3).getTimestamps().length);
+        store.close();
+    }
+
+    @Test
+    void close_WithChunks_ShouldPersistPendingSamples() throws IOException {
+        // Given
+        MappedSegmentStore store = new MappedSegmentStore(directory, SEGMENT_SIZE, 4, 50);
+        for (long timestamp = 1; timestamp <= 70; timestamp++) {
+            store.appendMemorySample(sample(timestamp));
+        }
+        store.close();
+
+        // When
+        MappedSegmentStore reopened = new MappedSegmentStore(directory, SEGMENT_SIZE, 4, 50);
+        reopened.appendMemorySample(sample(71L));
+
+        // Then
+        assertEquals(2, reopened.getSegments().get(0).getRecordCount());
+        assertEquals(70L, reopened.getSegments().get(0).getMaxTimestamp());
+        MemoryHistoryDTO history = reopened.readMemorySamples(0L, Long.MAX_VALUE, 1000);
+        assertEquals(71, history.getTimestamps().length);
+        assertEquals(700L, history.getHeapMemoryUsed()[69]);
+        assertEquals(710L, history.getHeapMemoryUsed()[70]);
+        reopened.close();
+    }
+
+    @Test
+    void reopen_ShouldRebuildIndexFromHeadersAndKeepHistory() throws IOException {
+        // Given
+        MappedSegmentStore store = new MappedSegmentStore(directory, SEGMENT_SIZE, 4);
+        store.appendMemorySample(sample(1L));
+        store.appendMemorySample(sample(2L));
+        store.close();
+
+        // When
+        MappedSegmentStore reopened = new MappedSegmentStore(directory, SEGMENT_SIZE, 4);
+        reopened.appendMemorySample(sample(3L));
+
+        // Then
+        List<MappedSegmentStore.SegmentInfo> segments = reopened.getSegments();
+        assertEquals(2, segments.size(), "Every run should start a new segment");
+        assertEquals(2, segments.get(0).getRecordCount());
+        assertEquals(1L, segments.get(0).getMinTimestamp());
+        assertEquals(2L, segments.get(0).getMaxTimestamp());
+        assertArrayEquals(new long[] {1L, 2L, 3L}, reopened.readMemorySamples(0L, Long.MAX_VALUE, 10).getTimestamps());
+        reopened.close();
+    }
+
+    @Test
+    void reopen_ShouldIgnoreInvalidSegmentFiles() throws IOException {
+        // Given
+        Files.write(directory.resolve("segment-00000000000000000001.seg"), new byte[] {1, 2, 3});
+
+        // When
+        MappedSegmentStore store = new MappedSegmentStore(directory, SEGMENT_SIZE, 4);
+
+        // Then
+        assertTrue(store.getSegments().isEmpty());
+        store.close();
+    }
+
+    @Test
+    void readGcEvents_ShouldResolveNamesFromSegmentDictionary() throws IOException {
+        // Given
+        String[] poolNames = {"G1 Eden Space", "G1 Old Gen"};
+        GcEventRingBuffer buffer = new GcEventRingBuffer(4, poolNames.length);
+        long sequence = buffer.tryClaim();
+        buffer.setEvent(sequence, 0, 0, 1, 42L, 1000L, 12L);
+        buffer.setPoolUsage(sequence, 0, 500L, 0L);
+        buffer.publish(sequence);
+
+        MappedSegmentStore store = new MappedSegmentStore(directory, SEGMENT_SIZE, 4);
+        buffer.drain(new GcEvent(poolNames.length), event -> {
+            try {
+                store.appendGcEvent(event, "G1 Young Generation", "G1 Evacuation Pause", "end of minor GC", poolNames);
+                store.appendGcEvent(event, "G1 Young Generation", "G1 Evacuation Pause", "end of minor GC", poolNames);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        store.appendMemorySample(sample(1001L));
+        store.close();
+
+        // When
+        MappedSegmentStore reopened = new MappedSegmentStore(directory, SEGMENT_SIZE, 4);
+        List<GcEventDTO> events = reopened.readGcEvents(0L, Long.MAX_VALUE, 10);
+
+        // Then
+        assertEquals(2, events.size());
+        GcEventDTO event = events.get(1);
+        assertEquals(1000L, event.getStartTime());
+        assertEquals(42L, event.getGcId());
+        assertEquals(12L, event.getDuration());
+        assertEquals("G1 Young Generation", event.getCollectionName());
+        assertEquals("G1 Evacuation Pause", event.getCause());
+        assertEquals("end of minor GC", event.getAction());
+        assertEquals(500L, event.getMemoryUsedBeforeGc().get("G1 Eden Space"));
+        assertEquals(0L, event.getMemoryUsedAfterGc().get("G1 Eden Space"));
+        assertFalse(event.getMemoryUsedBeforeGc().containsKey("G1 Old Gen"), "Unreported pools should be skipped");
+        assertEquals(1, reopened.readMemorySamples(0L, Long.MAX_VALUE, 10).getTimestamps().length);
+        reopened.close();
+    }
+
+}
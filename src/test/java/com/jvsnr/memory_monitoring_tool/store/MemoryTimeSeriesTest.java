@@ -0,0 +1,129 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class MemoryTimeSeriesTest {
+
+    @Test
+    void constructor_ShouldRoundCapacityUpToPowerOfTwo() {
+        // When
+        MemoryTimeSeries series = new MemoryTimeSeries(1000);
+
+        // Then
+        assertEquals(1024, series.capacity());
+        assertTrue(series.isEmpty());
+    }
+
+    @Test
+    void constructor_WhenCapacityNotPositive_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new MemoryTimeSeries(0));
+    }
+
+    @Test
+    void append_ShouldExposeSamplesOldestFirst() {
+        // Given
+        MemoryTimeSeries series = new MemoryTimeSeries(4);
+
+        // When
+        series.append(1L, 10L, 20L, 30L, 40L, 50L);
+        series.append(2L, 11L, 21L, 31L, 41L, 51L);
+
+        // Then
+        assertEquals(2, series.size());
+        assertEquals(1L, series.getTimestamp(0));
+        assertEquals(11L, series.getHeapUsed(1));
+        assertEquals(21L, series.getHeapCommitted(1));
+        assertEquals(31L, series.getHeapMax(1));
+        assertEquals(41L, series.getNonHeapUsed(1));
+        assertEquals(51L, series.getNonHeapCommitted(1));
+    }
+
+    @Test
+    void append_WhenFull_ShouldOverwriteOldestSample() {
+        // Given
+        MemoryTimeSeries series = new MemoryTimeSeries(4);
+
+        // When
+        for (long i = 0; i < 6; i++) {
+            series.append(i, i * 10, 0L, 0L, 0L, 0L);
+        }
+
+        // Then
+        assertEquals(4, series.size());
+        assertEquals(6L, series.getAppendCount());
+        assertEquals(2L, series.getTimestamp(0));
+        assertEquals(50L, series.getHeapUsed(3));
+    }
+
+    @Test
+    void getHeapUsed_WhenIndexOutOfRange_ShouldThrow() {
+        // Given
+        MemoryTimeSeries series = new MemoryTimeSeries(4);
+        series.append(1L, 10L, 20L, 30L, 40L, 50L);
+
+        // When/Then
+        assertThrows(IndexOutOfBoundsException.class, () -> series.getHeapUsed(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> series.getHeapUsed(-1));
+    }
+
+    @Test
+    void copyLatest_ShouldCopyAtMostArrayLength() {
+        // Given
+        MemoryTimeSeries series = new MemoryTimeSeries(8);
+        for (long i = 0; i < 5; i++) {
+            series.append(i, i, i, i, i, i);
+        }
+        long[] timestamps = new long[3];
+        long[] heapUsed = new long[3];
+
+        // When
+        int copied = series.copyLatest(timestamps, heapUsed, new long[3], new long[3], new long[3], new long[3]);
+
+        // Then
+        assertEquals(3, copied);
+        assertEquals(2L, timestamps[0]);
+        assertEquals(4L, heapUsed[2]);
+    }
+
+    @Test
+    void copyLatest_WhileWriterAppends_ShouldReturnConsistentWindows() throws InterruptedException {
+        // Given - every column holds the timestamp so a torn copy would be visible
+        MemoryTimeSeries series = new MemoryTimeSeries(64);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            long i = 0;
+            while (running.get()) {
+                series.append(i, i, i, i, i, i);
+                i++;
+            }
+        });
+        writer.start();
+
+        try {
+            // When/Then
+            for (int round = 0; round < 10000; round++) {
+                long[] timestamps = new long[64];
+                long[] heapUsed = new long[64];
+                long[] nonHeapCommitted = new long[64];
+                int copied = series.copyLatest(timestamps, heapUsed, new long[64], new long[64], new long[64], nonHeapCommitted);
+                for (int i = 0; i < copied; i++) {
+                    assertEquals(timestamps[i], heapUsed[i]);
+                    assertEquals(timestamps[i], nonHeapCommitted[i]);
+                    if (i > 0) {
+                        assertEquals(timestamps[i - 1] + 1, timestamps[i]);
+                    }
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+
+}
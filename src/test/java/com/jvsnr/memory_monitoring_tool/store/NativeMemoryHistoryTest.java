@@ -0,0 +1,161 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.jvsnr.memory_monitoring_tool.dto.NativeMemoryDiffDTO;
+import com.jvsnr.memory_monitoring_tool.dto.NativeMemoryGrowthDTO;
+
+class NativeMemoryHistoryTest {
+
+    /**
+     * Format a summary like {@code VM.native_memory summary} of JDK 21, sizes in KB.
+     */
+    static String summary(long threadCommitted, long classCommitted) {
+        long totalCommitted = 96256 + classCommitted + threadCommitted + 8160;
+        return "\nNative Memory Tracking:\n\n"
+            + "(Omitting categories weighting less than 1KB)\n\n"
+            + "Total: reserved=2949343KB, committed=" + totalCommitted + "KB\n"
+            + "       malloc: 15767KB #51523\n"
+            + "       mmap:   reserved=2933576KB, committed=130596KB\n\n"
+            + "-                 Java Heap (reserved=1538048KB, committed=96256KB)\n"
+            + "                            (mmap: reserved=1538048KB, committed=96256KB) \n \n"
+            + "-                     Class (reserved=1048874KB, committed=" + classCommitted + "KB)\n"
+            + "                            (classes #3320)\n"
+            + "                            (malloc=298KB #8629) \n"
+            + "                            (  Metadata:   )\n"
+            + "                            (    reserved=65536KB, committed=11008KB)\n \n"
+            + "-                    Thread (reserved=12325KB, committed=" + threadCommitted + "KB)\n"
+            + "                            (thread #12)\n"
+            + "                            (stack: reserved=12288KB, committed=664KB)\n \n"
+            + "-                      Code (reserved=248040KB, committed=8160KB)\n"
+            + "                            (malloc=352KB #2823) \n \n"
+            + "-        Shared class space (reserved=16384KB, committed=12960KB, readonly=0KB)\n"
+            + "                            (mmap: reserved=16384KB, committed=12960KB) \n \n";
+    }
+
+    @Test
+    void record_ShouldParseTotalsAndCategoriesInBytes() {
+        // Given
+        NativeMemoryHistory history = new NativeMemoryHistory(4);
+
+        // When
+        int categories = history.record(summary(701, 1834), 1000L);
+
+        // Then
+        assertEquals(5, categories);
+        assertEquals(List.of("Java Heap", "Class", "Thread", "Code", "Shared class space"),
+            history.getCategoryNames());
+        assertEquals(2949343L * 1024, history.getTotalReserved(0));
+        assertEquals((96256L + 1834 + 701 + 8160) * 1024, history.getTotalCommitted(0));
+        int thread = history.getCategoryIndex("Thread");
+        assertEquals(12325L * 1024, history.getReserved(0, thread));
+        assertEquals(701L * 1024, history.getCommitted(0, thread));
+        assertEquals(12960L * 1024, history.getCommitted(0, history.getCategoryIndex("Shared class space")));
+        assertEquals(-1, history.getCategoryIndex("GC"));
+        assertEquals(1000L, history.getTimestamp(0));
+    }
+
+    @Test
+    void record_WithOtherScales_ShouldConvertToBytes() {
+        // Given
+        NativeMemoryHistory history = new NativeMemoryHistory(2);
+
+        // When
+        history.record("Total: reserved=3MB, committed=1GB\n- GC (reserved=512B, committed=2KB)\n", 1L);
+
+        // Then
+        assertEquals(3L << 20, history.getTotalReserved(0));
+        assertEquals(1L << 30, history.getTotalCommitted(0));
+        assertEquals(512L, history.getReserved(0, 0));
+        assertEquals(2048L, history.getCommitted(0, 0));
+    }
+
+    @Test
+    void record_WhenTrackingIsOff_ShouldThrow() {
+        NativeMemoryHistory history = new NativeMemoryHistory(2);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> history.record("Native memory tracking is not enabled\n", 1L));
+        assertEquals(0, history.size());
+    }
+
+    @Test
+    void diff_ShouldRankCategoriesByCommittedGrowth() {
+        // Given
+        NativeMemoryHistory history = new NativeMemoryHistory(4);
+        history.record(summary(700, 1800), 1000L);
+        history.record(summary(900, 1900), 2000L);
+        history.record(summary(5700, 2000), 3000L);
+
+        // When
+        NativeMemoryDiffDTO diff = history.diff(0, 2);
+
+        // Then
+        assertEquals(1000L, diff.getFrom());
+        assertEquals(3000L, diff.getTo());
+        assertEquals((5000L + 200) * 1024, diff.getCommittedGrowth());
+        assertEquals(0L, diff.getReservedGrowth());
+        NativeMemoryGrowthDTO first = diff.getCategories().get(0);
+        assertEquals("Thread", first.getCategory());
+        assertEquals(5000L * 1024, first.getCommittedGrowth());
+        assertEquals(5700L * 1024, first.getCommitted());
+        assertEquals("Class", diff.getCategories().get(1).getCategory());
+        assertEquals(5, diff.getCategories().size());
+    }
+
+    @Test
+    void diffFromBaseline_ShouldSurviveTheBaselineLeavingTheHistory() {
+        // Given
+        NativeMemoryHistory history = new NativeMemoryHistory(2);
+        assertFalse(history.hasBaseline());
+        assertThrows(IllegalStateException.class, () -> history.diffFromBaseline(0));
+        history.record(summary(700, 1800), 1000L);
+        history.setBaseline(0);
+
+        // When
+        history.record(summary(800, 1800), 2000L);
+        history.record(summary(1700, 1800), 3000L);
+        NativeMemoryDiffDTO diff = history.diffFromBaseline(history.size() - 1);
+
+        // Then
+        assertTrue(history.hasBaseline());
+        assertEquals(2, history.size());
+        assertEquals(1000L, diff.getFrom());
+        assertEquals(3000L, diff.getTo());
+        assertEquals("Thread", diff.getCategories().get(0).getCategory());
+        assertEquals(1000L * 1024, diff.getCategories().get(0).getCommittedGrowth());
+    }
+
+    @Test
+    void diff_WithCategoryAppearingLater_ShouldTreatItAsZeroBefore() {
+        // Given
+        NativeMemoryHistory history = new NativeMemoryHistory(4);
+        history.record("Total: reserved=10KB, committed=10KB\n- Code (reserved=10KB, committed=10KB)\n", 1L);
+        history.record("Total: reserved=30KB, committed=30KB\n- Code (reserved=10KB, committed=10KB)\n"
+            + "- Internal (reserved=20KB, committed=20KB)\n", 2L);
+
+        // When
+        NativeMemoryDiffDTO diff = history.diff(0, 1);
+
+        // Then
+        assertEquals("Internal", diff.getCategories().get(0).getCategory());
+        assertEquals(20L * 1024, diff.getCategories().get(0).getCommittedGrowth());
+        assertEquals(0L, history.getCommitted(0, history.getCategoryIndex("Internal")));
+    }
+
+    @Test
+    void getTimestamp_OutOfRange_ShouldThrow() {
+        NativeMemoryHistory history = new NativeMemoryHistory(2);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> history.getTimestamp(0));
+        assertThrows(IllegalArgumentException.class, () -> new NativeMemoryHistory(0));
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+class PauseHistogramTest {
+
+    @Test
+    void copyCumulative_ShouldReportPercentilesWithinPrecision() {
+        // Given
+        PauseHistogram histogram = new PauseHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.recordPause(i * 1000L); // 1ms .. 1000ms
+        }
+
+        // When
+        Histogram cumulative = histogram.copyCumulative();
+
+        // Then
+        assertEquals(1000L, cumulative.getTotalCount());
+        assertEquals(990_000.0, cumulative.getValueAtPercentile(99.0), 990_000 * 0.01);
+        assertEquals(1_000_000.0, cumulative.getMaxValue(), 1_000_000 * 0.01);
+    }
+
+    @Test
+    void takeInterval_ShouldResetIntervalButNotCumulative() {
+        // Given
+        PauseHistogram histogram = new PauseHistogram();
+        histogram.recordPause(5_000L);
+        histogram.recordPause(7_000L);
+
+        // When
+        Histogram first = histogram.takeInterval();
+        histogram.recordPause(9_000L);
+        Histogram second = histogram.takeInterval();
+
+        // Then
+        assertEquals(2L, first.getTotalCount());
+        assertEquals(1L, second.getTotalCount());
+        assertTrue(second.getStartTimeStamp() >= first.getStartTimeStamp());
+        assertEquals(3L, histogram.copyCumulative().getTotalCount());
+    }
+
+    @Test
+    void recordPause_ShouldClampOutOfRangeValues() {
+        // Given
+        PauseHistogram histogram = new PauseHistogram();
+
+        // When
+        histogram.recordPause(-5L);
+        histogram.recordPause(PauseHistogram.HIGHEST_TRACKABLE_MICROS * 2);
+
+        // Then
+        Histogram cumulative = histogram.copyCumulative();
+        assertEquals(2L, cumulative.getTotalCount());
+        assertEquals(0L, cumulative.getMinValue());
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PerfDataFileTest {
+
+    @TempDir
+    Path directory;
+
+    private static Map<String, Object> counters() {
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("sun.os.hrt.frequency", 1000000000L);
+        counters.put("sun.gc.collector.0.name", "G1 young collection pauses");
+        counters.put("sun.gc.collector.0.invocations", 42L);
+        return counters;
+    }
+
+    @Test
+    void open_ShouldIndexLongsAndStringsInEitherByteOrder() throws IOException {
+        for (ByteOrder order : new ByteOrder[] { ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN }) {
+            // Given
+            Path file = directory.resolve("1234-" + order);
+            PerfDataTestFiles.write(file, order, counters());
+
+            // When
+            PerfDataFile perfData = PerfDataFile.open(file);
+
+            // Then
+            assertTrue(perfData.isAccessible());
+            assertEquals(3, perfData.getEntryCount());
+            assertEquals(1000000000L, perfData.getLong("sun.os.hrt.frequency", 0L));
+            assertEquals(42L, perfData.getLong("sun.gc.collector.0.invocations", 0L));
+            assertEquals("G1 young collection pauses", perfData.getString("sun.gc.collector.0.name"));
+            assertEquals(-1, perfData.findLong("sun.gc.collector.0.name"));
+            assertNull(perfData.getString("sun.gc.collector.1.name"));
+            assertEquals(7L, perfData.getLong("missing", 7L));
+        }
+    }
+
+    @Test
+    void readLong_ShouldSeeUpdatesThroughTheMapping() throws IOException {
+        // Given
+        Path file = directory.resolve("1234");
+        PerfDataTestFiles.write(file, ByteOrder.LITTLE_ENDIAN, counters());
+        PerfDataFile perfData = PerfDataFile.open(file);
+        int invocations = perfData.findLong("sun.gc.collector.0.invocations");
+
+        // When
+        PerfDataTestFiles.update(file, ByteOrder.LITTLE_ENDIAN, "sun.gc.collector.0.invocations", 43L);
+
+        // Then
+        assertEquals(43L, perfData.readLong(invocations));
+    }
+
+    @Test
+    void refresh_WhenEntriesAppended_ShouldIndexOnlyNewEntries() throws IOException {
+        // Given
+        Path file = directory.resolve("1234");
+        Map<String, Object> counters = counters();
+        PerfDataTestFiles.write(file, ByteOrder.LITTLE_ENDIAN, counters);
+        PerfDataFile perfData = PerfDataFile.open(file);
+
+        // When
+        counters.put("sun.gc.collector.0.time", 5000000L);
+        PerfDataTestFiles.write(file, ByteOrder.LITTLE_ENDIAN, counters);
+
+        // Then
+        assertTrue(perfData.refresh());
+        assertFalse(perfData.refresh());
+        assertEquals(4, perfData.getEntryCount());
+        assertEquals(5000000L, perfData.getLong("sun.gc.collector.0.time", 0L));
+    }
+
+    @Test
+    void open_WhenNotPerfData_ShouldThrow() throws IOException {
+        // Given
+        Path file = directory.resolve("not-perf-data");
+        Files.write(file, new byte[64]);
+
+        // When/Then
+        assertThrows(IOException.class, () -> PerfDataFile.open(file));
+        assertThrows(IOException.class, () -> PerfDataFile.open(Files.write(directory.resolve("short"), new byte[4])));
+    }
+
+    @Test
+    void open_ShouldReadOwnJvmCounters() throws IOException {
+        // Given
+        Path file = Path.of(System.getProperty("java.io.tmpdir"), "hsperfdata_" + System.getProperty("user.name"),
+            Long.toString(ProcessHandle.current().pid()));
+        assumeTrue(Files.exists(file), "perf data disabled");
+
+        // When
+        PerfDataFile perfData = PerfDataFile.open(file);
+
+        // Then
+        assertTrue(perfData.getEntryCount() > 100);
+        assertEquals(ManagementFactory.getRuntimeMXBean().getStartTime(), perfData.getLong("sun.rt.createVmBeginTime", 0L), 1000L);
+        assertTrue(perfData.getLong("sun.os.hrt.frequency", 0L) > 0);
+        assertTrue(perfData.getString("sun.gc.collector.0.name").length() > 0);
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Writes perf data files in the layout of HotSpot for tests.
+ *
+ * Long values become long scalars, string values byte vectors.
+ */
+public final class PerfDataTestFiles {
+
+    private static final int PROLOGUE_SIZE = 32;
+
+    private PerfDataTestFiles() {
+    }
+
+    public static void write(Path file, ByteOrder order, Map<String, Object> counters) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(32 * 1024).order(order);
+        int position = PROLOGUE_SIZE;
+        for (Map.Entry<String, Object> counter : counters.entrySet()) {
+            position = writeEntry(buffer, position, counter.getKey(), counter.getValue());
+        }
+
+        buffer.order(ByteOrder.BIG_ENDIAN).putInt(0, PerfDataFile.MAGIC).order(order);
+        buffer.put(4, (byte) (order == ByteOrder.BIG_ENDIAN ? 0 : 1));
+        buffer.put(5, (byte) PerfDataFile.SUPPORTED_MAJOR_VERSION);
+        buffer.put(6, (byte) 0);
+        buffer.put(7, (byte) 1); // accessible
+        buffer.putInt(8, position);
+        buffer.putInt(12, 0);
+        buffer.putLong(16, 0L);
+        buffer.putInt(24, PROLOGUE_SIZE);
+        buffer.putInt(28, counters.size());
+        Files.write(file, buffer.array());
+    }
+
+    /**
+     * Overwrite the value of a long counter in place, like the JVM does.
+     */
+    public static void update(Path file, ByteOrder order, String name, long value) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(order);
+        int entry = buffer.getInt(24);
+        int entries = buffer.getInt(28);
+        for (int i = 0; i < entries; i++) {
+            int nameOffset = buffer.getInt(entry + 4);
+            byte[] entryName = name.getBytes(StandardCharsets.US_ASCII);
+            byte[] candidate = new byte[entryName.length];
+            buffer.get(entry + nameOffset, candidate);
+            if (Arrays.equals(candidate, entryName) && buffer.get(entry + nameOffset + entryName.length) == 0) {
+                buffer.putLong(entry + buffer.getInt(entry + 16), value);
+                Files.write(file, buffer.array());
+                return;
+            }
+            entry += buffer.getInt(entry);
+        }
+        throw new IllegalArgumentException("No counter " + name);
+    }
+
+    private static int writeEntry(ByteBuffer buffer, int entry, String name, Object value) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.US_ASCII);
+        int nameOffset = 20;
+        int dataOffset = align(nameOffset + nameBytes.length + 1);
+        byte[] data;
+        int vectorLength;
+        byte type;
+        if (value instanceof Long number) {
+            data = ByteBuffer.allocate(8).order(buffer.order()).putLong(number).array();
+            vectorLength = 0;
+            type = 'J';
+        } else {
+            byte[] text = value.toString().getBytes(StandardCharsets.UTF_8);
+            data = new byte[text.length + 1];
+            System.arraycopy(text, 0, data, 0, text.length);
+            vectorLength = data.length;
+            type = 'B';
+        }
+        int length = align(dataOffset + data.length);
+
+        buffer.putInt(entry, length);
+        buffer.putInt(entry + 4, nameOffset);
+        buffer.putInt(entry + 8, vectorLength);
+        buffer.put(entry + 12, type);
+        buffer.put(entry + 13, (byte) 0);
+        buffer.put(entry + 14, (byte) 1);
+        buffer.put(entry + 15, (byte) 3);
+        buffer.putInt(entry + 16, dataOffset);
+        buffer.put(entry + nameOffset, nameBytes);
+        buffer.put(entry + dataOffset, data);
+        return entry + length;
+    }
+
+    private static int align(int offset) {
+        return (offset + 7) & ~7;
+    }
+
+}
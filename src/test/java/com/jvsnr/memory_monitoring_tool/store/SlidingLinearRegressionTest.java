@@ -0,0 +1,110 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class SlidingLinearRegressionTest {
+
+    private static final long START = 1736180000000L;
+
+    @Test
+    void constructor_WhenCapacityTooSmall_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new SlidingLinearRegression(1));
+    }
+
+    @Test
+    void slope_WhenPointsOnALine_ShouldReturnBytesPerSecondWithFullConfidence() {
+        // Given
+        SlidingLinearRegression regression = new SlidingLinearRegression(10);
+
+        // When - 2048 bytes more every 2 seconds
+        for (int i = 0; i < 5; i++) {
+            regression.add(START + i * 2000L, 1000000L + i * 2048L);
+        }
+
+        // Then
+        assertEquals(5, regression.size());
+        assertEquals(1024.0, regression.slope(), 1e-6);
+        assertEquals(1.0, regression.confidence(), 1e-9);
+    }
+
+    @Test
+    void slope_WhenTooFewPoints_ShouldBeZero() {
+        // Given
+        SlidingLinearRegression regression = new SlidingLinearRegression(10);
+        regression.add(START, 1000L);
+
+        // Then
+        assertEquals(0.0, regression.slope());
+        assertEquals(0.0, regression.confidence());
+    }
+
+    @Test
+    void confidence_WhenValuesConstant_ShouldBeZero() {
+        // Given
+        SlidingLinearRegression regression = new SlidingLinearRegression(10);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            regression.add(START + i * 10000L, 1000000L);
+        }
+
+        // Then
+        assertEquals(0.0, regression.slope(), 1e-9);
+        assertEquals(0.0, regression.confidence());
+    }
+
+    @Test
+    void confidence_WhenValuesNoisy_ShouldBeLow() {
+        // Given
+        SlidingLinearRegression regression = new SlidingLinearRegression(10);
+        long[] values = {1000000L, 900000L, 1100000L, 1000000L, 1200000L};
+
+        // When
+        for (int i = 0; i < values.length; i++) {
+            regression.add(START + i * 10000L, values[i]);
+        }
+
+        // Then
+        assertTrue(regression.slope() > 0);
+        assertTrue(regression.confidence() < 0.5);
+    }
+
+    @Test
+    void add_WhenWindowFull_ShouldOnlyFitTheLatestPoints() {
+        // Given - a falling phase followed by a rising phase longer than the window
+        SlidingLinearRegression regression = new SlidingLinearRegression(4);
+        for (int i = 0; i < 4; i++) {
+            regression.add(START + i * 1000L, 5000000L - i * 100000L);
+        }
+
+        // When
+        for (int i = 4; i < 10; i++) {
+            regression.add(START + i * 1000L, 1000000L + i * 1000L);
+        }
+
+        // Then
+        assertEquals(4, regression.size());
+        assertEquals(1000.0, regression.slope(), 1e-6);
+        assertEquals(1.0, regression.confidence(), 1e-9);
+    }
+
+    @Test
+    void add_OverLongUptime_ShouldStayAccurate() {
+        // Given - a week of points every 10 seconds through a small window
+        SlidingLinearRegression regression = new SlidingLinearRegression(30);
+
+        // When - 10 bytes per second with a small sawtooth on top
+        for (int i = 0; i < 60480; i++) {
+            regression.add(START + i * 10000L, 2000000000L + i * 100L + (i % 2) * 16L);
+        }
+
+        // Then
+        assertEquals(10.0, regression.slope(), 0.1);
+        assertTrue(regression.confidence() > 0.99);
+    }
+
+}
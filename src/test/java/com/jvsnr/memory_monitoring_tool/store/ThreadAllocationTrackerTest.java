@@ -0,0 +1,172 @@
+package com.jvsnr.memory_monitoring_tool.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ThreadAllocationTrackerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private static void record(ThreadAllocationTracker tracker, long nanoTime, long... idsAndBytes) {
+        long[] ids = new long[idsAndBytes.length / 2];
+        long[] bytes = new long[idsAndBytes.length / 2];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = idsAndBytes[2 * i];
+            bytes[i] = idsAndBytes[2 * i + 1];
+        }
+        tracker.record(ids, bytes, ids.length, nanoTime);
+    }
+
+    @Test
+    void constructor_ShouldRejectNonPositiveWindow() {
+        assertThrows(IllegalArgumentException.class, () -> new ThreadAllocationTracker(0, 8));
+    }
+
+    @Test
+    void getRate_ShouldBeUnknownAfterTheFirstTick() {
+        // Given
+        ThreadAllocationTracker tracker = new ThreadAllocationTracker(5, 8);
+
+        // When
+        record(tracker, 0, 1L, 1000L);
+
+        // Then
+        assertEquals(1, tracker.size());
+        assertTrue(Double.isNaN(tracker.getRate(1L)));
+        assertEquals(0, tracker.top(10, new long[10], new double[10], new long[10]));
+    }
+
+    @Test
+    void getRate_ShouldAverageOverTheSlidingWindow() {
+        // Given
+        ThreadAllocationTracker tracker = new ThreadAllocationTracker(2, 8);
+
+        // When - 1000 B/s for two seconds, then 5000 B/s
+        record(tracker, 0, 7L, 0L);
+        record(tracker, SECOND, 7L, 1000L);
+        record(tracker, 2 * SECOND, 7L, 2000L);
+        record(tracker, 3 * SECOND, 7L, 7000L);
+
+        // Then - the window covers the last two intervals only
+        assertEquals(3000.0, tracker.getRate(7L), 1e-9);
+
+        // When
+        record(tracker, 4 * SECOND, 7L, 12000L);
+
+        // Then
+        assertEquals(5000.0, tracker.getRate(7L), 1e-9);
+    }
+
+    @Test
+    void getRate_ShouldStartAtTheFirstTickOfANewThread() {
+        // Given
+        ThreadAllocationTracker tracker = new ThreadAllocationTracker(10, 8);
+        record(tracker, 0, 1L, 0L);
+        record(tracker, SECOND, 1L, 100L);
+
+        // When - thread 2 starts with bytes allocated before it was first seen
+        record(tracker, 2 * SECOND, 1L, 200L, 2L, 50_000L);
+        record(tracker, 3 * SECOND, 1L, 300L, 2L, 52_000L);
+
+        // Then
+        assertEquals(100.0, tracker.getRate(1L), 1e-9);
+        assertEquals(2000.0, tracker.getRate(2L), 1e-9);
+    }
+
+    @Test
+    void record_ShouldForgetTerminatedThreadsAndSkipUnknownValues() {
+        // Given
+        ThreadAllocationTracker tracker = new ThreadAllocationTracker(3, 8);
+        record(tracker, 0, 1L, 0L, 2L, 0L, 3L, 0L);
+        record(tracker, SECOND, 1L, 10L, 2L, 20L, 3L, 30L);
+
+        // When - thread 2 terminated, thread 3 terminated between the two batch calls
+        record(tracker, 2 * SECOND, 1L, 20L, 3L, -1L);
+
+        // Then
+        assertEquals(1, tracker.size());
+        assertEquals(10.0, tracker.getRate(1L), 1e-9);
+        assertTrue(Double.isNaN(tracker.getRate(2L)));
+        assertTrue(Double.isNaN(tracker.getRate(3L)));
+    }
+
+    @Test
+    void top_ShouldReturnHighestRatesFirst() {
+        // Given
+        ThreadAllocationTracker tracker = new ThreadAllocationTracker(4, 8);
+        record(tracker, 0, 1L, 0L, 2L, 0L, 3L, 0L, 4L, 0L);
+        record(tracker, SECOND, 1L, 300L, 2L, 100L, 3L, 400L, 4L, 200L);
+
+        long[] ids = new long[3];
+        double[] rates = new double[3];
+        long[] allocated = new long[3];
+
+        // When
+        int count = tracker.top(3, ids, rates, allocated);
+
+        // Then
+        assertEquals(3, count);
+        assertEquals(3L, ids[0]);
+        assertEquals(1L, ids[1]);
+        assertEquals(4L, ids[2]);
+        assertEquals(400.0, rates[0], 1e-9);
+        assertEquals(200L, allocated[2]);
+    }
+
+    @Test
+    void record_ShouldMatchAReferenceModelThroughGrowthAndChurn() {
+        // Given - threads come and go, the table grows and shifts entries on removal
+        ThreadAllocationTracker tracker = new ThreadAllocationTracker(3, 2);
+        Random random = new Random(42);
+        Map<Long, Long> live = new HashMap<>();
+        Map<Long, long[]> history = new HashMap<>(); // bytes of the last ticks, newest last
+        long nextId = 1;
+
+        for (int tick = 0; tick < 200; tick++) {
+            // When
+            live.keySet().removeIf(id -> random.nextInt(10) == 0);
+            for (int i = random.nextInt(6); i > 0; i--) {
+                live.put(nextId++, 0L);
+            }
+            long[] ids = new long[live.size()];
+            long[] bytes = new long[live.size()];
+            int i = 0;
+            for (Map.Entry<Long, Long> thread : live.entrySet()) {
+                thread.setValue(thread.getValue() + random.nextInt(1_000_000));
+                ids[i] = thread.getKey();
+                bytes[i++] = thread.getValue();
+            }
+            tracker.record(ids, bytes, ids.length, tick * SECOND);
+
+            history.keySet().retainAll(live.keySet());
+            for (Map.Entry<Long, Long> thread : live.entrySet()) {
+                long[] ticks = history.computeIfAbsent(thread.getKey(), id -> new long[0]);
+                long[] next = new long[Math.min(ticks.length + 1, 4)];
+                System.arraycopy(ticks, ticks.length + 1 - next.length, next, 0, next.length - 1);
+                next[next.length - 1] = thread.getValue();
+                history.put(thread.getKey(), next);
+            }
+
+            // Then
+            assertEquals(live.size(), tracker.size());
+            for (Map.Entry<Long, long[]> thread : history.entrySet()) {
+                long[] ticks = thread.getValue();
+                if (ticks.length < 2) {
+                    assertTrue(Double.isNaN(tracker.getRate(thread.getKey())));
+                } else {
+                    double expected = (double) (ticks[ticks.length - 1] - ticks[0]) / (ticks.length - 1);
+                    assertEquals(expected, tracker.getRate(thread.getKey()), 1e-6);
+                }
+            }
+        }
+        assertEquals(200, tracker.getTickCount());
+    }
+
+}
@@ -105,6 +105,22 @@ public class MemoryUtilsTest {
         assertEquals(0L, nullifiedValue);
     }
 
+    @Test
+    void utilisation_WhenMaxDefined_ShouldReturnPercentage() {
+        // When
+        float utilisation = MemoryUtils.utilisation(256L, 1024L);
+
+        // Then
+        assertEquals(25.0f, utilisation);
+    }
+
+    @Test
+    void utilisation_WhenMaxUndefined_ShouldReturnZero() {
+        // When/Then
+        assertEquals(0.0f, MemoryUtils.utilisation(256L, -1L));
+        assertEquals(0.0f, MemoryUtils.utilisation(256L, 0L));
+    }
+
     @Test
     void formatTime_WhenZeroOrNegative_ShouldReturnZeroMs() {
         // Given